@@ -5,6 +5,9 @@
 CREATE SCHEMA IF NOT EXISTS public;
 
 -- Eliminar tablas si existen (en orden inverso de dependencias)
+DROP TABLE IF EXISTS idempotencia_movimientos CASCADE;
+DROP TABLE IF EXISTS saldos_diarios CASCADE;
+DROP TABLE IF EXISTS retiros_diarios CASCADE;
 DROP TABLE IF EXISTS movimientos CASCADE;
 DROP TABLE IF EXISTS cuentas CASCADE;
 DROP TABLE IF EXISTS clientes CASCADE;
@@ -27,6 +30,7 @@ CREATE TABLE clientes (
     cliente_id VARCHAR(50) NOT NULL UNIQUE,
     contrasena VARCHAR(255) NOT NULL,
     estado BOOLEAN NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
     CONSTRAINT fk_cliente_persona FOREIGN KEY (persona_id) REFERENCES personas(id) ON DELETE CASCADE
 );
 
@@ -39,8 +43,10 @@ CREATE TABLE cuentas (
     numero_cuenta VARCHAR(50) NOT NULL UNIQUE,
     tipo_cuenta VARCHAR(50) NOT NULL,
     saldo_inicial DECIMAL(15, 2) NOT NULL,
+    saldo_actual DECIMAL(15, 2) NOT NULL,
     estado BOOLEAN NOT NULL,
     cliente_id BIGINT NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
     CONSTRAINT fk_cuenta_cliente FOREIGN KEY (cliente_id) REFERENCES clientes(persona_id) ON DELETE CASCADE
 );
 
@@ -58,10 +64,47 @@ CREATE TABLE movimientos (
     CONSTRAINT fk_movimiento_cuenta FOREIGN KEY (cuenta_id) REFERENCES cuentas(id) ON DELETE CASCADE
 );
 
+-- La aplicación reserva identificadores de movimientos en bloques de 50 para insertar en lote
+ALTER SEQUENCE movimientos_id_seq INCREMENT BY 50;
+
+-- Crear tabla de acumulados diarios de retiro por cuenta
+CREATE TABLE retiros_diarios (
+    cuenta_id BIGINT NOT NULL,
+    fecha DATE NOT NULL,
+    total DECIMAL(15, 2) NOT NULL,
+    PRIMARY KEY (cuenta_id, fecha),
+    CONSTRAINT fk_retiro_diario_cuenta FOREIGN KEY (cuenta_id) REFERENCES cuentas(id) ON DELETE CASCADE
+);
+
+-- Crear tabla de saldos de cierre diarios por cuenta
+CREATE TABLE saldos_diarios (
+    cuenta_id BIGINT NOT NULL,
+    fecha DATE NOT NULL,
+    saldo_cierre DECIMAL(15, 2) NOT NULL,
+    creditos DECIMAL(15, 2) NOT NULL,
+    debitos DECIMAL(15, 2) NOT NULL,
+    cantidad_movimientos INTEGER NOT NULL,
+    PRIMARY KEY (cuenta_id, fecha),
+    CONSTRAINT fk_saldo_diario_cuenta FOREIGN KEY (cuenta_id) REFERENCES cuentas(id) ON DELETE CASCADE
+);
+
+-- Crear tabla de claves de idempotencia de movimientos
+CREATE TABLE idempotencia_movimientos (
+    clave VARCHAR(100) PRIMARY KEY,
+    movimiento_id BIGINT NOT NULL,
+    fecha_creacion TIMESTAMP NOT NULL,
+    huella VARCHAR(64),
+    fecha_expiracion TIMESTAMP NOT NULL,
+    CONSTRAINT fk_idempotencia_movimiento FOREIGN KEY (movimiento_id) REFERENCES movimientos(id) ON DELETE CASCADE
+);
+
 -- Crear índices para mejorar el rendimiento
-CREATE INDEX idx_movimientos_cuenta_id ON movimientos(cuenta_id);
+-- (cuenta_id, fecha, id) sirve las consultas por cuenta, por rango de fechas y la paginación por posición
+CREATE INDEX idx_movimientos_cuenta_fecha_id ON movimientos(cuenta_id, fecha, id);
 CREATE INDEX idx_movimientos_fecha ON movimientos(fecha);
 CREATE INDEX idx_cuentas_cliente_id ON cuentas(cliente_id);
+CREATE INDEX idx_personas_nombre_id ON personas(nombre, id);
+CREATE INDEX idx_idempotencia_expiracion ON idempotencia_movimientos(fecha_expiracion);
 
 -- Insertar datos de ejemplo
 
@@ -78,12 +121,12 @@ INSERT INTO clientes (persona_id, cliente_id, contrasena, estado) VALUES
 ((SELECT id FROM personas WHERE identificacion = '3456789012'), 'CLI003', '1245', true);
 
 -- Insertar cuentas
-INSERT INTO cuentas (numero_cuenta, tipo_cuenta, saldo_inicial, estado, cliente_id) VALUES
-('478758', 'Ahorro', 2000.00, true, (SELECT persona_id FROM clientes WHERE cliente_id = 'CLI001')),
-('225487', 'Corriente', 100.00, true, (SELECT persona_id FROM clientes WHERE cliente_id = 'CLI002')),
-('495878', 'Ahorros', 0.00, true, (SELECT persona_id FROM clientes WHERE cliente_id = 'CLI003')),
-('496825', 'Ahorros', 540.00, true, (SELECT persona_id FROM clientes WHERE cliente_id = 'CLI002')),
-('585545', 'Corriente', 1000.00, true, (SELECT persona_id FROM clientes WHERE cliente_id = 'CLI001'));
+INSERT INTO cuentas (numero_cuenta, tipo_cuenta, saldo_inicial, saldo_actual, estado, cliente_id) VALUES
+('478758', 'Ahorro', 2000.00, 1425.00, true, (SELECT persona_id FROM clientes WHERE cliente_id = 'CLI001')),
+('225487', 'Corriente', 100.00, 700.00, true, (SELECT persona_id FROM clientes WHERE cliente_id = 'CLI002')),
+('495878', 'Ahorros', 0.00, 150.00, true, (SELECT persona_id FROM clientes WHERE cliente_id = 'CLI003')),
+('496825', 'Ahorros', 540.00, 0.00, true, (SELECT persona_id FROM clientes WHERE cliente_id = 'CLI002')),
+('585545', 'Corriente', 1000.00, 1000.00, true, (SELECT persona_id FROM clientes WHERE cliente_id = 'CLI001'));
 
 -- Insertar movimientos de ejemplo
 INSERT INTO movimientos (fecha, tipo_movimiento, valor, saldo, cuenta_id) VALUES
@@ -92,8 +135,21 @@ INSERT INTO movimientos (fecha, tipo_movimiento, valor, saldo, cuenta_id) VALUES
 ('2022-02-09 09:15:00', 'Crédito', 150.00, 150.00, (SELECT id FROM cuentas WHERE numero_cuenta = '495878')),
 ('2022-02-08 16:45:00', 'Débito', -540.00, 0.00, (SELECT id FROM cuentas WHERE numero_cuenta = '496825'));
 
+-- Generar los saldos de cierre y totales diarios de los movimientos de ejemplo
+-- Solo 'Débito' cuenta como débito; cualquier otro tipo es crédito (TipoMovimiento.clasificar)
+INSERT INTO saldos_diarios (cuenta_id, fecha, saldo_cierre, creditos, debitos, cantidad_movimientos)
+SELECT d.cuenta_id, d.fecha, c.saldo_inicial + SUM(d.total) OVER (PARTITION BY d.cuenta_id ORDER BY d.fecha),
+       d.creditos, d.debitos, d.cantidad
+FROM (SELECT cuenta_id, CAST(fecha AS DATE) AS fecha, SUM(valor) AS total,
+             SUM(CASE WHEN tipo_movimiento = 'Débito' THEN 0 ELSE valor END) AS creditos,
+             SUM(CASE WHEN tipo_movimiento = 'Débito' THEN valor ELSE 0 END) AS debitos,
+             COUNT(*) AS cantidad
+      FROM movimientos GROUP BY cuenta_id, CAST(fecha AS DATE)) d
+JOIN cuentas c ON c.id = d.cuenta_id;
+
 -- Verificar datos insertados
 SELECT 'Personas insertadas: ' || COUNT(*) FROM personas;
 SELECT 'Clientes insertados: ' || COUNT(*) FROM clientes;
 SELECT 'Cuentas insertadas: ' || COUNT(*) FROM cuentas;
 SELECT 'Movimientos insertados: ' || COUNT(*) FROM movimientos;
+SELECT 'Saldos diarios generados: ' || COUNT(*) FROM saldos_diarios;
@@ -0,0 +1,151 @@
+-- Scripts incrementales para bases de datos existentes
+-- Base de datos: bancodb
+-- Ejecutar en orden las secciones que aún no se hayan aplicado.
+-- Las instalaciones nuevas deben usar BaseDatos.sql, que ya incluye estos cambios.
+
+-- ============================================
+-- Saldo actual materializado en cuentas
+-- ============================================
+
+ALTER TABLE cuentas ADD COLUMN IF NOT EXISTS saldo_actual DECIMAL(15, 2);
+
+-- Hasta ahora el saldo_inicial se sobrescribía con el saldo de cada movimiento.
+-- Se reconstruye desde el primer movimiento y el saldo actual se toma del último. Esto solo
+-- vale para esta migración: después, saldo_inicial puede editarse sin cambiar el saldo guardado
+-- en cada movimiento, y SaldoActualJob recalcula saldo_actual = saldo_inicial + SUM(valor).
+UPDATE cuentas c SET
+    saldo_inicial = COALESCE((SELECT m.saldo - m.valor FROM movimientos m WHERE m.cuenta_id = c.id
+                              ORDER BY m.fecha ASC, m.id ASC LIMIT 1), c.saldo_inicial),
+    saldo_actual = COALESCE((SELECT m.saldo FROM movimientos m WHERE m.cuenta_id = c.id
+                             ORDER BY m.fecha DESC, m.id DESC LIMIT 1), c.saldo_inicial);
+
+ALTER TABLE cuentas ALTER COLUMN saldo_actual SET NOT NULL;
+
+-- Verificación: no debe devolver filas
+SELECT c.id, c.saldo_actual, c.saldo_inicial + COALESCE(m.total, 0) AS esperado
+FROM cuentas c
+LEFT JOIN (SELECT cuenta_id, SUM(valor) AS total FROM movimientos GROUP BY cuenta_id) m ON m.cuenta_id = c.id
+WHERE c.saldo_actual <> c.saldo_inicial + COALESCE(m.total, 0);
+
+-- ============================================
+-- Acumulado diario de retiros por cuenta
+-- ============================================
+
+CREATE TABLE IF NOT EXISTS retiros_diarios (
+    cuenta_id BIGINT NOT NULL,
+    fecha DATE NOT NULL,
+    total DECIMAL(15, 2) NOT NULL,
+    PRIMARY KEY (cuenta_id, fecha),
+    CONSTRAINT fk_retiro_diario_cuenta FOREIGN KEY (cuenta_id) REFERENCES cuentas(id) ON DELETE CASCADE
+);
+
+-- Solo el día en curso participa en la validación del límite diario
+INSERT INTO retiros_diarios (cuenta_id, fecha, total)
+SELECT cuenta_id, CAST(fecha AS DATE), SUM(ABS(valor))
+FROM movimientos
+WHERE tipo_movimiento = 'Débito' AND fecha >= CURRENT_DATE
+GROUP BY cuenta_id, CAST(fecha AS DATE)
+ON CONFLICT (cuenta_id, fecha) DO NOTHING;
+
+-- ============================================
+-- Inserción en lote de movimientos
+-- ============================================
+
+-- La aplicación reserva identificadores de movimientos en bloques de 50 (allocationSize)
+ALTER SEQUENCE movimientos_id_seq INCREMENT BY 50;
+
+-- ============================================
+-- Claves de idempotencia de movimientos
+-- ============================================
+
+CREATE TABLE IF NOT EXISTS idempotencia_movimientos (
+    clave VARCHAR(100) PRIMARY KEY,
+    movimiento_id BIGINT NOT NULL,
+    fecha_creacion TIMESTAMP NOT NULL,
+    CONSTRAINT fk_idempotencia_movimiento FOREIGN KEY (movimiento_id) REFERENCES movimientos(id) ON DELETE CASCADE
+);
+
+-- ============================================
+-- Saldos de cierre diarios
+-- ============================================
+
+CREATE TABLE IF NOT EXISTS saldos_diarios (
+    cuenta_id BIGINT NOT NULL,
+    fecha DATE NOT NULL,
+    saldo_cierre DECIMAL(15, 2) NOT NULL,
+    PRIMARY KEY (cuenta_id, fecha),
+    CONSTRAINT fk_saldo_diario_cuenta FOREIGN KEY (cuenta_id) REFERENCES cuentas(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_movimientos_cuenta_fecha ON movimientos(cuenta_id, fecha);
+
+-- Generar los cierres del historial existente (equivale a app.saldos-diarios.reconstruir-al-iniciar)
+DELETE FROM saldos_diarios;
+INSERT INTO saldos_diarios (cuenta_id, fecha, saldo_cierre)
+SELECT d.cuenta_id, d.fecha, c.saldo_inicial + SUM(d.total) OVER (PARTITION BY d.cuenta_id ORDER BY d.fecha)
+FROM (SELECT cuenta_id, CAST(fecha AS DATE) AS fecha, SUM(valor) AS total
+      FROM movimientos GROUP BY cuenta_id, CAST(fecha AS DATE)) d
+JOIN cuentas c ON c.id = d.cuenta_id;
+
+-- ============================================
+-- Paginación por posición del historial de movimientos
+-- ============================================
+
+-- El índice compuesto cubre también las búsquedas solo por cuenta_id y por (cuenta_id, fecha)
+CREATE INDEX IF NOT EXISTS idx_movimientos_cuenta_fecha_id ON movimientos(cuenta_id, fecha, id);
+DROP INDEX IF EXISTS idx_movimientos_cuenta_fecha;
+DROP INDEX IF EXISTS idx_movimientos_cuenta_id;
+
+-- ============================================
+-- Listados por páginas de clientes y cuentas
+-- ============================================
+
+-- Orden por nombre (con id como desempate) sin ordenar toda la tabla personas
+CREATE INDEX IF NOT EXISTS idx_personas_nombre_id ON personas(nombre, id);
+
+-- ============================================
+-- Totales diarios de créditos y débitos por cuenta
+-- ============================================
+
+ALTER TABLE saldos_diarios ADD COLUMN IF NOT EXISTS creditos DECIMAL(15, 2) NOT NULL DEFAULT 0;
+ALTER TABLE saldos_diarios ADD COLUMN IF NOT EXISTS debitos DECIMAL(15, 2) NOT NULL DEFAULT 0;
+ALTER TABLE saldos_diarios ADD COLUMN IF NOT EXISTS cantidad_movimientos INTEGER NOT NULL DEFAULT 0;
+
+-- Calcular los totales del historial existente
+-- Solo 'Débito' cuenta como débito; cualquier otro tipo es crédito (TipoMovimiento.clasificar)
+UPDATE saldos_diarios s
+SET creditos = d.creditos, debitos = d.debitos, cantidad_movimientos = d.cantidad
+FROM (SELECT cuenta_id, CAST(fecha AS DATE) AS fecha,
+             SUM(CASE WHEN tipo_movimiento = 'Débito' THEN 0 ELSE valor END) AS creditos,
+             SUM(CASE WHEN tipo_movimiento = 'Débito' THEN valor ELSE 0 END) AS debitos,
+             COUNT(*) AS cantidad
+      FROM movimientos GROUP BY cuenta_id, CAST(fecha AS DATE)) d
+WHERE s.cuenta_id = d.cuenta_id AND s.fecha = d.fecha;
+
+ALTER TABLE saldos_diarios ALTER COLUMN creditos DROP DEFAULT;
+ALTER TABLE saldos_diarios ALTER COLUMN debitos DROP DEFAULT;
+ALTER TABLE saldos_diarios ALTER COLUMN cantidad_movimientos DROP DEFAULT;
+
+-- ============================================
+-- Versiones de clientes y cuentas (ETag de los listados y reportes)
+-- ============================================
+
+ALTER TABLE clientes ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE cuentas ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- ============================================
+-- Huella y expiración de las claves de idempotencia
+-- ============================================
+
+-- Huella (SHA-256) de la cuenta, tipo y valor de la solicitud original; las claves
+-- existentes quedan sin huella y se aceptan sin comparar
+ALTER TABLE idempotencia_movimientos ADD COLUMN IF NOT EXISTS huella VARCHAR(64);
+
+-- Las claves existentes vencen según la retención por defecto (app.idempotencia.retencion)
+ALTER TABLE idempotencia_movimientos ADD COLUMN IF NOT EXISTS fecha_expiracion TIMESTAMP;
+UPDATE idempotencia_movimientos SET fecha_expiracion = fecha_creacion + INTERVAL '24 hours'
+WHERE fecha_expiracion IS NULL;
+ALTER TABLE idempotencia_movimientos ALTER COLUMN fecha_expiracion SET NOT NULL;
+
+-- La purga periódica busca las claves vencidas por este índice
+CREATE INDEX IF NOT EXISTS idx_idempotencia_expiracion ON idempotencia_movimientos(fecha_expiracion);
@@ -0,0 +1,470 @@
+package ec.com.banco.proyectobancario.adapter.input.async;
+
+import ec.com.banco.proyectobancario.application.usecase.ReporteUseCase;
+import ec.com.banco.proyectobancario.domain.model.ReporteEstadoCuenta;
+import ec.com.banco.proyectobancario.infrastructure.concurrency.FabricaHilos;
+import ec.com.banco.proyectobancario.infrastructure.persistence.datasource.ConsultaPesada;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ciclo de estados de cuenta de fin de mes: genera el PDF del período para todos los clientes
+ * activos.
+ * Los clientes se leen por bloques en orden de id y sus reportes se reparten entre un número
+ * fijo de hilos. La cola hacia los hilos es corta, de modo que el siguiente bloque solo se lee
+ * cuando los hilos lo pueden tomar, y un límite aparte acota cuántos reportes consultan la base
+ * de datos a la vez mientras los demás hilos dibujan sus PDF. Al terminar cada bloque se guarda
+ * el avance en el directorio del período, junto con los clientes cuyo estado de cuenta falló; si
+ * el ciclo se interrumpe, al volver a solicitarlo reintenta primero esos clientes y continúa
+ * desde el último bloque terminado. Solo se aceptan meses ya cerrados, para que los estados de
+ * cuenta no omitan movimientos registrados después de generarlos.
+ * 
+ */
+@Component
+public class CicloEstadosCuenta implements SmartLifecycle {
+    
+    private static final Logger log = LoggerFactory.getLogger(CicloEstadosCuenta.class);
+    
+    private static final String ARCHIVO_PROGRESO = "progreso.properties";
+    private static final String CLIENTES_FALLIDOS = "clientesFallidos";
+    
+    private final ReporteUseCase reporteUseCase;
+    private final FabricaHilos fabricaHilos;
+    private final Path directorio;
+    private final int cantidadHilos;
+    private final int tamanoBloque;
+    private final Semaphore lecturas;
+    private final Counter generadosTotal;
+    private final Counter fallidosTotal;
+    private final AtomicBoolean ocupado = new AtomicBoolean();
+    private volatile EjecucionCiclo ejecucion;
+    private volatile Thread coordinador;
+    private volatile boolean activo;
+    
+    public CicloEstadosCuenta(ReporteUseCase reporteUseCase,
+                              FabricaHilos fabricaHilos,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.reportes.ciclo.hilos:4}") int cantidadHilos,
+                              @Value("${app.reportes.ciclo.lecturas-concurrentes:2}") int lecturasConcurrentes,
+                              @Value("${app.reportes.ciclo.tamano-bloque:100}") int tamanoBloque,
+                              @Value("${app.reportes.ciclo.directorio:${java.io.tmpdir}/banco-estados-cuenta}") Path directorio) {
+        if (cantidadHilos <= 0 || lecturasConcurrentes <= 0 || tamanoBloque <= 0) {
+            throw new IllegalArgumentException("Los hilos, lecturas y tamaño de bloque del ciclo deben ser mayores a cero");
+        }
+        this.reporteUseCase = reporteUseCase;
+        this.fabricaHilos = fabricaHilos;
+        this.cantidadHilos = cantidadHilos;
+        this.tamanoBloque = tamanoBloque;
+        this.directorio = directorio;
+        this.lecturas = new Semaphore(lecturasConcurrentes);
+        Gauge.builder("banco.reportes.ciclo.lecturas.disponibles", lecturas, Semaphore::availablePermits)
+                .description("Lecturas concurrentes del ciclo aún disponibles")
+                .register(meterRegistry);
+        Gauge.builder("banco.reportes.ciclo.lecturas.espera", lecturas, Semaphore::getQueueLength)
+                .description("Hilos del ciclo esperando turno para leer de la base de datos")
+                .register(meterRegistry);
+        this.generadosTotal = Counter.builder("banco.reportes.ciclo.estados")
+                .description("Estados de cuenta del ciclo de fin de mes")
+                .tag("resultado", "generado")
+                .register(meterRegistry);
+        this.fallidosTotal = Counter.builder("banco.reportes.ciclo.estados")
+                .description("Estados de cuenta del ciclo de fin de mes")
+                .tag("resultado", "fallido")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Inicia, o reanuda desde el último bloque terminado, el ciclo de un período. Al reanudar,
+     * o al volver a solicitar un ciclo terminado con fallos, primero se reintentan los clientes
+     * que fallaron. Si el ciclo del período ya está en curso devuelve su avance.
+     * 
+     * @param periodo Mes de los estados de cuenta
+     * @return Avance del ciclo
+     * @throws IllegalArgumentException si el período falta o no es un mes ya cerrado
+     * @throws RejectedExecutionException si se está generando el ciclo de otro período
+     */
+    public EjecucionCiclo iniciar(YearMonth periodo) {
+        if (periodo == null) {
+            throw new IllegalArgumentException("El período es obligatorio");
+        }
+        if (!periodo.isBefore(YearMonth.now())) {
+            throw new IllegalArgumentException("El período debe ser un mes ya cerrado");
+        }
+        if (!activo) {
+            throw new RejectedExecutionException("La generación de estados de cuenta no está disponible");
+        }
+        if (!ocupado.compareAndSet(false, true)) {
+            EjecucionCiclo actual = ejecucion;
+            if (actual != null && actual.getPeriodo().equals(periodo)) {
+                return actual;
+            }
+            throw new RejectedExecutionException("Ya se está generando otro ciclo de estados de cuenta, intente más tarde");
+        }
+        
+        EjecucionCiclo previa;
+        Set<Long> fallidosPrevios;
+        try {
+            previa = leerProgreso(periodo);
+            fallidosPrevios = leerClientesFallidos(periodo);
+            Files.createDirectories(carpeta(periodo));
+        } catch (IOException e) {
+            ocupado.set(false);
+            throw new UncheckedIOException("No se pudo preparar el directorio del ciclo " + periodo, e);
+        }
+        if (previa != null && previa.getEstado() == EstadoTrabajoReporte.LISTO && fallidosPrevios.isEmpty()) {
+            ejecucion = previa;
+            ocupado.set(false);
+            return previa;
+        }
+        
+        EjecucionCiclo inicial = new EjecucionCiclo(periodo, EstadoTrabajoReporte.EN_PROCESO,
+                previa != null ? previa.getGenerados() : 0, fallidosPrevios.size(),
+                previa != null ? previa.getUltimoClienteId() : null, 0, null);
+        ejecucion = inicial;
+        coordinador = fabricaHilos.iniciar("ciclo-estados-cuenta",
+                ConsultaPesada.envolver(() -> ejecutar(inicial, fallidosPrevios)));
+        return inicial;
+    }
+    
+    /**
+     * Obtiene el avance del ciclo de un período, en curso o de una ejecución anterior.
+     * 
+     * @param periodo Mes de los estados de cuenta
+     * @return Avance del ciclo
+     * @throws IllegalArgumentException si el ciclo del período no se ha ejecutado
+     */
+    public EjecucionCiclo obtener(YearMonth periodo) {
+        EjecucionCiclo actual = ejecucion;
+        if (actual != null && actual.getPeriodo().equals(periodo)) {
+            return actual;
+        }
+        
+        EjecucionCiclo previa;
+        try {
+            previa = leerProgreso(periodo);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el avance del ciclo " + periodo, e);
+        }
+        if (previa == null) {
+            throw new IllegalArgumentException("Ciclo de estados de cuenta no encontrado para el período: " + periodo);
+        }
+        return previa;
+    }
+    
+    @Override
+    public void start() {
+        activo = true;
+    }
+    
+    @Override
+    public void stop() {
+        // El bloque en curso queda sin terminar; al reanudar se vuelve a generar
+        activo = false;
+        Thread actual = coordinador;
+        if (actual != null) {
+            try {
+                actual.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return activo;
+    }
+    
+    @Override
+    public int getPhase() {
+        // Arranca antes y se detiene después del servidor web, igual que la contabilización asíncrona
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+    
+    private void ejecutar(EjecucionCiclo inicial, Set<Long> fallidosPrevios) {
+        YearMonth periodo = inicial.getPeriodo();
+        LocalDateTime fechaInicio = periodo.atDay(1).atStartOfDay();
+        LocalDateTime fechaFin = periodo.atEndOfMonth().atTime(LocalTime.MAX);
+        Path carpeta = carpeta(periodo);
+        
+        BlockingQueue<Pedido> pendientes = new ArrayBlockingQueue<>(cantidadHilos * 2);
+        AtomicBoolean sinPedidos = new AtomicBoolean();
+        AtomicLong generados = new AtomicLong(inicial.getGenerados());
+        // Clientes sin estado de cuenta hasta ahora: los reintentos exitosos salen del conjunto
+        Set<Long> fallidos = ConcurrentHashMap.newKeySet();
+        fallidos.addAll(fallidosPrevios);
+        List<Thread> generadores = new ArrayList<>();
+        for (int i = 0; i < cantidadHilos; i++) {
+            generadores.add(fabricaHilos.iniciar("ciclo-estados-cuenta-" + i, ConsultaPesada.envolver(() -> {
+                while (activo && !(sinPedidos.get() && pendientes.isEmpty())) {
+                    Pedido pedido;
+                    try {
+                        pedido = pendientes.poll(200, TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    if (pedido != null) {
+                        generar(pedido, fechaInicio, fechaFin, carpeta, generados, fallidos);
+                    }
+                }
+            })));
+        }
+        
+        long inicio = System.nanoTime();
+        long generadosAlInicio = inicial.getGenerados();
+        Long ultimoClienteId = inicial.getUltimoClienteId();
+        EstadoTrabajoReporte estado = EstadoTrabajoReporte.EN_PROCESO;
+        String error = null;
+        try {
+            if (!fallidosPrevios.isEmpty()) {
+                List<Long> reintentos = new ArrayList<>(new TreeSet<>(fallidosPrevios));
+                CountDownLatch terminados = new CountDownLatch(reintentos.size());
+                if (encolar(reintentos, terminados, pendientes) && esperar(terminados)) {
+                    ejecucion = new EjecucionCiclo(periodo, estado, generados.get(), fallidos.size(), ultimoClienteId,
+                            (generados.get() - generadosAlInicio) / segundosDesde(inicio), null);
+                    guardarProgreso(ejecucion, fallidos, false);
+                    log.info("Ciclo {}: {} clientes fallidos reintentados, {} siguen fallando",
+                            periodo, reintentos.size(), fallidos.size());
+                } else {
+                    estado = EstadoTrabajoReporte.FALLIDO;
+                    error = "Ciclo interrumpido; se reanuda desde el último bloque terminado al volver a solicitarlo";
+                }
+            }
+            
+            while (estado == EstadoTrabajoReporte.EN_PROCESO) {
+                List<Long> bloque = reporteUseCase.listarClientesParaEstadoCuenta(ultimoClienteId, tamanoBloque);
+                if (bloque.isEmpty()) {
+                    estado = EstadoTrabajoReporte.LISTO;
+                    break;
+                }
+                
+                CountDownLatch terminados = new CountDownLatch(bloque.size());
+                if (!encolar(bloque, terminados, pendientes) || !esperar(terminados)) {
+                    estado = EstadoTrabajoReporte.FALLIDO;
+                    error = "Ciclo interrumpido; se reanuda desde el último bloque terminado al volver a solicitarlo";
+                    break;
+                }
+                
+                ultimoClienteId = bloque.get(bloque.size() - 1);
+                double porSegundo = (generados.get() - generadosAlInicio) / segundosDesde(inicio);
+                ejecucion = new EjecucionCiclo(periodo, estado, generados.get(), fallidos.size(), ultimoClienteId,
+                        porSegundo, null);
+                guardarProgreso(ejecucion, fallidos, false);
+                log.info("Ciclo {}: bloque hasta el cliente {} terminado, {} generados, {} fallidos, {} estados/s",
+                        periodo, ultimoClienteId, generados.get(), fallidos.size(), String.format("%.1f", porSegundo));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Error en el ciclo de estados de cuenta {}", periodo, e);
+            estado = EstadoTrabajoReporte.FALLIDO;
+            error = "No se pudo completar el ciclo; se reanuda desde el último bloque terminado al volver a solicitarlo";
+        } finally {
+            sinPedidos.set(true);
+            for (Thread generador : generadores) {
+                try {
+                    generador.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        
+        ejecucion = new EjecucionCiclo(periodo, estado, generados.get(), fallidos.size(), ultimoClienteId,
+                (generados.get() - generadosAlInicio) / segundosDesde(inicio), error);
+        if (estado == EstadoTrabajoReporte.LISTO) {
+            try {
+                guardarProgreso(ejecucion, fallidos, true);
+            } catch (IOException e) {
+                log.warn("No se pudo marcar como terminado el ciclo {}", periodo, e);
+            }
+            log.info("Ciclo {} terminado: {} generados, {} fallidos, {} estados/s", periodo, generados.get(),
+                    fallidos.size(), String.format("%.1f", ejecucion.getEstadosPorSegundo()));
+        }
+        coordinador = null;
+        ocupado.set(false);
+    }
+    
+    private boolean encolar(List<Long> bloque, CountDownLatch terminados, BlockingQueue<Pedido> pendientes) {
+        for (Long clienteId : bloque) {
+            try {
+                // Espera a que los hilos liberen lugar: la lectura del siguiente bloque va al ritmo de la generación
+                while (!pendientes.offer(new Pedido(clienteId, terminados), 200, TimeUnit.MILLISECONDS)) {
+                    if (!activo) {
+                        return false;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private boolean esperar(CountDownLatch terminados) {
+        try {
+            while (!terminados.await(200, TimeUnit.MILLISECONDS)) {
+                if (!activo) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
+    private void generar(Pedido pedido, LocalDateTime fechaInicio, LocalDateTime fechaFin, Path carpeta,
+                         AtomicLong generados, Set<Long> fallidos) {
+        Path temporal = carpeta.resolve("estado-cuenta-" + pedido.clienteId() + ".tmp");
+        try {
+            ReporteEstadoCuenta reporte;
+            lecturas.acquire();
+            try {
+                reporte = reporteUseCase.generarReporteEstadoCuenta(pedido.clienteId(), fechaInicio, fechaFin);
+            } finally {
+                lecturas.release();
+            }
+            
+            try (OutputStream salida = Files.newOutputStream(temporal)) {
+                reporteUseCase.escribirReportePdf(reporte, salida);
+            }
+            Files.move(temporal, carpeta.resolve("estado-cuenta-" + pedido.clienteId() + ".pdf"),
+                    StandardCopyOption.ATOMIC_MOVE);
+            generados.incrementAndGet();
+            generadosTotal.increment();
+            fallidos.remove(pedido.clienteId());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fallidos.add(pedido.clienteId());
+            fallidosTotal.increment();
+        } catch (IOException | RuntimeException e) {
+            log.error("Error generando el estado de cuenta del cliente {}", pedido.clienteId(), e);
+            fallidos.add(pedido.clienteId());
+            fallidosTotal.increment();
+        } finally {
+            pedido.terminados().countDown();
+            try {
+                Files.deleteIfExists(temporal);
+            } catch (IOException e) {
+                log.warn("No se pudo eliminar el archivo temporal {}", temporal, e);
+            }
+        }
+    }
+    
+    private EjecucionCiclo leerProgreso(YearMonth periodo) throws IOException {
+        Properties progreso = leerArchivoProgreso(periodo);
+        if (progreso == null) {
+            return null;
+        }
+        boolean terminado = Boolean.parseBoolean(progreso.getProperty("terminado"));
+        return new EjecucionCiclo(periodo,
+                terminado ? EstadoTrabajoReporte.LISTO : EstadoTrabajoReporte.FALLIDO,
+                Long.parseLong(progreso.getProperty("generados", "0")),
+                Long.parseLong(progreso.getProperty("fallidos", "0")),
+                progreso.containsKey("ultimoClienteId") ? Long.valueOf(progreso.getProperty("ultimoClienteId")) : null,
+                0,
+                terminado ? null : "Ciclo interrumpido; se reanuda desde el último bloque terminado al volver a solicitarlo");
+    }
+    
+    /**
+     * Clientes cuyo estado de cuenta falló en las ejecuciones anteriores del período.
+     */
+    private Set<Long> leerClientesFallidos(YearMonth periodo) throws IOException {
+        Set<Long> clientes = new TreeSet<>();
+        Properties progreso = leerArchivoProgreso(periodo);
+        if (progreso == null || progreso.getProperty(CLIENTES_FALLIDOS, "").isBlank()) {
+            return clientes;
+        }
+        try {
+            for (String clienteId : progreso.getProperty(CLIENTES_FALLIDOS).split(",")) {
+                clientes.add(Long.valueOf(clienteId.trim()));
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("Clientes fallidos inválidos en el avance del ciclo " + periodo, e);
+        }
+        return clientes;
+    }
+    
+    private Properties leerArchivoProgreso(YearMonth periodo) throws IOException {
+        Path archivo = carpeta(periodo).resolve(ARCHIVO_PROGRESO);
+        if (!Files.exists(archivo)) {
+            return null;
+        }
+        
+        Properties progreso = new Properties();
+        try (Reader lector = Files.newBufferedReader(archivo)) {
+            progreso.load(lector);
+        }
+        return progreso;
+    }
+    
+    private void guardarProgreso(EjecucionCiclo avance, Set<Long> fallidos, boolean terminado) throws IOException {
+        Properties progreso = new Properties();
+        progreso.setProperty("generados", String.valueOf(avance.getGenerados()));
+        progreso.setProperty("fallidos", String.valueOf(avance.getFallidos()));
+        if (avance.getUltimoClienteId() != null) {
+            progreso.setProperty("ultimoClienteId", String.valueOf(avance.getUltimoClienteId()));
+        }
+        progreso.setProperty(CLIENTES_FALLIDOS, String.join(",",
+                new TreeSet<>(fallidos).stream().map(String::valueOf).toList()));
+        progreso.setProperty("terminado", String.valueOf(terminado));
+        
+        // Se escribe aparte y se reemplaza de una vez para no dejar un avance a medio escribir
+        Path carpeta = carpeta(avance.getPeriodo());
+        Path temporal = carpeta.resolve(ARCHIVO_PROGRESO + ".tmp");
+        try (Writer escritor = Files.newBufferedWriter(temporal)) {
+            progreso.store(escritor, "Avance del ciclo de estados de cuenta " + avance.getPeriodo());
+        }
+        Files.move(temporal, carpeta.resolve(ARCHIVO_PROGRESO), StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    private Path carpeta(YearMonth periodo) {
+        return directorio.resolve(periodo.toString());
+    }
+    
+    private static double segundosDesde(long inicio) {
+        return Math.max(System.nanoTime() - inicio, 1) / 1_000_000_000.0;
+    }
+    
+    /**
+     * Cliente a generar y el bloque al que pertenece.
+     */
+    private record Pedido(Long clienteId, CountDownLatch terminados) {
+    }
+}
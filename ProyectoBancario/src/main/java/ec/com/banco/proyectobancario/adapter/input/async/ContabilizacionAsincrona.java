@@ -0,0 +1,272 @@
+package ec.com.banco.proyectobancario.adapter.input.async;
+
+import ec.com.banco.proyectobancario.application.usecase.MovimientoUseCase;
+import ec.com.banco.proyectobancario.domain.model.Movimiento;
+import ec.com.banco.proyectobancario.domain.model.ResultadoMovimientoLote;
+import ec.com.banco.proyectobancario.infrastructure.concurrency.FabricaHilos;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Canal de contabilización asíncrona de movimientos.
+ * Las solicitudes se encolan en particiones acotadas según la cuenta, de modo que los
+ * movimientos de una misma cuenta se procesan en el orden recibido. Cada partición tiene
+ * un único consumidor que toma las solicitudes pendientes en micro-lotes y los registra con
+ * {@link MovimientoUseCase#crearMovimientosEnLote(List)}, que confirma en una sola
+ * transacción todos los movimientos de una cuenta. Las solicitudes con clave de idempotencia
+ * se registran una a una con {@link MovimientoUseCase#crearMovimiento(Movimiento, String)},
+ * sin alterar el orden de la partición.
+ * Las solicitudes pendientes se guardan aparte, sin límite de tamaño más allá de la capacidad
+ * de las colas, para que siempre puedan consultarse; el resultado de cada solicitud terminada
+ * se conserva en memoria durante el tiempo de retención.
+ * 
+ */
+@Component
+public class ContabilizacionAsincrona implements SmartLifecycle {
+    
+    private static final Logger log = LoggerFactory.getLogger(ContabilizacionAsincrona.class);
+    
+    private final MovimientoUseCase movimientoUseCase;
+    private final FabricaHilos fabricaHilos;
+    private final List<BlockingQueue<SolicitudMovimiento>> particiones;
+    private final Map<String, SolicitudMovimiento> pendientes = new ConcurrentHashMap<>();
+    private final Cache<String, SolicitudMovimiento> terminadas;
+    private final int tamanoLote;
+    private final Counter rechazadasPorCapacidad;
+    private final DistributionSummary tamanosLote;
+    private final List<Thread> consumidores = new ArrayList<>();
+    private volatile boolean activo;
+    
+    public ContabilizacionAsincrona(MovimientoUseCase movimientoUseCase,
+                                    FabricaHilos fabricaHilos,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.contabilizacion.asincrona.particiones:8}") int cantidadParticiones,
+                                    @Value("${app.contabilizacion.asincrona.capacidad:10000}") int capacidad,
+                                    @Value("${app.contabilizacion.asincrona.tamano-lote:500}") int tamanoLote,
+                                    @Value("${app.contabilizacion.asincrona.retencion:1h}") Duration retencion,
+                                    @Value("${app.contabilizacion.asincrona.max-solicitudes:1000000}") long maxSolicitudes) {
+        if (cantidadParticiones <= 0 || capacidad <= 0 || tamanoLote <= 0) {
+            throw new IllegalArgumentException("Las particiones, la capacidad y el tamaño de lote deben ser mayores a cero");
+        }
+        this.movimientoUseCase = movimientoUseCase;
+        this.fabricaHilos = fabricaHilos;
+        this.tamanoLote = tamanoLote;
+        this.particiones = new ArrayList<>(cantidadParticiones);
+        this.terminadas = Caffeine.newBuilder()
+                .maximumSize(maxSolicitudes)
+                .expireAfterWrite(retencion)
+                .build();
+        
+        for (int i = 0; i < cantidadParticiones; i++) {
+            BlockingQueue<SolicitudMovimiento> cola = new ArrayBlockingQueue<>(capacidad);
+            particiones.add(cola);
+            Gauge.builder("banco.contabilizacion.asincrona.cola", cola, BlockingQueue::size)
+                    .description("Solicitudes de movimiento en cola por partición")
+                    .tag("particion", String.valueOf(i))
+                    .register(meterRegistry);
+        }
+        this.rechazadasPorCapacidad = Counter.builder("banco.contabilizacion.asincrona.rechazadas")
+                .description("Solicitudes rechazadas por cola llena")
+                .register(meterRegistry);
+        this.tamanosLote = DistributionSummary.builder("banco.contabilizacion.asincrona.lote")
+                .description("Movimientos registrados por micro-lote")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Encola un movimiento para registrarlo en segundo plano.
+     * 
+     * @param movimiento Movimiento a registrar
+     * @param claveIdempotencia Clave de idempotencia enviada por el canal, o null
+     * @return Solicitud en estado pendiente con su identificador de seguimiento
+     * @throws IllegalArgumentException si el movimiento no indica la cuenta
+     * @throws RejectedExecutionException si la partición de la cuenta está llena
+     */
+    public SolicitudMovimiento encolar(Movimiento movimiento, String claveIdempotencia) {
+        if (movimiento.getCuentaId() == null) {
+            throw new IllegalArgumentException("El cuentaId es obligatorio");
+        }
+        if (!activo) {
+            throw new RejectedExecutionException("La contabilización asíncrona no está disponible");
+        }
+        
+        SolicitudMovimiento solicitud = new SolicitudMovimiento(
+                UUID.randomUUID().toString(), EstadoSolicitud.PENDIENTE, movimiento, null, claveIdempotencia);
+        pendientes.put(solicitud.getId(), solicitud);
+        
+        if (!particion(movimiento.getCuentaId()).offer(solicitud)) {
+            pendientes.remove(solicitud.getId());
+            rechazadasPorCapacidad.increment();
+            throw new RejectedExecutionException("La cola de movimientos está llena, intente nuevamente");
+        }
+        return solicitud;
+    }
+    
+    /**
+     * Obtiene el estado de una solicitud.
+     * 
+     * @param id Identificador de seguimiento
+     * @return Solicitud con su estado actual
+     * @throws IllegalArgumentException si la solicitud no existe o ya expiró
+     */
+    public SolicitudMovimiento obtenerSolicitud(String id) {
+        SolicitudMovimiento solicitud = pendientes.get(id);
+        if (solicitud == null) {
+            solicitud = terminadas.getIfPresent(id);
+        }
+        if (solicitud == null) {
+            throw new IllegalArgumentException("Solicitud no encontrada con id: " + id);
+        }
+        return solicitud;
+    }
+    
+    @Override
+    public void start() {
+        activo = true;
+        for (int i = 0; i < particiones.size(); i++) {
+            BlockingQueue<SolicitudMovimiento> cola = particiones.get(i);
+            consumidores.add(fabricaHilos.iniciar("contabilizacion-asincrona-" + i, () -> consumir(cola)));
+        }
+    }
+    
+    @Override
+    public void stop() {
+        // Se dejan de aceptar solicitudes y los consumidores vacían sus colas antes de terminar
+        activo = false;
+        for (Thread consumidor : consumidores) {
+            try {
+                consumidor.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        consumidores.clear();
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return activo;
+    }
+    
+    @Override
+    public int getPhase() {
+        // Arranca antes y se detiene después del servidor web, para no rechazar solicitudes en curso
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+    
+    private void consumir(BlockingQueue<SolicitudMovimiento> cola) {
+        List<SolicitudMovimiento> lote = new ArrayList<>(tamanoLote);
+        while (activo || !cola.isEmpty()) {
+            try {
+                SolicitudMovimiento primera = cola.poll(200, TimeUnit.MILLISECONDS);
+                if (primera == null) {
+                    continue;
+                }
+                lote.add(primera);
+                cola.drainTo(lote, tamanoLote - 1);
+                procesar(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Error procesando un lote de {} movimientos", lote.size(), e);
+                // Solo se rechazan las que el error dejó sin resultado
+                lote.stream()
+                        .filter(solicitud -> pendientes.containsKey(solicitud.getId()))
+                        .forEach(solicitud -> rechazar(solicitud, e.getMessage()));
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+    
+    /**
+     * Registra un lote en orden: los tramos de solicitudes sin clave se registran juntos y
+     * cada solicitud con clave por separado, para que el caso de uso aplique su idempotencia.
+     */
+    private void procesar(List<SolicitudMovimiento> lote) {
+        List<SolicitudMovimiento> tramo = new ArrayList<>(lote.size());
+        for (SolicitudMovimiento solicitud : lote) {
+            if (solicitud.getClaveIdempotencia() == null) {
+                tramo.add(solicitud);
+                continue;
+            }
+            procesarTramo(tramo);
+            procesarConClave(solicitud);
+        }
+        procesarTramo(tramo);
+        tamanosLote.record(lote.size());
+    }
+    
+    private void procesarTramo(List<SolicitudMovimiento> tramo) {
+        if (tramo.isEmpty()) {
+            return;
+        }
+        List<Movimiento> movimientos = new ArrayList<>(tramo.size());
+        tramo.forEach(solicitud -> movimientos.add(solicitud.getMovimiento()));
+        
+        try {
+            List<ResultadoMovimientoLote> resultados = movimientoUseCase.crearMovimientosEnLote(movimientos);
+            for (ResultadoMovimientoLote resultado : resultados) {
+                SolicitudMovimiento solicitud = tramo.get(resultado.getIndice());
+                if (resultado.isExitoso()) {
+                    terminar(solicitud, EstadoSolicitud.PROCESADA, resultado.getMovimiento(), null);
+                } else {
+                    rechazar(solicitud, resultado.getError());
+                }
+            }
+        } finally {
+            tramo.clear();
+        }
+    }
+    
+    private void procesarConClave(SolicitudMovimiento solicitud) {
+        try {
+            Movimiento registrado = movimientoUseCase.crearMovimiento(
+                    solicitud.getMovimiento(), solicitud.getClaveIdempotencia());
+            terminar(solicitud, EstadoSolicitud.PROCESADA, registrado, null);
+        } catch (RuntimeException e) {
+            rechazar(solicitud, e.getMessage());
+        }
+    }
+    
+    private void rechazar(SolicitudMovimiento solicitud, String error) {
+        terminar(solicitud, EstadoSolicitud.RECHAZADA, solicitud.getMovimiento(), error);
+    }
+    
+    private void terminar(SolicitudMovimiento solicitud, EstadoSolicitud estado, Movimiento movimiento, String error) {
+        // Se publica una instancia nueva para que las consultas nunca vean un estado a medias, y
+        // se guarda como terminada antes de dejar de estar pendiente para que nunca falte
+        terminadas.put(solicitud.getId(), new SolicitudMovimiento(
+                solicitud.getId(), estado, movimiento, error, solicitud.getClaveIdempotencia()));
+        pendientes.remove(solicitud.getId());
+    }
+    
+    private BlockingQueue<SolicitudMovimiento> particion(Long cuentaId) {
+        return particiones.get(Math.floorMod(Long.hashCode(cuentaId), particiones.size()));
+    }
+}
@@ -0,0 +1,48 @@
+package ec.com.banco.proyectobancario.adapter.input.async;
+
+import java.time.YearMonth;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Avance de la generación de los estados de cuenta de fin de mes de un período.
+ * 
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EjecucionCiclo {
+    
+    private YearMonth periodo;
+    
+    private EstadoTrabajoReporte estado;
+    
+    /**
+     * Estados de cuenta generados, incluidos los de ejecuciones anteriores del mismo período.
+     */
+    private long generados;
+    
+    /**
+     * Clientes cuyo estado de cuenta no se pudo generar.
+     */
+    private long fallidos;
+    
+    /**
+     * Último cliente del último bloque terminado; la generación se reanuda desde el siguiente.
+     */
+    private Long ultimoClienteId;
+    
+    /**
+     * Estados de cuenta generados por segundo en la ejecución actual.
+     */
+    private double estadosPorSegundo;
+    
+    /**
+     * Motivo de la interrupción o el fallo, si lo hubo.
+     */
+    private String error;
+}
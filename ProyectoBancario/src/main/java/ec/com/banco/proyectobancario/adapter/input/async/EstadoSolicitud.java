@@ -0,0 +1,23 @@
+package ec.com.banco.proyectobancario.adapter.input.async;
+
+/**
+ * Estados de una solicitud de movimiento recibida en modo asíncrono.
+ * 
+ */
+public enum EstadoSolicitud {
+    
+    /**
+     * En cola, aún no procesada.
+     */
+    PENDIENTE,
+    
+    /**
+     * Movimiento registrado.
+     */
+    PROCESADA,
+    
+    /**
+     * Movimiento rechazado por las reglas de negocio o por un error al registrarlo.
+     */
+    RECHAZADA
+}
@@ -0,0 +1,28 @@
+package ec.com.banco.proyectobancario.adapter.input.async;
+
+/**
+ * Estados de un trabajo de generación de reporte.
+ * 
+ */
+public enum EstadoTrabajoReporte {
+    
+    /**
+     * En cola, aún no iniciado.
+     */
+    PENDIENTE,
+    
+    /**
+     * Generándose.
+     */
+    EN_PROCESO,
+    
+    /**
+     * Documento generado y disponible para descarga.
+     */
+    LISTO,
+    
+    /**
+     * No se pudo generar el documento.
+     */
+    FALLIDO
+}
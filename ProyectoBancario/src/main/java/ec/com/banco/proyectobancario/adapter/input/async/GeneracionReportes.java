@@ -0,0 +1,283 @@
+package ec.com.banco.proyectobancario.adapter.input.async;
+
+import ec.com.banco.proyectobancario.application.usecase.ReporteUseCase;
+import ec.com.banco.proyectobancario.domain.model.ReporteEstadoCuenta;
+import ec.com.banco.proyectobancario.infrastructure.concurrency.FabricaHilos;
+import ec.com.banco.proyectobancario.infrastructure.persistence.datasource.ConsultaPesada;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generación de reportes PDF en segundo plano.
+ * Los trabajos se encolan en una cola acotada y los atiende un número fijo de hilos, de modo
+ * que los reportes de rangos grandes no ocupan los hilos que atienden las peticiones web.
+ * Cada documento se guarda en disco y se elimina, junto con su trabajo, al vencer el tiempo
+ * de retención.
+ * 
+ */
+@Component
+public class GeneracionReportes implements SmartLifecycle {
+    
+    private static final Logger log = LoggerFactory.getLogger(GeneracionReportes.class);
+    
+    private final ReporteUseCase reporteUseCase;
+    private final FabricaHilos fabricaHilos;
+    private final BlockingQueue<TrabajoReporte> cola;
+    private final Cache<String, TrabajoReporte> trabajos;
+    private final Path directorio;
+    private final int cantidadHilos;
+    private final Counter rechazadosPorCapacidad;
+    private final Timer duracion;
+    private final List<Thread> generadores = new ArrayList<>();
+    private final AtomicInteger enProceso = new AtomicInteger();
+    private volatile boolean activo;
+    
+    public GeneracionReportes(ReporteUseCase reporteUseCase,
+                              FabricaHilos fabricaHilos,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.reportes.trabajos.hilos:2}") int cantidadHilos,
+                              @Value("${app.reportes.trabajos.capacidad:100}") int capacidad,
+                              @Value("${app.reportes.trabajos.retencion:1h}") Duration retencion,
+                              @Value("${app.reportes.trabajos.max-trabajos:10000}") long maxTrabajos,
+                              @Value("${app.reportes.trabajos.directorio:${java.io.tmpdir}/banco-reportes}") Path directorio) {
+        if (cantidadHilos <= 0 || capacidad <= 0) {
+            throw new IllegalArgumentException("Los hilos y la capacidad de reportes deben ser mayores a cero");
+        }
+        this.reporteUseCase = reporteUseCase;
+        this.fabricaHilos = fabricaHilos;
+        this.cantidadHilos = cantidadHilos;
+        this.directorio = directorio;
+        this.cola = new ArrayBlockingQueue<>(capacidad);
+        this.trabajos = Caffeine.newBuilder()
+                .maximumSize(maxTrabajos)
+                .expireAfterWrite(retencion)
+                .scheduler(Scheduler.systemScheduler())
+                .<String, TrabajoReporte>removalListener((id, trabajo, causa) -> {
+                    // Al reemplazar el trabajo por su nuevo estado el documento sigue vigente
+                    if (causa != RemovalCause.REPLACED) {
+                        eliminarDocumento(id);
+                    }
+                })
+                .build();
+        
+        Gauge.builder("banco.reportes.trabajos.cola", cola, BlockingQueue::size)
+                .description("Reportes en cola de generación")
+                .register(meterRegistry);
+        Gauge.builder("banco.reportes.trabajos.en-proceso", enProceso, AtomicInteger::get)
+                .description("Hilos de generación ocupados con un reporte")
+                .register(meterRegistry);
+        this.rechazadosPorCapacidad = Counter.builder("banco.reportes.trabajos.rechazados")
+                .description("Reportes rechazados por cola llena")
+                .register(meterRegistry);
+        this.duracion = Timer.builder("banco.reportes.trabajos.duracion")
+                .description("Tiempo de generación de cada reporte")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Encola la generación de un reporte de estado de cuenta en PDF.
+     * 
+     * @param clienteId Identificador del cliente
+     * @param fechaInicio Fecha de inicio del rango
+     * @param fechaFin Fecha de fin del rango
+     * @return Trabajo en estado pendiente con su identificador de seguimiento
+     * @throws IllegalArgumentException si faltan datos o el rango es inválido
+     * @throws RejectedExecutionException si la cola de reportes está llena
+     */
+    public TrabajoReporte encolar(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        if (clienteId == null || fechaInicio == null || fechaFin == null) {
+            throw new IllegalArgumentException("El clienteId y el rango de fechas son obligatorios");
+        }
+        if (fechaFin.isBefore(fechaInicio)) {
+            throw new IllegalArgumentException("La fecha de fin no puede ser anterior a la fecha de inicio");
+        }
+        if (!activo) {
+            throw new RejectedExecutionException("La generación de reportes no está disponible");
+        }
+        
+        TrabajoReporte trabajo = new TrabajoReporte(UUID.randomUUID().toString(), EstadoTrabajoReporte.PENDIENTE,
+                clienteId, fechaInicio, fechaFin, null);
+        trabajos.put(trabajo.getId(), trabajo);
+        
+        if (!cola.offer(trabajo)) {
+            trabajos.invalidate(trabajo.getId());
+            rechazadosPorCapacidad.increment();
+            throw new RejectedExecutionException("La cola de reportes está llena, intente nuevamente");
+        }
+        return trabajo;
+    }
+    
+    /**
+     * Obtiene el estado de un trabajo.
+     * 
+     * @param id Identificador de seguimiento
+     * @return Trabajo con su estado actual
+     * @throws IllegalArgumentException si el trabajo no existe o ya expiró
+     */
+    public TrabajoReporte obtenerTrabajo(String id) {
+        TrabajoReporte trabajo = trabajos.getIfPresent(id);
+        if (trabajo == null) {
+            throw new IllegalArgumentException("Trabajo de reporte no encontrado con id: " + id);
+        }
+        return trabajo;
+    }
+    
+    /**
+     * Obtiene el documento generado por un trabajo.
+     * 
+     * @param id Identificador de seguimiento
+     * @return Ruta del documento PDF
+     * @throws IllegalArgumentException si el trabajo no existe, ya expiró o aún no está listo
+     */
+    public Path obtenerDocumento(String id) {
+        TrabajoReporte trabajo = obtenerTrabajo(id);
+        if (trabajo.getEstado() != EstadoTrabajoReporte.LISTO) {
+            throw new IllegalArgumentException("El reporte no está disponible, estado: " + trabajo.getEstado());
+        }
+        return documento(id);
+    }
+    
+    @Override
+    public void start() {
+        try {
+            Files.createDirectories(directorio);
+            // Los documentos de una ejecución anterior ya no tienen trabajo que los referencie
+            try (DirectoryStream<Path> anteriores = Files.newDirectoryStream(directorio, "*.{pdf,tmp}")) {
+                for (Path anterior : anteriores) {
+                    Files.deleteIfExists(anterior);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo preparar el directorio de reportes " + directorio, e);
+        }
+        
+        activo = true;
+        for (int i = 0; i < cantidadHilos; i++) {
+            generadores.add(fabricaHilos.iniciar("generacion-reportes-" + i, ConsultaPesada.envolver(this::generar)));
+        }
+    }
+    
+    @Override
+    public void stop() {
+        // Se termina el reporte en curso; los pendientes se pierden con el proceso
+        activo = false;
+        for (Thread generador : generadores) {
+            try {
+                generador.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        generadores.clear();
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return activo;
+    }
+    
+    @Override
+    public int getPhase() {
+        // Arranca antes y se detiene después del servidor web, igual que la contabilización asíncrona
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+    
+    private void generar() {
+        while (activo) {
+            TrabajoReporte trabajo;
+            try {
+                trabajo = cola.poll(200, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (trabajo != null) {
+                enProceso.incrementAndGet();
+                try {
+                    duracion.record(() -> procesar(trabajo));
+                } finally {
+                    enProceso.decrementAndGet();
+                }
+            }
+        }
+    }
+    
+    private void procesar(TrabajoReporte trabajo) {
+        actualizar(trabajo, EstadoTrabajoReporte.EN_PROCESO, null);
+        Path temporal = directorio.resolve(trabajo.getId() + ".tmp");
+        try {
+            ReporteEstadoCuenta reporte = reporteUseCase.generarReporteEstadoCuenta(
+                    trabajo.getClienteId(), trabajo.getFechaInicio(), trabajo.getFechaFin());
+            try (OutputStream salida = Files.newOutputStream(temporal)) {
+                reporteUseCase.escribirReportePdf(reporte, salida);
+            }
+            Files.move(temporal, documento(trabajo.getId()), StandardCopyOption.ATOMIC_MOVE);
+            if (!actualizar(trabajo, EstadoTrabajoReporte.LISTO, null)) {
+                eliminarDocumento(trabajo.getId());
+            }
+        } catch (IllegalArgumentException e) {
+            actualizar(trabajo, EstadoTrabajoReporte.FALLIDO, e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            log.error("Error generando el reporte {}", trabajo.getId(), e);
+            actualizar(trabajo, EstadoTrabajoReporte.FALLIDO, "No se pudo generar el reporte");
+        } finally {
+            try {
+                Files.deleteIfExists(temporal);
+            } catch (IOException e) {
+                log.warn("No se pudo eliminar el archivo temporal {}", temporal, e);
+            }
+        }
+    }
+    
+    private boolean actualizar(TrabajoReporte trabajo, EstadoTrabajoReporte estado, String error) {
+        // Se publica una instancia nueva para que las consultas nunca vean un estado a medias.
+        // Si el trabajo ya expiró no se vuelve a publicar.
+        return trabajos.asMap().computeIfPresent(trabajo.getId(), (id, actual) -> new TrabajoReporte(
+                id, estado, trabajo.getClienteId(), trabajo.getFechaInicio(), trabajo.getFechaFin(), error)) != null;
+    }
+    
+    private Path documento(String id) {
+        return directorio.resolve(id + ".pdf");
+    }
+    
+    private void eliminarDocumento(String id) {
+        try {
+            Files.deleteIfExists(documento(id));
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar el reporte vencido {}", id, e);
+        }
+    }
+}
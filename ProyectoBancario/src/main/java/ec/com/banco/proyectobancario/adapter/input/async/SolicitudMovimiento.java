@@ -0,0 +1,40 @@
+package ec.com.banco.proyectobancario.adapter.input.async;
+
+import ec.com.banco.proyectobancario.domain.model.Movimiento;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Solicitud de movimiento recibida en modo asíncrono y su resultado.
+ * 
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolicitudMovimiento {
+    
+    /**
+     * Identificador de seguimiento devuelto al canal.
+     */
+    private String id;
+    
+    private EstadoSolicitud estado;
+    
+    /**
+     * Movimiento solicitado y, una vez procesado, el movimiento registrado.
+     */
+    private Movimiento movimiento;
+    
+    /**
+     * Motivo del rechazo, si fue rechazada.
+     */
+    private String error;
+    
+    /**
+     * Clave de idempotencia enviada por el canal, si la hay.
+     */
+    private String claveIdempotencia;
+}
@@ -0,0 +1,37 @@
+package ec.com.banco.proyectobancario.adapter.input.async;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Trabajo de generación de un reporte de estado de cuenta en PDF y su resultado.
+ * 
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrabajoReporte {
+    
+    /**
+     * Identificador de seguimiento devuelto al cliente.
+     */
+    private String id;
+    
+    private EstadoTrabajoReporte estado;
+    
+    private Long clienteId;
+    
+    private LocalDateTime fechaInicio;
+    
+    private LocalDateTime fechaFin;
+    
+    /**
+     * Motivo del fallo, si falló.
+     */
+    private String error;
+}
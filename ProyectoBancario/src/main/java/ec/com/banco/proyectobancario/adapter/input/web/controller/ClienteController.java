@@ -2,12 +2,15 @@ package ec.com.banco.proyectobancario.adapter.input.web.controller;
 
 import ec.com.banco.proyectobancario.adapter.input.web.dto.ClienteRequest;
 import ec.com.banco.proyectobancario.adapter.input.web.dto.ClienteResponse;
+import ec.com.banco.proyectobancario.adapter.input.web.dto.PaginaResponse;
 import ec.com.banco.proyectobancario.adapter.input.web.mapper.ClienteMapper;
+import ec.com.banco.proyectobancario.adapter.input.web.mapper.PaginaMapper;
 import ec.com.banco.proyectobancario.application.usecase.ClienteUseCase;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -21,12 +24,16 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*")
 public class ClienteController {
     
+    private static final String TAMANO_PAGINA = "50";
+    
     private final ClienteUseCase clienteUseCase;
     private final ClienteMapper clienteMapper;
+    private final PaginaMapper paginaMapper;
     
-    public ClienteController(ClienteUseCase clienteUseCase, ClienteMapper clienteMapper) {
+    public ClienteController(ClienteUseCase clienteUseCase, ClienteMapper clienteMapper, PaginaMapper paginaMapper) {
         this.clienteUseCase = clienteUseCase;
         this.clienteMapper = clienteMapper;
+        this.paginaMapper = paginaMapper;
     }
     
     /**
@@ -54,17 +61,45 @@ public class ClienteController {
     }
     
     /**
-     * Obtiene todos los clientes.
+     * Obtiene todos los clientes. La respuesta lleva como ETag la versión de los clientes; si
+     * el cliente la envía en If-None-Match y no cambió, se responde 304 sin consultar el listado.
      * 
-     * @return Lista de clientes
+     * @param request Petición, con el encabezado If-None-Match opcional
+     * @return Lista de clientes, o 304 si no cambió
      */
     @GetMapping
-    public ResponseEntity<List<ClienteResponse>> obtenerTodosLosClientes() {
+    public ResponseEntity<List<ClienteResponse>> obtenerTodosLosClientes(WebRequest request) {
+        String version = clienteUseCase.obtenerVersionClientes();
+        if (request.checkNotModified(version)) {
+            return null;
+        }
+        
         var clientes = clienteUseCase.obtenerTodosLosClientes();
         var responses = clientes.stream()
                 .map(clienteMapper::toResponse)
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+        return ResponseEntity.ok().eTag(version).body(responses);
+    }
+    
+    /**
+     * Obtiene los clientes por páginas, opcionalmente filtrados por estado.
+     * 
+     * @param estado Estado de los clientes (omitir para todos)
+     * @param orden Campo de orden (id, nombre o clienteId), opcionalmente seguido de ",desc"
+     * @param cursor Cursor devuelto en la página anterior (omitir para la primera)
+     * @param tamano Cantidad de clientes por página
+     * @return Página de clientes y cursor de la siguiente
+     */
+    @GetMapping("/pagina")
+    public ResponseEntity<PaginaResponse<ClienteResponse>> obtenerPaginaClientes(
+            @RequestParam(required = false) Boolean estado,
+            @RequestParam(defaultValue = "id") String orden,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = TAMANO_PAGINA) int tamano) {
+        var consulta = paginaMapper.toConsulta(cursor, tamano, orden);
+        var pagina = clienteUseCase.obtenerPaginaClientes(estado, consulta);
+        return ResponseEntity.ok(paginaMapper.toResponse(pagina, consulta, clienteMapper::toResponse,
+                clienteMapper::valorOrden));
     }
     
     /**
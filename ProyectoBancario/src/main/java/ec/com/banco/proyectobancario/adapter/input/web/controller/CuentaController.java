@@ -2,13 +2,20 @@ package ec.com.banco.proyectobancario.adapter.input.web.controller;
 
 import ec.com.banco.proyectobancario.adapter.input.web.dto.CuentaRequest;
 import ec.com.banco.proyectobancario.adapter.input.web.dto.CuentaResponse;
+import ec.com.banco.proyectobancario.adapter.input.web.dto.PaginaResponse;
+import ec.com.banco.proyectobancario.adapter.input.web.dto.SaldoCuentaResponse;
 import ec.com.banco.proyectobancario.adapter.input.web.mapper.CuentaMapper;
+import ec.com.banco.proyectobancario.adapter.input.web.mapper.PaginaMapper;
 import ec.com.banco.proyectobancario.application.usecase.CuentaUseCase;
+import ec.com.banco.proyectobancario.domain.model.FiltroCuenta;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -21,12 +28,16 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*")
 public class CuentaController {
     
+    private static final String TAMANO_PAGINA = "50";
+    
     private final CuentaUseCase cuentaUseCase;
     private final CuentaMapper cuentaMapper;
+    private final PaginaMapper paginaMapper;
     
-    public CuentaController(CuentaUseCase cuentaUseCase, CuentaMapper cuentaMapper) {
+    public CuentaController(CuentaUseCase cuentaUseCase, CuentaMapper cuentaMapper, PaginaMapper paginaMapper) {
         this.cuentaUseCase = cuentaUseCase;
         this.cuentaMapper = cuentaMapper;
+        this.paginaMapper = paginaMapper;
     }
     
     /**
@@ -54,32 +65,88 @@ public class CuentaController {
     }
     
     /**
-     * Obtiene todas las cuentas.
+     * Obtiene el saldo de una cuenta al final de un día.
+     * 
+     * @param id Identificador de la cuenta
+     * @param fecha Día de consulta (por defecto, hoy)
+     * @return Saldo de la cuenta a la fecha
+     */
+    @GetMapping("/{id}/saldo")
+    public ResponseEntity<SaldoCuentaResponse> obtenerSaldo(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
+        LocalDate fechaConsulta = fecha != null ? fecha : LocalDate.now();
+        var saldo = cuentaUseCase.obtenerSaldoAFecha(id, fechaConsulta);
+        return ResponseEntity.ok(new SaldoCuentaResponse(id, fechaConsulta, saldo));
+    }
+    
+    /**
+     * Obtiene todas las cuentas. La respuesta lleva como ETag la versión de las cuentas; si el
+     * cliente la envía en If-None-Match y no cambió, se responde 304 sin consultar el listado.
      * 
-     * @return Lista de cuentas
+     * @param request Petición, con el encabezado If-None-Match opcional
+     * @return Lista de cuentas, o 304 si no cambió
      */
     @GetMapping
-    public ResponseEntity<List<CuentaResponse>> obtenerTodasLasCuentas() {
+    public ResponseEntity<List<CuentaResponse>> obtenerTodasLasCuentas(WebRequest request) {
+        String version = cuentaUseCase.obtenerVersionCuentas();
+        if (request.checkNotModified(version)) {
+            return null;
+        }
+        
         var cuentas = cuentaUseCase.obtenerTodasLasCuentas();
         var responses = cuentas.stream()
                 .map(cuentaMapper::toResponse)
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+        return ResponseEntity.ok().eTag(version).body(responses);
+    }
+    
+    /**
+     * Obtiene las cuentas por páginas, con filtros opcionales.
+     * 
+     * @param estado Estado de las cuentas (omitir para todas)
+     * @param tipoCuenta Tipo de cuenta (omitir para todos)
+     * @param clienteId Identificador del cliente (omitir para todos)
+     * @param orden Campo de orden (id, numeroCuenta o clienteId), opcionalmente seguido de ",desc"
+     * @param cursor Cursor devuelto en la página anterior (omitir para la primera)
+     * @param tamano Cantidad de cuentas por página
+     * @return Página de cuentas y cursor de la siguiente
+     */
+    @GetMapping("/pagina")
+    public ResponseEntity<PaginaResponse<CuentaResponse>> obtenerPaginaCuentas(
+            @RequestParam(required = false) Boolean estado,
+            @RequestParam(required = false) String tipoCuenta,
+            @RequestParam(required = false) Long clienteId,
+            @RequestParam(defaultValue = "id") String orden,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = TAMANO_PAGINA) int tamano) {
+        var consulta = paginaMapper.toConsulta(cursor, tamano, orden);
+        var pagina = cuentaUseCase.obtenerPaginaCuentas(new FiltroCuenta(estado, tipoCuenta, clienteId), consulta);
+        return ResponseEntity.ok(paginaMapper.toResponse(pagina, consulta, cuentaMapper::toResponse,
+                cuentaMapper::valorOrden));
     }
     
     /**
-     * Obtiene todas las cuentas de un cliente.
+     * Obtiene todas las cuentas de un cliente, con la versión de sus cuentas como ETag; si no
+     * cambió desde la enviada en If-None-Match, se responde 304 sin consultarlas.
      * 
      * @param clienteId Identificador del cliente
-     * @return Lista de cuentas del cliente
+     * @param request Petición, con el encabezado If-None-Match opcional
+     * @return Lista de cuentas del cliente, o 304 si no cambió
      */
     @GetMapping("/cliente/{clienteId}")
-    public ResponseEntity<List<CuentaResponse>> obtenerCuentasPorCliente(@PathVariable Long clienteId) {
+    public ResponseEntity<List<CuentaResponse>> obtenerCuentasPorCliente(@PathVariable Long clienteId,
+                                                                         WebRequest request) {
+        String version = cuentaUseCase.obtenerVersionCuentasPorCliente(clienteId);
+        if (request.checkNotModified(version)) {
+            return null;
+        }
+        
         var cuentas = cuentaUseCase.obtenerCuentasPorCliente(clienteId);
         var responses = cuentas.stream()
                 .map(cuentaMapper::toResponse)
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+        return ResponseEntity.ok().eTag(version).body(responses);
     }
     
     /**
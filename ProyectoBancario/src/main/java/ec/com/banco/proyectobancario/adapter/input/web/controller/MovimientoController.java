@@ -1,16 +1,33 @@
 package ec.com.banco.proyectobancario.adapter.input.web.controller;
 
+import ec.com.banco.proyectobancario.adapter.input.async.ContabilizacionAsincrona;
+import ec.com.banco.proyectobancario.adapter.input.web.dto.MovimientoLoteRequest;
+import ec.com.banco.proyectobancario.adapter.input.web.dto.MovimientoLoteResponse;
 import ec.com.banco.proyectobancario.adapter.input.web.dto.MovimientoRequest;
 import ec.com.banco.proyectobancario.adapter.input.web.dto.MovimientoResponse;
+import ec.com.banco.proyectobancario.adapter.input.web.dto.PaginaResponse;
+import ec.com.banco.proyectobancario.adapter.input.web.dto.SolicitudMovimientoResponse;
 import ec.com.banco.proyectobancario.adapter.input.web.mapper.MovimientoMapper;
 import ec.com.banco.proyectobancario.application.usecase.MovimientoUseCase;
+import ec.com.banco.proyectobancario.infrastructure.csv.EscritorCsv;
 import jakarta.validation.Valid;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -23,26 +40,119 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*")
 public class MovimientoController {
     
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String PREFER = "Prefer";
+    private static final String PREFERENCE_APPLIED = "Preference-Applied";
+    private static final String RESPOND_ASYNC = "respond-async";
+    private static final String TAMANO_PAGINA = "50";
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String CSV = "text/csv";
+    
     private final MovimientoUseCase movimientoUseCase;
     private final MovimientoMapper movimientoMapper;
+    private final ContabilizacionAsincrona contabilizacionAsincrona;
+    private final ObjectWriter escritorMovimiento;
     
-    public MovimientoController(MovimientoUseCase movimientoUseCase, MovimientoMapper movimientoMapper) {
+    public MovimientoController(MovimientoUseCase movimientoUseCase, MovimientoMapper movimientoMapper,
+                                ContabilizacionAsincrona contabilizacionAsincrona, JsonMapper jsonMapper) {
         this.movimientoUseCase = movimientoUseCase;
         this.movimientoMapper = movimientoMapper;
+        this.contabilizacionAsincrona = contabilizacionAsincrona;
+        // Vaciar el búfer tras cada movimiento partiría la respuesta en un trozo por fila; el
+        // separador entre líneas NDJSON lo escribe transmitirMovimientos
+        this.escritorMovimiento = jsonMapper.writerFor(MovimientoResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("");
     }
     
     /**
      * Crea un nuevo movimiento.
+     * Si se envía la cabecera Idempotency-Key y la clave ya fue usada, se devuelve el
+     * movimiento original en lugar de registrar uno nuevo. Si la cabecera Prefer incluye
+     * respond-async, el movimiento se encola y se responde 202.
      * 
      * @param request Datos del movimiento
-     * @return Movimiento creado
+     * @param idempotencyKey Clave de idempotencia opcional
+     * @param preferencias Valores de la cabecera Prefer
+     * @return Movimiento creado, o la solicitud pendiente en modo asíncrono
      */
     @PostMapping
-    public ResponseEntity<MovimientoResponse> crearMovimiento(@Valid @RequestBody MovimientoRequest request) {
-        var movimiento = movimientoUseCase.crearMovimiento(movimientoMapper.toDomain(request));
+    public ResponseEntity<?> crearMovimiento(
+            @Valid @RequestBody MovimientoRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @RequestHeader(value = PREFER, required = false) List<String> preferencias) {
+        if (prefiereAsincrono(preferencias)) {
+            return crearMovimientoAsincrono(request, idempotencyKey);
+        }
+        
+        var movimiento = idempotencyKey == null
+                ? movimientoUseCase.crearMovimiento(movimientoMapper.toDomain(request))
+                : movimientoUseCase.crearMovimiento(movimientoMapper.toDomain(request), idempotencyKey);
         return new ResponseEntity<>(movimientoMapper.toResponse(movimiento), HttpStatus.CREATED);
     }
     
+    /**
+     * Encola un nuevo movimiento para registrarlo en segundo plano.
+     * Se usa cuando el canal envía la cabecera Prefer: respond-async; la respuesta no
+     * incluye el saldo final sino el identificador para consultar el resultado. La clave
+     * de idempotencia se aplica al registrar el movimiento, igual que en el modo síncrono.
+     * 
+     * @param request Datos del movimiento
+     * @param idempotencyKey Clave de idempotencia opcional
+     * @return Solicitud pendiente con su identificador de seguimiento
+     */
+    private ResponseEntity<SolicitudMovimientoResponse> crearMovimientoAsincrono(MovimientoRequest request,
+                                                                                 String idempotencyKey) {
+        var solicitud = contabilizacionAsincrona.encolar(movimientoMapper.toDomain(request), idempotencyKey);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/solicitudes/{id}")
+                        .buildAndExpand(solicitud.getId())
+                        .toUri())
+                .header(PREFERENCE_APPLIED, RESPOND_ASYNC)
+                .body(movimientoMapper.toSolicitudResponse(solicitud));
+    }
+    
+    /**
+     * Indica si la cabecera Prefer (RFC 7240) pide respuesta asíncrona. Cada preferencia puede
+     * llevar un valor y parámetros (respond-async, wait=5) y el nombre no distingue mayúsculas.
+     */
+    private static boolean prefiereAsincrono(List<String> preferencias) {
+        if (preferencias == null) {
+            return false;
+        }
+        return preferencias.stream()
+                .flatMap(valor -> Arrays.stream(valor.split(",")))
+                .map(preferencia -> preferencia.split("[=;]", 2)[0].trim())
+                .anyMatch(RESPOND_ASYNC::equalsIgnoreCase);
+    }
+    
+    /**
+     * Obtiene el estado de una solicitud de movimiento asíncrona.
+     * 
+     * @param id Identificador de seguimiento
+     * @return Estado de la solicitud y, si fue procesada, el movimiento registrado
+     */
+    @GetMapping("/solicitudes/{id}")
+    public ResponseEntity<SolicitudMovimientoResponse> obtenerSolicitud(@PathVariable String id) {
+        var solicitud = contabilizacionAsincrona.obtenerSolicitud(id);
+        return ResponseEntity.ok(movimientoMapper.toSolicitudResponse(solicitud));
+    }
+    
+    /**
+     * Crea un lote de movimientos.
+     * Cada movimiento se valida con las mismas reglas que la creación individual y la
+     * respuesta indica el resultado de cada uno.
+     * 
+     * @param request Movimientos del lote
+     * @return Resultado por movimiento
+     */
+    @PostMapping("/lote")
+    public ResponseEntity<MovimientoLoteResponse> crearMovimientosEnLote(@Valid @RequestBody MovimientoLoteRequest request) {
+        var resultados = movimientoUseCase.crearMovimientosEnLote(movimientoMapper.toDomainList(request));
+        return ResponseEntity.ok(movimientoMapper.toLoteResponse(resultados));
+    }
+    
     /**
      * Obtiene un movimiento por su identificador.
      * 
@@ -56,17 +166,29 @@ public class MovimientoController {
     }
     
     /**
-     * Obtiene todos los movimientos.
+     * Obtiene todos los movimientos como un arreglo JSON.
+     * El arreglo se escribe a medida que se leen los movimientos, sin cargarlos todos en memoria.
      * 
      * @return Lista de movimientos
      */
     @GetMapping
-    public ResponseEntity<List<MovimientoResponse>> obtenerTodosLosMovimientos() {
-        var movimientos = movimientoUseCase.obtenerTodosLosMovimientos();
-        var responses = movimientos.stream()
-                .map(movimientoMapper::toResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<StreamingResponseBody> obtenerTodosLosMovimientos() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(salida -> transmitirMovimientos(salida, true));
+    }
+    
+    /**
+     * Exporta todos los movimientos en formato NDJSON (un movimiento JSON por línea).
+     * Se usa cuando el cliente envía Accept: application/x-ndjson.
+     * 
+     * @return Movimientos, uno por línea
+     */
+    @GetMapping(produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportarMovimientos() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(salida -> transmitirMovimientos(salida, false));
     }
     
     /**
@@ -84,6 +206,24 @@ public class MovimientoController {
         return ResponseEntity.ok(responses);
     }
     
+    /**
+     * Obtiene el historial de movimientos de una cuenta por páginas, del más reciente al más antiguo.
+     * 
+     * @param cuentaId Identificador de la cuenta
+     * @param cursor Cursor devuelto en la página anterior (omitir para la primera)
+     * @param tamano Cantidad de movimientos por página
+     * @return Página de movimientos y cursor de la siguiente
+     */
+    @GetMapping("/cuenta/{cuentaId}/pagina")
+    public ResponseEntity<PaginaResponse<MovimientoResponse>> obtenerPaginaPorCuenta(
+            @PathVariable Long cuentaId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = TAMANO_PAGINA) int tamano) {
+        var pagina = movimientoUseCase.obtenerPaginaMovimientos(cuentaId, null, null,
+                movimientoMapper.toCursor(cursor), tamano);
+        return ResponseEntity.ok(movimientoMapper.toPaginaResponse(pagina));
+    }
+    
     /**
      * Obtiene movimientos de una cuenta en un rango de fechas.
      * 
@@ -104,6 +244,82 @@ public class MovimientoController {
         return ResponseEntity.ok(responses);
     }
     
+    /**
+     * Exporta los movimientos de una cuenta en un rango de fechas en formato CSV.
+     * Se usa cuando el cliente envía Accept: text/csv. Las filas se escriben a medida que se
+     * leen de la base de datos, sin cargar el rango en memoria.
+     * 
+     * @param cuentaId Identificador de la cuenta
+     * @param fechaInicio Fecha de inicio
+     * @param fechaFin Fecha de fin
+     * @return Movimientos en formato CSV
+     */
+    @GetMapping(value = "/cuenta/{cuentaId}/rango", produces = CSV)
+    public ResponseEntity<StreamingResponseBody> exportarMovimientosPorRango(
+            @PathVariable Long cuentaId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(CSV + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("movimientos-cuenta-" + cuentaId + ".csv")
+                        .build()
+                        .toString())
+                .body(salida -> {
+                    try (EscritorCsv csv = new EscritorCsv(salida)) {
+                        csv.encabezado("id", "fecha", "tipoMovimiento", "valor", "saldo", "cuentaId");
+                        movimientoUseCase.exportarMovimientosPorCuentaYRango(cuentaId, fechaInicio, fechaFin,
+                                movimiento -> csv.texto(String.valueOf(movimiento.getId()))
+                                        .fecha(movimiento.getFecha())
+                                        .texto(movimiento.getTipoMovimiento())
+                                        .numero(movimiento.getValor())
+                                        .numero(movimiento.getSaldo())
+                                        .texto(String.valueOf(movimiento.getCuentaId()))
+                                        .finFila());
+                    }
+                });
+    }
+    
+    /**
+     * Obtiene por páginas los movimientos de una cuenta en un rango de fechas, del más
+     * reciente al más antiguo.
+     * 
+     * @param cuentaId Identificador de la cuenta
+     * @param fechaInicio Fecha de inicio
+     * @param fechaFin Fecha de fin
+     * @param cursor Cursor devuelto en la página anterior (omitir para la primera)
+     * @param tamano Cantidad de movimientos por página
+     * @return Página de movimientos y cursor de la siguiente
+     */
+    @GetMapping("/cuenta/{cuentaId}/rango/pagina")
+    public ResponseEntity<PaginaResponse<MovimientoResponse>> obtenerPaginaPorRango(
+            @PathVariable Long cuentaId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = TAMANO_PAGINA) int tamano) {
+        var pagina = movimientoUseCase.obtenerPaginaMovimientos(cuentaId, fechaInicio, fechaFin,
+                movimientoMapper.toCursor(cursor), tamano);
+        return ResponseEntity.ok(movimientoMapper.toPaginaResponse(pagina));
+    }
+    
+    private void transmitirMovimientos(OutputStream salida, boolean comoArreglo) {
+        try (JsonGenerator generador = escritorMovimiento.createGenerator(salida)) {
+            if (comoArreglo) {
+                generador.writeStartArray();
+            }
+            movimientoUseCase.exportarMovimientos(movimiento -> {
+                escritorMovimiento.writeValue(generador, movimientoMapper.toResponse(movimiento));
+                if (!comoArreglo) {
+                    generador.writeRaw('\n');
+                }
+            });
+            if (comoArreglo) {
+                generador.writeEndArray();
+            }
+        }
+    }
+    
     /**
      * Elimina un movimiento.
      * 
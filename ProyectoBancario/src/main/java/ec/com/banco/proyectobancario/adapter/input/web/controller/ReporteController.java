@@ -1,22 +1,47 @@
 package ec.com.banco.proyectobancario.adapter.input.web.controller;
 
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import ec.com.banco.proyectobancario.adapter.input.async.CicloEstadosCuenta;
+import ec.com.banco.proyectobancario.adapter.input.async.GeneracionReportes;
+import ec.com.banco.proyectobancario.adapter.input.web.dto.CicloEstadosCuentaRequest;
+import ec.com.banco.proyectobancario.adapter.input.web.dto.CicloEstadosCuentaResponse;
+import ec.com.banco.proyectobancario.adapter.input.web.dto.TrabajoReporteRequest;
+import ec.com.banco.proyectobancario.adapter.input.web.dto.TrabajoReporteResponse;
+import ec.com.banco.proyectobancario.adapter.input.web.mapper.ReporteMapper;
 import ec.com.banco.proyectobancario.application.usecase.ReporteUseCase;
 import ec.com.banco.proyectobancario.domain.model.ReporteEstadoCuenta;
+import ec.com.banco.proyectobancario.infrastructure.persistence.datasource.ConsultaPesada;
+import jakarta.validation.Valid;
 
 /**
  * Controlador REST para la generación de reportes.
+ * Las consultas de los reportes ocupan el presupuesto de consultas pesadas
+ * ({@link ConsultaPesada}), así una ráfaga de reportes no deja sin conexiones a las consultas rápidas.
  * 
  */
 @RestController
@@ -24,27 +49,94 @@ import ec.com.banco.proyectobancario.domain.model.ReporteEstadoCuenta;
 @CrossOrigin(origins = "*")
 public class ReporteController {
     
+    private static final String CSV = "text/csv";
+    
     private final ReporteUseCase reporteUseCase;
+    private final GeneracionReportes generacionReportes;
+    private final CicloEstadosCuenta cicloEstadosCuenta;
+    private final ReporteMapper reporteMapper;
     
-    public ReporteController(ReporteUseCase reporteUseCase) {
+    public ReporteController(ReporteUseCase reporteUseCase, GeneracionReportes generacionReportes,
+                             CicloEstadosCuenta cicloEstadosCuenta, ReporteMapper reporteMapper) {
         this.reporteUseCase = reporteUseCase;
+        this.generacionReportes = generacionReportes;
+        this.cicloEstadosCuenta = cicloEstadosCuenta;
+        this.reporteMapper = reporteMapper;
     }
     
     /**
-     * Genera un reporte de estado de cuenta en formato JSON.
+     * Genera un reporte de estado de cuenta en formato JSON. La respuesta lleva como ETag la
+     * versión del cliente y sus cuentas; si no cambió desde la enviada en If-None-Match, se
+     * responde 304 sin consultar los movimientos.
      * 
      * @param clienteId Identificador del cliente
      * @param fechaInicio Fecha de inicio del rango
      * @param fechaFin Fecha de fin del rango
-     * @return Reporte en formato JSON
+     * @param request Petición, con el encabezado If-None-Match opcional
+     * @return Reporte en formato JSON, o 304 si no cambió
      */
     @GetMapping
     public ResponseEntity<ReporteEstadoCuenta> generarReporte(
+            @RequestParam Long clienteId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin,
+            WebRequest request) {
+        // Sin versión (cliente inexistente) se genera el reporte, que responde el error
+        var version = reporteUseCase.obtenerVersionReporte(clienteId);
+        if (version.isPresent() && request.checkNotModified(version.get())) {
+            return null;
+        }
+        
+        var reporte = ConsultaPesada.ejecutar(
+                () -> reporteUseCase.generarReporteEstadoCuenta(clienteId, fechaInicio, fechaFin));
+        var respuesta = ResponseEntity.ok();
+        version.ifPresent(respuesta::eTag);
+        return respuesta.body(reporte);
+    }
+    
+    /**
+     * Exporta los movimientos del estado de cuenta en formato CSV, una fila por movimiento.
+     * Se usa cuando el cliente envía Accept: text/csv. Las filas se escriben a medida que se
+     * leen de la base de datos, por lo que rangos de varios años no se cargan en memoria.
+     * 
+     * @param clienteId Identificador del cliente
+     * @param fechaInicio Fecha de inicio del rango
+     * @param fechaFin Fecha de fin del rango
+     * @return Movimientos en formato CSV
+     */
+    @GetMapping(produces = CSV)
+    public ResponseEntity<StreamingResponseBody> exportarReporte(
             @RequestParam Long clienteId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin) {
-        var reporte = reporteUseCase.generarReporteEstadoCuenta(clienteId, fechaInicio, fechaFin);
-        return ResponseEntity.ok(reporte);
+        // Se valida antes de responder, así un cliente inexistente devuelve 400
+        reporteUseCase.validarReporte(clienteId, fechaInicio, fechaFin);
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(CSV + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("estado-cuenta-" + clienteId + ".csv")
+                        .build()
+                        .toString())
+                .body(salida -> reporteUseCase.escribirReporteCsv(clienteId, fechaInicio, fechaFin, salida));
+    }
+    
+    /**
+     * Genera un resumen de estado de cuenta con los totales por cuenta, sin movimientos.
+     * 
+     * @param clienteId Identificador del cliente
+     * @param fechaInicio Primer día del rango
+     * @param fechaFin Último día del rango
+     * @return Resumen en formato JSON
+     */
+    @GetMapping("/resumen")
+    public ResponseEntity<ReporteEstadoCuenta> generarResumen(
+            @RequestParam Long clienteId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin) {
+        var resumen = ConsultaPesada.ejecutar(
+                () -> reporteUseCase.generarResumenEstadoCuenta(clienteId, fechaInicio, fechaFin));
+        return ResponseEntity.ok(resumen);
     }
     
     /**
@@ -60,11 +152,122 @@ public class ReporteController {
             @RequestParam Long clienteId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin) {
-        String pdfBase64 = reporteUseCase.generarReportePdfBase64(clienteId, fechaInicio, fechaFin);
+        String pdfBase64 = ConsultaPesada.ejecutar(
+                () -> reporteUseCase.generarReportePdfBase64(clienteId, fechaInicio, fechaFin));
         
         Map<String, String> response = new HashMap<>();
         response.put("pdf", pdfBase64);
         
         return ResponseEntity.ok(response);
     }
+    
+    /**
+     * Descarga un reporte de estado de cuenta como documento PDF.
+     * El documento se escribe en la respuesta a medida que se genera, sin codificarlo en
+     * base64 ni armarlo completo en memoria. Como su tamaño no se conoce de antemano, no se
+     * atienden descargas por rangos.
+     * 
+     * @param clienteId Identificador del cliente
+     * @param fechaInicio Fecha de inicio del rango
+     * @param fechaFin Fecha de fin del rango
+     * @return Documento PDF
+     */
+    @GetMapping("/pdf/stream")
+    public ResponseEntity<StreamingResponseBody> descargarReportePdf(
+            @RequestParam Long clienteId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin) {
+        // Los datos se consultan antes de responder, así un cliente inexistente devuelve 400
+        var reporte = ConsultaPesada.ejecutar(
+                () -> reporteUseCase.generarReporteEstadoCuenta(clienteId, fechaInicio, fechaFin));
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("estado-cuenta-" + clienteId + ".pdf")
+                        .build()
+                        .toString())
+                .header(HttpHeaders.ACCEPT_RANGES, "none")
+                .body(salida -> reporteUseCase.escribirReportePdf(reporte, salida));
+    }
+    
+    /**
+     * Solicita la generación de un reporte PDF en segundo plano.
+     * Responde 202 Accepted con el identificador del trabajo; si la cola de reportes está
+     * llena responde 503.
+     * 
+     * @param request Cliente y rango de fechas del reporte
+     * @return Trabajo pendiente con su identificador de seguimiento
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<TrabajoReporteResponse> crearTrabajo(@Valid @RequestBody TrabajoReporteRequest request) {
+        var trabajo = generacionReportes.encolar(request.getClienteId(), request.getFechaInicio(), request.getFechaFin());
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/{id}")
+                        .buildAndExpand(trabajo.getId())
+                        .toUri())
+                .body(reporteMapper.toTrabajoResponse(trabajo));
+    }
+    
+    /**
+     * Obtiene el estado de un trabajo de generación de reporte.
+     * 
+     * @param id Identificador del trabajo
+     * @return Estado del trabajo y, si está listo, el enlace de descarga
+     */
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<TrabajoReporteResponse> obtenerTrabajo(@PathVariable String id) {
+        return ResponseEntity.ok(reporteMapper.toTrabajoResponse(generacionReportes.obtenerTrabajo(id)));
+    }
+    
+    /**
+     * Descarga el documento PDF de un trabajo terminado. Como el documento ya está en disco,
+     * admite descargas por rangos (cabecera Range).
+     * 
+     * @param id Identificador del trabajo
+     * @return Documento PDF
+     */
+    @GetMapping("/jobs/{id}/pdf")
+    public ResponseEntity<Resource> descargarTrabajo(@PathVariable String id) {
+        Path documento = generacionReportes.obtenerDocumento(id);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("estado-cuenta-" + id + ".pdf")
+                        .build()
+                        .toString())
+                .body(new FileSystemResource(documento));
+    }
+    
+    /**
+     * Inicia, o reanuda desde el último bloque terminado, la generación de los estados de cuenta
+     * de fin de mes de todos los clientes activos.
+     * Responde 202 Accepted; si se está generando el ciclo de otro período responde 503.
+     * 
+     * @param request Período de los estados de cuenta
+     * @return Avance del ciclo
+     */
+    @PostMapping("/ciclos")
+    public ResponseEntity<CicloEstadosCuentaResponse> iniciarCiclo(@Valid @RequestBody CicloEstadosCuentaRequest request) {
+        var ejecucion = cicloEstadosCuenta.iniciar(request.getPeriodo());
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/{periodo}")
+                        .buildAndExpand(ejecucion.getPeriodo())
+                        .toUri())
+                .body(reporteMapper.toCicloResponse(ejecucion));
+    }
+    
+    /**
+     * Obtiene el avance del ciclo de estados de cuenta de un período.
+     * 
+     * @param periodo Mes de los estados de cuenta (yyyy-MM)
+     * @return Avance del ciclo, con los estados de cuenta generados por segundo
+     */
+    @GetMapping("/ciclos/{periodo}")
+    public ResponseEntity<CicloEstadosCuentaResponse> obtenerCiclo(
+            @PathVariable @DateTimeFormat(pattern = "yyyy-MM") YearMonth periodo) {
+        return ResponseEntity.ok(reporteMapper.toCicloResponse(cicloEstadosCuenta.obtener(periodo)));
+    }
 }
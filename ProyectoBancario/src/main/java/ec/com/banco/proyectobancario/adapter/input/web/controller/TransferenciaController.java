@@ -0,0 +1,42 @@
+package ec.com.banco.proyectobancario.adapter.input.web.controller;
+
+import ec.com.banco.proyectobancario.adapter.input.web.dto.TransferenciaRequest;
+import ec.com.banco.proyectobancario.adapter.input.web.dto.TransferenciaResponse;
+import ec.com.banco.proyectobancario.adapter.input.web.mapper.TransferenciaMapper;
+import ec.com.banco.proyectobancario.application.usecase.TransferenciaUseCase;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controlador REST para las transferencias entre cuentas.
+ * 
+ */
+@RestController
+@RequestMapping("/transferencias")
+@CrossOrigin(origins = "*")
+public class TransferenciaController {
+    
+    private final TransferenciaUseCase transferenciaUseCase;
+    private final TransferenciaMapper transferenciaMapper;
+    
+    public TransferenciaController(TransferenciaUseCase transferenciaUseCase,
+                                   TransferenciaMapper transferenciaMapper) {
+        this.transferenciaUseCase = transferenciaUseCase;
+        this.transferenciaMapper = transferenciaMapper;
+    }
+    
+    /**
+     * Transfiere un valor entre dos cuentas.
+     * El débito y el crédito se registran juntos o no se registra ninguno.
+     * 
+     * @param request Cuentas origen y destino y valor
+     * @return Transferencia con los movimientos registrados
+     */
+    @PostMapping
+    public ResponseEntity<TransferenciaResponse> transferir(@Valid @RequestBody TransferenciaRequest request) {
+        var transferencia = transferenciaUseCase.transferir(transferenciaMapper.toDomain(request));
+        return new ResponseEntity<>(transferenciaMapper.toResponse(transferencia), HttpStatus.CREATED);
+    }
+}
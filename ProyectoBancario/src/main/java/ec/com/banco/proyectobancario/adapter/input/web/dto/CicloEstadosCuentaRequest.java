@@ -0,0 +1,26 @@
+package ec.com.banco.proyectobancario.adapter.input.web.dto;
+
+import java.time.YearMonth;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO para solicitar el ciclo de estados de cuenta de fin de mes.
+ * 
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CicloEstadosCuentaRequest {
+    
+    /**
+     * Mes de los estados de cuenta, en formato yyyy-MM.
+     */
+    @NotNull(message = "El período es obligatorio")
+    private YearMonth periodo;
+}
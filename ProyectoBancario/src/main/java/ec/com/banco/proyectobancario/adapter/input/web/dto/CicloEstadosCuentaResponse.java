@@ -0,0 +1,25 @@
+package ec.com.banco.proyectobancario.adapter.input.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO para la respuesta del avance del ciclo de estados de cuenta.
+ * 
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CicloEstadosCuentaResponse {
+    
+    private String periodo;
+    private String estado;
+    private long generados;
+    private long fallidos;
+    private Long ultimoClienteId;
+    private double estadosPorSegundo;
+    private String error;
+}
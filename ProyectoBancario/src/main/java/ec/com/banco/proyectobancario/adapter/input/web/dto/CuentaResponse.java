@@ -21,6 +21,7 @@ public class CuentaResponse {
     private String numeroCuenta;
     private String tipoCuenta;
     private BigDecimal saldoInicial;
+    private BigDecimal saldoActual;
     private Boolean estado;
     private Long clienteId;
 }
@@ -0,0 +1,26 @@
+package ec.com.banco.proyectobancario.adapter.input.web.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO para la creación de movimientos en lote.
+ * 
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovimientoLoteRequest {
+    
+    @NotEmpty(message = "El lote debe contener al menos un movimiento")
+    @Size(max = 50000, message = "El lote no puede superar 50000 movimientos")
+    private List<@Valid MovimientoRequest> movimientos;
+}
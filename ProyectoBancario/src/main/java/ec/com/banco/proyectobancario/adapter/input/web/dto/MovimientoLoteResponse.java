@@ -0,0 +1,38 @@
+package ec.com.banco.proyectobancario.adapter.input.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * DTO para la respuesta de la creación de movimientos en lote.
+ * 
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovimientoLoteResponse {
+    
+    private int total;
+    private int exitosos;
+    private int fallidos;
+    private List<ResultadoLoteResponse> resultados;
+    
+    /**
+     * Resultado de un movimiento del lote.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ResultadoLoteResponse {
+        private int indice;
+        private boolean exitoso;
+        private MovimientoResponse movimiento;
+        private String error;
+    }
+}
@@ -0,0 +1,27 @@
+package ec.com.banco.proyectobancario.adapter.input.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * DTO para la respuesta de resultados paginados.
+ * 
+ * @param <T> Tipo de los elementos
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaResponse<T> {
+    
+    private List<T> elementos;
+    
+    /**
+     * Cursor para pedir la página siguiente, o null si es la última.
+     */
+    private String siguienteCursor;
+}
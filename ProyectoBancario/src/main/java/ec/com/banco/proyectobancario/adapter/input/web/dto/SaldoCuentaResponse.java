@@ -0,0 +1,24 @@
+package ec.com.banco.proyectobancario.adapter.input.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DTO para la respuesta del saldo de una cuenta a una fecha.
+ * 
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaldoCuentaResponse {
+    
+    private Long cuentaId;
+    private LocalDate fecha;
+    private BigDecimal saldo;
+}
@@ -0,0 +1,22 @@
+package ec.com.banco.proyectobancario.adapter.input.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO para la respuesta de solicitudes de movimiento asíncronas.
+ * 
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolicitudMovimientoResponse {
+    
+    private String id;
+    private String estado;
+    private MovimientoResponse movimiento;
+    private String error;
+}
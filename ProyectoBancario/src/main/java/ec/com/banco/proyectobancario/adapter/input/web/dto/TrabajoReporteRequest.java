@@ -0,0 +1,29 @@
+package ec.com.banco.proyectobancario.adapter.input.web.dto;
+
+import java.time.LocalDateTime;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO para solicitar la generación de un reporte PDF en segundo plano.
+ * 
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrabajoReporteRequest {
+    
+    @NotNull(message = "El clienteId es obligatorio")
+    private Long clienteId;
+    
+    @NotNull(message = "La fecha de inicio es obligatoria")
+    private LocalDateTime fechaInicio;
+    
+    @NotNull(message = "La fecha de fin es obligatoria")
+    private LocalDateTime fechaFin;
+}
@@ -0,0 +1,31 @@
+package ec.com.banco.proyectobancario.adapter.input.web.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO para la respuesta de trabajos de generación de reportes.
+ * 
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrabajoReporteResponse {
+    
+    private String id;
+    private String estado;
+    private Long clienteId;
+    private LocalDateTime fechaInicio;
+    private LocalDateTime fechaFin;
+    private String error;
+    
+    /**
+     * Enlace de descarga del documento, cuando está listo.
+     */
+    private String descarga;
+}
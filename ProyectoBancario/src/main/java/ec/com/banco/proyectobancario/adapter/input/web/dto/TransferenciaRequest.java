@@ -0,0 +1,31 @@
+package ec.com.banco.proyectobancario.adapter.input.web.dto;
+
+import java.math.BigDecimal;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO para la creación de transferencias entre cuentas.
+ * 
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferenciaRequest {
+    
+    @NotNull(message = "La cuenta origen es obligatoria")
+    private Long cuentaOrigenId;
+    
+    @NotNull(message = "La cuenta destino es obligatoria")
+    private Long cuentaDestinoId;
+    
+    @NotNull(message = "El valor es obligatorio")
+    @DecimalMin(value = "0.01", message = "El valor debe ser mayor a cero")
+    private BigDecimal valor;
+}
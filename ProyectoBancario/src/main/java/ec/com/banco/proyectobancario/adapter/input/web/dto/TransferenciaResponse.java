@@ -0,0 +1,25 @@
+package ec.com.banco.proyectobancario.adapter.input.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO para la respuesta de transferencias.
+ * 
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferenciaResponse {
+    
+    private Long cuentaOrigenId;
+    private Long cuentaDestinoId;
+    private BigDecimal valor;
+    private MovimientoResponse debito;
+    private MovimientoResponse credito;
+}
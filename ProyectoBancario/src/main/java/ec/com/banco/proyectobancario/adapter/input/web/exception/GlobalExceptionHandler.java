@@ -1,16 +1,23 @@
 package ec.com.banco.proyectobancario.adapter.input.web.exception;
 
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
 
 import ec.com.banco.proyectobancario.adapter.input.web.dto.ErrorResponse;
+import ec.com.banco.proyectobancario.domain.exception.ClaveIdempotenciaReutilizadaException;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 /**
@@ -30,7 +37,10 @@ public class GlobalExceptionHandler {
         error.setMessage(ex.getMessage());
         error.setPath(request.getDescription(false).replace("uri=", ""));
         
-        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+        // El error va en JSON aunque la petición haya pedido otro formato (CSV, PDF)
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(error);
     }
     
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -70,6 +80,70 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
     
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<ErrorResponse> handleConcurrencyFailureException(
+            ConcurrencyFailureException ex, WebRequest request) {
+        ErrorResponse error = new ErrorResponse();
+        error.setTimestamp(LocalDateTime.now());
+        error.setStatus(HttpStatus.CONFLICT.value());
+        error.setError("Conflict");
+        error.setMessage(ex.getMessage());
+        error.setPath(request.getDescription(false).replace("uri=", ""));
+        
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+    
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolationException(
+            DataIntegrityViolationException ex, WebRequest request) {
+        ErrorResponse error = new ErrorResponse();
+        error.setTimestamp(LocalDateTime.now());
+        error.setStatus(HttpStatus.CONFLICT.value());
+        error.setError("Conflict");
+        error.setMessage("La operación entra en conflicto con datos existentes");
+        error.setPath(request.getDescription(false).replace("uri=", ""));
+        
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+    
+    @ExceptionHandler(ClaveIdempotenciaReutilizadaException.class)
+    public ResponseEntity<ErrorResponse> handleClaveIdempotenciaReutilizadaException(
+            ClaveIdempotenciaReutilizadaException ex, WebRequest request) {
+        ErrorResponse error = new ErrorResponse();
+        error.setTimestamp(LocalDateTime.now());
+        error.setStatus(HttpStatus.UNPROCESSABLE_CONTENT.value());
+        error.setError("Unprocessable Content");
+        error.setMessage(ex.getMessage());
+        error.setPath(request.getDescription(false).replace("uri=", ""));
+        
+        return new ResponseEntity<>(error, HttpStatus.UNPROCESSABLE_CONTENT);
+    }
+    
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ErrorResponse> handleRejectedExecutionException(
+            RejectedExecutionException ex, WebRequest request) {
+        return servicioNoDisponible(ex.getMessage(), request);
+    }
+    
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<ErrorResponse> handleCannotCreateTransactionException(
+            CannotCreateTransactionException ex, WebRequest request) {
+        return servicioNoDisponible("La base de datos está ocupada, intente nuevamente", request);
+    }
+    
+    private ResponseEntity<ErrorResponse> servicioNoDisponible(String mensaje, WebRequest request) {
+        ErrorResponse error = new ErrorResponse();
+        error.setTimestamp(LocalDateTime.now());
+        error.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        error.setError("Service Unavailable");
+        error.setMessage(mensaje);
+        error.setPath(request.getDescription(false).replace("uri=", ""));
+        
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+    
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ErrorResponse> handleRuntimeException(
             RuntimeException ex, WebRequest request) {
@@ -62,4 +62,21 @@ public class ClienteMapper {
         
         return response;
     }
+    
+    /**
+     * Obtiene el valor de un campo de orden del listado de clientes, para el cursor de página.
+     * 
+     * @param cliente Modelo de dominio
+     * @param campo Campo de orden (id, nombre o clienteId)
+     * @return Valor del campo
+     * @throws IllegalArgumentException si no se puede ordenar por el campo
+     */
+    public Object valorOrden(Cliente cliente, String campo) {
+        return switch (campo) {
+            case "id" -> cliente.getId();
+            case "nombre" -> cliente.getNombre();
+            case "clienteId" -> cliente.getClienteId();
+            default -> throw new IllegalArgumentException("No se puede ordenar los clientes por: " + campo);
+        };
+    }
 }
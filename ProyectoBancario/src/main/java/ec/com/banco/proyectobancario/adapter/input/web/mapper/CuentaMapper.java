@@ -50,9 +50,27 @@ public class CuentaMapper {
         response.setNumeroCuenta(cuenta.getNumeroCuenta());
         response.setTipoCuenta(cuenta.getTipoCuenta());
         response.setSaldoInicial(cuenta.getSaldoInicial());
+        response.setSaldoActual(cuenta.getSaldoActual());
         response.setEstado(cuenta.getEstado());
         response.setClienteId(cuenta.getClienteId());
         
         return response;
     }
+    
+    /**
+     * Obtiene el valor de un campo de orden del listado de cuentas, para el cursor de página.
+     * 
+     * @param cuenta Modelo de dominio
+     * @param campo Campo de orden (id, numeroCuenta o clienteId)
+     * @return Valor del campo
+     * @throws IllegalArgumentException si no se puede ordenar por el campo
+     */
+    public Object valorOrden(Cuenta cuenta, String campo) {
+        return switch (campo) {
+            case "id" -> cuenta.getId();
+            case "numeroCuenta" -> cuenta.getNumeroCuenta();
+            case "clienteId" -> cuenta.getClienteId();
+            default -> throw new IllegalArgumentException("No se puede ordenar las cuentas por: " + campo);
+        };
+    }
 }
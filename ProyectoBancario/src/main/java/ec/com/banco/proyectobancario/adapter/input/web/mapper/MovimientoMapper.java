@@ -1,11 +1,26 @@
 package ec.com.banco.proyectobancario.adapter.input.web.mapper;
 
+import ec.com.banco.proyectobancario.adapter.input.async.EstadoSolicitud;
+import ec.com.banco.proyectobancario.adapter.input.async.SolicitudMovimiento;
+import ec.com.banco.proyectobancario.adapter.input.web.dto.MovimientoLoteRequest;
+import ec.com.banco.proyectobancario.adapter.input.web.dto.MovimientoLoteResponse;
 import ec.com.banco.proyectobancario.adapter.input.web.dto.MovimientoRequest;
 import ec.com.banco.proyectobancario.adapter.input.web.dto.MovimientoResponse;
+import ec.com.banco.proyectobancario.adapter.input.web.dto.PaginaResponse;
+import ec.com.banco.proyectobancario.adapter.input.web.dto.SolicitudMovimientoResponse;
+import ec.com.banco.proyectobancario.domain.model.CursorMovimiento;
 import ec.com.banco.proyectobancario.domain.model.Movimiento;
+import ec.com.banco.proyectobancario.domain.model.Pagina;
+import ec.com.banco.proyectobancario.domain.model.ResultadoMovimientoLote;
 
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
  * Mapper para convertir entre DTOs y modelos de dominio de Movimiento.
  * 
@@ -13,6 +28,8 @@ import org.springframework.stereotype.Component;
 @Component("movimientoWebMapper")
 public class MovimientoMapper {
     
+    private static final String SEPARADOR_CURSOR = "|";
+    
     /**
      * Convierte un MovimientoRequest a Movimiento del dominio.
      * 
@@ -53,4 +70,119 @@ public class MovimientoMapper {
         
         return response;
     }
+    
+    /**
+     * Convierte un MovimientoLoteRequest a una lista de Movimiento del dominio.
+     * 
+     * @param request DTO de request
+     * @return Lista de modelos de dominio
+     */
+    public List<Movimiento> toDomainList(MovimientoLoteRequest request) {
+        if (request == null || request.getMovimientos() == null) {
+            return null;
+        }
+        return request.getMovimientos().stream()
+                .map(this::toDomain)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Convierte los resultados de un lote a MovimientoLoteResponse.
+     * 
+     * @param resultados Resultados del dominio
+     * @return DTO de response
+     */
+    public MovimientoLoteResponse toLoteResponse(List<ResultadoMovimientoLote> resultados) {
+        if (resultados == null) {
+            return null;
+        }
+        
+        List<MovimientoLoteResponse.ResultadoLoteResponse> items = resultados.stream()
+                .map(resultado -> new MovimientoLoteResponse.ResultadoLoteResponse(
+                        resultado.getIndice(),
+                        resultado.isExitoso(),
+                        toResponse(resultado.getMovimiento()),
+                        resultado.getError()))
+                .collect(Collectors.toList());
+        int exitosos = (int) resultados.stream().filter(ResultadoMovimientoLote::isExitoso).count();
+        
+        MovimientoLoteResponse response = new MovimientoLoteResponse();
+        response.setTotal(resultados.size());
+        response.setExitosos(exitosos);
+        response.setFallidos(resultados.size() - exitosos);
+        response.setResultados(items);
+        
+        return response;
+    }
+    
+    /**
+     * Convierte una SolicitudMovimiento a SolicitudMovimientoResponse.
+     * El movimiento solo se incluye cuando la solicitud fue procesada.
+     * 
+     * @param solicitud Solicitud asíncrona
+     * @return DTO de response
+     */
+    public SolicitudMovimientoResponse toSolicitudResponse(SolicitudMovimiento solicitud) {
+        if (solicitud == null) {
+            return null;
+        }
+        
+        return new SolicitudMovimientoResponse(
+            solicitud.getId(),
+            solicitud.getEstado().name(),
+            solicitud.getEstado() == EstadoSolicitud.PROCESADA ? toResponse(solicitud.getMovimiento()) : null,
+            solicitud.getError()
+        );
+    }
+    
+    /**
+     * Convierte una página de movimientos a PaginaResponse, con el cursor de la página
+     * siguiente construido a partir del último movimiento.
+     * 
+     * @param pagina Página del dominio
+     * @return DTO de response
+     */
+    public PaginaResponse<MovimientoResponse> toPaginaResponse(Pagina<Movimiento> pagina) {
+        if (pagina == null) {
+            return null;
+        }
+        
+        List<Movimiento> elementos = pagina.getElementos();
+        String siguienteCursor = pagina.isHaySiguiente() && !elementos.isEmpty()
+                ? toCursorTexto(elementos.get(elementos.size() - 1))
+                : null;
+        
+        return new PaginaResponse<>(
+            elementos.stream().map(this::toResponse).collect(Collectors.toList()),
+            siguienteCursor
+        );
+    }
+    
+    /**
+     * Convierte el cursor recibido del cliente a la posición del dominio.
+     * 
+     * @param cursor Cursor opaco devuelto en una página anterior, o null
+     * @return Posición del último movimiento de la página anterior, o null
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    public CursorMovimiento toCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = texto.lastIndexOf(SEPARADOR_CURSOR);
+            return new CursorMovimiento(
+                LocalDateTime.parse(texto.substring(0, separador)),
+                Long.valueOf(texto.substring(separador + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor de página inválido");
+        }
+    }
+    
+    private String toCursorTexto(Movimiento movimiento) {
+        String texto = movimiento.getFecha() + SEPARADOR_CURSOR + movimiento.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
 }
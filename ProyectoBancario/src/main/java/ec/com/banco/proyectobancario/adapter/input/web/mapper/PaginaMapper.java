@@ -0,0 +1,119 @@
+package ec.com.banco.proyectobancario.adapter.input.web.mapper;
+
+import ec.com.banco.proyectobancario.adapter.input.web.dto.PaginaResponse;
+import ec.com.banco.proyectobancario.domain.model.ConsultaPagina;
+import ec.com.banco.proyectobancario.domain.model.CursorPagina;
+import ec.com.banco.proyectobancario.domain.model.Pagina;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Mapper de los parámetros y respuestas de los listados por páginas con cursor.
+ * El cursor que recibe el cliente codifica el campo de orden y el valor de ese campo y el id
+ * de la última fila de la página; se trata como opaco para poder cambiar la forma de paginar
+ * sin cambiar el contrato.
+ * 
+ */
+@Component
+public class PaginaMapper {
+    
+    private static final String DESCENDENTE = "desc";
+    private static final String ASCENDENTE = "asc";
+    private static final String SEPARADOR_CURSOR = "|";
+    private static final String ID = "id";
+    
+    /**
+     * Convierte los parámetros de la petición a la consulta del dominio.
+     * 
+     * @param cursor Cursor devuelto en la página anterior, o null para la primera
+     * @param tamano Cantidad de elementos por página
+     * @param orden Campo de orden, opcionalmente seguido de ",asc" o ",desc"
+     * @return Consulta de página
+     * @throws IllegalArgumentException si el cursor o el orden no son válidos
+     */
+    public ConsultaPagina toConsulta(String cursor, int tamano, String orden) {
+        String[] partes = orden.split(",", 2);
+        String campo = partes[0].trim();
+        String direccion = partes.length > 1 ? partes[1].trim().toLowerCase() : ASCENDENTE;
+        if (!ASCENDENTE.equals(direccion) && !DESCENDENTE.equals(direccion)) {
+            throw new IllegalArgumentException("La dirección de orden debe ser asc o desc");
+        }
+        
+        return new ConsultaPagina(toCursor(cursor, campo), tamano, campo, DESCENDENTE.equals(direccion));
+    }
+    
+    /**
+     * Convierte una página del dominio a la respuesta, con el cursor de la página siguiente
+     * construido a partir de la última fila.
+     * 
+     * @param pagina Página del dominio
+     * @param consulta Consulta con la que se obtuvo la página
+     * @param conversor Conversión de cada elemento a su DTO
+     * @param valorCampo Valor de un campo de orden de un elemento, por nombre del campo
+     * @return DTO de respuesta
+     */
+    public <T, R> PaginaResponse<R> toResponse(Pagina<T> pagina, ConsultaPagina consulta, Function<T, R> conversor,
+                                               BiFunction<T, String, Object> valorCampo) {
+        if (pagina == null) {
+            return null;
+        }
+        
+        List<T> elementos = pagina.getElementos();
+        String siguienteCursor = pagina.isHaySiguiente() && !elementos.isEmpty()
+                ? toCursorTexto(consulta.getOrdenarPor(), elementos.get(elementos.size() - 1), valorCampo)
+                : null;
+        
+        return new PaginaResponse<>(
+            elementos.stream().map(conversor).collect(Collectors.toList()),
+            siguienteCursor
+        );
+    }
+    
+    /**
+     * Convierte el cursor recibido del cliente a la posición del dominio.
+     * 
+     * @param cursor Cursor opaco devuelto en una página anterior, o null
+     * @param campo Campo de orden de la consulta actual
+     * @return Valor del campo de orden e id de la última fila de la página anterior, o null
+     * @throws IllegalArgumentException si el cursor no es válido o se obtuvo con otro orden
+     */
+    private CursorPagina toCursor(String cursor, String campo) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String texto;
+        try {
+            texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor de página inválido");
+        }
+        
+        int primerSeparador = texto.indexOf(SEPARADOR_CURSOR);
+        int ultimoSeparador = texto.lastIndexOf(SEPARADOR_CURSOR);
+        if (primerSeparador < 0 || primerSeparador == ultimoSeparador) {
+            throw new IllegalArgumentException("Cursor de página inválido");
+        }
+        if (!campo.equals(texto.substring(0, primerSeparador))) {
+            throw new IllegalArgumentException("El cursor de página corresponde a otro orden");
+        }
+        try {
+            return new CursorPagina(texto.substring(primerSeparador + 1, ultimoSeparador),
+                    Long.valueOf(texto.substring(ultimoSeparador + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor de página inválido");
+        }
+    }
+    
+    private <T> String toCursorTexto(String campo, T ultimo, BiFunction<T, String, Object> valorCampo) {
+        String texto = campo + SEPARADOR_CURSOR + valorCampo.apply(ultimo, campo)
+                + SEPARADOR_CURSOR + valorCampo.apply(ultimo, ID);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+}
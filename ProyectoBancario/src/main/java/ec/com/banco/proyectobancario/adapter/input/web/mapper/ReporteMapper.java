@@ -0,0 +1,69 @@
+package ec.com.banco.proyectobancario.adapter.input.web.mapper;
+
+import ec.com.banco.proyectobancario.adapter.input.async.EjecucionCiclo;
+import ec.com.banco.proyectobancario.adapter.input.async.EstadoTrabajoReporte;
+import ec.com.banco.proyectobancario.adapter.input.async.TrabajoReporte;
+import ec.com.banco.proyectobancario.adapter.input.web.dto.CicloEstadosCuentaResponse;
+import ec.com.banco.proyectobancario.adapter.input.web.dto.TrabajoReporteResponse;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+/**
+ * Mapper para convertir los trabajos de generación de reportes y los ciclos de estados de
+ * cuenta a DTOs.
+ * 
+ */
+@Component
+public class ReporteMapper {
+    
+    /**
+     * Convierte un TrabajoReporte a TrabajoReporteResponse, con el enlace de descarga
+     * cuando el documento está listo.
+     * 
+     * @param trabajo Trabajo de generación
+     * @return DTO de response
+     */
+    public TrabajoReporteResponse toTrabajoResponse(TrabajoReporte trabajo) {
+        if (trabajo == null) {
+            return null;
+        }
+        
+        return new TrabajoReporteResponse(
+            trabajo.getId(),
+            trabajo.getEstado().name(),
+            trabajo.getClienteId(),
+            trabajo.getFechaInicio(),
+            trabajo.getFechaFin(),
+            trabajo.getError(),
+            trabajo.getEstado() == EstadoTrabajoReporte.LISTO
+                    ? ServletUriComponentsBuilder.fromCurrentContextPath()
+                            .path("/reportes/jobs/{id}/pdf")
+                            .buildAndExpand(trabajo.getId())
+                            .toUriString()
+                    : null
+        );
+    }
+    
+    /**
+     * Convierte el avance de un ciclo de estados de cuenta a CicloEstadosCuentaResponse.
+     * 
+     * @param ejecucion Avance del ciclo
+     * @return DTO de response
+     */
+    public CicloEstadosCuentaResponse toCicloResponse(EjecucionCiclo ejecucion) {
+        if (ejecucion == null) {
+            return null;
+        }
+        
+        return new CicloEstadosCuentaResponse(
+            ejecucion.getPeriodo().toString(),
+            ejecucion.getEstado().name(),
+            ejecucion.getGenerados(),
+            ejecucion.getFallidos(),
+            ejecucion.getUltimoClienteId(),
+            ejecucion.getEstadosPorSegundo(),
+            ejecucion.getError()
+        );
+    }
+}
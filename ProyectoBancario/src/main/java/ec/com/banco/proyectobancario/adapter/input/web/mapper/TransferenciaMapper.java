@@ -0,0 +1,60 @@
+package ec.com.banco.proyectobancario.adapter.input.web.mapper;
+
+import ec.com.banco.proyectobancario.adapter.input.web.dto.TransferenciaRequest;
+import ec.com.banco.proyectobancario.adapter.input.web.dto.TransferenciaResponse;
+import ec.com.banco.proyectobancario.domain.model.Transferencia;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Mapper para convertir entre DTOs y modelos de dominio de Transferencia.
+ * 
+ */
+@Component
+public class TransferenciaMapper {
+    
+    private final MovimientoMapper movimientoMapper;
+    
+    public TransferenciaMapper(MovimientoMapper movimientoMapper) {
+        this.movimientoMapper = movimientoMapper;
+    }
+    
+    /**
+     * Convierte un TransferenciaRequest a Transferencia del dominio.
+     * 
+     * @param request DTO de request
+     * @return Modelo de dominio
+     */
+    public Transferencia toDomain(TransferenciaRequest request) {
+        if (request == null) {
+            return null;
+        }
+        
+        Transferencia transferencia = new Transferencia();
+        transferencia.setCuentaOrigenId(request.getCuentaOrigenId());
+        transferencia.setCuentaDestinoId(request.getCuentaDestinoId());
+        transferencia.setValor(request.getValor());
+        
+        return transferencia;
+    }
+    
+    /**
+     * Convierte una Transferencia del dominio a TransferenciaResponse.
+     * 
+     * @param transferencia Modelo de dominio
+     * @return DTO de response
+     */
+    public TransferenciaResponse toResponse(Transferencia transferencia) {
+        if (transferencia == null) {
+            return null;
+        }
+        
+        return new TransferenciaResponse(
+            transferencia.getCuentaOrigenId(),
+            transferencia.getCuentaDestinoId(),
+            transferencia.getValor(),
+            movimientoMapper.toResponse(transferencia.getDebito()),
+            movimientoMapper.toResponse(transferencia.getCredito())
+        );
+    }
+}
@@ -1,8 +1,11 @@
 package ec.com.banco.proyectobancario.application.usecase;
 
 import java.util.List;
+import java.util.Set;
 
 import ec.com.banco.proyectobancario.domain.model.Cliente;
+import ec.com.banco.proyectobancario.domain.model.ConsultaPagina;
+import ec.com.banco.proyectobancario.domain.model.Pagina;
 import ec.com.banco.proyectobancario.domain.port.output.ClienteRepositoryPort;
 
 /**
@@ -12,6 +15,11 @@ import ec.com.banco.proyectobancario.domain.port.output.ClienteRepositoryPort;
  */
 public class ClienteUseCase {
     
+    /**
+     * Campos por los que se puede ordenar el listado; todos tienen índice.
+     */
+    private static final Set<String> CAMPOS_ORDEN = Set.of("id", "nombre", "clienteId");
+    
     private final ClienteRepositoryPort clienteRepository;
     
     public ClienteUseCase(ClienteRepositoryPort clienteRepository) {
@@ -65,6 +73,34 @@ public class ClienteUseCase {
         return clienteRepository.findAll();
     }
     
+    /**
+     * Obtiene la versión de todos los clientes, que cambia con cualquier alta, modificación
+     * o eliminación. Permite saber si el listado cambió sin consultarlo.
+     * 
+     * @return Versión de los clientes
+     */
+    public String obtenerVersionClientes() {
+        return clienteRepository.obtenerVersion();
+    }
+    
+    /**
+     * Obtiene una página de clientes, opcionalmente filtrados por estado.
+     * 
+     * @param estado Estado de los clientes, o null para todos
+     * @param consulta Cursor, tamaño y orden
+     * @return Página de clientes
+     * @throws IllegalArgumentException si el tamaño o el campo de orden no son válidos
+     */
+    public Pagina<Cliente> obtenerPaginaClientes(Boolean estado, ConsultaPagina consulta) {
+        if (consulta.getTamano() < 1 || consulta.getTamano() > Pagina.TAMANO_MAXIMO) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + Pagina.TAMANO_MAXIMO);
+        }
+        if (!CAMPOS_ORDEN.contains(consulta.getOrdenarPor())) {
+            throw new IllegalArgumentException("No se puede ordenar los clientes por: " + consulta.getOrdenarPor());
+        }
+        return clienteRepository.findPagina(estado, consulta);
+    }
+    
     /**
      * Actualiza un cliente existente.
      * 
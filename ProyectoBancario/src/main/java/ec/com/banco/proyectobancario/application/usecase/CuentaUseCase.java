@@ -1,10 +1,22 @@
 package ec.com.banco.proyectobancario.application.usecase;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
+import ec.com.banco.proyectobancario.domain.model.ConsultaPagina;
 import ec.com.banco.proyectobancario.domain.model.Cuenta;
+import ec.com.banco.proyectobancario.domain.model.FiltroCuenta;
+import ec.com.banco.proyectobancario.domain.model.Pagina;
+import ec.com.banco.proyectobancario.domain.model.SaldoDiario;
+import ec.com.banco.proyectobancario.domain.port.output.BloqueoCuentaPort;
 import ec.com.banco.proyectobancario.domain.port.output.ClienteRepositoryPort;
 import ec.com.banco.proyectobancario.domain.port.output.CuentaRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.MovimientoRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.SaldoDiarioRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.TransaccionPort;
 
 /**
  * Caso de uso para la gestión de cuentas.
@@ -13,12 +25,29 @@ import ec.com.banco.proyectobancario.domain.port.output.CuentaRepositoryPort;
  */
 public class CuentaUseCase {
     
+    /**
+     * Campos por los que se puede ordenar el listado; todos tienen índice.
+     */
+    private static final Set<String> CAMPOS_ORDEN = Set.of("id", "numeroCuenta", "clienteId");
+    
     private final CuentaRepositoryPort cuentaRepository;
     private final ClienteRepositoryPort clienteRepository;
+    private final MovimientoRepositoryPort movimientoRepository;
+    private final SaldoDiarioRepositoryPort saldoDiarioRepository;
+    private final TransaccionPort transaccion;
+    private final BloqueoCuentaPort bloqueoCuenta;
     
-    public CuentaUseCase(CuentaRepositoryPort cuentaRepository, ClienteRepositoryPort clienteRepository) {
+    public CuentaUseCase(CuentaRepositoryPort cuentaRepository, ClienteRepositoryPort clienteRepository,
+                         MovimientoRepositoryPort movimientoRepository,
+                         SaldoDiarioRepositoryPort saldoDiarioRepository,
+                         TransaccionPort transaccion,
+                         BloqueoCuentaPort bloqueoCuenta) {
         this.cuentaRepository = cuentaRepository;
         this.clienteRepository = clienteRepository;
+        this.movimientoRepository = movimientoRepository;
+        this.saldoDiarioRepository = saldoDiarioRepository;
+        this.transaccion = transaccion;
+        this.bloqueoCuenta = bloqueoCuenta;
     }
     
     /**
@@ -37,6 +66,9 @@ public class CuentaUseCase {
         clienteRepository.findById(cuenta.getClienteId())
                 .orElseThrow(() -> new IllegalArgumentException("Cliente no encontrado con id: " + cuenta.getClienteId()));
         
+        // Una cuenta nueva inicia con su saldo inicial como saldo actual
+        cuenta.setSaldoActual(cuenta.getSaldoInicial());
+        
         return cuentaRepository.save(cuenta);
     }
     
@@ -83,8 +115,71 @@ public class CuentaUseCase {
         return cuentaRepository.findAll();
     }
     
+    /**
+     * Obtiene la versión de todas las cuentas, que cambia con cualquier alta, modificación,
+     * eliminación o movimiento. Permite saber si el listado cambió sin consultarlo.
+     * 
+     * @return Versión de las cuentas
+     */
+    public String obtenerVersionCuentas() {
+        return cuentaRepository.obtenerVersion();
+    }
+    
+    /**
+     * Obtiene la versión de las cuentas de un cliente, que cambia con cualquier alta,
+     * modificación, eliminación o movimiento de ellas.
+     * 
+     * @param clienteId Identificador del cliente
+     * @return Versión de las cuentas del cliente
+     */
+    public String obtenerVersionCuentasPorCliente(Long clienteId) {
+        return cuentaRepository.obtenerVersionPorCliente(clienteId);
+    }
+    
+    /**
+     * Obtiene una página de cuentas que cumplen el filtro.
+     * 
+     * @param filtro Criterios de filtrado
+     * @param consulta Cursor, tamaño y orden
+     * @return Página de cuentas
+     * @throws IllegalArgumentException si el tamaño o el campo de orden no son válidos
+     */
+    public Pagina<Cuenta> obtenerPaginaCuentas(FiltroCuenta filtro, ConsultaPagina consulta) {
+        if (consulta.getTamano() < 1 || consulta.getTamano() > Pagina.TAMANO_MAXIMO) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + Pagina.TAMANO_MAXIMO);
+        }
+        if (!CAMPOS_ORDEN.contains(consulta.getOrdenarPor())) {
+            throw new IllegalArgumentException("No se puede ordenar las cuentas por: " + consulta.getOrdenarPor());
+        }
+        return cuentaRepository.findPagina(filtro, consulta);
+    }
+    
+    /**
+     * Obtiene el saldo de una cuenta al final de un día.
+     * Parte del saldo de cierre más cercano en o antes del día y suma solo los movimientos
+     * posteriores a ese cierre; sin cierres previos, parte del saldo inicial.
+     * 
+     * @param id Identificador de la cuenta
+     * @param fecha Día de consulta
+     * @return Saldo al final del día
+     * @throws IllegalArgumentException si la cuenta no existe
+     */
+    public BigDecimal obtenerSaldoAFecha(Long id, LocalDate fecha) {
+        Cuenta cuenta = obtenerCuentaPorId(id);
+        Optional<SaldoDiario> cierre = saldoDiarioRepository.buscarUltimoHasta(id, fecha);
+        
+        BigDecimal saldoBase = cierre.map(SaldoDiario::getSaldo).orElse(cuenta.getSaldoInicial());
+        BigDecimal movimientosPosteriores = movimientoRepository.sumarValores(id,
+                cierre.map(c -> c.getFecha().plusDays(1).atStartOfDay()).orElse(null),
+                fecha.plusDays(1).atStartOfDay());
+        
+        return saldoBase.add(movimientosPosteriores);
+    }
+    
     /**
      * Actualiza una cuenta existente.
+     * Si cambia el saldo inicial, el saldo actual y los saldos de cierre se ajustan en la misma
+     * diferencia, en una sola transacción serializada con los movimientos de la cuenta.
      * 
      * @param id Identificador de la cuenta
      * @param cuentaActualizada Datos actualizados de la cuenta
@@ -92,16 +187,28 @@ public class CuentaUseCase {
      * @throws IllegalArgumentException si la cuenta no existe o el número de cuenta ya existe
      */
     public Cuenta actualizarCuenta(Long id, Cuenta cuentaActualizada) {
-        Cuenta cuentaExistente = obtenerCuentaPorId(id);
-        
-        // Verificar si se está cambiando el número de cuenta y si ya existe
-        if (!cuentaExistente.getNumeroCuenta().equals(cuentaActualizada.getNumeroCuenta()) 
-                && cuentaRepository.existsByNumeroCuenta(cuentaActualizada.getNumeroCuenta())) {
-            throw new IllegalArgumentException("El número de cuenta ya existe: " + cuentaActualizada.getNumeroCuenta());
-        }
-        
-        cuentaActualizada.setId(id);
-        return cuentaRepository.save(cuentaActualizada);
+        return bloqueoCuenta.ejecutar(id, () -> transaccion.ejecutar(() -> {
+            Cuenta cuentaExistente = cuentaRepository.findByIdParaActualizar(id)
+                    .orElseThrow(() -> new IllegalArgumentException("Cuenta no encontrada con id: " + id));
+            
+            // Verificar si se está cambiando el número de cuenta y si ya existe
+            if (!cuentaExistente.getNumeroCuenta().equals(cuentaActualizada.getNumeroCuenta()) 
+                    && cuentaRepository.existsByNumeroCuenta(cuentaActualizada.getNumeroCuenta())) {
+                throw new IllegalArgumentException("El número de cuenta ya existe: " + cuentaActualizada.getNumeroCuenta());
+            }
+            
+            BigDecimal ajusteSaldo = cuentaActualizada.getSaldoInicial().subtract(cuentaExistente.getSaldoInicial());
+            cuentaActualizada.setId(id);
+            cuentaActualizada.setSaldoActual(cuentaExistente.getSaldoActual().add(ajusteSaldo));
+            Cuenta guardada = cuentaRepository.save(cuentaActualizada);
+            
+            // El saldo actual se ajusta sobre el valor de la fila, no sobre el leído
+            if (ajusteSaldo.signum() != 0) {
+                cuentaRepository.ajustarSaldoActual(id, ajusteSaldo);
+                saldoDiarioRepository.ajustarDesde(id, null, ajusteSaldo);
+            }
+            return guardada;
+        }));
     }
     
     /**
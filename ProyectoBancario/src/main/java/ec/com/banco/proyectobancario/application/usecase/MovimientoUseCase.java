@@ -1,15 +1,35 @@
 package ec.com.banco.proyectobancario.application.usecase;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
+import ec.com.banco.proyectobancario.domain.exception.ClaveIdempotenciaReutilizadaException;
+import ec.com.banco.proyectobancario.domain.model.Cuenta;
+import ec.com.banco.proyectobancario.domain.model.CursorMovimiento;
 import ec.com.banco.proyectobancario.domain.model.Movimiento;
+import ec.com.banco.proyectobancario.domain.model.Pagina;
+import ec.com.banco.proyectobancario.domain.model.RegistroIdempotencia;
+import ec.com.banco.proyectobancario.domain.model.ResultadoMovimientoLote;
 import ec.com.banco.proyectobancario.domain.model.TipoMovimiento;
+import ec.com.banco.proyectobancario.domain.port.output.BloqueoCuentaPort;
 import ec.com.banco.proyectobancario.domain.port.output.CuentaRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.IdempotenciaRepositoryPort;
 import ec.com.banco.proyectobancario.domain.port.output.MovimientoRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.RegistroRechazosPort;
+import ec.com.banco.proyectobancario.domain.port.output.RetiroDiarioRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.SaldoDiarioRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.TransaccionPort;
 
 /**
  * Caso de uso para la gestión de movimientos.
@@ -18,40 +38,323 @@ import ec.com.banco.proyectobancario.domain.port.output.MovimientoRepositoryPort
  */
 public class MovimientoUseCase {
     
+    private static final int LONGITUD_MAXIMA_CLAVE = 100;
+    
     private final MovimientoRepositoryPort movimientoRepository;
     private final CuentaRepositoryPort cuentaRepository;
+    private final RetiroDiarioRepositoryPort retiroDiarioRepository;
+    private final IdempotenciaRepositoryPort idempotenciaRepository;
+    private final SaldoDiarioRepositoryPort saldoDiarioRepository;
+    private final TransaccionPort transaccion;
+    private final BloqueoCuentaPort bloqueoCuenta;
+    private final RegistroRechazosPort registroRechazos;
     private final BigDecimal limiteDiarioRetiro;
     
     public MovimientoUseCase(MovimientoRepositoryPort movimientoRepository, 
                             CuentaRepositoryPort cuentaRepository,
+                            RetiroDiarioRepositoryPort retiroDiarioRepository,
+                            IdempotenciaRepositoryPort idempotenciaRepository,
+                            SaldoDiarioRepositoryPort saldoDiarioRepository,
+                            TransaccionPort transaccion,
+                            BloqueoCuentaPort bloqueoCuenta,
+                            RegistroRechazosPort registroRechazos,
                             BigDecimal limiteDiarioRetiro) {
         this.movimientoRepository = movimientoRepository;
         this.cuentaRepository = cuentaRepository;
+        this.retiroDiarioRepository = retiroDiarioRepository;
+        this.idempotenciaRepository = idempotenciaRepository;
+        this.saldoDiarioRepository = saldoDiarioRepository;
+        this.transaccion = transaccion;
+        this.bloqueoCuenta = bloqueoCuenta;
+        this.registroRechazos = registroRechazos;
         this.limiteDiarioRetiro = limiteDiarioRetiro;
     }
     
     /**
      * Crea un nuevo movimiento bancario.
      * Aplica las reglas de negocio: validación de saldo, límite diario, etc.
+     * El movimiento y el nuevo saldo de la cuenta se guardan en una misma transacción,
+     * serializada con las demás operaciones de la misma cuenta.
      * 
      * @param movimiento Movimiento a crear
      * @return Movimiento creado con saldo actualizado
      * @throws IllegalArgumentException si no se cumplen las reglas de negocio
      */
     public Movimiento crearMovimiento(Movimiento movimiento) {
-        // Validar que la cuenta existe
-        var cuenta = cuentaRepository.findById(movimiento.getCuentaId())
-                .orElseThrow(() -> new IllegalArgumentException("Cuenta no encontrada con id: " + movimiento.getCuentaId()));
+        return bloqueoCuenta.ejecutar(movimiento.getCuentaId(),
+                () -> transaccion.ejecutar(() -> registrarMovimiento(movimiento)));
+    }
+    
+    /**
+     * Crea un nuevo movimiento bancario identificado por una clave de idempotencia.
+     * Si la clave ya fue usada por la misma solicitud (cuenta, tipo y valor), devuelve el
+     * movimiento original sin registrar uno nuevo.
+     * 
+     * @param movimiento Movimiento a crear
+     * @param claveIdempotencia Clave de idempotencia enviada por el canal
+     * @return Movimiento creado, o el original si la clave ya fue usada
+     * @throws IllegalArgumentException si no se cumplen las reglas de negocio
+     * @throws ClaveIdempotenciaReutilizadaException si la clave ya fue usada con otra solicitud
+     */
+    public Movimiento crearMovimiento(Movimiento movimiento, String claveIdempotencia) {
+        if (claveIdempotencia == null || claveIdempotencia.isBlank()) {
+            return crearMovimiento(movimiento);
+        }
+        if (claveIdempotencia.length() > LONGITUD_MAXIMA_CLAVE) {
+            throw new IllegalArgumentException("La clave de idempotencia no puede superar "
+                    + LONGITUD_MAXIMA_CLAVE + " caracteres");
+        }
         
-        if (!cuenta.getEstado()) {
-            throw new IllegalArgumentException("La cuenta está inactiva");
+        // La huella se calcula antes de aplicar las reglas, que cambian el signo del valor
+        String huella = huella(movimiento);
+        return idempotenciaRepository.buscarMovimiento(claveIdempotencia)
+                .map(registro -> original(registro, huella))
+                .orElseGet(() -> bloqueoCuenta.ejecutar(movimiento.getCuentaId(), () -> transaccion.ejecutar(() ->
+                        // Se vuelve a consultar bajo el bloqueo por si un reintento concurrente ya la registró
+                        idempotenciaRepository.buscarMovimiento(claveIdempotencia)
+                                .map(registro -> original(registro, huella))
+                                .orElseGet(() -> {
+                                    Movimiento movimientoGuardado = registrarMovimiento(movimiento);
+                                    idempotenciaRepository.registrar(claveIdempotencia, huella, movimientoGuardado);
+                                    return movimientoGuardado;
+                                }))));
+    }
+    
+    /**
+     * Devuelve el movimiento de una clave ya usada si la solicitud es la misma. Las claves
+     * registradas antes de guardar la huella se aceptan sin comparar.
+     */
+    private static Movimiento original(RegistroIdempotencia registro, String huella) {
+        if (registro.getHuella() != null && !registro.getHuella().equals(huella)) {
+            throw new ClaveIdempotenciaReutilizadaException(
+                    "La clave de idempotencia ya fue usada con una solicitud distinta");
         }
+        return registro.getMovimiento();
+    }
+    
+    /**
+     * Huella de una solicitud de movimiento: SHA-256 en hexadecimal de la cuenta, el tipo y el
+     * valor, con el valor sin ceros a la derecha para que 100 y 100.00 coincidan.
+     */
+    private static String huella(Movimiento movimiento) {
+        BigDecimal valor = movimiento.getValor();
+        String contenido = movimiento.getCuentaId() + "|" + movimiento.getTipoMovimiento() + "|"
+                + (valor == null ? null : valor.stripTrailingZeros().toPlainString());
+        try {
+            byte[] resumen = MessageDigest.getInstance("SHA-256")
+                    .digest(contenido.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(resumen);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible", e);
+        }
+    }
+    
+    /**
+     * Aplica las reglas de negocio y registra un movimiento.
+     * Debe invocarse con el bloqueo de la cuenta adquirido y dentro de una transacción.
+     * 
+     * @param movimiento Movimiento a registrar
+     * @return Movimiento registrado
+     * @throws IllegalArgumentException si no se cumplen las reglas de negocio
+     */
+    Movimiento registrarMovimiento(Movimiento movimiento) {
+        return registrarMovimiento(movimiento, obtenerCuentaActiva(movimiento.getCuentaId()));
+    }
+    
+    /**
+     * Aplica las reglas de negocio y registra un movimiento sobre una cuenta cuya fila ya fue
+     * bloqueada en la transacción en curso, partiendo del saldo leído con ese bloqueo.
+     * 
+     * @param movimiento Movimiento a registrar
+     * @param cuentaBloqueada Cuenta del movimiento, leída con bloqueo
+     * @return Movimiento registrado
+     * @throws IllegalArgumentException si no se cumplen las reglas de negocio
+     */
+    Movimiento registrarMovimiento(Movimiento movimiento, Cuenta cuentaBloqueada) {
+        Cuenta cuenta = validarActiva(cuentaBloqueada);
+        LocalDateTime ahora = LocalDateTime.now();
         
-        // Obtener el último saldo de la cuenta
-        BigDecimal saldoActual = obtenerSaldoActual(cuenta.getId());
+        aplicarReglas(movimiento, obtenerSaldoActual(cuenta),
+                () -> retiroDiarioRepository.obtenerTotal(cuenta.getId(), ahora.toLocalDate()), ahora);
+        
+        // Guardar movimiento
+        Movimiento movimientoGuardado = movimientoRepository.save(movimiento);
+        
+        // Acumular el retiro del día
+        if (esDebito(movimiento)) {
+            acumularRetiro(cuenta.getId(), ahora, movimiento.getValor().abs());
+        }
+        
+        // Actualizar saldo actual de la cuenta, su cierre del día y los totales del día
+        cuentaRepository.actualizarSaldoActual(cuenta.getId(), movimiento.getSaldo());
+        saldoDiarioRepository.registrarCierre(cuenta.getId(), ahora.toLocalDate(), movimiento.getSaldo(),
+                esDebito(movimiento) ? BigDecimal.ZERO : movimiento.getValor(),
+                esDebito(movimiento) ? movimiento.getValor() : BigDecimal.ZERO, 1);
+        
+        return movimientoGuardado;
+    }
+    
+    /**
+     * Crea un lote de movimientos aplicando las mismas reglas de negocio que
+     * {@link #crearMovimiento(Movimiento)}.
+     * Los movimientos se agrupan por cuenta; cada cuenta se procesa en una sola transacción,
+     * en el orden recibido, y sus movimientos válidos se guardan juntos.
+     * Un movimiento rechazado no impide registrar los demás; cada rechazo por reglas de
+     * negocio se cuenta en el registro de rechazos, porque no sale como excepción.
+     * El cupo diario se valida con el acumulado en memoria y se vuelve a comprobar en la base
+     * de datos antes de guardar; si otro nodo ya consumió el cupo, se rechazan los débitos de la
+     * cuenta con "Cupo diario Excedido" y sus créditos se registran igual.
+     * 
+     * @param movimientos Movimientos a crear
+     * @return Resultado de cada movimiento, en el mismo orden del lote
+     */
+    public List<ResultadoMovimientoLote> crearMovimientosEnLote(List<Movimiento> movimientos) {
+        ResultadoMovimientoLote[] resultados = new ResultadoMovimientoLote[movimientos.size()];
+        Map<Long, List<Integer>> indicesPorCuenta = new LinkedHashMap<>();
+        
+        for (int i = 0; i < movimientos.size(); i++) {
+            Long cuentaId = movimientos.get(i).getCuentaId();
+            if (cuentaId == null) {
+                resultados[i] = rechazado(i, "El cuentaId es obligatorio");
+            } else {
+                indicesPorCuenta.computeIfAbsent(cuentaId, id -> new ArrayList<>()).add(i);
+            }
+        }
+        
+        indicesPorCuenta.forEach((cuentaId, indices) -> {
+            try {
+                List<ResultadoMovimientoLote> resultadosCuenta = bloqueoCuenta.ejecutar(cuentaId,
+                        () -> transaccion.ejecutar(() -> registrarMovimientosCuenta(cuentaId, indices, movimientos)));
+                resultadosCuenta.forEach(resultado -> resultados[resultado.getIndice()] = resultado);
+            } catch (IllegalArgumentException e) {
+                indices.forEach(indice -> resultados[indice] = rechazado(indice, e.getMessage()));
+            } catch (RuntimeException e) {
+                indices.forEach(indice -> resultados[indice] = ResultadoMovimientoLote.fallido(indice, e.getMessage()));
+            }
+        });
+        
+        return Arrays.asList(resultados);
+    }
+    
+    private ResultadoMovimientoLote rechazado(int indice, String motivo) {
+        registroRechazos.registrar(motivo);
+        return ResultadoMovimientoLote.fallido(indice, motivo);
+    }
+    
+    private List<ResultadoMovimientoLote> registrarMovimientosCuenta(Long cuentaId, List<Integer> indices,
+                                                                     List<Movimiento> movimientos) {
+        List<ResultadoMovimientoLote> resultados = new ArrayList<>(indices.size());
+        Cuenta cuenta;
+        try {
+            cuenta = obtenerCuentaActiva(cuentaId);
+        } catch (IllegalArgumentException e) {
+            indices.forEach(indice -> resultados.add(rechazado(indice, e.getMessage())));
+            return resultados;
+        }
+        
+        LocalDateTime ahora = LocalDateTime.now();
+        BigDecimal saldo = obtenerSaldoActual(cuenta);
+        BigDecimal[] totalRetirado = new BigDecimal[1];
+        BigDecimal retiradoLote = BigDecimal.ZERO;
+        BigDecimal creditosLote = BigDecimal.ZERO;
+        BigDecimal debitosLote = BigDecimal.ZERO;
+        List<Integer> indicesAceptados = new ArrayList<>();
+        List<Movimiento> aceptados = new ArrayList<>();
+        
+        for (Integer indice : indices) {
+            Movimiento movimiento = movimientos.get(indice);
+            try {
+                aplicarReglas(movimiento, saldo, () -> {
+                    if (totalRetirado[0] == null) {
+                        totalRetirado[0] = retiroDiarioRepository.obtenerTotal(cuentaId, ahora.toLocalDate());
+                    }
+                    return totalRetirado[0];
+                }, ahora);
+            } catch (IllegalArgumentException e) {
+                resultados.add(rechazado(indice, e.getMessage()));
+                continue;
+            }
+            
+            saldo = movimiento.getSaldo();
+            if (esDebito(movimiento)) {
+                BigDecimal monto = movimiento.getValor().abs();
+                totalRetirado[0] = totalRetirado[0].add(monto);
+                retiradoLote = retiradoLote.add(monto);
+                debitosLote = debitosLote.add(movimiento.getValor());
+            } else {
+                creditosLote = creditosLote.add(movimiento.getValor());
+            }
+            indicesAceptados.add(indice);
+            aceptados.add(movimiento);
+        }
+        
+        if (retiradoLote.signum() > 0
+                && !retiroDiarioRepository.acumularHasta(cuentaId, ahora.toLocalDate(), retiradoLote, limiteDiarioRetiro)) {
+            // Otro nodo consumió el cupo del día: solo se rechazan los débitos, los créditos siguen siendo válidos
+            saldo = obtenerSaldoActual(cuenta);
+            debitosLote = BigDecimal.ZERO;
+            for (int i = aceptados.size() - 1; i >= 0; i--) {
+                if (esDebito(aceptados.get(i))) {
+                    resultados.add(rechazado(indicesAceptados.remove(i), "Cupo diario Excedido"));
+                    aceptados.remove(i);
+                }
+            }
+            for (Movimiento movimiento : aceptados) {
+                saldo = saldo.add(movimiento.getValor());
+                movimiento.setSaldo(saldo);
+            }
+        }
+        
+        if (aceptados.isEmpty()) {
+            return resultados;
+        }
         
+        List<Movimiento> guardados = movimientoRepository.saveAll(aceptados);
+        cuentaRepository.actualizarSaldoActual(cuentaId, saldo);
+        saldoDiarioRepository.registrarCierre(cuentaId, ahora.toLocalDate(), saldo,
+                creditosLote, debitosLote, aceptados.size());
+        
+        for (int i = 0; i < guardados.size(); i++) {
+            resultados.add(ResultadoMovimientoLote.exitoso(indicesAceptados.get(i), guardados.get(i)));
+        }
+        return resultados;
+    }
+    
+    /**
+     * Obtiene una cuenta bloqueando su fila y valida que esté activa. El saldo se lee siempre
+     * de la base de datos, no de la cache, para que dos nodos no contabilicen sobre el mismo
+     * saldo.
+     * 
+     * @param cuentaId Identificador de la cuenta
+     * @return Cuenta bloqueada
+     * @throws IllegalArgumentException si la cuenta no existe o está inactiva
+     */
+    private Cuenta obtenerCuentaActiva(Long cuentaId) {
+        return validarActiva(cuentaRepository.findByIdParaActualizar(cuentaId)
+                .orElseThrow(() -> new IllegalArgumentException("Cuenta no encontrada con id: " + cuentaId)));
+    }
+    
+    private Cuenta validarActiva(Cuenta cuenta) {
+        if (!cuenta.getEstado()) {
+            throw new IllegalArgumentException("La cuenta está inactiva");
+        }
+        return cuenta;
+    }
+    
+    /**
+     * Aplica las reglas de negocio a un movimiento: normaliza el signo del valor, valida
+     * saldo disponible y límite diario, y asigna el nuevo saldo y la fecha.
+     * 
+     * @param movimiento Movimiento a validar
+     * @param saldoActual Saldo de la cuenta antes del movimiento
+     * @param totalRetiradoHoy Total retirado en el día, consultado solo para débitos
+     * @param fecha Fecha del movimiento
+     * @throws IllegalArgumentException si no se cumplen las reglas de negocio
+     */
+    private void aplicarReglas(Movimiento movimiento, BigDecimal saldoActual,
+                               Supplier<BigDecimal> totalRetiradoHoy, LocalDateTime fecha) {
         // Validar tipo de movimiento y aplicar reglas de negocio
-        if (TipoMovimiento.DEBITO.getDescripcion().equals(movimiento.getTipoMovimiento())) {
+        if (esDebito(movimiento)) {
             // Validar saldo disponible para débitos
             if (saldoActual.compareTo(BigDecimal.ZERO) <=0) {
                 throw new IllegalArgumentException("Saldo no disponible");
@@ -63,13 +366,13 @@ public class MovimientoUseCase {
             }
             
             // Validar límite diario de retiro
-            validarLimiteDiarioRetiro(cuenta.getId(), movimiento.getValor().abs());
+            validarLimiteDiarioRetiro(totalRetiradoHoy.get(), movimiento.getValor().abs());
             
             // Validar que el saldo sea suficiente
             if (saldoActual.add(movimiento.getValor()).compareTo(BigDecimal.ZERO) < 0) {
                 throw new IllegalArgumentException("Saldo no disponible");
             }
-        } else if (TipoMovimiento.CREDITO.getDescripcion().equals(movimiento.getTipoMovimiento())) {
+        } else {
             // El valor debe ser positivo para créditos
             if (movimiento.getValor().compareTo(BigDecimal.ZERO) < 0) {
                 movimiento.setValor(movimiento.getValor().abs());
@@ -77,61 +380,51 @@ public class MovimientoUseCase {
         }
         
         // Calcular nuevo saldo
-        BigDecimal nuevoSaldo = saldoActual.add( movimiento.getValor());
-        movimiento.setSaldo(nuevoSaldo);
-        movimiento.setFecha(LocalDateTime.now());
-        
-        // Guardar movimiento
-        Movimiento movimientoGuardado = movimientoRepository.save(movimiento);
-        
-        // Actualizar saldo inicial de la cuenta
-        cuenta.setSaldoInicial(nuevoSaldo);
-        cuentaRepository.save(cuenta);
-        
-        return movimientoGuardado;
+        movimiento.setSaldo(saldoActual.add(movimiento.getValor()));
+        movimiento.setFecha(fecha);
+    }
+    
+    private boolean esDebito(Movimiento movimiento) {
+        return TipoMovimiento.clasificar(movimiento.getTipoMovimiento()) == TipoMovimiento.DEBITO;
     }
     
     /**
-     * Obtiene el saldo actual de una cuenta basado en sus movimientos.
+     * Obtiene el saldo actual registrado en la cuenta.
      * 
-     * @param cuentaId Identificador de la cuenta
+     * @param cuenta Cuenta
      * @return Saldo actual
      */
-    private BigDecimal obtenerSaldoActual(Long cuentaId) {
-        var cuenta = cuentaRepository.findById(cuentaId)
-                .orElseThrow(() -> new IllegalArgumentException("Cuenta no encontrada"));
-        
-        List<Movimiento> movimientos = movimientoRepository.findByCuentaId(cuentaId);
-        
-        if (movimientos.isEmpty()) {
-            return cuenta.getSaldoInicial() != null ? cuenta.getSaldoInicial() : BigDecimal.ZERO;
+    private BigDecimal obtenerSaldoActual(Cuenta cuenta) {
+        if (cuenta.getSaldoActual() != null) {
+            return cuenta.getSaldoActual();
         }
-        
-        // El último movimiento tiene el saldo actualizado
-        return movimientos.stream()
-                .max((m1, m2) -> m1.getFecha().compareTo(m2.getFecha()))
-                .map(Movimiento::getSaldo)
-                .orElse(cuenta.getSaldoInicial() != null ? cuenta.getSaldoInicial() : BigDecimal.ZERO);
+        return cuenta.getSaldoInicial() != null ? cuenta.getSaldoInicial() : BigDecimal.ZERO;
     }
     
     /**
-     * Valida el límite diario de retiro.
+     * Suma un retiro al acumulado del día. El límite se vuelve a validar en la base de datos,
+     * porque el total usado en {@link #aplicarReglas} puede venir de una memoria que otro nodo
+     * todavía no invalidó.
      * 
      * @param cuentaId Identificador de la cuenta
+     * @param fecha Fecha del retiro
+     * @param monto Monto retirado
+     * @throws IllegalArgumentException si se excede el límite diario
+     */
+    private void acumularRetiro(Long cuentaId, LocalDateTime fecha, BigDecimal monto) {
+        if (!retiroDiarioRepository.acumularHasta(cuentaId, fecha.toLocalDate(), monto, limiteDiarioRetiro)) {
+            throw new IllegalArgumentException("Cupo diario Excedido");
+        }
+    }
+    
+    /**
+     * Valida el límite diario de retiro contra el acumulado de retiros del día.
+     * 
+     * @param totalRetiradoHoy Total retirado en el día
      * @param montoRetiro Monto a retirar
      * @throws IllegalArgumentException si se excede el límite diario
      */
-    private void validarLimiteDiarioRetiro(Long cuentaId, BigDecimal montoRetiro) {
-        LocalDate hoy = LocalDate.now();
-        LocalDateTime inicioDia = hoy.atStartOfDay();
-        LocalDateTime finDia = hoy.atTime(LocalTime.MAX);
-        
-        List<Movimiento> debitosHoy = movimientoRepository.findDebitosByCuentaIdAndFecha(cuentaId, inicioDia);
-        
-        BigDecimal totalRetiradoHoy = debitosHoy.stream()
-                .map(m ->m.getValor())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
+    private void validarLimiteDiarioRetiro(BigDecimal totalRetiradoHoy, BigDecimal montoRetiro) {
         if (totalRetiradoHoy.add(montoRetiro).compareTo(limiteDiarioRetiro) > 0) {
             throw new IllegalArgumentException("Cupo diario Excedido");
         }
@@ -171,6 +464,32 @@ public class MovimientoUseCase {
         return movimientoRepository.findByCuentaIdAndFechaBetween(cuentaId, fechaInicio, fechaFin);
     }
     
+    /**
+     * Obtiene una página del historial de movimientos de una cuenta, del más reciente al más
+     * antiguo, opcionalmente limitada a un rango de fechas.
+     * 
+     * @param cuentaId Identificador de la cuenta
+     * @param fechaInicio Fecha de inicio, o null para todo el historial
+     * @param fechaFin Fecha de fin, o null para todo el historial
+     * @param despuesDe Último movimiento de la página anterior, o null para la primera página
+     * @param tamano Cantidad máxima de movimientos por página
+     * @return Página de movimientos
+     * @throws IllegalArgumentException si el tamaño o el rango no son válidos
+     */
+    public Pagina<Movimiento> obtenerPaginaMovimientos(Long cuentaId, LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                                       CursorMovimiento despuesDe, int tamano) {
+        if (tamano < 1 || tamano > Pagina.TAMANO_MAXIMO) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + Pagina.TAMANO_MAXIMO);
+        }
+        if ((fechaInicio == null) != (fechaFin == null)) {
+            throw new IllegalArgumentException("El rango de fechas requiere fecha de inicio y fecha de fin");
+        }
+        if (fechaInicio != null && fechaInicio.isAfter(fechaFin)) {
+            throw new IllegalArgumentException("La fecha de inicio no puede ser posterior a la fecha de fin");
+        }
+        return movimientoRepository.findPaginaByCuentaId(cuentaId, fechaInicio, fechaFin, despuesDe, tamano);
+    }
+    
     /**
      * Obtiene todos los movimientos.
      * 
@@ -180,14 +499,56 @@ public class MovimientoUseCase {
         return movimientoRepository.findAll();
     }
     
+    /**
+     * Entrega todos los movimientos, uno a uno, a medida que se leen de la base de datos.
+     * A diferencia de obtenerTodosLosMovimientos, la memoria usada no depende de la cantidad de movimientos.
+     * 
+     * @param consumidor Receptor de cada movimiento
+     */
+    public void exportarMovimientos(Consumer<Movimiento> consumidor) {
+        movimientoRepository.recorrerTodos(consumidor);
+    }
+    
+    /**
+     * Entrega los movimientos de una cuenta en un rango de fechas, uno a uno y en orden de fecha,
+     * a medida que se leen de la base de datos.
+     * 
+     * @param cuentaId Identificador de la cuenta
+     * @param fechaInicio Fecha de inicio
+     * @param fechaFin Fecha de fin
+     * @param consumidor Receptor de cada movimiento
+     */
+    public void exportarMovimientosPorCuentaYRango(Long cuentaId, LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                                   Consumer<Movimiento> consumidor) {
+        movimientoRepository.recorrerPorCuentasYFecha(List.of(cuentaId), fechaInicio, fechaFin, consumidor);
+    }
+    
     /**
      * Elimina un movimiento por su identificador.
+     * El valor del movimiento se revierte del saldo actual de la cuenta y, si es un débito,
+     * del acumulado de retiros de su día.
      * 
      * @param id Identificador del movimiento
      * @throws IllegalArgumentException si el movimiento no existe
      */
     public void eliminarMovimiento(Long id) {
-        obtenerMovimientoPorId(id); // Verifica que existe
-        movimientoRepository.deleteById(id);
+        Long cuentaId = obtenerMovimientoPorId(id).getCuentaId(); // Verifica que existe
+        
+        bloqueoCuenta.ejecutar(cuentaId, () -> transaccion.ejecutar(() -> {
+            Movimiento movimiento = obtenerMovimientoPorId(id);
+            movimientoRepository.deleteById(id);
+            idempotenciaRepository.olvidarMovimiento(id);
+            
+            cuentaRepository.ajustarSaldoActual(movimiento.getCuentaId(), movimiento.getValor().negate());
+            saldoDiarioRepository.ajustarDesde(movimiento.getCuentaId(), movimiento.getFecha().toLocalDate(),
+                    movimiento.getValor().negate());
+            saldoDiarioRepository.descontarMovimiento(movimiento.getCuentaId(), movimiento.getFecha().toLocalDate(),
+                    movimiento.getValor(), !esDebito(movimiento));
+            
+            if (esDebito(movimiento)) {
+                retiroDiarioRepository.acumular(movimiento.getCuentaId(), movimiento.getFecha().toLocalDate(),
+                        movimiento.getValor().abs().negate());
+            }
+        }));
     }
 }
@@ -1,9 +1,14 @@
 package ec.com.banco.proyectobancario.application.usecase;
 
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 import ec.com.banco.proyectobancario.domain.model.ReporteEstadoCuenta;
 import ec.com.banco.proyectobancario.domain.port.output.ClienteRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.CuentaRepositoryPort;
 import ec.com.banco.proyectobancario.domain.port.output.ReporteServicePort;
 
 /**
@@ -14,10 +19,13 @@ public class ReporteUseCase {
     
     private final ReporteServicePort reporteService;
     private final ClienteRepositoryPort clienteRepository;
+    private final CuentaRepositoryPort cuentaRepository;
     
-    public ReporteUseCase(ReporteServicePort reporteService, ClienteRepositoryPort clienteRepository) {
+    public ReporteUseCase(ReporteServicePort reporteService, ClienteRepositoryPort clienteRepository,
+                          CuentaRepositoryPort cuentaRepository) {
         this.reporteService = reporteService;
         this.clienteRepository = clienteRepository;
+        this.cuentaRepository = cuentaRepository;
     }
     
     /**
@@ -37,6 +45,40 @@ public class ReporteUseCase {
         return reporteService.generarReporteEstadoCuenta(clienteId, fechaInicio, fechaFin);
     }
     
+    /**
+     * Obtiene la versión de los datos del estado de cuenta de un cliente. Cambia cuando se
+     * modifica el cliente o cualquiera de sus cuentas, y con cada movimiento registrado o
+     * eliminado, porque todo movimiento actualiza el saldo de su cuenta.
+     * 
+     * @param clienteId Identificador del cliente
+     * @return Versión del estado de cuenta, o vacío si el cliente no existe
+     */
+    public Optional<String> obtenerVersionReporte(Long clienteId) {
+        return clienteRepository.obtenerVersion(clienteId)
+                .map(version -> version + "." + cuentaRepository.obtenerVersionPorCliente(clienteId));
+    }
+    
+    /**
+     * Genera un resumen de estado de cuenta con los totales por cuenta de los días indicados,
+     * sin el detalle de movimientos.
+     * 
+     * @param clienteId Identificador del cliente
+     * @param fechaInicio Primer día del rango
+     * @param fechaFin Último día del rango
+     * @return Resumen de estado de cuenta
+     * @throws IllegalArgumentException si el cliente no existe o el rango es inválido
+     */
+    public ReporteEstadoCuenta generarResumenEstadoCuenta(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin) {
+        if (fechaFin.isBefore(fechaInicio)) {
+            throw new IllegalArgumentException("La fecha de fin no puede ser anterior a la fecha de inicio");
+        }
+        // Validar que el cliente existe
+        clienteRepository.findById(clienteId)
+                .orElseThrow(() -> new IllegalArgumentException("Cliente no encontrado con id: " + clienteId));
+        
+        return reporteService.generarResumenEstadoCuenta(clienteId, fechaInicio, fechaFin);
+    }
+    
     /**
      * Genera un reporte de estado de cuenta en formato PDF codificado en base64.
      * 
@@ -53,4 +95,60 @@ public class ReporteUseCase {
         
         return reporteService.generarReportePdfBase64(clienteId, fechaInicio, fechaFin);
     }
+    
+    /**
+     * Verifica que se pueda generar el reporte de un cliente en un rango. Permite validar antes
+     * de empezar a escribir un reporte que se transmite a medida que se genera.
+     * 
+     * @param clienteId Identificador del cliente
+     * @param fechaInicio Fecha de inicio del rango
+     * @param fechaFin Fecha de fin del rango
+     * @throws IllegalArgumentException si el cliente no existe o el rango es inválido
+     */
+    public void validarReporte(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        if (fechaFin.isBefore(fechaInicio)) {
+            throw new IllegalArgumentException("La fecha de fin no puede ser anterior a la fecha de inicio");
+        }
+        // Validar que el cliente existe
+        clienteRepository.findById(clienteId)
+                .orElseThrow(() -> new IllegalArgumentException("Cliente no encontrado con id: " + clienteId));
+    }
+    
+    /**
+     * Escribe en formato CSV los movimientos del estado de cuenta de un cliente, a medida que se
+     * leen, de modo que la memoria usada no depende de la cantidad de movimientos.
+     * 
+     * @param clienteId Identificador del cliente
+     * @param fechaInicio Fecha de inicio del rango
+     * @param fechaFin Fecha de fin del rango
+     * @param salida Destino del documento
+     * @throws IllegalArgumentException si el cliente no existe o el rango es inválido
+     */
+    public void escribirReporteCsv(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin, OutputStream salida) {
+        validarReporte(clienteId, fechaInicio, fechaFin);
+        reporteService.escribirReporteCsv(clienteId, fechaInicio, fechaFin, salida);
+    }
+    
+    /**
+     * Obtiene, por bloques, los clientes activos a los que corresponde emitir estado de cuenta.
+     * 
+     * @param despuesDe Último cliente del bloque anterior, o null para empezar
+     * @param tamanoBloque Cantidad máxima de clientes del bloque
+     * @return Identificadores de los clientes en orden ascendente; vacío al terminar
+     */
+    public List<Long> listarClientesParaEstadoCuenta(Long despuesDe, int tamanoBloque) {
+        return clienteRepository.listarIdsActivos(despuesDe, tamanoBloque);
+    }
+    
+    /**
+     * Escribe un reporte de estado de cuenta en formato PDF en la salida indicada.
+     * El reporte se obtiene antes con {@link #generarReporteEstadoCuenta}, de modo que los
+     * errores de validación ocurren antes de escribir el primer byte.
+     * 
+     * @param reporte Reporte de estado de cuenta
+     * @param salida Destino del documento
+     */
+    public void escribirReportePdf(ReporteEstadoCuenta reporte, OutputStream salida) {
+        reporteService.escribirReportePdf(reporte, salida);
+    }
 }
@@ -0,0 +1,94 @@
+package ec.com.banco.proyectobancario.application.usecase;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import ec.com.banco.proyectobancario.domain.model.Cuenta;
+import ec.com.banco.proyectobancario.domain.model.Movimiento;
+import ec.com.banco.proyectobancario.domain.model.TipoMovimiento;
+import ec.com.banco.proyectobancario.domain.model.Transferencia;
+import ec.com.banco.proyectobancario.domain.port.output.BloqueoCuentaPort;
+import ec.com.banco.proyectobancario.domain.port.output.CuentaRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.TransaccionPort;
+
+/**
+ * Caso de uso para las transferencias entre cuentas.
+ * Registra el débito en la cuenta origen y el crédito en la cuenta destino en una
+ * sola transacción, aplicando las mismas reglas de negocio que los movimientos.
+ * 
+ */
+public class TransferenciaUseCase {
+    
+    private final MovimientoUseCase movimientoUseCase;
+    private final CuentaRepositoryPort cuentaRepository;
+    private final TransaccionPort transaccion;
+    private final BloqueoCuentaPort bloqueoCuenta;
+    
+    public TransferenciaUseCase(MovimientoUseCase movimientoUseCase,
+                                CuentaRepositoryPort cuentaRepository,
+                                TransaccionPort transaccion,
+                                BloqueoCuentaPort bloqueoCuenta) {
+        this.movimientoUseCase = movimientoUseCase;
+        this.cuentaRepository = cuentaRepository;
+        this.transaccion = transaccion;
+        this.bloqueoCuenta = bloqueoCuenta;
+    }
+    
+    /**
+     * Transfiere un valor de una cuenta a otra.
+     * Ambas cuentas se bloquean en orden ascendente de id, tanto en memoria como en la
+     * base de datos, por lo que dos transferencias en sentido contrario entre las mismas
+     * cuentas no pueden bloquearse mutuamente. Si alguno de los dos movimientos no cumple
+     * las reglas de negocio, no se registra ninguno.
+     * 
+     * @param transferencia Cuentas origen y destino y valor a transferir
+     * @return Transferencia con los movimientos registrados
+     * @throws IllegalArgumentException si no se cumplen las reglas de negocio
+     */
+    public Transferencia transferir(Transferencia transferencia) {
+        validar(transferencia);
+        List<Long> cuentaIds = List.of(transferencia.getCuentaOrigenId(), transferencia.getCuentaDestinoId());
+        
+        return bloqueoCuenta.ejecutar(cuentaIds, () -> transaccion.ejecutar(() -> {
+            Map<Long, Cuenta> cuentas = cuentaRepository.bloquearPorIds(cuentaIds).stream()
+                    .collect(Collectors.toMap(Cuenta::getId, Function.identity()));
+            if (cuentas.size() < cuentaIds.size()) {
+                throw new IllegalArgumentException("Cuenta no encontrada para la transferencia");
+            }
+            
+            // Los saldos se toman de las filas bloqueadas, no de la cache
+            Movimiento debito = movimientoUseCase.registrarMovimiento(
+                    movimiento(TipoMovimiento.DEBITO, transferencia.getValor(), transferencia.getCuentaOrigenId()),
+                    cuentas.get(transferencia.getCuentaOrigenId()));
+            Movimiento credito = movimientoUseCase.registrarMovimiento(
+                    movimiento(TipoMovimiento.CREDITO, transferencia.getValor(), transferencia.getCuentaDestinoId()),
+                    cuentas.get(transferencia.getCuentaDestinoId()));
+            
+            return new Transferencia(transferencia.getCuentaOrigenId(), transferencia.getCuentaDestinoId(),
+                    transferencia.getValor(), debito, credito);
+        }));
+    }
+    
+    private void validar(Transferencia transferencia) {
+        if (transferencia.getCuentaOrigenId() == null || transferencia.getCuentaDestinoId() == null) {
+            throw new IllegalArgumentException("Las cuentas origen y destino son obligatorias");
+        }
+        if (transferencia.getCuentaOrigenId().equals(transferencia.getCuentaDestinoId())) {
+            throw new IllegalArgumentException("La cuenta origen y destino deben ser distintas");
+        }
+        if (transferencia.getValor() == null || transferencia.getValor().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("El valor de la transferencia debe ser mayor a cero");
+        }
+    }
+    
+    private Movimiento movimiento(TipoMovimiento tipo, BigDecimal valor, Long cuentaId) {
+        Movimiento movimiento = new Movimiento();
+        movimiento.setTipoMovimiento(tipo.getDescripcion());
+        movimiento.setValor(valor);
+        movimiento.setCuentaId(cuentaId);
+        return movimiento;
+    }
+}
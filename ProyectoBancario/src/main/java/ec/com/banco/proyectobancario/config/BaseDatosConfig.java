@@ -0,0 +1,82 @@
+package ec.com.banco.proyectobancario.config;
+
+import ec.com.banco.proyectobancario.infrastructure.persistence.datasource.ConsultaPesada;
+import ec.com.banco.proyectobancario.infrastructure.persistence.datasource.LimiteConcurrenciaDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskDecorator;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Configuración del límite de conexiones concurrentes a la base de datos.
+ * Envuelve el DataSource del pool con un semáforo del mismo tamaño, de modo que el
+ * trabajo con la base de datos queda acotado también en el modo de hilos virtuales.
+ * Las exportaciones y reportes tienen además un presupuesto más chico
+ * (app.base-datos.limite-concurrencia.permisos-pesados), así el resto de las conexiones
+ * queda siempre para las consultas rápidas.
+ * Se deshabilita con app.base-datos.limite-concurrencia.habilitado=false.
+ * 
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.base-datos.limite-concurrencia", name = "habilitado",
+        havingValue = "true", matchIfMissing = true)
+public class BaseDatosConfig {
+    
+    @Bean
+    public static BeanPostProcessor limiteConcurrenciaDataSourcePostProcessor(Environment environment) {
+        int permisos = environment.getProperty("app.base-datos.limite-concurrencia.permisos", Integer.class,
+                environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        int permisosPesados = environment.getProperty("app.base-datos.limite-concurrencia.permisos-pesados",
+                Integer.class, Math.max(1, permisos / 2));
+        Duration esperaMaxima = environment.getProperty("app.base-datos.limite-concurrencia.espera-maxima",
+                Duration.class, Duration.ofSeconds(2));
+        
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof LimiteConcurrenciaDataSource)) {
+                    return new LimiteConcurrenciaDataSource(dataSource, permisos, permisosPesados, esperaMaxima);
+                }
+                return bean;
+            }
+        };
+    }
+    
+    /**
+     * Las respuestas escritas en segundo plano (exportaciones CSV, NDJSON y PDF) corren en el
+     * ejecutor de tareas de Spring; sus conexiones cuentan como consultas pesadas.
+     */
+    @Bean
+    public TaskDecorator consultaPesadaTaskDecorator() {
+        return ConsultaPesada::envolver;
+    }
+    
+    @Bean
+    public MeterBinder limiteConcurrenciaMetricas(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof LimiteConcurrenciaDataSource limite) {
+                Gauge.builder("banco.base-datos.permisos.disponibles", limite,
+                                LimiteConcurrenciaDataSource::getPermisosDisponibles)
+                        .description("Conexiones concurrentes aún disponibles")
+                        .register(registry);
+                Gauge.builder("banco.base-datos.permisos.espera", limite,
+                                LimiteConcurrenciaDataSource::getHilosEnEspera)
+                        .description("Hilos esperando una conexión a la base de datos")
+                        .register(registry);
+                Gauge.builder("banco.base-datos.permisos.pesados.disponibles", limite,
+                                LimiteConcurrenciaDataSource::getPermisosPesadosDisponibles)
+                        .description("Conexiones concurrentes aún disponibles para exportaciones y reportes")
+                        .register(registry);
+            }
+        };
+    }
+}
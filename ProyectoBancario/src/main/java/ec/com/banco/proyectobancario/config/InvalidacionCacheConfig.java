@@ -0,0 +1,47 @@
+package ec.com.banco.proyectobancario.config;
+
+import ec.com.banco.proyectobancario.infrastructure.cache.BusInvalidacion;
+import ec.com.banco.proyectobancario.infrastructure.cache.BusInvalidacionLocal;
+import ec.com.banco.proyectobancario.infrastructure.cache.BusInvalidacionPostgres;
+import ec.com.banco.proyectobancario.infrastructure.concurrency.FabricaHilos;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+/**
+ * Configuración de la invalidación de caches entre nodos.
+ * Con app.cache.invalidacion.habilitada=true los nodos se avisan sus cambios por
+ * LISTEN/NOTIFY de PostgreSQL; en caso contrario se asume un único nodo.
+ * 
+ */
+@Configuration
+public class InvalidacionCacheConfig {
+    
+    @Bean
+    @ConditionalOnProperty(prefix = "app.cache.invalidacion", name = "habilitada", havingValue = "true")
+    public BusInvalidacion busInvalidacionPostgres(JdbcTemplate jdbcTemplate,
+                                                   FabricaHilos fabricaHilos,
+                                                   MeterRegistry meterRegistry,
+                                                   @Value("${spring.datasource.url}") String url,
+                                                   @Value("${spring.datasource.username}") String usuario,
+                                                   @Value("${spring.datasource.password}") String clave,
+                                                   @Value("${app.cache.invalidacion.canal:banco_cache}") String canal,
+                                                   @Value("${app.cache.invalidacion.espera-reconexion:5s}") Duration esperaReconexion) {
+        return new BusInvalidacionPostgres(jdbcTemplate, fabricaHilos, meterRegistry,
+                url, usuario, clave, canal, esperaReconexion);
+    }
+    
+    @Bean
+    @ConditionalOnProperty(prefix = "app.cache.invalidacion", name = "habilitada", havingValue = "false",
+            matchIfMissing = true)
+    public BusInvalidacion busInvalidacionLocal() {
+        return new BusInvalidacionLocal();
+    }
+}
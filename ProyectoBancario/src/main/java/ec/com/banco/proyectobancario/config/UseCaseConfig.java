@@ -4,45 +4,142 @@ import ec.com.banco.proyectobancario.application.usecase.ClienteUseCase;
 import ec.com.banco.proyectobancario.application.usecase.CuentaUseCase;
 import ec.com.banco.proyectobancario.application.usecase.MovimientoUseCase;
 import ec.com.banco.proyectobancario.application.usecase.ReporteUseCase;
+import ec.com.banco.proyectobancario.application.usecase.TransferenciaUseCase;
+import ec.com.banco.proyectobancario.domain.port.output.BloqueoCuentaPort;
 import ec.com.banco.proyectobancario.domain.port.output.ClienteRepositoryPort;
 import ec.com.banco.proyectobancario.domain.port.output.CuentaRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.IdempotenciaRepositoryPort;
 import ec.com.banco.proyectobancario.domain.port.output.MovimientoRepositoryPort;
 import ec.com.banco.proyectobancario.domain.port.output.ReporteServicePort;
+import ec.com.banco.proyectobancario.domain.port.output.RetiroDiarioRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.SaldoDiarioRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.TransaccionPort;
+import ec.com.banco.proyectobancario.infrastructure.cache.BusInvalidacion;
+import ec.com.banco.proyectobancario.infrastructure.cache.ClienteRepositoryCache;
+import ec.com.banco.proyectobancario.infrastructure.cache.CuentaRepositoryCache;
+import ec.com.banco.proyectobancario.infrastructure.metricas.Instrumentacion;
+import ec.com.banco.proyectobancario.infrastructure.persistence.adapter.ClienteRepositoryAdapter;
+import ec.com.banco.proyectobancario.infrastructure.persistence.adapter.CuentaRepositoryAdapter;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 
 /**
  * Configuración de los casos de uso.
+ * Cada caso de uso y cada puerto de datos que recibe se envuelven con los decoradores de
+ * Instrumentacion, que miden las llamadas a los métodos públicos de los casos de uso y a
+ * todos los métodos de los puertos. TransaccionPort y BloqueoCuentaPort no se miden: envuelven
+ * la operación completa del caso de uso, así que su tiempo no sería el de un puerto; la espera
+ * del bloqueo ya se mide en banco.contabilizacion.espera.
  * 
  */
 @Configuration
 public class UseCaseConfig {
     
+    private final Instrumentacion instrumentacion;
+    
+    public UseCaseConfig(Instrumentacion instrumentacion) {
+        this.instrumentacion = instrumentacion;
+    }
+    
+    /**
+     * Repositorio de cuentas con cache de lecturas por id. Es el que reciben los casos de uso
+     * y servicios que piden un CuentaRepositoryPort.
+     */
+    @Bean
+    @Primary
+    public CuentaRepositoryCache cuentaRepositoryCache(CuentaRepositoryAdapter cuentaRepositoryAdapter,
+                                                       BusInvalidacion busInvalidacion,
+                                                       MeterRegistry meterRegistry,
+                                                       @Value("${app.cuentas.cache.max-entradas:10000}") long maxEntradas,
+                                                       @Value("${app.cuentas.cache.ttl:10m}") Duration ttl) {
+        return new CuentaRepositoryCache(cuentaRepositoryAdapter, busInvalidacion, meterRegistry, maxEntradas, ttl);
+    }
+    
+    /**
+     * Repositorio de clientes con cache de lecturas por id. Al eliminar un cliente también
+     * quita sus cuentas de la cache de cuentas.
+     */
+    @Bean
+    @Primary
+    public ClienteRepositoryCache clienteRepositoryCache(ClienteRepositoryAdapter clienteRepositoryAdapter,
+                                                         CuentaRepositoryCache cuentaRepositoryCache,
+                                                         BusInvalidacion busInvalidacion,
+                                                         MeterRegistry meterRegistry,
+                                                         @Value("${app.clientes.cache.max-entradas:10000}") long maxEntradas,
+                                                         @Value("${app.clientes.cache.ttl:10m}") Duration ttl) {
+        return new ClienteRepositoryCache(clienteRepositoryAdapter, cuentaRepositoryCache, busInvalidacion,
+                meterRegistry, maxEntradas, ttl);
+    }
+    
     @Bean
     public ClienteUseCase clienteUseCase(ClienteRepositoryPort clienteRepository) {
-        return new ClienteUseCase(clienteRepository);
+        return instrumentacion.medirCasoUso(new ClienteUseCase(
+                instrumentacion.medirPuerto(ClienteRepositoryPort.class, clienteRepository)));
     }
     
     @Bean
     public CuentaUseCase cuentaUseCase(CuentaRepositoryPort cuentaRepository, 
-                                      ClienteRepositoryPort clienteRepository) {
-        return new CuentaUseCase(cuentaRepository, clienteRepository);
+                                      ClienteRepositoryPort clienteRepository,
+                                      MovimientoRepositoryPort movimientoRepository,
+                                      SaldoDiarioRepositoryPort saldoDiarioRepository,
+                                      TransaccionPort transaccion,
+                                      BloqueoCuentaPort bloqueoCuenta) {
+        return instrumentacion.medirCasoUso(new CuentaUseCase(
+                instrumentacion.medirPuerto(CuentaRepositoryPort.class, cuentaRepository),
+                instrumentacion.medirPuerto(ClienteRepositoryPort.class, clienteRepository),
+                instrumentacion.medirPuerto(MovimientoRepositoryPort.class, movimientoRepository),
+                instrumentacion.medirPuerto(SaldoDiarioRepositoryPort.class, saldoDiarioRepository),
+                transaccion,
+                bloqueoCuenta));
     }
     
     @Bean
     public MovimientoUseCase movimientoUseCase(MovimientoRepositoryPort movimientoRepository,
                                                CuentaRepositoryPort cuentaRepository,
+                                               RetiroDiarioRepositoryPort retiroDiarioRepository,
+                                               IdempotenciaRepositoryPort idempotenciaRepository,
+                                               SaldoDiarioRepositoryPort saldoDiarioRepository,
+                                               TransaccionPort transaccion,
+                                               BloqueoCuentaPort bloqueoCuenta,
                                                @Value("${app.daily-withdrawal-limit:1000.00}") BigDecimal limiteDiarioRetiro) {
-        return new MovimientoUseCase(movimientoRepository, cuentaRepository, limiteDiarioRetiro);
+        return instrumentacion.medirCasoUso(new MovimientoUseCase(
+                instrumentacion.medirPuerto(MovimientoRepositoryPort.class, movimientoRepository),
+                instrumentacion.medirPuerto(CuentaRepositoryPort.class, cuentaRepository),
+                instrumentacion.medirPuerto(RetiroDiarioRepositoryPort.class, retiroDiarioRepository),
+                instrumentacion.medirPuerto(IdempotenciaRepositoryPort.class, idempotenciaRepository),
+                instrumentacion.medirPuerto(SaldoDiarioRepositoryPort.class, saldoDiarioRepository),
+                transaccion,
+                bloqueoCuenta,
+                instrumentacion,
+                limiteDiarioRetiro));
+    }
+    
+    @Bean
+    public TransferenciaUseCase transferenciaUseCase(MovimientoUseCase movimientoUseCase,
+                                                     CuentaRepositoryPort cuentaRepository,
+                                                     TransaccionPort transaccion,
+                                                     BloqueoCuentaPort bloqueoCuenta) {
+        return instrumentacion.medirCasoUso(new TransferenciaUseCase(movimientoUseCase,
+                instrumentacion.medirPuerto(CuentaRepositoryPort.class, cuentaRepository),
+                transaccion,
+                bloqueoCuenta));
     }
     
     @Bean
     public ReporteUseCase reporteUseCase(ReporteServicePort reporteService,
-                                        ClienteRepositoryPort clienteRepository) {
-        return new ReporteUseCase(reporteService, clienteRepository);
+                                        ClienteRepositoryPort clienteRepository,
+                                        CuentaRepositoryPort cuentaRepository) {
+        return instrumentacion.medirCasoUso(new ReporteUseCase(
+                instrumentacion.medirPuerto(ReporteServicePort.class, reporteService),
+                instrumentacion.medirPuerto(ClienteRepositoryPort.class, clienteRepository),
+                instrumentacion.medirPuerto(CuentaRepositoryPort.class, cuentaRepository)));
     }
 }
@@ -0,0 +1,13 @@
+package ec.com.banco.proyectobancario.domain.exception;
+
+/**
+ * Se lanza cuando una clave de idempotencia ya usada llega con una solicitud distinta de la
+ * que creó el movimiento original.
+ * 
+ */
+public class ClaveIdempotenciaReutilizadaException extends RuntimeException {
+    
+    public ClaveIdempotenciaReutilizadaException(String mensaje) {
+        super(mensaje);
+    }
+}
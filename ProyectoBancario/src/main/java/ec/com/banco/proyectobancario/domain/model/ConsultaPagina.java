@@ -0,0 +1,31 @@
+package ec.com.banco.proyectobancario.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Parámetros para obtener una página de un listado ordenado.
+ * 
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsultaPagina {
+    
+    /**
+     * Última fila de la página anterior, o null para la primera página.
+     */
+    private CursorPagina despuesDe;
+    
+    private int tamano;
+    
+    /**
+     * Campo por el que se ordena; el id se usa siempre como desempate.
+     */
+    private String ordenarPor;
+    
+    private boolean descendente;
+}
@@ -37,6 +37,11 @@ public class Cuenta {
      */
     private BigDecimal saldoInicial;
     
+    /**
+     * Saldo actual de la cuenta, actualizado con cada movimiento.
+     */
+    private BigDecimal saldoActual;
+    
     /**
      * Estado de la cuenta (activa/inactiva).
      */
@@ -0,0 +1,24 @@
+package ec.com.banco.proyectobancario.domain.model;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Posición de un movimiento en el historial ordenado por fecha e id.
+ * La página siguiente empieza después del movimiento con esta fecha e id.
+ * 
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorMovimiento {
+    
+    private LocalDateTime fecha;
+    
+    private Long id;
+}
@@ -0,0 +1,25 @@
+package ec.com.banco.proyectobancario.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Posición de una fila en un listado ordenado por un campo y luego por id.
+ * La página siguiente empieza después de la fila con este valor del campo de orden e id.
+ * 
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPagina {
+    
+    /**
+     * Valor del campo de orden de la última fila, como texto.
+     */
+    private String valor;
+    
+    private Long id;
+}
@@ -0,0 +1,24 @@
+package ec.com.banco.proyectobancario.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Criterios opcionales para filtrar el listado de cuentas.
+ * Los criterios en null no se aplican.
+ * 
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FiltroCuenta {
+    
+    private Boolean estado;
+    
+    private String tipoCuenta;
+    
+    private Long clienteId;
+}
@@ -0,0 +1,32 @@
+package ec.com.banco.proyectobancario.domain.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Modelo de dominio que representa una página de resultados.
+ * 
+ * @param <T> Tipo de los elementos
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class Pagina<T> {
+    
+    /**
+     * Cantidad máxima de elementos que se puede pedir en una página.
+     */
+    public static final int TAMANO_MAXIMO = 500;
+    
+    private List<T> elementos;
+    
+    /**
+     * Indica si existen más elementos después de esta página.
+     */
+    private boolean haySiguiente;
+}
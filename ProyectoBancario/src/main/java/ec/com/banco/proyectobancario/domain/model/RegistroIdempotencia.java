@@ -0,0 +1,27 @@
+package ec.com.banco.proyectobancario.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Movimiento creado con una clave de idempotencia junto con la huella de la solicitud que lo
+ * creó. La huella permite distinguir un reintento de la misma solicitud de una solicitud
+ * distinta que reutiliza la clave.
+ * 
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegistroIdempotencia {
+    
+    private Movimiento movimiento;
+    
+    /**
+     * Huella de la cuenta, tipo y valor de la solicitud original; vacía en las claves
+     * registradas antes de que se guardara.
+     */
+    private String huella;
+}
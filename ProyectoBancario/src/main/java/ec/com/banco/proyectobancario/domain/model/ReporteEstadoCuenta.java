@@ -39,7 +39,7 @@ public class ReporteEstadoCuenta {
     private String fechaFin;
     
     /**
-     * Lista de cuentas con sus movimientos.
+     * Lista de cuentas con sus movimientos; en un resumen las cuentas no incluyen movimientos.
      */
     private List<CuentaReporte> cuentas;
     
@@ -66,6 +66,9 @@ public class ReporteEstadoCuenta {
         private BigDecimal saldoInicial;
         private BigDecimal saldoActual;
         private Boolean estado;
+        private BigDecimal totalCreditos;
+        private BigDecimal totalDebitos;
+        private Integer cantidadMovimientos;
         private List<MovimientoReporte> movimientos;
     }
     
@@ -0,0 +1,45 @@
+package ec.com.banco.proyectobancario.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Modelo de dominio que representa el resultado de un movimiento dentro de un lote.
+ * 
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoMovimientoLote {
+    
+    /**
+     * Posición del movimiento en el lote recibido.
+     */
+    private int indice;
+    
+    /**
+     * Indica si el movimiento fue registrado.
+     */
+    private boolean exitoso;
+    
+    /**
+     * Movimiento registrado, si fue exitoso.
+     */
+    private Movimiento movimiento;
+    
+    /**
+     * Motivo del rechazo, si no fue exitoso.
+     */
+    private String error;
+    
+    public static ResultadoMovimientoLote exitoso(int indice, Movimiento movimiento) {
+        return new ResultadoMovimientoLote(indice, true, movimiento, null);
+    }
+    
+    public static ResultadoMovimientoLote fallido(int indice, String error) {
+        return new ResultadoMovimientoLote(indice, false, null, error);
+    }
+}
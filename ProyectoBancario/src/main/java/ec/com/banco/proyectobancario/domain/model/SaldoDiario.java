@@ -0,0 +1,45 @@
+package ec.com.banco.proyectobancario.domain.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Modelo de dominio que representa el saldo de una cuenta al cierre de un día
+ * con movimientos (punto de control), junto con los totales de los movimientos del día.
+ * 
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaldoDiario {
+    
+    private Long cuentaId;
+    
+    private LocalDate fecha;
+    
+    /**
+     * Saldo de la cuenta al final del día.
+     */
+    private BigDecimal saldo;
+    
+    /**
+     * Suma de los créditos del día.
+     */
+    private BigDecimal creditos;
+    
+    /**
+     * Suma de los débitos del día (valor negativo).
+     */
+    private BigDecimal debitos;
+    
+    /**
+     * Cantidad de movimientos del día.
+     */
+    private Integer cantidadMovimientos;
+}
@@ -2,6 +2,8 @@ package ec.com.banco.proyectobancario.domain.model;
 
 /**
  * Enum que representa los tipos de movimiento bancario.
+ * Es la única clasificación de créditos y débitos: los casos de uso, los reportes y las
+ * consultas que totalizan en SQL usan {@link #clasificar(String)} o {@link #DESCRIPCION_DEBITO}.
  * 
  */
 public enum TipoMovimiento {
@@ -14,7 +16,13 @@ public enum TipoMovimiento {
     /**
      * Movimiento de débito (retiro) - valores negativos.
      */
-    DEBITO("Débito");
+    DEBITO(TipoMovimiento.DESCRIPCION_DEBITO);
+    
+    /**
+     * Descripción de los débitos, para las consultas que clasifican movimientos en la base de
+     * datos con la misma regla que {@link #clasificar(String)}.
+     */
+    public static final String DESCRIPCION_DEBITO = "Débito";
     
     private final String descripcion;
     
@@ -25,4 +33,15 @@ public enum TipoMovimiento {
     public String getDescripcion() {
         return descripcion;
     }
+    
+    /**
+     * Clasifica un movimiento: es débito si su descripción es la de DEBITO y crédito en
+     * cualquier otro caso, también al registrarlo.
+     * 
+     * @param descripcion Descripción del tipo de movimiento
+     * @return DEBITO o CREDITO
+     */
+    public static TipoMovimiento clasificar(String descripcion) {
+        return DESCRIPCION_DEBITO.equals(descripcion) ? DEBITO : CREDITO;
+    }
 }
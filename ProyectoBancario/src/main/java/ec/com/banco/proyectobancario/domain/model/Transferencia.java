@@ -0,0 +1,36 @@
+package ec.com.banco.proyectobancario.domain.model;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Modelo de dominio que representa una transferencia entre dos cuentas.
+ * Se registra como un débito en la cuenta origen y un crédito en la cuenta destino.
+ * 
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class Transferencia {
+    
+    private Long cuentaOrigenId;
+    
+    private Long cuentaDestinoId;
+    
+    private BigDecimal valor;
+    
+    /**
+     * Movimiento de débito registrado en la cuenta origen.
+     */
+    private Movimiento debito;
+    
+    /**
+     * Movimiento de crédito registrado en la cuenta destino.
+     */
+    private Movimiento credito;
+}
@@ -0,0 +1,48 @@
+package ec.com.banco.proyectobancario.domain.port.output;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Puerto de salida para serializar las operaciones que modifican el saldo de una cuenta.
+ * Las operaciones sobre una misma cuenta se ejecutan una a la vez, mientras que las
+ * operaciones sobre cuentas distintas pueden ejecutarse en paralelo.
+ * 
+ */
+public interface BloqueoCuentaPort {
+    
+    /**
+     * Ejecuta una operación en exclusión mutua con las demás operaciones de la cuenta.
+     * 
+     * @param cuentaId Identificador de la cuenta
+     * @param operacion Operación a ejecutar
+     * @param <T> Tipo del resultado
+     * @return Resultado de la operación
+     */
+    <T> T ejecutar(Long cuentaId, Supplier<T> operacion);
+    
+    /**
+     * Ejecuta una operación en exclusión mutua con las demás operaciones de varias cuentas.
+     * Los bloqueos se adquieren siempre en el mismo orden, de modo que dos operaciones
+     * sobre las mismas cuentas en sentido contrario no se bloquean mutuamente.
+     * 
+     * @param cuentaIds Identificadores de las cuentas
+     * @param operacion Operación a ejecutar
+     * @param <T> Tipo del resultado
+     * @return Resultado de la operación
+     */
+    <T> T ejecutar(Collection<Long> cuentaIds, Supplier<T> operacion);
+    
+    /**
+     * Ejecuta una operación sin resultado en exclusión mutua con las demás operaciones de la cuenta.
+     * 
+     * @param cuentaId Identificador de la cuenta
+     * @param operacion Operación a ejecutar
+     */
+    default void ejecutar(Long cuentaId, Runnable operacion) {
+        ejecutar(cuentaId, () -> {
+            operacion.run();
+            return null;
+        });
+    }
+}
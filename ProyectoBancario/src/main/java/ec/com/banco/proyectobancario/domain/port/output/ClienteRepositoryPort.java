@@ -4,6 +4,8 @@ import java.util.List;
 import java.util.Optional;
 
 import ec.com.banco.proyectobancario.domain.model.Cliente;
+import ec.com.banco.proyectobancario.domain.model.ConsultaPagina;
+import ec.com.banco.proyectobancario.domain.model.Pagina;
 
 /**
  * Puerto de salida para la gestión de clientes.
@@ -43,6 +45,43 @@ public interface ClienteRepositoryPort {
      */
     List<Cliente> findAll();
     
+    /**
+     * Obtiene la versión del conjunto de todos los clientes sin leer sus datos. Cambia cuando
+     * se crea, modifica o elimina un cliente.
+     * 
+     * @return Versión de los clientes
+     */
+    String obtenerVersion();
+    
+    /**
+     * Obtiene la versión de un cliente, que cambia cada vez que se modifica.
+     * 
+     * @param id Identificador del cliente
+     * @return Versión del cliente o vacío si no existe
+     */
+    Optional<String> obtenerVersion(Long id);
+    
+    /**
+     * Obtiene una página de clientes, opcionalmente filtrados por estado. La página se busca
+     * por posición (keyset) a partir del cursor, sin contar el total de clientes, por lo que
+     * su costo no depende de cuántas páginas se hayan recorrido antes.
+     * 
+     * @param estado Estado de los clientes, o null para todos
+     * @param consulta Cursor, tamaño y orden
+     * @return Página de clientes
+     */
+    Pagina<Cliente> findPagina(Boolean estado, ConsultaPagina consulta);
+    
+    /**
+     * Obtiene, en orden, los identificadores de los clientes activos posteriores a uno dado.
+     * Permite recorrer todos los clientes por bloques sin saltar filas con un desplazamiento.
+     * 
+     * @param despuesDe Identificador desde el que continuar (excluido), o null para empezar
+     * @param limite Cantidad máxima de identificadores
+     * @return Identificadores en orden ascendente
+     */
+    List<Long> listarIdsActivos(Long despuesDe, int limite);
+    
     /**
      * Elimina un cliente por su identificador.
      * 
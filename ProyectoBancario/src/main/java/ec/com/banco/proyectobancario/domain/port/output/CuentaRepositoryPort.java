@@ -1,9 +1,13 @@
 package ec.com.banco.proyectobancario.domain.port.output;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
+import ec.com.banco.proyectobancario.domain.model.ConsultaPagina;
 import ec.com.banco.proyectobancario.domain.model.Cuenta;
+import ec.com.banco.proyectobancario.domain.model.FiltroCuenta;
+import ec.com.banco.proyectobancario.domain.model.Pagina;
 
 /**
  * Puerto de salida para la gestión de cuentas.
@@ -13,7 +17,9 @@ import ec.com.banco.proyectobancario.domain.model.Cuenta;
 public interface CuentaRepositoryPort {
     
     /**
-     * Guarda una cuenta en el repositorio.
+     * Guarda una cuenta en el repositorio. Al actualizar una cuenta existente no se modifica
+     * su saldo actual, que solo cambia con {@link #actualizarSaldoActual} y
+     * {@link #ajustarSaldoActual}.
      * 
      * @param cuenta Cuenta a guardar
      * @return Cuenta guardada
@@ -51,6 +57,69 @@ public interface CuentaRepositoryPort {
      */
     List<Cuenta> findAll();
     
+    /**
+     * Obtiene la versión del conjunto de todas las cuentas sin leer sus datos. Cambia cuando
+     * se crea, modifica o elimina una cuenta, o cambia su saldo.
+     * 
+     * @return Versión de las cuentas
+     */
+    String obtenerVersion();
+    
+    /**
+     * Obtiene la versión del conjunto de cuentas de un cliente sin leer sus datos. Cambia
+     * cuando se crea, modifica o elimina una de sus cuentas, o cambia su saldo.
+     * 
+     * @param clienteId Identificador del cliente
+     * @return Versión de las cuentas del cliente
+     */
+    String obtenerVersionPorCliente(Long clienteId);
+    
+    /**
+     * Obtiene una página de cuentas que cumplen el filtro. La página se busca por posición
+     * (keyset) a partir del cursor, sin contar el total de cuentas, por lo que su costo no
+     * depende de cuántas páginas se hayan recorrido antes.
+     * 
+     * @param filtro Criterios de filtrado
+     * @param consulta Cursor, tamaño y orden
+     * @return Página de cuentas
+     */
+    Pagina<Cuenta> findPagina(FiltroCuenta filtro, ConsultaPagina consulta);
+    
+    /**
+     * Obtiene una cuenta leyendo siempre de la base de datos y bloqueando su fila hasta el fin
+     * de la transacción en curso. Es la lectura que deben usar las operaciones que modifican
+     * el saldo.
+     * 
+     * @param id Identificador de la cuenta
+     * @return Cuenta bloqueada o vacío
+     */
+    Optional<Cuenta> findByIdParaActualizar(Long id);
+    
+    /**
+     * Bloquea las filas de varias cuentas hasta el fin de la transacción en curso,
+     * siempre en orden ascendente de id.
+     * 
+     * @param ids Identificadores de las cuentas
+     * @return Cuentas bloqueadas, ordenadas por id
+     */
+    List<Cuenta> bloquearPorIds(List<Long> ids);
+    
+    /**
+     * Actualiza únicamente el saldo actual de una cuenta.
+     * 
+     * @param id Identificador de la cuenta
+     * @param saldoActual Nuevo saldo actual
+     */
+    void actualizarSaldoActual(Long id, BigDecimal saldoActual);
+    
+    /**
+     * Suma un ajuste al saldo actual de una cuenta en la base de datos, sin leerlo antes.
+     * 
+     * @param id Identificador de la cuenta
+     * @param ajuste Monto a sumar (negativo para restar)
+     */
+    void ajustarSaldoActual(Long id, BigDecimal ajuste);
+    
     /**
      * Elimina una cuenta por su identificador.
      * 
@@ -0,0 +1,40 @@
+package ec.com.banco.proyectobancario.domain.port.output;
+
+import java.util.Optional;
+
+import ec.com.banco.proyectobancario.domain.model.Movimiento;
+import ec.com.banco.proyectobancario.domain.model.RegistroIdempotencia;
+
+/**
+ * Puerto de salida para las claves de idempotencia de movimientos.
+ * Asocia cada clave enviada por un canal con el movimiento que creó por primera vez y la
+ * huella de esa solicitud. Las claves se conservan al menos durante el período de retención
+ * configurado y después se eliminan.
+ * 
+ */
+public interface IdempotenciaRepositoryPort {
+    
+    /**
+     * Busca el movimiento creado con una clave de idempotencia.
+     * 
+     * @param clave Clave de idempotencia
+     * @return Movimiento original con la huella de su solicitud, o vacío si la clave no se ha usado
+     */
+    Optional<RegistroIdempotencia> buscarMovimiento(String clave);
+    
+    /**
+     * Registra la clave de idempotencia de un movimiento recién creado.
+     * 
+     * @param clave Clave de idempotencia
+     * @param huella Huella de la solicitud que creó el movimiento
+     * @param movimiento Movimiento creado
+     */
+    void registrar(String clave, String huella, Movimiento movimiento);
+    
+    /**
+     * Olvida las claves asociadas a un movimiento eliminado.
+     * 
+     * @param movimientoId ID del movimiento eliminado
+     */
+    void olvidarMovimiento(Long movimientoId);
+}
@@ -1,10 +1,14 @@
 package ec.com.banco.proyectobancario.domain.port.output;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import ec.com.banco.proyectobancario.domain.model.CursorMovimiento;
 import ec.com.banco.proyectobancario.domain.model.Movimiento;
+import ec.com.banco.proyectobancario.domain.model.Pagina;
 
 /**
  * Puerto de salida para la gestión de movimientos.
@@ -21,6 +25,14 @@ public interface MovimientoRepositoryPort {
      */
     Movimiento save(Movimiento movimiento);
     
+    /**
+     * Guarda varios movimientos en el repositorio en una sola operación.
+     * 
+     * @param movimientos Movimientos a guardar
+     * @return Movimientos guardados, en el mismo orden
+     */
+    List<Movimiento> saveAll(List<Movimiento> movimientos);
+    
     /**
      * Busca un movimiento por su identificador único.
      * 
@@ -48,13 +60,15 @@ public interface MovimientoRepositoryPort {
     List<Movimiento> findByCuentaIdAndFechaBetween(Long cuentaId, LocalDateTime fechaInicio, LocalDateTime fechaFin);
     
     /**
-     * Obtiene movimientos de débito de una cuenta en una fecha específica.
+     * Obtiene en una sola consulta los movimientos de varias cuentas en un rango de fechas,
+     * ordenados por cuenta, fecha e id.
      * 
-     * @param cuentaId Identificador de la cuenta
-     * @param fecha Fecha del movimiento
-     * @return Lista de movimientos de débito del día
+     * @param cuentaIds Identificadores de las cuentas
+     * @param fechaInicio Fecha de inicio del rango
+     * @param fechaFin Fecha de fin del rango
+     * @return Lista de movimientos en el rango de fechas
      */
-    List<Movimiento> findDebitosByCuentaIdAndFecha(Long cuentaId, LocalDateTime fecha);
+    List<Movimiento> findByCuentaIdInAndFechaBetween(List<Long> cuentaIds, LocalDateTime fechaInicio, LocalDateTime fechaFin);
     
     /**
      * Obtiene todos los movimientos.
@@ -63,6 +77,51 @@ public interface MovimientoRepositoryPort {
      */
     List<Movimiento> findAll();
     
+    /**
+     * Recorre todos los movimientos en orden de id sin cargarlos a la vez en memoria.
+     * Cada movimiento se entrega al consumidor apenas se lee y luego se descarta.
+     * 
+     * @param consumidor Receptor de cada movimiento
+     */
+    void recorrerTodos(Consumer<Movimiento> consumidor);
+    
+    /**
+     * Recorre los movimientos de varias cuentas en un rango de fechas, ordenados por cuenta,
+     * fecha e id, sin cargarlos a la vez en memoria.
+     * 
+     * @param cuentaIds Identificadores de las cuentas
+     * @param fechaInicio Fecha de inicio del rango
+     * @param fechaFin Fecha de fin del rango
+     * @param consumidor Receptor de cada movimiento
+     */
+    void recorrerPorCuentasYFecha(List<Long> cuentaIds, LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                  Consumer<Movimiento> consumidor);
+    
+    /**
+     * Obtiene una página del historial de una cuenta, del movimiento más reciente al más antiguo
+     * (orden por fecha e id descendentes). La página se busca por posición (keyset), por lo que
+     * su costo no depende de cuántas páginas se hayan recorrido antes.
+     * 
+     * @param cuentaId Identificador de la cuenta
+     * @param fechaInicio Fecha de inicio del rango, o null junto con fechaFin para todo el historial
+     * @param fechaFin Fecha de fin del rango
+     * @param despuesDe Último movimiento de la página anterior, o null para la primera página
+     * @param tamano Cantidad máxima de movimientos
+     * @return Página de movimientos
+     */
+    Pagina<Movimiento> findPaginaByCuentaId(Long cuentaId, LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                           CursorMovimiento despuesDe, int tamano);
+    
+    /**
+     * Suma los valores de los movimientos de una cuenta en un rango [desde, hasta).
+     * 
+     * @param cuentaId Identificador de la cuenta
+     * @param desde Inicio del rango (incluido), o null para sumar desde el primer movimiento
+     * @param hasta Fin del rango (excluido)
+     * @return Suma de los valores, cero si no hay movimientos
+     */
+    BigDecimal sumarValores(Long cuentaId, LocalDateTime desde, LocalDateTime hasta);
+    
     /**
      * Elimina un movimiento por su identificador.
      * 
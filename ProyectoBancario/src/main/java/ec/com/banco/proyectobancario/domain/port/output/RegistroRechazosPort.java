@@ -0,0 +1,17 @@
+package ec.com.banco.proyectobancario.domain.port.output;
+
+/**
+ * Puerto de salida para contar las operaciones rechazadas por reglas de negocio cuyo rechazo
+ * no sale del caso de uso como excepción, por ejemplo los movimientos de un lote que se
+ * informan como resultado fallido.
+ * 
+ */
+public interface RegistroRechazosPort {
+    
+    /**
+     * Registra el rechazo de una operación.
+     * 
+     * @param motivo Mensaje de la regla incumplida
+     */
+    void registrar(String motivo);
+}
@@ -1,5 +1,7 @@
 package ec.com.banco.proyectobancario.domain.port.output;
 
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 import ec.com.banco.proyectobancario.domain.model.ReporteEstadoCuenta;
@@ -20,6 +22,17 @@ public interface ReporteServicePort {
      */
     ReporteEstadoCuenta generarReporteEstadoCuenta(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin);
     
+    /**
+     * Genera un resumen de estado de cuenta con los totales de cada cuenta por días completos,
+     * sin el detalle de movimientos.
+     * 
+     * @param clienteId Identificador del cliente
+     * @param fechaInicio Primer día del rango
+     * @param fechaFin Último día del rango
+     * @return Resumen de estado de cuenta
+     */
+    ReporteEstadoCuenta generarResumenEstadoCuenta(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin);
+    
     /**
      * Genera un reporte de estado de cuenta en formato PDF codificado en base64.
      * 
@@ -29,4 +42,24 @@ public interface ReporteServicePort {
      * @return Reporte en formato base64
      */
     String generarReportePdfBase64(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin);
+    
+    /**
+     * Escribe un reporte de estado de cuenta en formato PDF a medida que se genera, sin
+     * armar el documento completo en memoria. La salida no se cierra.
+     * 
+     * @param reporte Reporte de estado de cuenta
+     * @param salida Destino del documento
+     */
+    void escribirReportePdf(ReporteEstadoCuenta reporte, OutputStream salida);
+    
+    /**
+     * Escribe en formato CSV los movimientos del estado de cuenta de un cliente, una fila por
+     * movimiento, a medida que se leen de la base de datos.
+     * 
+     * @param clienteId Identificador del cliente
+     * @param fechaInicio Fecha de inicio del rango
+     * @param fechaFin Fecha de fin del rango
+     * @param salida Destino del documento
+     */
+    void escribirReporteCsv(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin, OutputStream salida);
 }
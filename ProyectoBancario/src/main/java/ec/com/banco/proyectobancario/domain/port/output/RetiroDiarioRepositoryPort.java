@@ -0,0 +1,44 @@
+package ec.com.banco.proyectobancario.domain.port.output;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Puerto de salida para el acumulado diario de retiros por cuenta.
+ * Permite validar el límite diario de retiro con una sola lectura por clave.
+ * 
+ */
+public interface RetiroDiarioRepositoryPort {
+    
+    /**
+     * Obtiene el total retirado de una cuenta en un día.
+     * 
+     * @param cuentaId Identificador de la cuenta
+     * @param fecha Día del acumulado
+     * @return Total retirado en el día, cero si no hay retiros
+     */
+    BigDecimal obtenerTotal(Long cuentaId, LocalDate fecha);
+    
+    /**
+     * Suma un monto al total retirado de una cuenta en un día.
+     * Un monto negativo revierte un retiro previo.
+     * 
+     * @param cuentaId Identificador de la cuenta
+     * @param fecha Día del acumulado
+     * @param monto Monto a acumular
+     */
+    void acumular(Long cuentaId, LocalDate fecha, BigDecimal monto);
+    
+    /**
+     * Suma un monto al total retirado de una cuenta en un día solo si el nuevo total no supera
+     * el límite. La condición se evalúa en la base de datos, así el límite se respeta aunque
+     * el total leído con {@link #obtenerTotal} venga de una memoria desactualizada.
+     * 
+     * @param cuentaId Identificador de la cuenta
+     * @param fecha Día del acumulado
+     * @param monto Monto a acumular
+     * @param limite Total máximo permitido en el día
+     * @return true si se acumuló, false si el nuevo total superaría el límite
+     */
+    boolean acumularHasta(Long cuentaId, LocalDate fecha, BigDecimal monto, BigDecimal limite);
+}
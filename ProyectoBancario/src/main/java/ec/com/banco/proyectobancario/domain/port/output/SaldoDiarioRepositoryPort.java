@@ -0,0 +1,70 @@
+package ec.com.banco.proyectobancario.domain.port.output;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import ec.com.banco.proyectobancario.domain.model.SaldoDiario;
+
+/**
+ * Puerto de salida para los saldos de cierre diarios por cuenta.
+ * Permite obtener el saldo de una cuenta a una fecha, y los totales de créditos y débitos
+ * de un período, sin recorrer todo su historial.
+ * 
+ */
+public interface SaldoDiarioRepositoryPort {
+    
+    /**
+     * Registra el saldo de cierre de una cuenta en un día, reemplazando el anterior, y suma
+     * a los totales del día los movimientos registrados.
+     * 
+     * @param cuentaId Identificador de la cuenta
+     * @param fecha Día del cierre
+     * @param saldo Saldo al final del día
+     * @param creditos Suma de los créditos registrados
+     * @param debitos Suma de los débitos registrados (valor negativo)
+     * @param cantidad Cantidad de movimientos registrados
+     */
+    void registrarCierre(Long cuentaId, LocalDate fecha, BigDecimal saldo,
+                         BigDecimal creditos, BigDecimal debitos, int cantidad);
+    
+    /**
+     * Resta de los totales de un día un movimiento eliminado. El saldo de cierre se corrige
+     * aparte con {@link #ajustarDesde(Long, LocalDate, BigDecimal)}.
+     * 
+     * @param cuentaId Identificador de la cuenta
+     * @param fecha Día del movimiento
+     * @param valor Valor del movimiento
+     * @param esCredito true si el movimiento es un crédito
+     */
+    void descontarMovimiento(Long cuentaId, LocalDate fecha, BigDecimal valor, boolean esCredito);
+    
+    /**
+     * Suma un ajuste a los saldos de cierre de una cuenta desde un día en adelante.
+     * 
+     * @param cuentaId Identificador de la cuenta
+     * @param fecha Primer día a ajustar, o null para ajustar todos
+     * @param ajuste Monto a sumar (negativo para restar)
+     */
+    void ajustarDesde(Long cuentaId, LocalDate fecha, BigDecimal ajuste);
+    
+    /**
+     * Busca el último saldo de cierre de una cuenta en o antes de un día.
+     * 
+     * @param cuentaId Identificador de la cuenta
+     * @param fecha Día límite
+     * @return Saldo de cierre más cercano o vacío si no hay ninguno
+     */
+    Optional<SaldoDiario> buscarUltimoHasta(Long cuentaId, LocalDate fecha);
+    
+    /**
+     * Obtiene los días con movimientos de varias cuentas en un rango de días.
+     * 
+     * @param cuentaIds Identificadores de las cuentas
+     * @param desde Primer día (incluido)
+     * @param hasta Último día (incluido)
+     * @return Saldos y totales de cada día con movimientos
+     */
+    List<SaldoDiario> listarEntre(List<Long> cuentaIds, LocalDate desde, LocalDate hasta);
+}
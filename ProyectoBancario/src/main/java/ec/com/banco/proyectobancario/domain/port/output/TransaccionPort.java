@@ -0,0 +1,34 @@
+package ec.com.banco.proyectobancario.domain.port.output;
+
+import java.util.function.Supplier;
+
+/**
+ * Puerto de salida para la demarcación de transacciones.
+ * Permite a los casos de uso agrupar varias operaciones de persistencia
+ * en una única unidad atómica sin depender del framework.
+ * 
+ */
+public interface TransaccionPort {
+    
+    /**
+     * Ejecuta una operación dentro de una transacción.
+     * Si la operación lanza una excepción, todos sus cambios se revierten.
+     * 
+     * @param operacion Operación a ejecutar
+     * @param <T> Tipo del resultado
+     * @return Resultado de la operación
+     */
+    <T> T ejecutar(Supplier<T> operacion);
+    
+    /**
+     * Ejecuta una operación sin resultado dentro de una transacción.
+     * 
+     * @param operacion Operación a ejecutar
+     */
+    default void ejecutar(Runnable operacion) {
+        ejecutar(() -> {
+            operacion.run();
+            return null;
+        });
+    }
+}
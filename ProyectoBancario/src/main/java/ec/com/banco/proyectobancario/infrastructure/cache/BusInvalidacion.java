@@ -0,0 +1,49 @@
+package ec.com.banco.proyectobancario.infrastructure.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Canal por el que los nodos de la aplicación se avisan de los datos que modificaron, para
+ * que cada uno descarte de sus caches en memoria las copias que quedaron obsoletas.
+ * 
+ */
+public interface BusInvalidacion {
+    
+    /**
+     * Cuenta modificada o eliminada; el id es el de la cuenta.
+     */
+    String CUENTA = "cuenta";
+    
+    /**
+     * Cliente modificado; el id es el del cliente.
+     */
+    String CLIENTE = "cliente";
+    
+    /**
+     * Cliente eliminado junto con sus cuentas; el id es el del cliente.
+     */
+    String CLIENTE_ELIMINADO = "cliente-eliminado";
+    
+    /**
+     * Acumulado de retiros modificado; el id es el de la cuenta.
+     */
+    String RETIRO_DIARIO = "retiro-diario";
+    
+    /**
+     * Avisa a los demás nodos que un dato cambió. Dentro de una transacción el aviso se
+     * entrega solo si esta se confirma.
+     * 
+     * @param tipo Tipo de dato modificado
+     * @param id Identificador del dato
+     */
+    void publicar(String tipo, Long id);
+    
+    /**
+     * Registra cómo descartar los datos de un tipo cuando otro nodo los modifica.
+     * 
+     * @param tipo Tipo de dato
+     * @param invalidar Descarta el dato con el id recibido
+     * @param invalidarTodo Descarta todos los datos del tipo, cuando pudieron perderse avisos
+     */
+    void suscribir(String tipo, Consumer<Long> invalidar, Runnable invalidarTodo);
+}
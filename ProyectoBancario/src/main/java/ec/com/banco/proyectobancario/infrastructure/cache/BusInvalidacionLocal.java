@@ -0,0 +1,21 @@
+package ec.com.banco.proyectobancario.infrastructure.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Bus de invalidación para un único nodo: no hay otros nodos a los que avisar, así que
+ * publicar y suscribirse no tienen efecto.
+ * 
+ */
+public class BusInvalidacionLocal implements BusInvalidacion {
+    
+    @Override
+    public void publicar(String tipo, Long id) {
+        // Las caches del propio nodo ya se actualizan al confirmarse la transacción
+    }
+    
+    @Override
+    public void suscribir(String tipo, Consumer<Long> invalidar, Runnable invalidarTodo) {
+        // Sin otros nodos no llegan avisos
+    }
+}
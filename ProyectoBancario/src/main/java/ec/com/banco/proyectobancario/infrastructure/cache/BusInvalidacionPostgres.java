@@ -0,0 +1,187 @@
+package ec.com.banco.proyectobancario.infrastructure.cache;
+
+import ec.com.banco.proyectobancario.infrastructure.concurrency.FabricaHilos;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Bus de invalidación sobre LISTEN/NOTIFY de PostgreSQL.
+ * Los avisos se publican con pg_notify en la transacción que modifica los datos, así
+ * PostgreSQL los entrega a los demás nodos solo al confirmarse. Cada nodo escucha el canal
+ * con una conexión propia, fuera del pool, y descarta las claves recibidas. Al reconectarse
+ * se descartan todas las caches, porque los avisos enviados mientras tanto se perdieron.
+ * 
+ */
+public class BusInvalidacionPostgres implements BusInvalidacion, SmartLifecycle {
+    
+    private static final Logger log = LoggerFactory.getLogger(BusInvalidacionPostgres.class);
+    
+    private static final int ESPERA_AVISOS_MS = 500;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final FabricaHilos fabricaHilos;
+    private final String url;
+    private final String usuario;
+    private final String clave;
+    private final String canal;
+    private final Duration esperaReconexion;
+    private final String nodo = UUID.randomUUID().toString();
+    private final Map<String, List<Suscripcion>> suscripciones = new ConcurrentHashMap<>();
+    private final Counter publicados;
+    private final Counter recibidos;
+    private final Counter reconexiones;
+    private volatile boolean activo;
+    private Thread escucha;
+    
+    public BusInvalidacionPostgres(JdbcTemplate jdbcTemplate, FabricaHilos fabricaHilos, MeterRegistry meterRegistry,
+                                   String url, String usuario, String clave, String canal, Duration esperaReconexion) {
+        if (!canal.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("El canal de invalidación debe ser un identificador en minúsculas: " + canal);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.fabricaHilos = fabricaHilos;
+        this.url = url;
+        this.usuario = usuario;
+        this.clave = clave;
+        this.canal = canal;
+        this.esperaReconexion = esperaReconexion;
+        this.publicados = Counter.builder("banco.cache.invalidaciones")
+                .description("Avisos de invalidación entre nodos")
+                .tag("sentido", "publicado")
+                .register(meterRegistry);
+        this.recibidos = Counter.builder("banco.cache.invalidaciones")
+                .description("Avisos de invalidación entre nodos")
+                .tag("sentido", "recibido")
+                .register(meterRegistry);
+        this.reconexiones = Counter.builder("banco.cache.invalidaciones.reconexiones")
+                .description("Reconexiones de la escucha de avisos, cada una vacía las caches")
+                .register(meterRegistry);
+    }
+    
+    @Override
+    public void publicar(String tipo, Long id) {
+        String mensaje = nodo + ":" + tipo + ":" + id;
+        jdbcTemplate.execute("SELECT pg_notify(?, ?)", (PreparedStatementCallback<Boolean>) sentencia -> {
+            sentencia.setString(1, canal);
+            sentencia.setString(2, mensaje);
+            return sentencia.execute();
+        });
+        publicados.increment();
+    }
+    
+    @Override
+    public void suscribir(String tipo, Consumer<Long> invalidar, Runnable invalidarTodo) {
+        suscripciones.computeIfAbsent(tipo, clave -> new CopyOnWriteArrayList<>())
+                .add(new Suscripcion(invalidar, invalidarTodo));
+    }
+    
+    @Override
+    public void start() {
+        activo = true;
+        escucha = fabricaHilos.iniciar("invalidacion-cache", this::escuchar);
+    }
+    
+    @Override
+    public void stop() {
+        activo = false;
+        try {
+            escucha.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return activo;
+    }
+    
+    private void escuchar() {
+        while (activo) {
+            try (Connection conexion = DriverManager.getConnection(url, usuario, clave)) {
+                try (Statement sentencia = conexion.createStatement()) {
+                    sentencia.execute("LISTEN " + canal);
+                }
+                invalidarTodo();
+                
+                PGConnection conexionPostgres = conexion.unwrap(PGConnection.class);
+                while (activo) {
+                    PGNotification[] avisos = conexionPostgres.getNotifications(ESPERA_AVISOS_MS);
+                    if (avisos != null) {
+                        for (PGNotification aviso : avisos) {
+                            procesar(aviso.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (activo) {
+                    log.warn("Se perdió la escucha del canal {}, reintentando en {}", canal, esperaReconexion, e);
+                    reconexiones.increment();
+                    esperar();
+                }
+            }
+        }
+    }
+    
+    /**
+     * Procesa un aviso recibido por el canal, con el formato nodo:tipo:id, y descarta la clave
+     * en las caches suscritas a su tipo. Los avisos del propio nodo se ignoran.
+     * 
+     * @param mensaje Contenido del aviso
+     */
+    public void procesar(String mensaje) {
+        String[] partes = mensaje.split(":", 3);
+        if (partes.length < 3 || partes[0].equals(nodo)) {
+            // El propio nodo ya actualizó sus caches al confirmar la transacción
+            return;
+        }
+        recibidos.increment();
+        
+        Long id;
+        try {
+            id = Long.valueOf(partes[2]);
+        } catch (NumberFormatException e) {
+            log.warn("Aviso de invalidación inválido: {}", mensaje);
+            return;
+        }
+        suscripciones.getOrDefault(partes[1], List.of())
+                .forEach(suscripcion -> suscripcion.invalidar().accept(id));
+    }
+    
+    private void invalidarTodo() {
+        suscripciones.values().forEach(lista -> lista.forEach(suscripcion -> suscripcion.invalidarTodo().run()));
+    }
+    
+    private void esperar() {
+        try {
+            Thread.sleep(esperaReconexion);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            activo = false;
+        }
+    }
+    
+    private record Suscripcion(Consumer<Long> invalidar, Runnable invalidarTodo) {
+    }
+}
@@ -0,0 +1,142 @@
+package ec.com.banco.proyectobancario.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cache por id que solo refleja datos confirmados.
+ * Las escrituras se aplican a la cache cuando su transacción se confirma; mientras tanto, las
+ * lecturas de esa misma transacción sobre los ids que modificó van directo a la base de datos
+ * para ver sus propios cambios. Los valores se entregan como copias para que quien los reciba
+ * no altere la cache al modificarlos.
+ * 
+ * @param <V> Tipo de los valores
+ */
+final class CacheTransaccional<V> {
+    
+    private final Cache<Long, V> cache;
+    private final UnaryOperator<V> copiar;
+    
+    CacheTransaccional(Cache<Long, V> cache, UnaryOperator<V> copiar) {
+        this.cache = cache;
+        this.copiar = copiar;
+    }
+    
+    /**
+     * Obtiene un valor de la cache o, si no está, lo consulta y lo guarda.
+     * Los valores inexistentes no se guardan.
+     * 
+     * @param id Identificador
+     * @param consultar Consulta a la base de datos
+     * @return Copia del valor, o vacío si no existe
+     */
+    Optional<V> obtener(Long id, Function<Long, Optional<V>> consultar) {
+        if (modificadosEnTransaccion().contains(id)) {
+            return consultar.apply(id);
+        }
+        return Optional.ofNullable(cache.get(id, clave -> consultar.apply(clave).orElse(null))).map(copiar);
+    }
+    
+    /**
+     * Guarda un valor escrito, cuando su transacción se confirme.
+     * 
+     * @param id Identificador
+     * @param valor Valor escrito
+     */
+    void guardar(Long id, V valor) {
+        V copia = copiar.apply(valor);
+        alConfirmar(id, () -> cache.put(id, copia));
+    }
+    
+    /**
+     * Actualiza el valor en cache, si está, cuando la transacción se confirme.
+     * 
+     * @param id Identificador
+     * @param actualizar Cambio a aplicar sobre una copia del valor en cache
+     */
+    void actualizar(Long id, UnaryOperator<V> actualizar) {
+        alConfirmar(id, () -> cache.asMap().computeIfPresent(id, (clave, valor) -> actualizar.apply(copiar.apply(valor))));
+    }
+    
+    /**
+     * Quita un valor de la cache cuando la transacción se confirme.
+     * 
+     * @param id Identificador
+     */
+    void invalidar(Long id) {
+        alConfirmar(id, () -> cache.invalidate(id));
+    }
+    
+    /**
+     * Quita de inmediato un valor, modificado por otro nodo.
+     * 
+     * @param id Identificador
+     */
+    void descartar(Long id) {
+        cache.invalidate(id);
+    }
+    
+    /**
+     * Quita de inmediato todos los valores.
+     */
+    void descartarTodo() {
+        cache.invalidateAll();
+    }
+    
+    /**
+     * Quita de inmediato los valores que cumplen una condición.
+     * 
+     * @param condicion Condición sobre el valor en cache
+     */
+    void invalidarSi(Predicate<V> condicion) {
+        cache.asMap().values().removeIf(condicion);
+    }
+    
+    private void alConfirmar(Long id, Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        
+        modificadosEnTransaccionParaEscribir().add(id);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Set<Long> modificadosEnTransaccion() {
+        Set<Long> modificados = TransactionSynchronizationManager.isSynchronizationActive()
+                ? (Set<Long>) TransactionSynchronizationManager.getResource(this)
+                : null;
+        return modificados != null ? modificados : Set.of();
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Set<Long> modificadosEnTransaccionParaEscribir() {
+        Set<Long> modificados = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (modificados == null) {
+            modificados = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, modificados);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CacheTransaccional.this);
+                }
+            });
+        }
+        return modificados;
+    }
+}
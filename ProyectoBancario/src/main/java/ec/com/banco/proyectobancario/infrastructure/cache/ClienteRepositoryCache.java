@@ -0,0 +1,110 @@
+package ec.com.banco.proyectobancario.infrastructure.cache;
+
+import ec.com.banco.proyectobancario.domain.model.Cliente;
+import ec.com.banco.proyectobancario.domain.model.ConsultaPagina;
+import ec.com.banco.proyectobancario.domain.model.Pagina;
+import ec.com.banco.proyectobancario.domain.port.output.ClienteRepositoryPort;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Decorador de ClienteRepositoryPort que guarda en memoria los clientes leídos por id.
+ * Las escrituras por este puerto actualizan la cache al confirmarse su transacción; los
+ * listados y búsquedas por otros campos van siempre a la base de datos. Los cambios hechos
+ * por otros nodos llegan por el BusInvalidacion.
+ * 
+ */
+public class ClienteRepositoryCache implements ClienteRepositoryPort {
+    
+    private final ClienteRepositoryPort delegado;
+    private final CuentaRepositoryCache cuentas;
+    private final CacheTransaccional<Cliente> clientes;
+    
+    public ClienteRepositoryCache(ClienteRepositoryPort delegado, CuentaRepositoryCache cuentas, BusInvalidacion bus,
+                                  MeterRegistry meterRegistry, long maxEntradas, Duration ttl) {
+        this.delegado = delegado;
+        this.cuentas = cuentas;
+        var cache = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .<Long, Cliente>build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "clientes");
+        this.clientes = new CacheTransaccional<>(cache, ClienteRepositoryCache::copiar);
+        bus.suscribir(BusInvalidacion.CLIENTE, clientes::descartar, clientes::descartarTodo);
+        bus.suscribir(BusInvalidacion.CLIENTE_ELIMINADO, clientes::descartar, clientes::descartarTodo);
+    }
+    
+    @Override
+    public Cliente save(Cliente cliente) {
+        Cliente guardado = delegado.save(cliente);
+        clientes.guardar(guardado.getId(), guardado);
+        return guardado;
+    }
+    
+    @Override
+    public Optional<Cliente> findById(Long id) {
+        return clientes.obtener(id, delegado::findById);
+    }
+    
+    @Override
+    public Optional<Cliente> findByClienteId(String clienteId) {
+        return delegado.findByClienteId(clienteId);
+    }
+    
+    @Override
+    public List<Cliente> findAll() {
+        return delegado.findAll();
+    }
+    
+    @Override
+    public String obtenerVersion() {
+        return delegado.obtenerVersion();
+    }
+    
+    @Override
+    public Optional<String> obtenerVersion(Long id) {
+        return delegado.obtenerVersion(id);
+    }
+    
+    @Override
+    public Pagina<Cliente> findPagina(Boolean estado, ConsultaPagina consulta) {
+        return delegado.findPagina(estado, consulta);
+    }
+    
+    @Override
+    public List<Long> listarIdsActivos(Long despuesDe, int limite) {
+        return delegado.listarIdsActivos(despuesDe, limite);
+    }
+    
+    @Override
+    public void deleteById(Long id) {
+        delegado.deleteById(id);
+        clientes.invalidar(id);
+        cuentas.olvidarCuentasDeCliente(id);
+    }
+    
+    @Override
+    public boolean existsByClienteId(String clienteId) {
+        return delegado.existsByClienteId(clienteId);
+    }
+    
+    private static Cliente copiar(Cliente cliente) {
+        Cliente copia = new Cliente(cliente.getClienteId(), cliente.getContrasena(), cliente.getEstado());
+        copia.setId(cliente.getId());
+        copia.setNombre(cliente.getNombre());
+        copia.setGenero(cliente.getGenero());
+        copia.setEdad(cliente.getEdad());
+        copia.setIdentificacion(cliente.getIdentificacion());
+        copia.setDireccion(cliente.getDireccion());
+        copia.setTelefono(cliente.getTelefono());
+        return copia;
+    }
+}
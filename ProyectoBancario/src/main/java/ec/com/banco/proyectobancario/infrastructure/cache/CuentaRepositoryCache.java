@@ -0,0 +1,141 @@
+package ec.com.banco.proyectobancario.infrastructure.cache;
+
+import ec.com.banco.proyectobancario.domain.model.ConsultaPagina;
+import ec.com.banco.proyectobancario.domain.model.Cuenta;
+import ec.com.banco.proyectobancario.domain.model.FiltroCuenta;
+import ec.com.banco.proyectobancario.domain.model.Pagina;
+import ec.com.banco.proyectobancario.domain.port.output.CuentaRepositoryPort;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Decorador de CuentaRepositoryPort que guarda en memoria las cuentas leídas por id.
+ * Las escrituras por este puerto actualizan la cache al confirmarse su transacción; los
+ * listados, las búsquedas por otros campos y las lecturas con bloqueo van siempre a la base
+ * de datos. Los cambios hechos por otros nodos llegan por el BusInvalidacion.
+ * <p>
+ * La cache solo sirve a los endpoints de consulta: el saldo con el que se contabiliza un
+ * movimiento se lee siempre de la fila bloqueada, nunca de aquí.
+ * 
+ */
+public class CuentaRepositoryCache implements CuentaRepositoryPort {
+    
+    private final CuentaRepositoryPort delegado;
+    private final CacheTransaccional<Cuenta> cuentas;
+    
+    public CuentaRepositoryCache(CuentaRepositoryPort delegado, BusInvalidacion bus, MeterRegistry meterRegistry,
+                                 long maxEntradas, Duration ttl) {
+        this.delegado = delegado;
+        var cache = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .<Long, Cuenta>build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "cuentas");
+        this.cuentas = new CacheTransaccional<>(cache, CuentaRepositoryCache::copiar);
+        bus.suscribir(BusInvalidacion.CUENTA, cuentas::descartar, cuentas::descartarTodo);
+        bus.suscribir(BusInvalidacion.CLIENTE_ELIMINADO, this::olvidarCuentasDeCliente, cuentas::descartarTodo);
+    }
+    
+    @Override
+    public Cuenta save(Cuenta cuenta) {
+        Cuenta guardada = delegado.save(cuenta);
+        cuentas.guardar(guardada.getId(), guardada);
+        return guardada;
+    }
+    
+    @Override
+    public Optional<Cuenta> findById(Long id) {
+        return cuentas.obtener(id, delegado::findById);
+    }
+    
+    @Override
+    public Optional<Cuenta> findByNumeroCuenta(String numeroCuenta) {
+        return delegado.findByNumeroCuenta(numeroCuenta);
+    }
+    
+    @Override
+    public List<Cuenta> findByClienteId(Long clienteId) {
+        return delegado.findByClienteId(clienteId);
+    }
+    
+    @Override
+    public List<Cuenta> findAll() {
+        return delegado.findAll();
+    }
+    
+    @Override
+    public String obtenerVersion() {
+        return delegado.obtenerVersion();
+    }
+    
+    @Override
+    public String obtenerVersionPorCliente(Long clienteId) {
+        return delegado.obtenerVersionPorCliente(clienteId);
+    }
+    
+    @Override
+    public Pagina<Cuenta> findPagina(FiltroCuenta filtro, ConsultaPagina consulta) {
+        return delegado.findPagina(filtro, consulta);
+    }
+    
+    @Override
+    public Optional<Cuenta> findByIdParaActualizar(Long id) {
+        return delegado.findByIdParaActualizar(id);
+    }
+    
+    @Override
+    public List<Cuenta> bloquearPorIds(List<Long> ids) {
+        return delegado.bloquearPorIds(ids);
+    }
+    
+    @Override
+    public void actualizarSaldoActual(Long id, BigDecimal saldoActual) {
+        delegado.actualizarSaldoActual(id, saldoActual);
+        cuentas.actualizar(id, cuenta -> {
+            cuenta.setSaldoActual(saldoActual);
+            return cuenta;
+        });
+    }
+    
+    @Override
+    public void ajustarSaldoActual(Long id, BigDecimal ajuste) {
+        delegado.ajustarSaldoActual(id, ajuste);
+        // El saldo resultante solo lo conoce la base de datos
+        cuentas.invalidar(id);
+    }
+    
+    @Override
+    public void deleteById(Long id) {
+        delegado.deleteById(id);
+        cuentas.invalidar(id);
+    }
+    
+    @Override
+    public boolean existsByNumeroCuenta(String numeroCuenta) {
+        return delegado.existsByNumeroCuenta(numeroCuenta);
+    }
+    
+    /**
+     * Quita de la cache las cuentas de un cliente, que la base de datos elimina en cascada
+     * junto con él.
+     * 
+     * @param clienteId Identificador del cliente
+     */
+    public void olvidarCuentasDeCliente(Long clienteId) {
+        cuentas.invalidarSi(cuenta -> clienteId.equals(cuenta.getClienteId()));
+    }
+    
+    private static Cuenta copiar(Cuenta cuenta) {
+        return new Cuenta(cuenta.getId(), cuenta.getNumeroCuenta(), cuenta.getTipoCuenta(), cuenta.getSaldoInicial(),
+                cuenta.getSaldoActual(), cuenta.getEstado(), cuenta.getClienteId());
+    }
+}
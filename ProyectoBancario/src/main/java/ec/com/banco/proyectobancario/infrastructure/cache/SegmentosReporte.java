@@ -0,0 +1,156 @@
+package ec.com.banco.proyectobancario.infrastructure.cache;
+
+import ec.com.banco.proyectobancario.domain.model.ReporteEstadoCuenta.MovimientoReporte;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+/**
+ * Cache de los movimientos de reporte de una cuenta en un día (segmentos), para que los
+ * reportes de rangos que se solapan solo consulten los días que aún no tienen.
+ * Un segmento se descarta cuando se registra o elimina un movimiento de su día. Los demás
+ * nodos se enteran por el aviso de cuenta modificada del BusInvalidacion, que todo movimiento
+ * publica al actualizar el saldo, y descartan los segmentos de esa cuenta.
+ * 
+ */
+@Component
+public class SegmentosReporte {
+    
+    /**
+     * Cantidad de contadores de versión; cada cuenta usa el que corresponde a su id.
+     */
+    private static final int CONTADORES = 64;
+    
+    private final Cache<Segmento, List<MovimientoReporte>> segmentos;
+    
+    /**
+     * Versiones que avanzan con cada invalidación. Quien consulta la base de datos toma la
+     * versión antes de leer y, si cambió al guardar, no deja en la cache lo que leyó: pudo
+     * haberse leído antes de que la invalidación se confirmara.
+     */
+    private final AtomicLongArray versiones = new AtomicLongArray(CONTADORES);
+    
+    public SegmentosReporte(BusInvalidacion bus, MeterRegistry meterRegistry,
+                            @Value("${app.reportes.segmentos.max-entradas:100000}") long maxEntradas,
+                            @Value("${app.reportes.segmentos.ttl:6h}") Duration ttl) {
+        this.segmentos = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, segmentos, "reportes-segmentos");
+        bus.suscribir(BusInvalidacion.CUENTA, this::descartarCuenta, this::descartarTodo);
+    }
+    
+    /**
+     * Obtiene los segmentos que están en la cache.
+     * 
+     * @param claves Cuentas y días buscados
+     * @return Copia de los segmentos encontrados
+     */
+    public Map<Segmento, List<MovimientoReporte>> obtener(Collection<Segmento> claves) {
+        return segmentos.getAllPresent(claves).entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entrada -> copiar(entrada.getValue())));
+    }
+    
+    /**
+     * Versión actual de los segmentos de una cuenta; debe tomarse antes de consultar la base
+     * de datos y entregarse al guardar lo consultado.
+     * 
+     * @param cuentaId Identificador de la cuenta
+     * @return Versión
+     */
+    public long version(Long cuentaId) {
+        return versiones.get(contador(cuentaId));
+    }
+    
+    /**
+     * Guarda un segmento leído de la base de datos, salvo que su cuenta se haya invalidado
+     * desde que se tomó la versión.
+     * 
+     * @param segmento Cuenta y día
+     * @param movimientos Movimientos del día completo, en orden de fecha e id
+     * @param version Versión tomada antes de la consulta
+     */
+    public void guardar(Segmento segmento, List<MovimientoReporte> movimientos, long version) {
+        List<MovimientoReporte> copia = copiar(movimientos);
+        segmentos.put(segmento, copia);
+        if (version(segmento.cuentaId()) != version) {
+            segmentos.asMap().remove(segmento, copia);
+        }
+    }
+    
+    /**
+     * Descarta el segmento de un día en el que se registró o eliminó un movimiento, cuando la
+     * transacción se confirme.
+     * 
+     * @param cuentaId Identificador de la cuenta
+     * @param fecha Día del movimiento
+     */
+    public void invalidar(Long cuentaId, LocalDate fecha) {
+        Segmento segmento = new Segmento(cuentaId, fecha);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            descartar(segmento);
+            return;
+        }
+        
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                descartar(segmento);
+            }
+        });
+    }
+    
+    private void descartar(Segmento segmento) {
+        versiones.incrementAndGet(contador(segmento.cuentaId()));
+        segmentos.invalidate(segmento);
+    }
+    
+    private void descartarCuenta(Long cuentaId) {
+        versiones.incrementAndGet(contador(cuentaId));
+        segmentos.asMap().keySet().removeIf(segmento -> cuentaId.equals(segmento.cuentaId()));
+    }
+    
+    private void descartarTodo() {
+        for (int i = 0; i < CONTADORES; i++) {
+            versiones.incrementAndGet(i);
+        }
+        segmentos.invalidateAll();
+    }
+    
+    private static int contador(Long cuentaId) {
+        return Math.floorMod(cuentaId.hashCode(), CONTADORES);
+    }
+    
+    private static List<MovimientoReporte> copiar(List<MovimientoReporte> movimientos) {
+        return movimientos.stream()
+                .map(mov -> new MovimientoReporte(mov.getFecha(), mov.getTipoMovimiento(), mov.getValor(), mov.getSaldo()))
+                .collect(Collectors.toUnmodifiableList());
+    }
+    
+    /**
+     * Clave de un segmento: los movimientos de una cuenta en un día.
+     * 
+     * @param cuentaId Identificador de la cuenta
+     * @param fecha Día
+     */
+    public record Segmento(Long cuentaId, LocalDate fecha) {
+    }
+}
@@ -0,0 +1,123 @@
+package ec.com.banco.proyectobancario.infrastructure.concurrency;
+
+import ec.com.banco.proyectobancario.domain.port.output.BloqueoCuentaPort;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Adaptador que implementa BloqueoCuentaPort con un arreglo fijo de bloqueos (franjas).
+ * Cada cuenta se asigna siempre a la misma franja, de modo que sus operaciones quedan
+ * serializadas, y las cuentas de franjas distintas avanzan en paralelo.
+ * Publica por franja la cantidad de hilos en espera y el tiempo de espera del bloqueo.
+ * 
+ */
+@Component
+public class BloqueoCuentaAdapter implements BloqueoCuentaPort {
+    
+    private final ReentrantLock[] franjas;
+    private final Timer[] tiemposEspera;
+    private final long esperaMaximaNanos;
+    
+    public BloqueoCuentaAdapter(MeterRegistry meterRegistry,
+                                @Value("${app.contabilizacion.franjas:64}") int cantidadFranjas,
+                                @Value("${app.contabilizacion.espera-maxima:5s}") Duration esperaMaxima) {
+        if (cantidadFranjas <= 0) {
+            throw new IllegalArgumentException("La cantidad de franjas debe ser mayor a cero");
+        }
+        this.franjas = new ReentrantLock[cantidadFranjas];
+        this.tiemposEspera = new Timer[cantidadFranjas];
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+        
+        for (int i = 0; i < cantidadFranjas; i++) {
+            ReentrantLock franja = new ReentrantLock(true);
+            String etiqueta = String.valueOf(i);
+            franjas[i] = franja;
+            tiemposEspera[i] = Timer.builder("banco.contabilizacion.espera")
+                    .description("Tiempo de espera para obtener el bloqueo de la cuenta")
+                    .tag("franja", etiqueta)
+                    .register(meterRegistry);
+            Gauge.builder("banco.contabilizacion.cola", franja, ReentrantLock::getQueueLength)
+                    .description("Operaciones en espera del bloqueo de la cuenta")
+                    .tag("franja", etiqueta)
+                    .register(meterRegistry);
+        }
+    }
+    
+    @Override
+    public <T> T ejecutar(Long cuentaId, Supplier<T> operacion) {
+        int indice = indiceFranja(cuentaId);
+        ReentrantLock franja = franjas[indice];
+        
+        adquirir(franja, indice, cuentaId);
+        try {
+            return operacion.get();
+        } finally {
+            franja.unlock();
+        }
+    }
+    
+    @Override
+    public <T> T ejecutar(Collection<Long> cuentaIds, Supplier<T> operacion) {
+        // Franjas distintas en orden ascendente: todas las operaciones las toman en el mismo orden
+        int[] indices = cuentaIds.stream()
+                .mapToInt(this::indiceFranja)
+                .distinct()
+                .sorted()
+                .toArray();
+        
+        int adquiridas = 0;
+        try {
+            for (int indice : indices) {
+                adquirir(franjas[indice], indice, cuentaIds);
+                adquiridas++;
+            }
+            return operacion.get();
+        } finally {
+            for (int i = adquiridas - 1; i >= 0; i--) {
+                franjas[indices[i]].unlock();
+            }
+        }
+    }
+    
+    /**
+     * Obtiene la franja asignada a una cuenta.
+     * 
+     * @param cuentaId Identificador de la cuenta
+     * @return Índice de la franja
+     */
+    int indiceFranja(Long cuentaId) {
+        return Math.floorMod(Long.hashCode(cuentaId), franjas.length);
+    }
+    
+    private void adquirir(ReentrantLock franja, int indice, Object cuentas) {
+        long inicio = System.nanoTime();
+        boolean adquirido;
+        try {
+            adquirido = franja.tryLock(esperaMaximaNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CannotAcquireLockException("Operación interrumpida esperando " + describir(cuentas), e);
+        } finally {
+            tiemposEspera[indice].record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+        if (!adquirido) {
+            throw new CannotAcquireLockException("No se pudo obtener " + describir(cuentas) + ", intente nuevamente");
+        }
+    }
+    
+    private static String describir(Object cuentas) {
+        return cuentas instanceof Collection<?> ? "las cuentas " + cuentas : "la cuenta " + cuentas;
+    }
+}
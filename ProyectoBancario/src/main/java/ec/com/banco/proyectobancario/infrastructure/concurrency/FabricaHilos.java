@@ -0,0 +1,41 @@
+package ec.com.banco.proyectobancario.infrastructure.concurrency;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Crea los hilos de las tareas internas de la aplicación.
+ * Con spring.threads.virtual.enabled los hilos son virtuales, igual que los que atienden
+ * las peticiones web; en caso contrario son hilos de plataforma.
+ * 
+ */
+@Component
+public class FabricaHilos {
+    
+    private final boolean hilosVirtuales;
+    
+    public FabricaHilos(@Value("${spring.threads.virtual.enabled:false}") boolean hilosVirtuales) {
+        this.hilosVirtuales = hilosVirtuales;
+    }
+    
+    /**
+     * Crea e inicia un hilo.
+     * 
+     * @param nombre Nombre del hilo
+     * @param tarea Tarea a ejecutar
+     * @return Hilo iniciado
+     */
+    public Thread iniciar(String nombre, Runnable tarea) {
+        Thread.Builder constructor = hilosVirtuales ? Thread.ofVirtual() : Thread.ofPlatform();
+        return constructor.name(nombre).start(tarea);
+    }
+    
+    /**
+     * Indica si las tareas internas se ejecutan en hilos virtuales.
+     * 
+     * @return true si se usan hilos virtuales
+     */
+    public boolean usaHilosVirtuales() {
+        return hilosVirtuales;
+    }
+}
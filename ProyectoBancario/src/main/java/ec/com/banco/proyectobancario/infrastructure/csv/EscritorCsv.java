@@ -0,0 +1,123 @@
+package ec.com.banco.proyectobancario.infrastructure.csv;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Escribe filas CSV (RFC 4180) en UTF-8 campo por campo, sin armar cada fila en memoria.
+ * La salida se vacía por bloques a medida que se llena el búfer; al cerrar el escritor se
+ * vacía lo pendiente pero la salida queda abierta para quien la entregó.
+ * 
+ */
+public final class EscritorCsv implements Closeable {
+    
+    private final Writer escritor;
+    private boolean inicioFila = true;
+    
+    public EscritorCsv(OutputStream salida) {
+        this.escritor = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Escribe un campo de texto, entre comillas si contiene separadores, comillas o saltos de línea.
+     * 
+     * @param valor Texto, o null para un campo vacío
+     * @return Este escritor
+     */
+    public EscritorCsv texto(String valor) {
+        separar();
+        if (valor == null) {
+            return this;
+        }
+        try {
+            if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+                escritor.write(valor);
+            } else {
+                escritor.write('"');
+                escritor.write(valor.replace("\"", "\"\""));
+                escritor.write('"');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+    
+    /**
+     * Escribe un campo numérico sin notación científica.
+     * 
+     * @param valor Número, o null para un campo vacío
+     * @return Este escritor
+     */
+    public EscritorCsv numero(BigDecimal valor) {
+        return texto(valor != null ? valor.toPlainString() : null);
+    }
+    
+    /**
+     * Escribe un campo de fecha y hora en formato ISO-8601.
+     * 
+     * @param valor Fecha y hora, o null para un campo vacío
+     * @return Este escritor
+     */
+    public EscritorCsv fecha(LocalDateTime valor) {
+        separar();
+        if (valor != null) {
+            DateTimeFormatter.ISO_LOCAL_DATE_TIME.formatTo(valor, escritor);
+        }
+        return this;
+    }
+    
+    /**
+     * Termina la fila actual.
+     */
+    public void finFila() {
+        try {
+            escritor.write("\r\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        inicioFila = true;
+    }
+    
+    /**
+     * Escribe una fila de encabezado con los nombres de las columnas.
+     * 
+     * @param columnas Nombres de las columnas
+     */
+    public void encabezado(String... columnas) {
+        for (String columna : columnas) {
+            texto(columna);
+        }
+        finFila();
+    }
+    
+    @Override
+    public void close() {
+        try {
+            escritor.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private void separar() {
+        if (inicioFila) {
+            inicioFila = false;
+            return;
+        }
+        try {
+            escritor.write(',');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
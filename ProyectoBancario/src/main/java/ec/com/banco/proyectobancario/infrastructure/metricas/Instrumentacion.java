@@ -0,0 +1,205 @@
+package ec.com.banco.proyectobancario.infrastructure.metricas;
+
+import ec.com.banco.proyectobancario.domain.port.output.RegistroRechazosPort;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoradores que miden con Micrometer cada llamada a los casos de uso y a los puertos de
+ * salida, sin que las clases de aplicación y dominio dependan de él.
+ * <ul>
+ *   <li>banco.caso-uso.duracion (caso, metodo, resultado): tiempo de cada método de un caso de uso.</li>
+ *   <li>banco.puerto.duracion (puerto, metodo, resultado): tiempo de cada método de un puerto.</li>
+ *   <li>banco.caso-uso.rechazos (motivo): reglas de negocio incumplidas, por mensaje.</li>
+ * </ul>
+ * Los rechazos se cuentan cuando la IllegalArgumentException sale del caso de uso más externo
+ * y, como RegistroRechazosPort, cuando un caso de uso informa un rechazo sin lanzarla (los
+ * movimientos fallidos de un lote).
+ * El resultado es exito, rechazo (IllegalArgumentException) o error. De los casos de uso solo
+ * se miden los métodos públicos, que son los que llaman los adaptadores de entrada; los métodos
+ * de paquete que un caso de uso comparte con otro se ejecutan sin medir, como parte del método
+ * público que los llamó. Los histogramas de los temporizadores se activan por configuración con
+ * management.metrics.distribution.
+ * 
+ */
+@Component
+public class Instrumentacion implements RegistroRechazosPort {
+    
+    private static final String EXITO = "exito";
+    private static final String RECHAZO = "rechazo";
+    private static final String ERROR = "error";
+    
+    /**
+     * Métodos medidos de un caso de uso: los públicos propios, sin los heredados de Object.
+     */
+    private static final StaticMethodMatcherPointcut METODOS_PUBLICOS = new StaticMethodMatcherPointcut() {
+        @Override
+        public boolean matches(Method metodo, Class<?> claseDestino) {
+            return Modifier.isPublic(metodo.getModifiers()) && metodo.getDeclaringClass() != Object.class;
+        }
+    };
+    
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> rechazos = new ConcurrentHashMap<>();
+    
+    /**
+     * Métodos públicos de casos de uso en curso en el hilo. Un método público puede llamar al
+     * de otro caso de uso; el rechazo se cuenta una sola vez, en el más externo.
+     */
+    private final ThreadLocal<int[]> profundidad = ThreadLocal.withInitial(() -> new int[1]);
+    
+    public Instrumentacion(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+    
+    /**
+     * Envuelve un caso de uso en una subclase generada que mide cada método público. Los demás
+     * métodos pasan al caso de uso sin medirse.
+     * 
+     * @param casoUso Caso de uso a medir
+     * @return Caso de uso medido, del mismo tipo
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T medirCasoUso(T casoUso) {
+        Temporizadores temporizadores = new Temporizadores("banco.caso-uso.duracion",
+                "Tiempo de cada método de los casos de uso", "caso", casoUso.getClass().getSimpleName());
+        
+        ProxyFactory fabrica = new ProxyFactory(casoUso);
+        fabrica.setProxyTargetClass(true);
+        fabrica.addAdvisor(new DefaultPointcutAdvisor(METODOS_PUBLICOS, (MethodInterceptor) invocacion -> {
+            int[] nivel = profundidad.get();
+            nivel[0]++;
+            long inicio = System.nanoTime();
+            String resultado = EXITO;
+            try {
+                return invocacion.proceed();
+            } catch (IllegalArgumentException e) {
+                resultado = RECHAZO;
+                if (nivel[0] == 1) {
+                    contarRechazo(e.getMessage());
+                }
+                throw e;
+            } catch (Throwable e) {
+                resultado = ERROR;
+                throw e;
+            } finally {
+                nivel[0]--;
+                temporizadores.obtener(invocacion.getMethod(), resultado)
+                        .record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            }
+        }));
+        return (T) fabrica.getProxy(casoUso.getClass().getClassLoader());
+    }
+    
+    /**
+     * Envuelve un puerto de salida en un proxy de su interfaz que mide cada método.
+     * 
+     * @param puerto Interfaz del puerto
+     * @param delegado Implementación a medir
+     * @return Puerto medido
+     */
+    public <T> T medirPuerto(Class<T> puerto, T delegado) {
+        Temporizadores temporizadores = new Temporizadores("banco.puerto.duracion",
+                "Tiempo de cada método de los puertos de salida", "puerto", puerto.getSimpleName());
+        
+        return puerto.cast(Proxy.newProxyInstance(puerto.getClassLoader(), new Class<?>[] {puerto},
+                (proxy, metodo, argumentos) -> {
+                    if (metodo.getDeclaringClass() == Object.class) {
+                        return invocar(delegado, metodo, argumentos);
+                    }
+                    long inicio = System.nanoTime();
+                    String resultado = EXITO;
+                    try {
+                        return invocar(delegado, metodo, argumentos);
+                    } catch (IllegalArgumentException e) {
+                        resultado = RECHAZO;
+                        throw e;
+                    } catch (Throwable e) {
+                        resultado = ERROR;
+                        throw e;
+                    } finally {
+                        temporizadores.obtener(metodo, resultado)
+                                .record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                    }
+                }));
+    }
+    
+    private static Object invocar(Object delegado, Method metodo, Object[] argumentos) throws Throwable {
+        try {
+            return metodo.invoke(delegado, argumentos);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+    
+    @Override
+    public void registrar(String motivo) {
+        contarRechazo(motivo);
+    }
+    
+    private void contarRechazo(String mensaje) {
+        String motivo = motivo(mensaje);
+        rechazos.computeIfAbsent(motivo, m -> Counter.builder("banco.caso-uso.rechazos")
+                .description("Operaciones rechazadas por reglas de negocio")
+                .tag("motivo", m)
+                .register(meterRegistry))
+                .increment();
+    }
+    
+    /**
+     * Motivo de un rechazo sin los datos variables del mensaje, que van después de ':'
+     * ("Cliente no encontrado con id: 7"), para no crear una serie por cada valor.
+     */
+    private static String motivo(String mensaje) {
+        if (mensaje == null || mensaje.isBlank()) {
+            return "sin motivo";
+        }
+        int separador = mensaje.indexOf(':');
+        return (separador < 0 ? mensaje : mensaje.substring(0, separador)).trim();
+    }
+    
+    /**
+     * Temporizadores de una clase medida, uno por método y resultado, registrados al primer uso.
+     */
+    private final class Temporizadores {
+        
+        private final String nombre;
+        private final String descripcion;
+        private final String etiqueta;
+        private final String clase;
+        private final Map<Method, Map<String, Timer>> porMetodo = new ConcurrentHashMap<>();
+        
+        Temporizadores(String nombre, String descripcion, String etiqueta, String clase) {
+            this.nombre = nombre;
+            this.descripcion = descripcion;
+            this.etiqueta = etiqueta;
+            this.clase = clase;
+        }
+        
+        Timer obtener(Method metodo, String resultado) {
+            return porMetodo.computeIfAbsent(metodo, m -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(resultado, r -> Timer.builder(nombre)
+                            .description(descripcion)
+                            .tag(etiqueta, clase)
+                            .tag("metodo", metodo.getName())
+                            .tag("resultado", r)
+                            .register(meterRegistry));
+        }
+    }
+}
@@ -1,11 +1,17 @@
 package ec.com.banco.proyectobancario.infrastructure.persistence.adapter;
 
 import ec.com.banco.proyectobancario.domain.model.Cliente;
+import ec.com.banco.proyectobancario.domain.model.ConsultaPagina;
+import ec.com.banco.proyectobancario.domain.model.Pagina;
 import ec.com.banco.proyectobancario.domain.port.output.ClienteRepositoryPort;
+import ec.com.banco.proyectobancario.infrastructure.cache.BusInvalidacion;
 import ec.com.banco.proyectobancario.infrastructure.persistence.entity.ClienteEntity;
 import ec.com.banco.proyectobancario.infrastructure.persistence.mapper.ClienteMapper;
 import ec.com.banco.proyectobancario.infrastructure.persistence.repository.ClienteJpaRepository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -14,6 +20,7 @@ import java.util.stream.Collectors;
 
 /**
  * Adaptador que implementa ClienteRepositoryPort usando JPA.
+ * Las modificaciones y eliminaciones se avisan a los demás nodos por el BusInvalidacion.
  * 
  */
 @Component
@@ -21,16 +28,23 @@ public class ClienteRepositoryAdapter implements ClienteRepositoryPort {
     
     private final ClienteJpaRepository jpaRepository;
     private final ClienteMapper mapper;
+    private final BusInvalidacion busInvalidacion;
     
-    public ClienteRepositoryAdapter(ClienteJpaRepository jpaRepository, ClienteMapper mapper) {
+    public ClienteRepositoryAdapter(ClienteJpaRepository jpaRepository, ClienteMapper mapper,
+                                    BusInvalidacion busInvalidacion) {
         this.jpaRepository = jpaRepository;
         this.mapper = mapper;
+        this.busInvalidacion = busInvalidacion;
     }
     
     @Override
     public Cliente save(Cliente cliente) {
         ClienteEntity entity = mapper.toEntity(cliente);
         ClienteEntity savedEntity = jpaRepository.save(entity);
+        if (cliente.getId() != null) {
+            jpaRepository.incrementarVersion(savedEntity.getId());
+            busInvalidacion.publicar(BusInvalidacion.CLIENTE, savedEntity.getId());
+        }
         return mapper.toDomain(savedEntity);
     }
     
@@ -48,14 +62,45 @@ public class ClienteRepositoryAdapter implements ClienteRepositoryPort {
     
     @Override
     public List<Cliente> findAll() {
-        return jpaRepository.findAll().stream()
+        return jpaRepository.listarTodos().stream()
                 .map(mapper::toDomain)
                 .collect(Collectors.toList());
     }
     
+    @Override
+    public String obtenerVersion() {
+        return jpaRepository.obtenerVersion().valor();
+    }
+    
+    @Override
+    public Optional<String> obtenerVersion(Long id) {
+        return jpaRepository.obtenerVersion(id).map(String::valueOf);
+    }
+    
+    @Override
+    public Pagina<Cliente> findPagina(Boolean estado, ConsultaPagina consulta) {
+        Specification<ClienteEntity> filtro = (root, query, cb) -> estado == null
+                ? cb.conjunction()
+                : cb.equal(root.get("estado"), estado);
+        Specification<ClienteEntity> condiciones = filtro.and(Paginacion.despuesDe(consulta));
+        
+        Slice<ClienteEntity> pagina = jpaRepository.findBy(condiciones,
+                q -> q.slice(Paginacion.toPageRequest(consulta)));
+        return new Pagina<>(pagina.getContent().stream()
+                .map(mapper::toDomain)
+                .collect(Collectors.toList()), pagina.hasNext());
+    }
+    
+    @Override
+    public List<Long> listarIdsActivos(Long despuesDe, int limite) {
+        return jpaRepository.listarIdsActivos(despuesDe != null ? despuesDe : 0L, Limit.of(limite));
+    }
+    
     @Override
     public void deleteById(Long id) {
         jpaRepository.deleteById(id);
+        // La base de datos elimina en cascada las cuentas del cliente
+        busInvalidacion.publicar(BusInvalidacion.CLIENTE_ELIMINADO, id);
     }
     
     @Override
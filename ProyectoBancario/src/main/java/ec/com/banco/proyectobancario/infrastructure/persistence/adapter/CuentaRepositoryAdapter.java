@@ -1,18 +1,29 @@
 package ec.com.banco.proyectobancario.infrastructure.persistence.adapter;
 
+import ec.com.banco.proyectobancario.domain.model.ConsultaPagina;
 import ec.com.banco.proyectobancario.domain.model.Cuenta;
+import ec.com.banco.proyectobancario.domain.model.FiltroCuenta;
+import ec.com.banco.proyectobancario.domain.model.Pagina;
 import ec.com.banco.proyectobancario.domain.port.output.CuentaRepositoryPort;
+import ec.com.banco.proyectobancario.infrastructure.cache.BusInvalidacion;
 import ec.com.banco.proyectobancario.infrastructure.persistence.entity.CuentaEntity;
 import ec.com.banco.proyectobancario.infrastructure.persistence.mapper.CuentaMapper;
 import ec.com.banco.proyectobancario.infrastructure.persistence.repository.CuentaJpaRepository;
 
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 
+import jakarta.persistence.criteria.Predicate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * Adaptador que implementa CuentaRepositoryPort usando JPA.
+ * Las modificaciones y eliminaciones se avisan a los demás nodos por el BusInvalidacion.
  * 
  */
 @Component
@@ -20,16 +31,23 @@ public class CuentaRepositoryAdapter implements CuentaRepositoryPort {
     
     private final CuentaJpaRepository jpaRepository;
     private final CuentaMapper mapper;
+    private final BusInvalidacion busInvalidacion;
     
-    public CuentaRepositoryAdapter(CuentaJpaRepository jpaRepository, CuentaMapper mapper) {
+    public CuentaRepositoryAdapter(CuentaJpaRepository jpaRepository, CuentaMapper mapper,
+                                   BusInvalidacion busInvalidacion) {
         this.jpaRepository = jpaRepository;
         this.mapper = mapper;
+        this.busInvalidacion = busInvalidacion;
     }
     
     @Override
     public Cuenta save(Cuenta cuenta) {
         CuentaEntity entity = mapper.toEntity(cuenta);
         CuentaEntity savedEntity = jpaRepository.save(entity);
+        if (cuenta.getId() != null) {
+            jpaRepository.incrementarVersion(savedEntity.getId());
+            busInvalidacion.publicar(BusInvalidacion.CUENTA, savedEntity.getId());
+        }
         return mapper.toDomain(savedEntity);
     }
     
@@ -47,17 +65,73 @@ public class CuentaRepositoryAdapter implements CuentaRepositoryPort {
     
     @Override
     public List<Cuenta> findByClienteId(Long clienteId) {
-        return mapper.toDomainList(jpaRepository.findByClienteId(clienteId));
+        return mapper.toDomainListDesdeProyeccion(jpaRepository.listarPorCliente(clienteId));
     }
     
     @Override
     public List<Cuenta> findAll() {
-        return mapper.toDomainList(jpaRepository.findAll());
+        return mapper.toDomainListDesdeProyeccion(jpaRepository.listarTodas());
+    }
+    
+    @Override
+    public String obtenerVersion() {
+        return jpaRepository.obtenerVersion().valor();
+    }
+    
+    @Override
+    public String obtenerVersionPorCliente(Long clienteId) {
+        return jpaRepository.obtenerVersionPorCliente(clienteId).valor();
+    }
+    
+    @Override
+    public Pagina<Cuenta> findPagina(FiltroCuenta filtro, ConsultaPagina consulta) {
+        Specification<CuentaEntity> condiciones = (root, query, cb) -> {
+            List<Predicate> predicados = new ArrayList<>();
+            if (filtro.getEstado() != null) {
+                predicados.add(cb.equal(root.get("estado"), filtro.getEstado()));
+            }
+            if (filtro.getTipoCuenta() != null) {
+                predicados.add(cb.equal(root.get("tipoCuenta"), filtro.getTipoCuenta()));
+            }
+            if (filtro.getClienteId() != null) {
+                predicados.add(cb.equal(root.get("clienteId"), filtro.getClienteId()));
+            }
+            return cb.and(predicados.toArray(Predicate[]::new));
+        };
+        condiciones = condiciones.and(Paginacion.despuesDe(consulta));
+        
+        Slice<CuentaEntity> pagina = jpaRepository.findBy(condiciones,
+                q -> q.slice(Paginacion.toPageRequest(consulta)));
+        return new Pagina<>(mapper.toDomainList(pagina.getContent()), pagina.hasNext());
+    }
+    
+    @Override
+    public Optional<Cuenta> findByIdParaActualizar(Long id) {
+        return jpaRepository.findByIdParaActualizar(id)
+                .map(mapper::toDomain);
+    }
+    
+    @Override
+    public List<Cuenta> bloquearPorIds(List<Long> ids) {
+        return mapper.toDomainList(jpaRepository.findAllByIdParaActualizar(ids));
+    }
+    
+    @Override
+    public void actualizarSaldoActual(Long id, BigDecimal saldoActual) {
+        jpaRepository.actualizarSaldoActual(id, saldoActual);
+        busInvalidacion.publicar(BusInvalidacion.CUENTA, id);
+    }
+    
+    @Override
+    public void ajustarSaldoActual(Long id, BigDecimal ajuste) {
+        jpaRepository.ajustarSaldoActual(id, ajuste);
+        busInvalidacion.publicar(BusInvalidacion.CUENTA, id);
     }
     
     @Override
     public void deleteById(Long id) {
         jpaRepository.deleteById(id);
+        busInvalidacion.publicar(BusInvalidacion.CUENTA, id);
     }
     
     @Override
@@ -0,0 +1,131 @@
+package ec.com.banco.proyectobancario.infrastructure.persistence.adapter;
+
+import ec.com.banco.proyectobancario.domain.model.Movimiento;
+import ec.com.banco.proyectobancario.domain.model.RegistroIdempotencia;
+import ec.com.banco.proyectobancario.domain.port.output.IdempotenciaRepositoryPort;
+import ec.com.banco.proyectobancario.infrastructure.persistence.entity.IdempotenciaEntity;
+import ec.com.banco.proyectobancario.infrastructure.persistence.mapper.MovimientoMapper;
+import ec.com.banco.proyectobancario.infrastructure.persistence.repository.IdempotenciaJpaRepository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Adaptador que implementa IdempotenciaRepositoryPort usando JPA.
+ * Las claves recientes se atienden desde una caché en memoria acotada por tamaño y
+ * tiempo de vida; la tabla idempotencia_movimientos, con la clave como llave primaria,
+ * detecta los duplicados que llegan después de que la entrada sale de la caché o tras
+ * un reinicio. Cada clave guarda la huella de la solicitud original y se conserva durante
+ * {@code app.idempotencia.retencion}; IdempotenciaPurgaJob elimina las vencidas. La caché nunca
+ * retiene una clave más tiempo que la tabla.
+ * 
+ */
+@Component
+public class IdempotenciaRepositoryAdapter implements IdempotenciaRepositoryPort {
+    
+    private final IdempotenciaJpaRepository jpaRepository;
+    private final MovimientoMapper movimientoMapper;
+    private final Duration retencion;
+    private final Cache<String, RegistroIdempotencia> movimientosPorClave;
+    private final Counter aciertosMemoria;
+    private final Counter aciertosBaseDatos;
+    private final Counter fallos;
+    
+    public IdempotenciaRepositoryAdapter(IdempotenciaJpaRepository jpaRepository,
+                                         MovimientoMapper movimientoMapper,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${app.idempotencia.cache.max-entradas:10000}") long maxEntradas,
+                                         @Value("${app.idempotencia.cache.ttl:24h}") Duration ttl,
+                                         @Value("${app.idempotencia.retencion:24h}") Duration retencion) {
+        this.jpaRepository = jpaRepository;
+        this.movimientoMapper = movimientoMapper;
+        this.retencion = retencion;
+        this.movimientosPorClave = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterWrite(ttl.compareTo(retencion) < 0 ? ttl : retencion)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, movimientosPorClave, "idempotencia-movimientos");
+        
+        this.aciertosMemoria = contador(meterRegistry, "acierto-memoria");
+        this.aciertosBaseDatos = contador(meterRegistry, "acierto-bd");
+        this.fallos = contador(meterRegistry, "fallo");
+    }
+    
+    @Override
+    public Optional<RegistroIdempotencia> buscarMovimiento(String clave) {
+        RegistroIdempotencia enMemoria = movimientosPorClave.getIfPresent(clave);
+        if (enMemoria != null) {
+            aciertosMemoria.increment();
+            return Optional.of(enMemoria);
+        }
+        
+        Optional<RegistroIdempotencia> guardado = jpaRepository.findMovimientoByClave(clave)
+                .map(proyeccion -> new RegistroIdempotencia(
+                        movimientoMapper.toDomain(proyeccion.movimiento()), proyeccion.huella()));
+        if (guardado.isPresent()) {
+            aciertosBaseDatos.increment();
+            movimientosPorClave.put(clave, guardado.get());
+        } else {
+            fallos.increment();
+        }
+        return guardado;
+    }
+    
+    @Override
+    public void registrar(String clave, String huella, Movimiento movimiento) {
+        LocalDateTime ahora = LocalDateTime.now();
+        jpaRepository.saveAndFlush(new IdempotenciaEntity(clave, movimiento.getId(), huella,
+                ahora, ahora.plus(retencion)));
+        RegistroIdempotencia registro = new RegistroIdempotencia(movimiento, huella);
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    movimientosPorClave.put(clave, registro);
+                }
+            });
+        } else {
+            movimientosPorClave.put(clave, registro);
+        }
+    }
+    
+    @Override
+    public void olvidarMovimiento(Long movimientoId) {
+        // Las filas se eliminan en cascada junto con el movimiento; solo queda limpiar la caché
+        Runnable limpiar = () -> movimientosPorClave.asMap().values()
+                .removeIf(registro -> movimientoId.equals(registro.getMovimiento().getId()));
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    limpiar.run();
+                }
+            });
+        } else {
+            limpiar.run();
+        }
+    }
+    
+    private static Counter contador(MeterRegistry meterRegistry, String resultado) {
+        return Counter.builder("banco.idempotencia.consultas")
+                .description("Consultas de claves de idempotencia por resultado")
+                .tag("resultado", resultado)
+                .register(meterRegistry);
+    }
+}
@@ -1,18 +1,27 @@
 package ec.com.banco.proyectobancario.infrastructure.persistence.adapter;
 
+import ec.com.banco.proyectobancario.domain.model.CursorMovimiento;
 import ec.com.banco.proyectobancario.domain.model.Movimiento;
+import ec.com.banco.proyectobancario.domain.model.Pagina;
 import ec.com.banco.proyectobancario.domain.port.output.MovimientoRepositoryPort;
+import ec.com.banco.proyectobancario.infrastructure.cache.SegmentosReporte;
 import ec.com.banco.proyectobancario.infrastructure.persistence.entity.MovimientoEntity;
 import ec.com.banco.proyectobancario.infrastructure.persistence.mapper.MovimientoMapper;
+import ec.com.banco.proyectobancario.infrastructure.persistence.projection.MovimientoProyeccion;
 import ec.com.banco.proyectobancario.infrastructure.persistence.repository.MovimientoJpaRepository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.time.LocalDate;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Adaptador que implementa MovimientoRepositoryPort usando JPA.
@@ -23,19 +32,37 @@ public class MovimientoRepositoryAdapter implements MovimientoRepositoryPort {
     
     private final MovimientoJpaRepository jpaRepository;
     private final MovimientoMapper mapper;
+    private final TransactionTemplate lectura;
+    private final SegmentosReporte segmentosReporte;
     
-    public MovimientoRepositoryAdapter(MovimientoJpaRepository jpaRepository, MovimientoMapper mapper) {
+    public MovimientoRepositoryAdapter(MovimientoJpaRepository jpaRepository, MovimientoMapper mapper,
+                                       PlatformTransactionManager transactionManager,
+                                       SegmentosReporte segmentosReporte) {
         this.jpaRepository = jpaRepository;
         this.mapper = mapper;
+        this.segmentosReporte = segmentosReporte;
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
     }
     
     @Override
     public Movimiento save(Movimiento movimiento) {
         MovimientoEntity entity = mapper.toEntity(movimiento);
         MovimientoEntity savedEntity = jpaRepository.save(entity);
+        segmentosReporte.invalidar(savedEntity.getCuentaId(), savedEntity.getFecha().toLocalDate());
         return mapper.toDomain(savedEntity);
     }
     
+    @Override
+    public List<Movimiento> saveAll(List<Movimiento> movimientos) {
+        List<MovimientoEntity> entities = movimientos.stream()
+                .map(mapper::toEntity)
+                .collect(Collectors.toList());
+        List<MovimientoEntity> savedEntities = jpaRepository.saveAll(entities);
+        savedEntities.forEach(saved -> segmentosReporte.invalidar(saved.getCuentaId(), saved.getFecha().toLocalDate()));
+        return mapper.toDomainList(savedEntities);
+    }
+    
     @Override
     public Optional<Movimiento> findById(Long id) {
         return jpaRepository.findById(id)
@@ -44,30 +71,87 @@ public class MovimientoRepositoryAdapter implements MovimientoRepositoryPort {
     
     @Override
     public List<Movimiento> findByCuentaId(Long cuentaId) {
-        return mapper.toDomainList(jpaRepository.findByCuentaId(cuentaId));
+        return mapper.toDomainListDesdeProyeccion(jpaRepository.listarPorCuenta(cuentaId));
     }
     
     @Override
     public List<Movimiento> findByCuentaIdAndFechaBetween(Long cuentaId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
-        return mapper.toDomainList(jpaRepository.findByCuentaIdAndFechaBetween(cuentaId, fechaInicio, fechaFin));
+        return mapper.toDomainListDesdeProyeccion(jpaRepository.listarPorCuentaYFecha(cuentaId, fechaInicio, fechaFin));
     }
     
     @Override
-    public List<Movimiento> findDebitosByCuentaIdAndFecha(Long cuentaId, LocalDateTime fecha) {
-        LocalDate fechaLocal = fecha.toLocalDate();
-        LocalDateTime inicioDia = fechaLocal.atStartOfDay();
-        LocalDateTime finDia = fechaLocal.atTime(LocalTime.MAX);
-        
-        return mapper.toDomainList(jpaRepository.findDebitosByCuentaIdAndFechaBetween(cuentaId, inicioDia, finDia));
+    public List<Movimiento> findByCuentaIdInAndFechaBetween(List<Long> cuentaIds, LocalDateTime fechaInicio,
+                                                           LocalDateTime fechaFin) {
+        if (cuentaIds.isEmpty()) {
+            return List.of();
+        }
+        return mapper.toDomainListDesdeProyeccion(jpaRepository.listarPorCuentasYFecha(cuentaIds, fechaInicio, fechaFin));
     }
     
     @Override
     public List<Movimiento> findAll() {
-        return mapper.toDomainList(jpaRepository.findAll());
+        return mapper.toDomainListDesdeProyeccion(jpaRepository.listarTodos());
+    }
+    
+    @Override
+    public void recorrerTodos(Consumer<Movimiento> consumidor) {
+        // El cursor del driver solo lee por bloques dentro de una transacción; las filas son
+        // proyecciones, así que el contexto de persistencia no crece con la tabla
+        lectura.executeWithoutResult(status -> {
+            try (Stream<MovimientoProyeccion> filas = jpaRepository.recorrerTodos()) {
+                filas.forEach(fila -> consumidor.accept(mapper.toDomain(fila)));
+            }
+        });
+    }
+    
+    @Override
+    public void recorrerPorCuentasYFecha(List<Long> cuentaIds, LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                         Consumer<Movimiento> consumidor) {
+        if (cuentaIds.isEmpty()) {
+            return;
+        }
+        lectura.executeWithoutResult(status -> {
+            try (Stream<MovimientoProyeccion> filas = jpaRepository.recorrerPorCuentasYFecha(cuentaIds, fechaInicio, fechaFin)) {
+                filas.forEach(fila -> consumidor.accept(mapper.toDomain(fila)));
+            }
+        });
+    }
+    
+    @Override
+    public Pagina<Movimiento> findPaginaByCuentaId(Long cuentaId, LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                                  CursorMovimiento despuesDe, int tamano) {
+        // Se lee una fila más para saber si hay página siguiente
+        Limit limite = Limit.of(tamano + 1);
+        boolean todoElHistorial = fechaInicio == null && fechaFin == null;
+        List<MovimientoProyeccion> filas;
+        if (despuesDe == null) {
+            filas = todoElHistorial
+                    ? jpaRepository.listarPrimeraPagina(cuentaId, limite)
+                    : jpaRepository.listarPrimeraPaginaPorFecha(cuentaId, fechaInicio, fechaFin, limite);
+        } else {
+            filas = todoElHistorial
+                    ? jpaRepository.listarPaginaDespuesDe(cuentaId, despuesDe.getFecha(), despuesDe.getId(), limite)
+                    : jpaRepository.listarPaginaPorFechaDespuesDe(cuentaId, fechaInicio, fechaFin,
+                            despuesDe.getFecha(), despuesDe.getId(), limite);
+        }
+        
+        boolean haySiguiente = filas.size() > tamano;
+        return new Pagina<>(mapper.toDomainListDesdeProyeccion(haySiguiente ? filas.subList(0, tamano) : filas),
+                haySiguiente);
+    }
+    
+    @Override
+    public BigDecimal sumarValores(Long cuentaId, LocalDateTime desde, LocalDateTime hasta) {
+        return desde == null
+                ? jpaRepository.sumarValoresHasta(cuentaId, hasta)
+                : jpaRepository.sumarValores(cuentaId, desde, hasta);
     }
     
     @Override
     public void deleteById(Long id) {
-        jpaRepository.deleteById(id);
+        jpaRepository.findById(id).ifPresent(entity -> {
+            jpaRepository.delete(entity);
+            segmentosReporte.invalidar(entity.getCuentaId(), entity.getFecha().toLocalDate());
+        });
     }
 }
@@ -0,0 +1,85 @@
+package ec.com.banco.proyectobancario.infrastructure.persistence.adapter;
+
+import ec.com.banco.proyectobancario.domain.model.ConsultaPagina;
+import ec.com.banco.proyectobancario.domain.model.CursorPagina;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+
+/**
+ * Conversión de las consultas de página del dominio a paginación por cursor de Spring Data.
+ * Cada página se lee desde el principio del orden, filtrando las filas posteriores al cursor,
+ * así la base de datos no descarta las filas de las páginas anteriores como con OFFSET.
+ * 
+ */
+final class Paginacion {
+    
+    private static final String ID = "id";
+    
+    private Paginacion() {
+    }
+    
+    /**
+     * Construye la primera página del tamaño pedido ordenada por el campo de la consulta y
+     * luego por id, para que las filas con el mismo valor no cambien de página entre
+     * consultas. Las filas anteriores se excluyen con {@link #despuesDe(ConsultaPagina)}.
+     * 
+     * @param consulta Tamaño y orden
+     * @return Página de Spring Data
+     */
+    static PageRequest toPageRequest(ConsultaPagina consulta) {
+        Sort.Direction direccion = consulta.isDescendente() ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort orden = ID.equals(consulta.getOrdenarPor())
+                ? Sort.by(direccion, ID)
+                : Sort.by(direccion, consulta.getOrdenarPor(), ID);
+        return PageRequest.of(0, consulta.getTamano(), orden);
+    }
+    
+    /**
+     * Condición que deja solo las filas posteriores al cursor en el orden de la consulta:
+     * {@code (campo, id) > (:valor, :id)}. Además de la comparación compuesta incluye la cota
+     * redundante {@code campo >= :valor}, con la que la base de datos puede empezar el recorrido
+     * del índice en el cursor en lugar de evaluar el OR sobre todas las filas.
+     * 
+     * @param consulta Cursor, orden y dirección
+     * @return Condición sobre la entidad, o ninguna para la primera página
+     * @throws IllegalArgumentException si el valor del cursor no corresponde al campo de orden
+     */
+    static <T> Specification<T> despuesDe(ConsultaPagina consulta) {
+        CursorPagina cursor = consulta.getDespuesDe();
+        if (cursor == null) {
+            return (root, query, cb) -> cb.conjunction();
+        }
+        boolean descendente = consulta.isDescendente();
+        
+        return (root, query, cb) -> {
+            Path<Long> id = root.get(ID);
+            var despuesDelId = descendente ? cb.lessThan(id, cursor.getId()) : cb.greaterThan(id, cursor.getId());
+            if (ID.equals(consulta.getOrdenarPor())) {
+                return despuesDelId;
+            }
+            
+            Expression<Comparable<Object>> campo = root.get(consulta.getOrdenarPor());
+            Comparable<Object> valor = convertir(cursor.getValor(), campo.getJavaType());
+            return descendente
+                    ? cb.and(cb.lessThanOrEqualTo(campo, valor),
+                             cb.or(cb.lessThan(campo, valor), despuesDelId))
+                    : cb.and(cb.greaterThanOrEqualTo(campo, valor),
+                             cb.or(cb.greaterThan(campo, valor), despuesDelId));
+        };
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> convertir(String valor, Class<?> tipo) {
+        try {
+            Object convertido = Long.class.equals(tipo) ? Long.valueOf(valor) : valor;
+            return (Comparable<Object>) convertido;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor de página inválido");
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package ec.com.banco.proyectobancario.infrastructure.persistence.adapter;
+
+import ec.com.banco.proyectobancario.domain.port.output.RetiroDiarioRepositoryPort;
+import ec.com.banco.proyectobancario.infrastructure.cache.BusInvalidacion;
+import ec.com.banco.proyectobancario.infrastructure.persistence.entity.RetiroDiarioEntity;
+import ec.com.banco.proyectobancario.infrastructure.persistence.entity.RetiroDiarioId;
+import ec.com.banco.proyectobancario.infrastructure.persistence.repository.RetiroDiarioJpaRepository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Adaptador que implementa RetiroDiarioRepositoryPort usando JPA.
+ * Mantiene en memoria el acumulado de las cuentas con retiros recientes, de modo que
+ * las cuentas con muchos retiros en el día no consultan la base de datos en cada débito.
+ * La memoria se actualiza solo cuando la transacción que modifica el acumulado se confirma,
+ * con el total que quedó escrito en la base de datos, y los acumulados que modifican otros
+ * nodos se descartan al recibir su aviso. El total en memoria solo adelanta el rechazo: el
+ * límite se vuelve a comprobar en la base de datos al acumular con {@link #acumularHasta}.
+ * 
+ */
+@Component
+public class RetiroDiarioRepositoryAdapter implements RetiroDiarioRepositoryPort {
+    
+    private final RetiroDiarioJpaRepository jpaRepository;
+    private final BusInvalidacion busInvalidacion;
+    private final Cache<RetiroDiarioId, BigDecimal> totales;
+    
+    public RetiroDiarioRepositoryAdapter(RetiroDiarioJpaRepository jpaRepository,
+                                         BusInvalidacion busInvalidacion,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${app.retiro-diario.cache.max-entradas:10000}") long maxEntradas,
+                                         @Value("${app.retiro-diario.cache.expira-sin-uso:30m}") Duration expiraSinUso) {
+        this.jpaRepository = jpaRepository;
+        this.busInvalidacion = busInvalidacion;
+        this.totales = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterAccess(expiraSinUso)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, totales, "retiros-diarios");
+        busInvalidacion.suscribir(BusInvalidacion.RETIRO_DIARIO,
+                cuentaId -> totales.asMap().keySet().removeIf(id -> cuentaId.equals(id.getCuentaId())),
+                totales::invalidateAll);
+    }
+    
+    @Override
+    public BigDecimal obtenerTotal(Long cuentaId, LocalDate fecha) {
+        return totales.get(new RetiroDiarioId(cuentaId, fecha), this::consultarTotal);
+    }
+    
+    @Override
+    public void acumular(Long cuentaId, LocalDate fecha, BigDecimal monto) {
+        RetiroDiarioId id = new RetiroDiarioId(cuentaId, fecha);
+        
+        if (jpaRepository.sumarTotal(cuentaId, fecha, monto) == 0) {
+            jpaRepository.save(new RetiroDiarioEntity(cuentaId, fecha, monto));
+            recordarAlConfirmar(id, monto);
+            return;
+        }
+        recordarAlConfirmar(id, consultarTotal(id));
+    }
+    
+    @Override
+    public boolean acumularHasta(Long cuentaId, LocalDate fecha, BigDecimal monto, BigDecimal limite) {
+        RetiroDiarioId id = new RetiroDiarioId(cuentaId, fecha);
+        
+        if (jpaRepository.sumarTotalHasta(cuentaId, fecha, monto, limite) == 0) {
+            if (jpaRepository.existsById(id) || monto.compareTo(limite) > 0) {
+                // El total en memoria estaba desactualizado: se vuelve a leer en el próximo débito
+                totales.invalidate(id);
+                return false;
+            }
+            jpaRepository.save(new RetiroDiarioEntity(cuentaId, fecha, monto));
+            recordarAlConfirmar(id, monto);
+            return true;
+        }
+        recordarAlConfirmar(id, consultarTotal(id));
+        return true;
+    }
+    
+    /**
+     * Avisa a los demás nodos del cambio y guarda el nuevo total en memoria cuando la
+     * transacción en curso se confirma. El total debe ser el que escribió la base de datos,
+     * no el de la memoria más el monto, que podría arrastrar un total desactualizado.
+     */
+    private void recordarAlConfirmar(RetiroDiarioId id, BigDecimal nuevoTotal) {
+        busInvalidacion.publicar(BusInvalidacion.RETIRO_DIARIO, id.getCuentaId());
+        
+        totales.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    totales.put(id, nuevoTotal);
+                }
+            });
+        } else {
+            totales.put(id, nuevoTotal);
+        }
+    }
+    
+    /**
+     * Lee el acumulado de la base de datos. Tras sumarlo, la fila queda bloqueada por la
+     * transacción en curso y el contexto de persistencia limpio, así se lee el total escrito.
+     */
+    private BigDecimal consultarTotal(RetiroDiarioId id) {
+        return jpaRepository.findById(id)
+                .map(RetiroDiarioEntity::getTotal)
+                .orElse(BigDecimal.ZERO);
+    }
+}
@@ -0,0 +1,73 @@
+package ec.com.banco.proyectobancario.infrastructure.persistence.adapter;
+
+import ec.com.banco.proyectobancario.domain.model.SaldoDiario;
+import ec.com.banco.proyectobancario.domain.port.output.SaldoDiarioRepositoryPort;
+import ec.com.banco.proyectobancario.infrastructure.persistence.entity.SaldoDiarioEntity;
+import ec.com.banco.proyectobancario.infrastructure.persistence.repository.SaldoDiarioJpaRepository;
+
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Adaptador que implementa SaldoDiarioRepositoryPort usando JPA.
+ * 
+ */
+@Component
+public class SaldoDiarioRepositoryAdapter implements SaldoDiarioRepositoryPort {
+    
+    private final SaldoDiarioJpaRepository jpaRepository;
+    
+    public SaldoDiarioRepositoryAdapter(SaldoDiarioJpaRepository jpaRepository) {
+        this.jpaRepository = jpaRepository;
+    }
+    
+    @Override
+    public void registrarCierre(Long cuentaId, LocalDate fecha, BigDecimal saldo,
+                                BigDecimal creditos, BigDecimal debitos, int cantidad) {
+        if (jpaRepository.actualizarCierre(cuentaId, fecha, saldo, creditos, debitos, cantidad) == 0) {
+            jpaRepository.save(new SaldoDiarioEntity(cuentaId, fecha, saldo, creditos, debitos, cantidad));
+        }
+    }
+    
+    @Override
+    public void descontarMovimiento(Long cuentaId, LocalDate fecha, BigDecimal valor, boolean esCredito) {
+        jpaRepository.descontarMovimiento(cuentaId, fecha,
+                esCredito ? valor : BigDecimal.ZERO,
+                esCredito ? BigDecimal.ZERO : valor);
+    }
+    
+    @Override
+    public void ajustarDesde(Long cuentaId, LocalDate fecha, BigDecimal ajuste) {
+        if (fecha == null) {
+            jpaRepository.ajustarTodos(cuentaId, ajuste);
+        } else {
+            jpaRepository.ajustarDesde(cuentaId, fecha, ajuste);
+        }
+    }
+    
+    @Override
+    public Optional<SaldoDiario> buscarUltimoHasta(Long cuentaId, LocalDate fecha) {
+        return jpaRepository.findFirstByCuentaIdAndFechaLessThanEqualOrderByFechaDesc(cuentaId, fecha)
+                .map(this::toDomain);
+    }
+    
+    @Override
+    public List<SaldoDiario> listarEntre(List<Long> cuentaIds, LocalDate desde, LocalDate hasta) {
+        if (cuentaIds.isEmpty()) {
+            return List.of();
+        }
+        return jpaRepository.findByCuentaIdInAndFechaBetween(cuentaIds, desde, hasta).stream()
+                .map(this::toDomain)
+                .collect(Collectors.toList());
+    }
+    
+    private SaldoDiario toDomain(SaldoDiarioEntity entity) {
+        return new SaldoDiario(entity.getCuentaId(), entity.getFecha(), entity.getSaldoCierre(),
+                entity.getCreditos(), entity.getDebitos(), entity.getCantidadMovimientos());
+    }
+}
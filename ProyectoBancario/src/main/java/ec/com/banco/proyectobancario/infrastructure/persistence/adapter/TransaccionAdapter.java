@@ -0,0 +1,28 @@
+package ec.com.banco.proyectobancario.infrastructure.persistence.adapter;
+
+import ec.com.banco.proyectobancario.domain.port.output.TransaccionPort;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Adaptador que implementa TransaccionPort usando el gestor de transacciones de Spring.
+ * 
+ */
+@Component
+public class TransaccionAdapter implements TransaccionPort {
+    
+    private final TransactionTemplate transactionTemplate;
+    
+    public TransaccionAdapter(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @Override
+    public <T> T ejecutar(Supplier<T> operacion) {
+        return transactionTemplate.execute(status -> operacion.get());
+    }
+}
@@ -0,0 +1,59 @@
+package ec.com.banco.proyectobancario.infrastructure.persistence.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Marca el trabajo pesado con la base de datos (exportaciones y reportes).
+ * Las conexiones que se obtienen dentro de una tarea marcada ocupan además un permiso del
+ * presupuesto de consultas pesadas de {@link LimiteConcurrenciaDataSource}, más chico que el
+ * total, de modo que siempre quedan conexiones para las consultas rápidas.
+ * 
+ */
+public final class ConsultaPesada {
+    
+    private static final ThreadLocal<Boolean> EN_CURSO = new ThreadLocal<>();
+    
+    private ConsultaPesada() {
+    }
+    
+    /**
+     * Envuelve una tarea para que sus conexiones cuenten como consultas pesadas.
+     * 
+     * @param tarea Tarea a ejecutar
+     * @return Tarea marcada
+     */
+    public static Runnable envolver(Runnable tarea) {
+        return () -> ejecutar(() -> {
+            tarea.run();
+            return null;
+        });
+    }
+    
+    /**
+     * Ejecuta una consulta en el hilo actual contando sus conexiones como consultas pesadas.
+     * Se usa para los reportes que se generan en el hilo de la petición.
+     * 
+     * @param consulta Consulta a ejecutar
+     * @return Resultado de la consulta
+     */
+    public static <T> T ejecutar(Supplier<T> consulta) {
+        if (enCurso()) {
+            return consulta.get();
+        }
+        EN_CURSO.set(Boolean.TRUE);
+        try {
+            return consulta.get();
+        } finally {
+            EN_CURSO.remove();
+        }
+    }
+    
+    /**
+     * Indica si el hilo actual ejecuta una tarea marcada como pesada.
+     * 
+     * @return true dentro de una tarea marcada
+     */
+    public static boolean enCurso() {
+        return EN_CURSO.get() != null;
+    }
+}
@@ -0,0 +1,171 @@
+package ec.com.banco.proyectobancario.infrastructure.persistence.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DataSource que limita la cantidad de conexiones en uso al mismo tiempo.
+ * Cada conexión ocupa un permiso desde que se obtiene hasta que se cierra; si no hay
+ * permisos disponibles, el hilo espera en una cola justa hasta la espera máxima.
+ * Con hilos virtuales evita que miles de peticiones compitan directamente por el pool
+ * de conexiones: esperan aquí, sin ocupar hilos de plataforma, y fallan de forma acotada.
+ * Las conexiones de una {@link ConsultaPesada} ocupan además un permiso de un presupuesto
+ * más chico, así las exportaciones y reportes nunca toman todas las conexiones.
+ * 
+ */
+public class LimiteConcurrenciaDataSource extends DelegatingDataSource {
+    
+    private final Semaphore permisos;
+    private final Semaphore permisosPesados;
+    private final int totalPermisos;
+    private final int totalPermisosPesados;
+    private final long esperaMaximaNanos;
+    
+    public LimiteConcurrenciaDataSource(DataSource destino, int totalPermisos, int totalPermisosPesados,
+                                        Duration esperaMaxima) {
+        super(destino);
+        if (totalPermisos <= 0) {
+            throw new IllegalArgumentException("La cantidad de permisos debe ser mayor a cero");
+        }
+        if (totalPermisosPesados <= 0 || totalPermisosPesados > totalPermisos) {
+            throw new IllegalArgumentException("Los permisos de consultas pesadas deben estar entre 1 y " + totalPermisos);
+        }
+        this.permisos = new Semaphore(totalPermisos, true);
+        this.permisosPesados = new Semaphore(totalPermisosPesados, true);
+        this.totalPermisos = totalPermisos;
+        this.totalPermisosPesados = totalPermisosPesados;
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        boolean pesada = adquirir();
+        try {
+            return limitar(super.getConnection(), pesada);
+        } catch (SQLException | RuntimeException e) {
+            liberar(pesada);
+            throw e;
+        }
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        boolean pesada = adquirir();
+        try {
+            return limitar(super.getConnection(username, password), pesada);
+        } catch (SQLException | RuntimeException e) {
+            liberar(pesada);
+            throw e;
+        }
+    }
+    
+    public int getTotalPermisos() {
+        return totalPermisos;
+    }
+    
+    public int getPermisosDisponibles() {
+        return permisos.availablePermits();
+    }
+    
+    public int getHilosEnEspera() {
+        return permisos.getQueueLength();
+    }
+    
+    public int getTotalPermisosPesados() {
+        return totalPermisosPesados;
+    }
+    
+    public int getPermisosPesadosDisponibles() {
+        return permisosPesados.availablePermits();
+    }
+    
+    /**
+     * Ocupa un permiso, y antes uno de consultas pesadas si el hilo ejecuta una.
+     * Ambas esperas comparten la espera máxima.
+     * 
+     * @return true si se ocupó un permiso de consultas pesadas
+     */
+    private boolean adquirir() throws SQLException {
+        long limite = System.nanoTime() + esperaMaximaNanos;
+        boolean pesada = ConsultaPesada.enCurso();
+        if (pesada && !esperar(permisosPesados, esperaMaximaNanos)) {
+            throw new SQLTransientConnectionException("Se alcanzó el límite de " + totalPermisosPesados
+                    + " conexiones concurrentes para exportaciones y reportes");
+        }
+        
+        boolean adquirido = false;
+        try {
+            adquirido = esperar(permisos, limite - System.nanoTime());
+        } finally {
+            if (pesada && !adquirido) {
+                permisosPesados.release();
+            }
+        }
+        if (!adquirido) {
+            throw new SQLTransientConnectionException("Se alcanzó el límite de " + totalPermisos
+                    + " conexiones concurrentes a la base de datos");
+        }
+        return pesada;
+    }
+    
+    private static boolean esperar(Semaphore semaforo, long nanos) throws SQLException {
+        try {
+            return semaforo.tryAcquire(nanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrumpido esperando una conexión a la base de datos", e);
+        }
+    }
+    
+    private void liberar(boolean pesada) {
+        permisos.release();
+        if (pesada) {
+            permisosPesados.release();
+        }
+    }
+    
+    /**
+     * Envuelve la conexión para liberar sus permisos una sola vez al cerrarla.
+     */
+    private Connection limitar(Connection conexion, boolean pesada) {
+        AtomicBoolean liberado = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                (proxy, metodo, args) -> {
+                    switch (metodo.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            break;
+                    }
+                    if ("close".equals(metodo.getName()) && metodo.getParameterCount() == 0) {
+                        try {
+                            conexion.close();
+                        } finally {
+                            if (liberado.compareAndSet(false, true)) {
+                                liberar(pesada);
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return metodo.invoke(conexion, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
@@ -1,6 +1,7 @@
 package ec.com.banco.proyectobancario.infrastructure.persistence.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -30,4 +31,12 @@ public class ClienteEntity extends PersonaEntity {
     
     @Column(nullable = false)
     private Boolean estado;
+    
+    /**
+     * Versión de la fila, que avanza con cada cambio del cliente. La base de datos la inicia
+     * en 0 y solo la modifican las consultas de actualización del repositorio.
+     */
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private Long version;
 }
@@ -12,6 +12,9 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
+
+import org.hibernate.annotations.ColumnDefault;
+
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -44,12 +47,27 @@ public class CuentaEntity {
     @Column(name = "saldo_inicial", nullable = false)
     private BigDecimal saldoInicial;
     
+    /**
+     * Saldo actual. Se escribe al crear la cuenta; después solo lo modifican las consultas de
+     * actualización del repositorio, para que guardar la entidad no pise un saldo más nuevo.
+     */
+    @Column(name = "saldo_actual", nullable = false, updatable = false)
+    private BigDecimal saldoActual;
+    
     @Column(nullable = false)
     private Boolean estado;
     
     @Column(name = "cliente_id", nullable = false)
     private Long clienteId;
     
+    /**
+     * Versión de la fila, que avanza con cada cambio de la cuenta o de su saldo. La base de
+     * datos la inicia en 0 y solo la modifican las consultas de actualización del repositorio.
+     */
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private Long version;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cliente_id", insertable = false, updatable = false)
     private ClienteEntity cliente;
@@ -0,0 +1,78 @@
+package ec.com.banco.proyectobancario.infrastructure.persistence.entity;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Entidad JPA que representa una clave de idempotencia de movimientos.
+ * La clave es asignada por el canal, por lo que la entidad indica explícitamente
+ * si es nueva para que se inserte sin una consulta previa. Guarda la huella de la solicitud
+ * original y la fecha desde la que la clave puede eliminarse.
+ * 
+ */
+@Entity
+@Table(name = "idempotencia_movimientos")
+@Getter
+@Setter
+@NoArgsConstructor
+public class IdempotenciaEntity implements Persistable<String> {
+    
+    @Id
+    @Column(length = 100)
+    private String clave;
+    
+    @Column(name = "movimiento_id", nullable = false)
+    private Long movimientoId;
+    
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+    
+    /**
+     * SHA-256 en hexadecimal de la cuenta, tipo y valor de la solicitud original.
+     */
+    @Column(length = 64)
+    private String huella;
+    
+    @Column(name = "fecha_expiracion", nullable = false)
+    private LocalDateTime fechaExpiracion;
+    
+    @Transient
+    private boolean nuevo = true;
+    
+    public IdempotenciaEntity(String clave, Long movimientoId, String huella,
+                              LocalDateTime fechaCreacion, LocalDateTime fechaExpiracion) {
+        this.clave = clave;
+        this.movimientoId = movimientoId;
+        this.huella = huella;
+        this.fechaCreacion = fechaCreacion;
+        this.fechaExpiracion = fechaExpiracion;
+    }
+    
+    @Override
+    public String getId() {
+        return clave;
+    }
+    
+    @Override
+    public boolean isNew() {
+        return nuevo;
+    }
+    
+    @PostLoad
+    @PostPersist
+    void marcarPersistida() {
+        this.nuevo = false;
+    }
+}
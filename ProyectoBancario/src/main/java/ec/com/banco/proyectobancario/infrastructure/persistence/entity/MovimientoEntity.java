@@ -11,6 +11,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -19,6 +20,8 @@ import lombok.Setter;
 
 /**
  * Entidad JPA que representa un Movimiento en la base de datos.
+ * El identificador se obtiene de una secuencia con asignación por bloques, lo que permite
+ * a Hibernate agrupar las inserciones en lotes JDBC.
  * 
  */
 @Entity
@@ -30,7 +33,8 @@ import lombok.Setter;
 public class MovimientoEntity {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movimientos_seq")
+    @SequenceGenerator(name = "movimientos_seq", sequenceName = "movimientos_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -0,0 +1,39 @@
+package ec.com.banco.proyectobancario.infrastructure.persistence.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Entidad JPA que representa el total retirado por una cuenta en un día.
+ * 
+ */
+@Entity
+@Table(name = "retiros_diarios")
+@IdClass(RetiroDiarioId.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetiroDiarioEntity {
+    
+    @Id
+    @Column(name = "cuenta_id")
+    private Long cuentaId;
+    
+    @Id
+    @Column(nullable = false)
+    private LocalDate fecha;
+    
+    @Column(nullable = false)
+    private BigDecimal total;
+}
@@ -0,0 +1,27 @@
+package ec.com.banco.proyectobancario.infrastructure.persistence.entity;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Clave compuesta del acumulado diario de retiros (cuenta y día).
+ * 
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class RetiroDiarioId implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private Long cuentaId;
+    private LocalDate fecha;
+}
@@ -0,0 +1,49 @@
+package ec.com.banco.proyectobancario.infrastructure.persistence.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Entidad JPA que representa el saldo de una cuenta al cierre de un día y los totales
+ * de los movimientos de ese día.
+ * 
+ */
+@Entity
+@Table(name = "saldos_diarios")
+@IdClass(SaldoDiarioId.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaldoDiarioEntity {
+    
+    @Id
+    @Column(name = "cuenta_id")
+    private Long cuentaId;
+    
+    @Id
+    @Column(nullable = false)
+    private LocalDate fecha;
+    
+    @Column(name = "saldo_cierre", nullable = false)
+    private BigDecimal saldoCierre;
+    
+    @Column(nullable = false)
+    private BigDecimal creditos;
+    
+    @Column(nullable = false)
+    private BigDecimal debitos;
+    
+    @Column(name = "cantidad_movimientos", nullable = false)
+    private Integer cantidadMovimientos;
+}
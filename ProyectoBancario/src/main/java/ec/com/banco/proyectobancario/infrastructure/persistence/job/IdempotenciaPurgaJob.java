@@ -0,0 +1,120 @@
+package ec.com.banco.proyectobancario.infrastructure.persistence.job;
+
+import ec.com.banco.proyectobancario.infrastructure.concurrency.FabricaHilos;
+import ec.com.banco.proyectobancario.infrastructure.persistence.repository.IdempotenciaJpaRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Tarea de purga de las claves de idempotencia vencidas.
+ * Al iniciar la aplicación y luego cada {@code app.idempotencia.purga.intervalo} elimina, por
+ * bloques, las claves cuya fecha de expiración ya pasó. Sin ella la tabla
+ * idempotencia_movimientos crece con cada movimiento que envía la cabecera Idempotency-Key.
+ * 
+ */
+@Component
+public class IdempotenciaPurgaJob implements SmartLifecycle {
+    
+    private static final Logger log = LoggerFactory.getLogger(IdempotenciaPurgaJob.class);
+    
+    private final IdempotenciaJpaRepository jpaRepository;
+    private final FabricaHilos fabricaHilos;
+    private final boolean habilitada;
+    private final Duration intervalo;
+    private final int tamanoBloque;
+    private final Counter eliminadas;
+    private volatile boolean activo;
+    private Thread purga;
+    
+    public IdempotenciaPurgaJob(IdempotenciaJpaRepository jpaRepository,
+                                FabricaHilos fabricaHilos,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.idempotencia.purga.habilitada:true}") boolean habilitada,
+                                @Value("${app.idempotencia.purga.intervalo:1h}") Duration intervalo,
+                                @Value("${app.idempotencia.purga.tamano-bloque:1000}") int tamanoBloque) {
+        if (tamanoBloque <= 0) {
+            throw new IllegalArgumentException("El tamaño de bloque de la purga de idempotencia debe ser mayor a cero");
+        }
+        this.jpaRepository = jpaRepository;
+        this.fabricaHilos = fabricaHilos;
+        this.habilitada = habilitada;
+        this.intervalo = intervalo;
+        this.tamanoBloque = tamanoBloque;
+        this.eliminadas = Counter.builder("banco.idempotencia.purgadas")
+                .description("Claves de idempotencia eliminadas al vencer su retención")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Elimina todas las claves vencidas hasta el momento, un bloque por transacción.
+     * 
+     * @return Número de claves eliminadas
+     */
+    public int purgar() {
+        LocalDateTime ahora = LocalDateTime.now();
+        int total = 0;
+        int eliminadasBloque;
+        do {
+            eliminadasBloque = jpaRepository.eliminarExpiradas(ahora, tamanoBloque);
+            total += eliminadasBloque;
+        } while (eliminadasBloque == tamanoBloque);
+        
+        eliminadas.increment(total);
+        if (total > 0) {
+            log.info("Claves de idempotencia vencidas eliminadas: {}", total);
+        }
+        return total;
+    }
+    
+    @Override
+    public void start() {
+        activo = true;
+        if (habilitada) {
+            purga = fabricaHilos.iniciar("purga-idempotencia", this::ejecutar);
+        }
+    }
+    
+    @Override
+    public void stop() {
+        activo = false;
+        if (purga != null) {
+            purga.interrupt();
+            try {
+                purga.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return activo;
+    }
+    
+    private void ejecutar() {
+        while (activo) {
+            try {
+                purgar();
+            } catch (RuntimeException e) {
+                log.warn("No se pudo purgar las claves de idempotencia, se reintentará en {}", intervalo, e);
+            }
+            try {
+                Thread.sleep(intervalo);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
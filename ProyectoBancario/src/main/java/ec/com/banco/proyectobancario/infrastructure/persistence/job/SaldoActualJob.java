@@ -0,0 +1,73 @@
+package ec.com.banco.proyectobancario.infrastructure.persistence.job;
+
+import ec.com.banco.proyectobancario.infrastructure.persistence.repository.CuentaJpaRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Tarea de mantenimiento del saldo actual materializado en cuentas.
+ * Permite recalcular el saldo de las cuentas existentes a partir de su historial
+ * y verificar que el saldo registrado coincide con el de sus movimientos.
+ * Se ejecuta al iniciar la aplicación cuando se habilita por configuración.
+ * 
+ */
+@Component
+public class SaldoActualJob implements ApplicationRunner {
+    
+    private static final Logger log = LoggerFactory.getLogger(SaldoActualJob.class);
+    
+    private final CuentaJpaRepository cuentaJpaRepository;
+    private final boolean recalcularAlIniciar;
+    private final boolean verificarAlIniciar;
+    
+    public SaldoActualJob(CuentaJpaRepository cuentaJpaRepository,
+                          @Value("${app.saldo-actual.recalcular-al-iniciar:false}") boolean recalcularAlIniciar,
+                          @Value("${app.saldo-actual.verificar-al-iniciar:false}") boolean verificarAlIniciar) {
+        this.cuentaJpaRepository = cuentaJpaRepository;
+        this.recalcularAlIniciar = recalcularAlIniciar;
+        this.verificarAlIniciar = verificarAlIniciar;
+    }
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        if (recalcularAlIniciar) {
+            recalcular();
+        }
+        if (verificarAlIniciar) {
+            verificar();
+        }
+    }
+    
+    /**
+     * Recalcula el saldo actual de las cuentas como saldo inicial más sus movimientos, sin
+     * modificar el saldo inicial.
+     * 
+     * @return Número de cuentas actualizadas
+     */
+    public int recalcular() {
+        int actualizadas = cuentaJpaRepository.recalcularSaldos();
+        log.info("Saldo actual recalculado para {} cuentas", actualizadas);
+        return actualizadas;
+    }
+    
+    /**
+     * Verifica que el saldo actual de cada cuenta coincida con saldo inicial más movimientos.
+     * 
+     * @return Número de cuentas inconsistentes
+     */
+    public int verificar() {
+        List<Object[]> inconsistentes = cuentaJpaRepository.findCuentasConSaldoInconsistente();
+        for (Object[] fila : inconsistentes) {
+            log.warn("Saldo inconsistente en cuenta {}: registrado={}, esperado={}", fila[0], fila[1], fila[2]);
+        }
+        log.info("Verificación de saldo actual finalizada: {} cuentas inconsistentes", inconsistentes.size());
+        return inconsistentes.size();
+    }
+}
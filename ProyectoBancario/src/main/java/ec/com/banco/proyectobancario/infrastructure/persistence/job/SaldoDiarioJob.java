@@ -0,0 +1,58 @@
+package ec.com.banco.proyectobancario.infrastructure.persistence.job;
+
+import ec.com.banco.proyectobancario.domain.port.output.TransaccionPort;
+import ec.com.banco.proyectobancario.infrastructure.persistence.repository.SaldoDiarioJpaRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tarea de reconstrucción de los saldos de cierre diarios.
+ * Los cierres se mantienen al registrar y eliminar movimientos; esta tarea los genera
+ * para el historial existente o los rehace si se sospecha que están desalineados.
+ * Se ejecuta al iniciar la aplicación cuando se habilita por configuración.
+ * 
+ */
+@Component
+public class SaldoDiarioJob implements ApplicationRunner {
+    
+    private static final Logger log = LoggerFactory.getLogger(SaldoDiarioJob.class);
+    
+    private final SaldoDiarioJpaRepository saldoDiarioJpaRepository;
+    private final TransaccionPort transaccion;
+    private final boolean reconstruirAlIniciar;
+    
+    public SaldoDiarioJob(SaldoDiarioJpaRepository saldoDiarioJpaRepository,
+                          TransaccionPort transaccion,
+                          @Value("${app.saldos-diarios.reconstruir-al-iniciar:false}") boolean reconstruirAlIniciar) {
+        this.saldoDiarioJpaRepository = saldoDiarioJpaRepository;
+        this.transaccion = transaccion;
+        this.reconstruirAlIniciar = reconstruirAlIniciar;
+    }
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        if (reconstruirAlIniciar) {
+            reconstruir();
+        }
+    }
+    
+    /**
+     * Reemplaza todos los saldos de cierre por los calculados desde el historial de movimientos.
+     * El borrado y la generación se hacen en una sola transacción.
+     * 
+     * @return Número de cierres generados
+     */
+    public int reconstruir() {
+        int generados = transaccion.ejecutar(() -> {
+            saldoDiarioJpaRepository.eliminarTodos();
+            return saldoDiarioJpaRepository.reconstruirTodos();
+        });
+        log.info("Saldos de cierre diarios reconstruidos: {}", generados);
+        return generados;
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.stereotype.Component;
 
 import ec.com.banco.proyectobancario.domain.model.Cliente;
 import ec.com.banco.proyectobancario.infrastructure.persistence.entity.ClienteEntity;
+import ec.com.banco.proyectobancario.infrastructure.persistence.projection.ClienteProyeccion;
 
 /**
  * Mapper para convertir entre Cliente (dominio) y ClienteEntity (infraestructura).
@@ -38,6 +39,25 @@ public class ClienteMapper {
         return cliente;
     }
     
+    /**
+     * Convierte una fila proyectada a Cliente del dominio.
+     * 
+     * @param fila Proyección de la consulta
+     * @return Modelo de dominio
+     */
+    public Cliente toDomain(ClienteProyeccion fila) {
+        Cliente cliente = new Cliente(fila.clienteId(), fila.contrasena(), fila.estado());
+        cliente.setId(fila.id());
+        cliente.setNombre(fila.nombre());
+        cliente.setGenero(fila.genero());
+        cliente.setEdad(fila.edad());
+        cliente.setIdentificacion(fila.identificacion());
+        cliente.setDireccion(fila.direccion());
+        cliente.setTelefono(fila.telefono());
+        
+        return cliente;
+    }
+    
     /**
      * Convierte un Cliente del dominio a ClienteEntity.
      * 
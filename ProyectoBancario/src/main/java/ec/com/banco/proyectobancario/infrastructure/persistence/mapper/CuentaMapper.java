@@ -2,6 +2,7 @@ package ec.com.banco.proyectobancario.infrastructure.persistence.mapper;
 
 import ec.com.banco.proyectobancario.domain.model.Cuenta;
 import ec.com.banco.proyectobancario.infrastructure.persistence.entity.CuentaEntity;
+import ec.com.banco.proyectobancario.infrastructure.persistence.projection.CuentaProyeccion;
 
 import org.springframework.stereotype.Component;
 
@@ -31,12 +32,36 @@ public class CuentaMapper {
         cuenta.setNumeroCuenta(entity.getNumeroCuenta());
         cuenta.setTipoCuenta(entity.getTipoCuenta());
         cuenta.setSaldoInicial(entity.getSaldoInicial());
+        cuenta.setSaldoActual(entity.getSaldoActual());
         cuenta.setEstado(entity.getEstado());
         cuenta.setClienteId(entity.getClienteId());
         
         return cuenta;
     }
     
+    /**
+     * Convierte una fila proyectada a Cuenta del dominio.
+     * 
+     * @param fila Proyección de la consulta
+     * @return Modelo de dominio
+     */
+    public Cuenta toDomain(CuentaProyeccion fila) {
+        return new Cuenta(fila.id(), fila.numeroCuenta(), fila.tipoCuenta(), fila.saldoInicial(),
+                fila.saldoActual(), fila.estado(), fila.clienteId());
+    }
+    
+    /**
+     * Convierte una lista de filas proyectadas a lista de modelos de dominio.
+     * 
+     * @param filas Proyecciones de la consulta
+     * @return Lista de modelos de dominio
+     */
+    public List<Cuenta> toDomainListDesdeProyeccion(List<CuentaProyeccion> filas) {
+        return filas.stream()
+                .map(this::toDomain)
+                .collect(Collectors.toList());
+    }
+    
     /**
      * Convierte un Cuenta del dominio a CuentaEntity.
      * 
@@ -53,6 +78,7 @@ public class CuentaMapper {
         entity.setNumeroCuenta(cuenta.getNumeroCuenta());
         entity.setTipoCuenta(cuenta.getTipoCuenta());
         entity.setSaldoInicial(cuenta.getSaldoInicial());
+        entity.setSaldoActual(cuenta.getSaldoActual());
         entity.setEstado(cuenta.getEstado());
         entity.setClienteId(cuenta.getClienteId());
         
@@ -2,6 +2,7 @@ package ec.com.banco.proyectobancario.infrastructure.persistence.mapper;
 
 import ec.com.banco.proyectobancario.domain.model.Movimiento;
 import ec.com.banco.proyectobancario.infrastructure.persistence.entity.MovimientoEntity;
+import ec.com.banco.proyectobancario.infrastructure.persistence.projection.MovimientoProyeccion;
 
 import org.springframework.stereotype.Component;
 
@@ -37,6 +38,28 @@ public class MovimientoMapper {
         return movimiento;
     }
     
+    /**
+     * Convierte una fila proyectada a Movimiento del dominio.
+     * 
+     * @param fila Proyección de la consulta
+     * @return Modelo de dominio
+     */
+    public Movimiento toDomain(MovimientoProyeccion fila) {
+        return new Movimiento(fila.id(), fila.fecha(), fila.tipoMovimiento(), fila.valor(), fila.saldo(), fila.cuentaId());
+    }
+    
+    /**
+     * Convierte una lista de filas proyectadas a lista de modelos de dominio.
+     * 
+     * @param filas Proyecciones de la consulta
+     * @return Lista de modelos de dominio
+     */
+    public List<Movimiento> toDomainListDesdeProyeccion(List<MovimientoProyeccion> filas) {
+        return filas.stream()
+                .map(this::toDomain)
+                .collect(Collectors.toList());
+    }
+    
     /**
      * Convierte un Movimiento del dominio a MovimientoEntity.
      * 
@@ -0,0 +1,19 @@
+package ec.com.banco.proyectobancario.infrastructure.persistence.projection;
+
+/**
+ * Fila de cliente (con los datos de su persona) leída directamente de la consulta, sin pasar
+ * por ClienteEntity.
+ * 
+ */
+public record ClienteProyeccion(
+        Long id,
+        String nombre,
+        String genero,
+        Integer edad,
+        String identificacion,
+        String direccion,
+        String telefono,
+        String clienteId,
+        String contrasena,
+        Boolean estado) {
+}
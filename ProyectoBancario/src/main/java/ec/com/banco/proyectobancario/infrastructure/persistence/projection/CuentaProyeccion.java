@@ -0,0 +1,17 @@
+package ec.com.banco.proyectobancario.infrastructure.persistence.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Fila de cuenta leída directamente de la consulta, sin pasar por CuentaEntity.
+ * 
+ */
+public record CuentaProyeccion(
+        Long id,
+        String numeroCuenta,
+        String tipoCuenta,
+        BigDecimal saldoInicial,
+        BigDecimal saldoActual,
+        Boolean estado,
+        Long clienteId) {
+}
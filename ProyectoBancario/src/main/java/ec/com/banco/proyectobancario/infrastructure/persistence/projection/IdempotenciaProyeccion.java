@@ -0,0 +1,13 @@
+package ec.com.banco.proyectobancario.infrastructure.persistence.projection;
+
+import ec.com.banco.proyectobancario.infrastructure.persistence.entity.MovimientoEntity;
+
+/**
+ * Movimiento asociado a una clave de idempotencia junto con la huella de la solicitud
+ * que lo creó, leídos en una sola consulta.
+ * 
+ */
+public record IdempotenciaProyeccion(
+        MovimientoEntity movimiento,
+        String huella) {
+}
@@ -0,0 +1,17 @@
+package ec.com.banco.proyectobancario.infrastructure.persistence.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Fila de movimiento leída directamente de la consulta, sin pasar por MovimientoEntity.
+ * 
+ */
+public record MovimientoProyeccion(
+        Long id,
+        LocalDateTime fecha,
+        String tipoMovimiento,
+        BigDecimal valor,
+        BigDecimal saldo,
+        Long cuentaId) {
+}
@@ -0,0 +1,22 @@
+package ec.com.banco.proyectobancario.infrastructure.persistence.projection;
+
+/**
+ * Resumen de las versiones de un conjunto de filas: cuántas son, el mayor id y la suma de sus
+ * versiones. Cambia al crear, modificar o eliminar cualquiera de ellas, porque los ids nuevos
+ * siempre son mayores y las versiones solo avanzan.
+ * 
+ */
+public record VersionProyeccion(
+        Long cantidad,
+        Long ultimoId,
+        Long sumaVersiones) {
+    
+    /**
+     * Valor de la versión como texto, para usarlo como ETag.
+     * 
+     * @return Versión del conjunto
+     */
+    public String valor() {
+        return cantidad + "-" + ultimoId + "-" + sumaVersiones;
+    }
+}
@@ -1,10 +1,19 @@
 package ec.com.banco.proyectobancario.infrastructure.persistence.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import ec.com.banco.proyectobancario.infrastructure.persistence.entity.ClienteEntity;
+import ec.com.banco.proyectobancario.infrastructure.persistence.projection.ClienteProyeccion;
+import ec.com.banco.proyectobancario.infrastructure.persistence.projection.VersionProyeccion;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -12,7 +21,57 @@ import java.util.Optional;
  * 
  */
 @Repository
-public interface ClienteJpaRepository extends JpaRepository<ClienteEntity, Long> {
+public interface ClienteJpaRepository extends JpaRepository<ClienteEntity, Long>, JpaSpecificationExecutor<ClienteEntity> {
+    
+    /**
+     * Obtiene todos los clientes con los datos de su persona, sin crear entidades administradas.
+     * 
+     * @return Lista de clientes
+     */
+    @Query("SELECT new ec.com.banco.proyectobancario.infrastructure.persistence.projection.ClienteProyeccion(" +
+           "c.id, c.nombre, c.genero, c.edad, c.identificacion, c.direccion, c.telefono, " +
+           "c.clienteId, c.contrasena, c.estado) FROM ClienteEntity c")
+    List<ClienteProyeccion> listarTodos();
+    
+    /**
+     * Obtiene la versión del conjunto de todos los clientes sin leer sus datos.
+     * 
+     * @return Cantidad, mayor id y suma de versiones de los clientes
+     */
+    @Query("SELECT new ec.com.banco.proyectobancario.infrastructure.persistence.projection.VersionProyeccion(" +
+           "COUNT(c), COALESCE(MAX(c.id), 0), COALESCE(SUM(c.version), 0)) FROM ClienteEntity c")
+    VersionProyeccion obtenerVersion();
+    
+    /**
+     * Obtiene la versión de un cliente.
+     * 
+     * @param id Identificador del cliente
+     * @return Versión del cliente o vacío si no existe
+     */
+    @Query("SELECT c.version FROM ClienteEntity c WHERE c.id = :id")
+    Optional<Long> obtenerVersion(@Param("id") Long id);
+    
+    /**
+     * Avanza la versión de un cliente modificado. Es una consulta nativa porque solo toca la
+     * tabla clientes, sin pasar por la jerarquía de personas.
+     * 
+     * @param id Identificador del cliente
+     * @return Número de filas actualizadas
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE clientes SET version = version + 1 WHERE persona_id = :id", nativeQuery = true)
+    int incrementarVersion(@Param("id") Long id);
+    
+    /**
+     * Obtiene los identificadores de los clientes activos con id mayor al dado, en orden de id.
+     * 
+     * @param despuesDe Identificador desde el que continuar (excluido)
+     * @param limite Cantidad máxima de identificadores
+     * @return Identificadores en orden ascendente
+     */
+    @Query("SELECT c.id FROM ClienteEntity c WHERE c.estado = true AND c.id > :despuesDe ORDER BY c.id")
+    List<Long> listarIdsActivos(@Param("despuesDe") Long despuesDe, Limit limite);
     
     /**
      * Busca un cliente por su clienteId único.
@@ -1,10 +1,20 @@
 package ec.com.banco.proyectobancario.infrastructure.persistence.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import ec.com.banco.proyectobancario.infrastructure.persistence.entity.CuentaEntity;
+import ec.com.banco.proyectobancario.infrastructure.persistence.projection.CuentaProyeccion;
+import ec.com.banco.proyectobancario.infrastructure.persistence.projection.VersionProyeccion;
+import jakarta.persistence.LockModeType;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,7 +23,28 @@ import java.util.Optional;
  * 
  */
 @Repository
-public interface CuentaJpaRepository extends JpaRepository<CuentaEntity, Long> {
+public interface CuentaJpaRepository extends JpaRepository<CuentaEntity, Long>, JpaSpecificationExecutor<CuentaEntity> {
+    
+    /**
+     * Suma de los valores de los movimientos de la cuenta c, cero si no tiene movimientos.
+     */
+    String SUMA_MOVIMIENTOS = "COALESCE((SELECT SUM(m.valor) FROM movimientos m WHERE m.cuenta_id = c.id), 0)";
+    
+    /**
+     * Selección de las columnas de una cuenta como CuentaProyeccion. Las consultas de solo
+     * lectura la usan para no crear entidades administradas ni sus copias de control.
+     */
+    String PROYECCION = "SELECT new ec.com.banco.proyectobancario.infrastructure.persistence.projection.CuentaProyeccion(" +
+                        "c.id, c.numeroCuenta, c.tipoCuenta, c.saldoInicial, c.saldoActual, c.estado, c.clienteId) " +
+                        "FROM CuentaEntity c ";
+    
+    /**
+     * Selección de la cantidad, el mayor id y la suma de versiones de las cuentas como
+     * VersionProyeccion.
+     */
+    String VERSION = "SELECT new ec.com.banco.proyectobancario.infrastructure.persistence.projection.VersionProyeccion(" +
+                     "COUNT(c), COALESCE(MAX(c.id), 0), COALESCE(SUM(c.version), 0)) " +
+                     "FROM CuentaEntity c ";
     
     /**
      * Busca una cuenta por su número de cuenta único.
@@ -29,7 +60,44 @@ public interface CuentaJpaRepository extends JpaRepository<CuentaEntity, Long> {
      * @param clienteId Identificador del cliente
      * @return Lista de cuentas del cliente
      */
-    List<CuentaEntity> findByClienteId(Long clienteId);
+    @Query(PROYECCION + "WHERE c.clienteId = :clienteId")
+    List<CuentaProyeccion> listarPorCliente(@Param("clienteId") Long clienteId);
+    
+    /**
+     * Obtiene todas las cuentas.
+     * 
+     * @return Lista de cuentas
+     */
+    @Query(PROYECCION)
+    List<CuentaProyeccion> listarTodas();
+    
+    /**
+     * Obtiene la versión del conjunto de todas las cuentas sin leer sus datos.
+     * 
+     * @return Cantidad, mayor id y suma de versiones de las cuentas
+     */
+    @Query(VERSION)
+    VersionProyeccion obtenerVersion();
+    
+    /**
+     * Obtiene la versión del conjunto de cuentas de un cliente sin leer sus datos.
+     * 
+     * @param clienteId Identificador del cliente
+     * @return Cantidad, mayor id y suma de versiones de las cuentas del cliente
+     */
+    @Query(VERSION + "WHERE c.clienteId = :clienteId")
+    VersionProyeccion obtenerVersionPorCliente(@Param("clienteId") Long clienteId);
+    
+    /**
+     * Avanza la versión de una cuenta modificada.
+     * 
+     * @param id Identificador de la cuenta
+     * @return Número de filas actualizadas
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CuentaEntity c SET c.version = c.version + 1 WHERE c.id = :id")
+    int incrementarVersion(@Param("id") Long id);
     
     /**
      * Verifica si existe una cuenta con el número de cuenta dado.
@@ -38,4 +106,82 @@ public interface CuentaJpaRepository extends JpaRepository<CuentaEntity, Long> {
      * @return true si existe, false en caso contrario
      */
     boolean existsByNumeroCuenta(String numeroCuenta);
+    
+    /**
+     * Obtiene una cuenta bloqueando su fila hasta el fin de la transacción.
+     * 
+     * @param id Identificador de la cuenta
+     * @return Cuenta encontrada o vacío
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM CuentaEntity c WHERE c.id = :id")
+    Optional<CuentaEntity> findByIdParaActualizar(@Param("id") Long id);
+    
+    /**
+     * Obtiene varias cuentas bloqueando sus filas hasta el fin de la transacción.
+     * Las filas se bloquean en orden ascendente de id para que dos transacciones
+     * que bloquean las mismas cuentas no queden esperándose mutuamente.
+     * 
+     * @param ids Identificadores de las cuentas
+     * @return Cuentas encontradas, ordenadas por id
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM CuentaEntity c WHERE c.id IN :ids ORDER BY c.id")
+    List<CuentaEntity> findAllByIdParaActualizar(@Param("ids") List<Long> ids);
+    
+    /**
+     * Actualiza el saldo actual de una cuenta sin cargar la entidad y avanza su versión.
+     * 
+     * @param id Identificador de la cuenta
+     * @param saldoActual Nuevo saldo actual
+     * @return Número de filas actualizadas
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CuentaEntity c SET c.saldoActual = :saldoActual, c.version = c.version + 1 WHERE c.id = :id")
+    int actualizarSaldoActual(@Param("id") Long id, @Param("saldoActual") BigDecimal saldoActual);
+    
+    /**
+     * Suma un ajuste al saldo actual de una cuenta sobre el valor que tiene la fila y avanza
+     * su versión.
+     * 
+     * @param id Identificador de la cuenta
+     * @param ajuste Monto a sumar (negativo para restar)
+     * @return Número de filas actualizadas
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CuentaEntity c SET c.saldoActual = c.saldoActual + :ajuste, c.version = c.version + 1 WHERE c.id = :id")
+    int ajustarSaldoActual(@Param("id") Long id, @Param("ajuste") BigDecimal ajuste);
+    
+    /**
+     * Recalcula saldo_actual como saldo_inicial más la suma de los movimientos, la misma regla
+     * que verifica {@link #findCuentasConSaldoInconsistente()}, en las cuentas donde no
+     * coincide. El saldo inicial no se toca: puede haberse editado después de registrar
+     * movimientos, y el saldo guardado en cada movimiento no refleja esa edición. La versión
+     * de las cuentas corregidas avanza.
+     * 
+     * @return Número de cuentas actualizadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE cuentas c SET " +
+           "saldo_actual = c.saldo_inicial + " + SUMA_MOVIMIENTOS + ", " +
+           "version = c.version + 1 " +
+           "WHERE c.saldo_actual <> c.saldo_inicial + " + SUMA_MOVIMIENTOS,
+           nativeQuery = true)
+    int recalcularSaldos();
+    
+    /**
+     * Obtiene las cuentas cuyo saldo actual no coincide con saldo_inicial más la suma de
+     * sus movimientos.
+     * 
+     * @return Filas con id de cuenta, saldo actual registrado y saldo esperado
+     */
+    @Query(value = "SELECT c.id, c.saldo_actual, c.saldo_inicial + COALESCE(m.total, 0) AS esperado " +
+           "FROM cuentas c LEFT JOIN (SELECT cuenta_id, SUM(valor) AS total FROM movimientos " +
+           "GROUP BY cuenta_id) m ON m.cuenta_id = c.id " +
+           "WHERE c.saldo_actual <> c.saldo_inicial + COALESCE(m.total, 0)",
+           nativeQuery = true)
+    List<Object[]> findCuentasConSaldoInconsistente();
 }
@@ -0,0 +1,51 @@
+package ec.com.banco.proyectobancario.infrastructure.persistence.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import ec.com.banco.proyectobancario.infrastructure.persistence.entity.IdempotenciaEntity;
+import ec.com.banco.proyectobancario.infrastructure.persistence.projection.IdempotenciaProyeccion;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repositorio JPA para las claves de idempotencia de movimientos.
+ * 
+ */
+@Repository
+public interface IdempotenciaJpaRepository extends JpaRepository<IdempotenciaEntity, String> {
+    
+    /**
+     * Obtiene el movimiento asociado a una clave de idempotencia y la huella de la solicitud
+     * que lo creó.
+     * 
+     * @param clave Clave de idempotencia
+     * @return Movimiento y huella encontrados o vacío
+     */
+    @Query("SELECT new ec.com.banco.proyectobancario.infrastructure.persistence.projection.IdempotenciaProyeccion(m, i.huella) " +
+           "FROM MovimientoEntity m, IdempotenciaEntity i " +
+           "WHERE i.clave = :clave AND m.id = i.movimientoId")
+    Optional<IdempotenciaProyeccion> findMovimientoByClave(@Param("clave") String clave);
+    
+    /**
+     * Elimina un bloque de claves cuya retención terminó. Se borra por bloques para no
+     * mantener bloqueadas muchas filas en una sola transacción.
+     * 
+     * @param ahora Fecha de referencia
+     * @param tamanoBloque Máximo de claves a eliminar
+     * @return Número de claves eliminadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM idempotencia_movimientos WHERE clave IN (" +
+                   "SELECT clave FROM idempotencia_movimientos WHERE fecha_expiracion <= :ahora " +
+                   "LIMIT :tamanoBloque)",
+           nativeQuery = true)
+    int eliminarExpiradas(@Param("ahora") LocalDateTime ahora,
+                          @Param("tamanoBloque") int tamanoBloque);
+}
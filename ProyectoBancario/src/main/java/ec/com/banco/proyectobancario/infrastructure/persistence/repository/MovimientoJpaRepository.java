@@ -1,14 +1,22 @@
 package ec.com.banco.proyectobancario.infrastructure.persistence.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import ec.com.banco.proyectobancario.infrastructure.persistence.entity.MovimientoEntity;
+import ec.com.banco.proyectobancario.infrastructure.persistence.projection.MovimientoProyeccion;
+import jakarta.persistence.QueryHint;
 
+import org.hibernate.jpa.HibernateHints;
+
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repositorio JPA para la entidad Movimiento.
@@ -17,13 +25,56 @@ import java.util.List;
 @Repository
 public interface MovimientoJpaRepository extends JpaRepository<MovimientoEntity, Long> {
     
+    /**
+     * Filas que el driver trae por cada viaje a la base de datos al recorrer movimientos.
+     */
+    int TAMANO_BLOQUE_LECTURA = 500;
+    
+    /**
+     * Selección de las columnas de un movimiento como MovimientoProyeccion. Las consultas de
+     * solo lectura la usan para no crear entidades administradas ni sus copias de control.
+     */
+    String PROYECCION = "SELECT new ec.com.banco.proyectobancario.infrastructure.persistence.projection.MovimientoProyeccion(" +
+                        "m.id, m.fecha, m.tipoMovimiento, m.valor, m.saldo, m.cuentaId) FROM MovimientoEntity m ";
+    
+    /**
+     * Condición de los movimientos posteriores a (:fecha, :id) en el historial, que va de
+     * la fecha más reciente a la más antigua.
+     */
+    String DESPUES_DE = "AND m.fecha <= :fecha AND (m.fecha, m.id) < (:fecha, :id) ";
+    
+    /**
+     * Orden del historial: del movimiento más reciente al más antiguo.
+     */
+    String ORDEN_HISTORIAL = "ORDER BY m.fecha DESC, m.id DESC";
+    
     /**
      * Obtiene todos los movimientos de una cuenta.
      * 
      * @param cuentaId Identificador de la cuenta
      * @return Lista de movimientos de la cuenta
      */
-    List<MovimientoEntity> findByCuentaId(Long cuentaId);
+    @Query(PROYECCION + "WHERE m.cuentaId = :cuentaId")
+    List<MovimientoProyeccion> listarPorCuenta(@Param("cuentaId") Long cuentaId);
+    
+    /**
+     * Obtiene todos los movimientos.
+     * 
+     * @return Lista de movimientos
+     */
+    @Query(PROYECCION)
+    List<MovimientoProyeccion> listarTodos();
+    
+    /**
+     * Recorre todos los movimientos en orden de id leyendo del cursor de la base de datos
+     * por bloques de {@value #TAMANO_BLOQUE_LECTURA} filas, en lugar de cargar la tabla completa.
+     * Debe consumirse dentro de una transacción y cerrarse al terminar.
+     * 
+     * @return Flujo de movimientos
+     */
+    @Query(PROYECCION + "ORDER BY m.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + TAMANO_BLOQUE_LECTURA))
+    Stream<MovimientoProyeccion> recorrerTodos();
     
     /**
      * Obtiene movimientos de una cuenta en un rango de fechas.
@@ -33,21 +84,133 @@ public interface MovimientoJpaRepository extends JpaRepository<MovimientoEntity,
      * @param fechaFin Fecha de fin del rango
      * @return Lista de movimientos en el rango de fechas
      */
-    List<MovimientoEntity> findByCuentaIdAndFechaBetween(Long cuentaId, LocalDateTime fechaInicio, LocalDateTime fechaFin);
+    @Query(PROYECCION + "WHERE m.cuentaId = :cuentaId AND m.fecha BETWEEN :fechaInicio AND :fechaFin")
+    List<MovimientoProyeccion> listarPorCuentaYFecha(@Param("cuentaId") Long cuentaId,
+                                                     @Param("fechaInicio") LocalDateTime fechaInicio,
+                                                     @Param("fechaFin") LocalDateTime fechaFin);
+    
+    /**
+     * Obtiene los movimientos de varias cuentas en un rango de fechas, ordenados por cuenta,
+     * fecha e id. Cada cuenta se resuelve con el índice idx_movimientos_cuenta_fecha_id.
+     * 
+     * @param cuentaIds Identificadores de las cuentas
+     * @param fechaInicio Fecha de inicio del rango
+     * @param fechaFin Fecha de fin del rango
+     * @return Lista de movimientos en el rango de fechas
+     */
+    @Query(PROYECCION + "WHERE m.cuentaId IN :cuentaIds AND m.fecha BETWEEN :fechaInicio AND :fechaFin " +
+           "ORDER BY m.cuentaId, m.fecha, m.id")
+    List<MovimientoProyeccion> listarPorCuentasYFecha(@Param("cuentaIds") List<Long> cuentaIds,
+                                                      @Param("fechaInicio") LocalDateTime fechaInicio,
+                                                      @Param("fechaFin") LocalDateTime fechaFin);
+    
+    /**
+     * Recorre los movimientos de varias cuentas en un rango de fechas, ordenados por cuenta,
+     * fecha e id, leyendo del cursor de la base de datos por bloques de
+     * {@value #TAMANO_BLOQUE_LECTURA} filas. Debe consumirse dentro de una transacción y
+     * cerrarse al terminar.
+     * 
+     * @param cuentaIds Identificadores de las cuentas
+     * @param fechaInicio Fecha de inicio del rango
+     * @param fechaFin Fecha de fin del rango
+     * @return Flujo de movimientos
+     */
+    @Query(PROYECCION + "WHERE m.cuentaId IN :cuentaIds AND m.fecha BETWEEN :fechaInicio AND :fechaFin " +
+           "ORDER BY m.cuentaId, m.fecha, m.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + TAMANO_BLOQUE_LECTURA))
+    Stream<MovimientoProyeccion> recorrerPorCuentasYFecha(@Param("cuentaIds") List<Long> cuentaIds,
+                                                          @Param("fechaInicio") LocalDateTime fechaInicio,
+                                                          @Param("fechaFin") LocalDateTime fechaFin);
+    
+    /**
+     * Obtiene la primera página del historial de una cuenta ordenada por fecha e id
+     * descendentes, recorriendo el índice idx_movimientos_cuenta_fecha_id desde el final.
+     * 
+     * @param cuentaId Identificador de la cuenta
+     * @param limite Cantidad máxima de movimientos
+     * @return Movimientos de la página
+     */
+    @Query(PROYECCION + "WHERE m.cuentaId = :cuentaId " + ORDEN_HISTORIAL)
+    List<MovimientoProyeccion> listarPrimeraPagina(@Param("cuentaId") Long cuentaId, Limit limite);
+    
+    /**
+     * Obtiene la página del historial de una cuenta que sigue a un movimiento, ordenada por
+     * fecha e id descendentes. La comparación de fila {@code (fecha, id) < (:fecha, :id)} y la
+     * cota redundante {@code fecha <= :fecha} permiten empezar el recorrido del índice
+     * idx_movimientos_cuenta_fecha_id en el cursor en lugar de evaluar un OR por fila.
+     * 
+     * @param cuentaId Identificador de la cuenta
+     * @param fecha Fecha del último movimiento de la página anterior
+     * @param id Id del último movimiento de la página anterior
+     * @param limite Cantidad máxima de movimientos
+     * @return Movimientos de la página
+     */
+    @Query(PROYECCION + "WHERE m.cuentaId = :cuentaId " + DESPUES_DE + ORDEN_HISTORIAL)
+    List<MovimientoProyeccion> listarPaginaDespuesDe(@Param("cuentaId") Long cuentaId,
+                                                     @Param("fecha") LocalDateTime fecha,
+                                                     @Param("id") Long id,
+                                                     Limit limite);
+    
+    /**
+     * Obtiene la primera página de los movimientos de una cuenta en un rango de fechas,
+     * ordenada por fecha e id descendentes.
+     * 
+     * @param cuentaId Identificador de la cuenta
+     * @param fechaInicio Fecha de inicio
+     * @param fechaFin Fecha de fin
+     * @param limite Cantidad máxima de movimientos
+     * @return Movimientos de la página
+     */
+    @Query(PROYECCION + "WHERE m.cuentaId = :cuentaId AND m.fecha BETWEEN :fechaInicio AND :fechaFin " +
+           ORDEN_HISTORIAL)
+    List<MovimientoProyeccion> listarPrimeraPaginaPorFecha(@Param("cuentaId") Long cuentaId,
+                                                           @Param("fechaInicio") LocalDateTime fechaInicio,
+                                                           @Param("fechaFin") LocalDateTime fechaFin,
+                                                           Limit limite);
+    
+    /**
+     * Obtiene la página de los movimientos de una cuenta en un rango de fechas que sigue a un
+     * movimiento, ordenada por fecha e id descendentes.
+     * 
+     * @param cuentaId Identificador de la cuenta
+     * @param fechaInicio Fecha de inicio
+     * @param fechaFin Fecha de fin
+     * @param fecha Fecha del último movimiento de la página anterior
+     * @param id Id del último movimiento de la página anterior
+     * @param limite Cantidad máxima de movimientos
+     * @return Movimientos de la página
+     */
+    @Query(PROYECCION + "WHERE m.cuentaId = :cuentaId AND m.fecha BETWEEN :fechaInicio AND :fechaFin " +
+           DESPUES_DE + ORDEN_HISTORIAL)
+    List<MovimientoProyeccion> listarPaginaPorFechaDespuesDe(@Param("cuentaId") Long cuentaId,
+                                                             @Param("fechaInicio") LocalDateTime fechaInicio,
+                                                             @Param("fechaFin") LocalDateTime fechaFin,
+                                                             @Param("fecha") LocalDateTime fecha,
+                                                             @Param("id") Long id,
+                                                             Limit limite);
+    
+    /**
+     * Suma los valores de los movimientos de una cuenta en un rango [desde, hasta).
+     * 
+     * @param cuentaId Identificador de la cuenta
+     * @param desde Inicio del rango (incluido)
+     * @param hasta Fin del rango (excluido)
+     * @return Suma de los valores, cero si no hay movimientos
+     */
+    @Query("SELECT COALESCE(SUM(m.valor), 0) FROM MovimientoEntity m WHERE m.cuentaId = :cuentaId " +
+           "AND m.fecha >= :desde AND m.fecha < :hasta")
+    BigDecimal sumarValores(@Param("cuentaId") Long cuentaId,
+                            @Param("desde") LocalDateTime desde,
+                            @Param("hasta") LocalDateTime hasta);
     
     /**
-     * Obtiene movimientos de débito de una cuenta en una fecha específica.
+     * Suma los valores de los movimientos de una cuenta anteriores a una fecha.
      * 
      * @param cuentaId Identificador de la cuenta
-     * @param fechaInicio Inicio del día
-     * @param fechaFin Fin del día
-     * @return Lista de movimientos de débito del día
+     * @param hasta Fin del rango (excluido)
+     * @return Suma de los valores, cero si no hay movimientos
      */
-    @Query("SELECT m FROM MovimientoEntity m WHERE m.cuentaId = :cuentaId " +
-           "AND m.tipoMovimiento = 'Débito' " +
-           "AND m.fecha >= :fechaInicio AND m.fecha <= :fechaFin")
-    List<MovimientoEntity> findDebitosByCuentaIdAndFechaBetween(
-            @Param("cuentaId") Long cuentaId,
-            @Param("fechaInicio") LocalDateTime fechaInicio,
-            @Param("fechaFin") LocalDateTime fechaFin);
+    @Query("SELECT COALESCE(SUM(m.valor), 0) FROM MovimientoEntity m WHERE m.cuentaId = :cuentaId " +
+           "AND m.fecha < :hasta")
+    BigDecimal sumarValoresHasta(@Param("cuentaId") Long cuentaId, @Param("hasta") LocalDateTime hasta);
 }
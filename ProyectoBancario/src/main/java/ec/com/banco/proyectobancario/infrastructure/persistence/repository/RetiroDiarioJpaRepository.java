@@ -0,0 +1,57 @@
+package ec.com.banco.proyectobancario.infrastructure.persistence.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import ec.com.banco.proyectobancario.infrastructure.persistence.entity.RetiroDiarioEntity;
+import ec.com.banco.proyectobancario.infrastructure.persistence.entity.RetiroDiarioId;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Repositorio JPA para el acumulado diario de retiros.
+ * 
+ */
+@Repository
+public interface RetiroDiarioJpaRepository extends JpaRepository<RetiroDiarioEntity, RetiroDiarioId> {
+    
+    /**
+     * Suma un monto al acumulado existente de una cuenta en un día.
+     * 
+     * @param cuentaId Identificador de la cuenta
+     * @param fecha Día del acumulado
+     * @param monto Monto a sumar
+     * @return Número de filas actualizadas (cero si aún no existe el acumulado)
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RetiroDiarioEntity r SET r.total = r.total + :monto " +
+           "WHERE r.cuentaId = :cuentaId AND r.fecha = :fecha")
+    int sumarTotal(@Param("cuentaId") Long cuentaId,
+                   @Param("fecha") LocalDate fecha,
+                   @Param("monto") BigDecimal monto);
+    
+    /**
+     * Suma un monto al acumulado existente de una cuenta en un día si el nuevo total no
+     * supera el límite.
+     * 
+     * @param cuentaId Identificador de la cuenta
+     * @param fecha Día del acumulado
+     * @param monto Monto a sumar
+     * @param limite Total máximo permitido
+     * @return Número de filas actualizadas (cero si aún no existe el acumulado o se superaría el límite)
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RetiroDiarioEntity r SET r.total = r.total + :monto " +
+           "WHERE r.cuentaId = :cuentaId AND r.fecha = :fecha AND r.total + :monto <= :limite")
+    int sumarTotalHasta(@Param("cuentaId") Long cuentaId,
+                        @Param("fecha") LocalDate fecha,
+                        @Param("monto") BigDecimal monto,
+                        @Param("limite") BigDecimal limite);
+}
@@ -0,0 +1,151 @@
+package ec.com.banco.proyectobancario.infrastructure.persistence.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import ec.com.banco.proyectobancario.domain.model.TipoMovimiento;
+import ec.com.banco.proyectobancario.infrastructure.persistence.entity.SaldoDiarioEntity;
+import ec.com.banco.proyectobancario.infrastructure.persistence.entity.SaldoDiarioId;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositorio JPA para los saldos de cierre diarios y los totales por día.
+ * 
+ */
+@Repository
+public interface SaldoDiarioJpaRepository extends JpaRepository<SaldoDiarioEntity, SaldoDiarioId> {
+    
+    /**
+     * Busca el último saldo de cierre de una cuenta en o antes de un día.
+     * 
+     * @param cuentaId Identificador de la cuenta
+     * @param fecha Día límite
+     * @return Saldo de cierre más cercano o vacío
+     */
+    Optional<SaldoDiarioEntity> findFirstByCuentaIdAndFechaLessThanEqualOrderByFechaDesc(Long cuentaId, LocalDate fecha);
+    
+    /**
+     * Obtiene los días con movimientos de varias cuentas en un rango de días.
+     * 
+     * @param cuentaIds Identificadores de las cuentas
+     * @param desde Primer día (incluido)
+     * @param hasta Último día (incluido)
+     * @return Días con movimientos
+     */
+    List<SaldoDiarioEntity> findByCuentaIdInAndFechaBetween(List<Long> cuentaIds, LocalDate desde, LocalDate hasta);
+    
+    /**
+     * Reemplaza el saldo de cierre existente de una cuenta en un día y suma a sus totales
+     * los movimientos registrados.
+     * 
+     * @param cuentaId Identificador de la cuenta
+     * @param fecha Día del cierre
+     * @param saldo Saldo al final del día
+     * @param creditos Suma de los créditos registrados
+     * @param debitos Suma de los débitos registrados
+     * @param cantidad Cantidad de movimientos registrados
+     * @return Número de filas actualizadas (cero si aún no existe el cierre)
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SaldoDiarioEntity s SET s.saldoCierre = :saldo, s.creditos = s.creditos + :creditos, " +
+           "s.debitos = s.debitos + :debitos, s.cantidadMovimientos = s.cantidadMovimientos + :cantidad " +
+           "WHERE s.cuentaId = :cuentaId AND s.fecha = :fecha")
+    int actualizarCierre(@Param("cuentaId") Long cuentaId,
+                         @Param("fecha") LocalDate fecha,
+                         @Param("saldo") BigDecimal saldo,
+                         @Param("creditos") BigDecimal creditos,
+                         @Param("debitos") BigDecimal debitos,
+                         @Param("cantidad") int cantidad);
+    
+    /**
+     * Resta de los totales de un día un movimiento eliminado.
+     * 
+     * @param cuentaId Identificador de la cuenta
+     * @param fecha Día del movimiento
+     * @param credito Valor del movimiento si es crédito, o cero
+     * @param debito Valor del movimiento si es débito, o cero
+     * @return Número de filas actualizadas
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SaldoDiarioEntity s SET s.creditos = s.creditos - :credito, s.debitos = s.debitos - :debito, " +
+           "s.cantidadMovimientos = s.cantidadMovimientos - 1 " +
+           "WHERE s.cuentaId = :cuentaId AND s.fecha = :fecha")
+    int descontarMovimiento(@Param("cuentaId") Long cuentaId,
+                            @Param("fecha") LocalDate fecha,
+                            @Param("credito") BigDecimal credito,
+                            @Param("debito") BigDecimal debito);
+    
+    /**
+     * Suma un ajuste a los saldos de cierre de una cuenta desde un día en adelante.
+     * 
+     * @param cuentaId Identificador de la cuenta
+     * @param fecha Primer día a ajustar
+     * @param ajuste Monto a sumar
+     * @return Número de filas actualizadas
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SaldoDiarioEntity s SET s.saldoCierre = s.saldoCierre + :ajuste " +
+           "WHERE s.cuentaId = :cuentaId AND s.fecha >= :fecha")
+    int ajustarDesde(@Param("cuentaId") Long cuentaId,
+                     @Param("fecha") LocalDate fecha,
+                     @Param("ajuste") BigDecimal ajuste);
+    
+    /**
+     * Suma un ajuste a todos los saldos de cierre de una cuenta.
+     * 
+     * @param cuentaId Identificador de la cuenta
+     * @param ajuste Monto a sumar
+     * @return Número de filas actualizadas
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SaldoDiarioEntity s SET s.saldoCierre = s.saldoCierre + :ajuste " +
+           "WHERE s.cuentaId = :cuentaId")
+    int ajustarTodos(@Param("cuentaId") Long cuentaId, @Param("ajuste") BigDecimal ajuste);
+    
+    /**
+     * Elimina todos los saldos de cierre.
+     * 
+     * @return Número de filas eliminadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM saldos_diarios", nativeQuery = true)
+    int eliminarTodos();
+    
+    /**
+     * Reconstruye los saldos de cierre de todas las cuentas a partir de su historial:
+     * el cierre de cada día con movimientos es el saldo inicial más el acumulado de los
+     * movimientos hasta ese día. También recalcula los totales de cada día, clasificando los
+     * movimientos con la misma regla que {@link TipoMovimiento#clasificar(String)}.
+     * 
+     * @return Número de cierres generados
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO saldos_diarios (cuenta_id, fecha, saldo_cierre, creditos, debitos, cantidad_movimientos) " +
+                   "SELECT d.cuenta_id, d.fecha, " +
+                   "       c.saldo_inicial + SUM(d.total) OVER (PARTITION BY d.cuenta_id ORDER BY d.fecha), " +
+                   "       d.creditos, d.debitos, d.cantidad " +
+                   "FROM (SELECT cuenta_id, CAST(fecha AS DATE) AS fecha, SUM(valor) AS total, " +
+                   "             SUM(CASE WHEN tipo_movimiento = '" + TipoMovimiento.DESCRIPCION_DEBITO + "' " +
+                   "                 THEN 0 ELSE valor END) AS creditos, " +
+                   "             SUM(CASE WHEN tipo_movimiento = '" + TipoMovimiento.DESCRIPCION_DEBITO + "' " +
+                   "                 THEN valor ELSE 0 END) AS debitos, " +
+                   "             COUNT(*) AS cantidad " +
+                   "      FROM movimientos GROUP BY cuenta_id, CAST(fecha AS DATE)) d " +
+                   "JOIN cuentas c ON c.id = d.cuenta_id",
+           nativeQuery = true)
+    int reconstruirTodos();
+}
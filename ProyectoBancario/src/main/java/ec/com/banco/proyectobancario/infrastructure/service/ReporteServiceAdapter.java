@@ -11,19 +11,33 @@ import ec.com.banco.proyectobancario.domain.model.Cliente;
 import ec.com.banco.proyectobancario.domain.model.Cuenta;
 import ec.com.banco.proyectobancario.domain.model.Movimiento;
 import ec.com.banco.proyectobancario.domain.model.ReporteEstadoCuenta;
+import ec.com.banco.proyectobancario.domain.model.SaldoDiario;
+import ec.com.banco.proyectobancario.domain.model.TipoMovimiento;
 import ec.com.banco.proyectobancario.domain.port.output.ClienteRepositoryPort;
 import ec.com.banco.proyectobancario.domain.port.output.CuentaRepositoryPort;
 import ec.com.banco.proyectobancario.domain.port.output.MovimientoRepositoryPort;
 import ec.com.banco.proyectobancario.domain.port.output.ReporteServicePort;
+import ec.com.banco.proyectobancario.domain.port.output.SaldoDiarioRepositoryPort;
+import ec.com.banco.proyectobancario.infrastructure.cache.SegmentosReporte;
+import ec.com.banco.proyectobancario.infrastructure.cache.SegmentosReporte.Segmento;
+import ec.com.banco.proyectobancario.infrastructure.csv.EscritorCsv;
 
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 /**
@@ -36,14 +50,26 @@ public class ReporteServiceAdapter implements ReporteServicePort {
     private final ClienteRepositoryPort clienteRepository;
     private final CuentaRepositoryPort cuentaRepository;
     private final MovimientoRepositoryPort movimientoRepository;
+    private final SaldoDiarioRepositoryPort saldoDiarioRepository;
+    private final SegmentosReporte segmentosReporte;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
     
+    /**
+     * Precisión con la que la base de datos guarda las fechas. Restarla al inicio de un día da
+     * el último instante del día anterior para las consultas con rango cerrado.
+     */
+    private static final long PRECISION_FECHA_NANOS = 1_000;
+    
     public ReporteServiceAdapter(ClienteRepositoryPort clienteRepository,
                                  CuentaRepositoryPort cuentaRepository,
-                                 MovimientoRepositoryPort movimientoRepository) {
+                                 MovimientoRepositoryPort movimientoRepository,
+                                 SaldoDiarioRepositoryPort saldoDiarioRepository,
+                                 SegmentosReporte segmentosReporte) {
         this.clienteRepository = clienteRepository;
         this.cuentaRepository = cuentaRepository;
         this.movimientoRepository = movimientoRepository;
+        this.saldoDiarioRepository = saldoDiarioRepository;
+        this.segmentosReporte = segmentosReporte;
     }
     
     @Override
@@ -51,68 +77,122 @@ public class ReporteServiceAdapter implements ReporteServicePort {
         Cliente cliente = clienteRepository.findById(clienteId)
                 .orElseThrow(() -> new IllegalArgumentException("Cliente no encontrado"));
         
+        // Las cuentas traen su saldo actual
         List<Cuenta> cuentas = cuentaRepository.findByClienteId(clienteId);
         
-        ReporteEstadoCuenta reporte = new ReporteEstadoCuenta();
-        reporte.setClienteId(clienteId);
-        reporte.setClienteNombre(cliente.getNombre());
-        reporte.setFechaInicio(fechaInicio.format(DATE_FORMATTER));
-        reporte.setFechaFin(fechaFin.format(DATE_FORMATTER));
+        // Los días completos del rango que ya cerraron no cambian: sus movimientos se toman de la
+        // cache de segmentos y solo se consultan los tramos que faltan
+        LocalDate primerDia = fechaInicio.toLocalTime().equals(LocalTime.MIDNIGHT)
+                ? fechaInicio.toLocalDate()
+                : fechaInicio.toLocalDate().plusDays(1);
+        LocalDate ultimoDia = fechaFin.plusNanos(PRECISION_FECHA_NANOS).toLocalDate().minusDays(1);
+        if (!ultimoDia.isBefore(LocalDate.now())) {
+            ultimoDia = LocalDate.now().minusDays(1);
+        }
         
-        BigDecimal totalCreditos = BigDecimal.ZERO;
-        BigDecimal totalDebitos = BigDecimal.ZERO;
+        List<Segmento> claves = new ArrayList<>();
+        for (Cuenta cuenta : cuentas) {
+            for (LocalDate dia = primerDia; !dia.isAfter(ultimoDia); dia = dia.plusDays(1)) {
+                claves.add(new Segmento(cuenta.getId(), dia));
+            }
+        }
+        Map<Segmento, List<ReporteEstadoCuenta.MovimientoReporte>> enCache = segmentosReporte.obtener(claves);
         
-        List<ReporteEstadoCuenta.CuentaReporte> cuentasReporte = cuentas.stream()
-                .map(cuenta -> {
-                    List<Movimiento> movimientos = movimientoRepository.findByCuentaIdAndFechaBetween(
-                            cuenta.getId(), fechaInicio, fechaFin);
-                    
-                    List<ReporteEstadoCuenta.MovimientoReporte> movimientosReporte = movimientos.stream()
-                            .map(mov -> {
-                                ReporteEstadoCuenta.MovimientoReporte movReporte = new ReporteEstadoCuenta.MovimientoReporte();
-                                movReporte.setFecha(mov.getFecha().format(DATE_FORMATTER));
-                                movReporte.setTipoMovimiento(mov.getTipoMovimiento());
-                                movReporte.setValor(mov.getValor());
-                                movReporte.setSaldo(mov.getSaldo());
-                                
-                                if ("Crédito".equals(mov.getTipoMovimiento())) {
-                                    totalCreditos.add(mov.getValor());
-                                } else {
-                                    totalDebitos.add(mov.getValor());
-                                }
-                                
-                                return movReporte;
-                            })
-                            .collect(Collectors.toList());
-                    
-                    ReporteEstadoCuenta.CuentaReporte cuentaReporte = new ReporteEstadoCuenta.CuentaReporte();
-                    cuentaReporte.setNumeroCuenta(cuenta.getNumeroCuenta());
-                    cuentaReporte.setTipoCuenta(cuenta.getTipoCuenta());
-                    cuentaReporte.setSaldoInicial(cuenta.getSaldoInicial());
-                    cuentaReporte.setSaldoActual(obtenerSaldoActual(cuenta.getId()));
-                    cuentaReporte.setEstado(cuenta.getEstado());
-                    cuentaReporte.setMovimientos(movimientosReporte);
-                    
-                    return cuentaReporte;
-                })
-                .collect(Collectors.toList());
+        // Movimientos de cada cuenta agrupados por día
+        Map<Long, TreeMap<LocalDate, List<ReporteEstadoCuenta.MovimientoReporte>>> porDia = new HashMap<>();
+        Map<Tramo, List<Long>> tramos = new LinkedHashMap<>();
+        Map<Long, Long> versiones = new HashMap<>();
+        for (Cuenta cuenta : cuentas) {
+            porDia.put(cuenta.getId(), new TreeMap<>());
+            versiones.put(cuenta.getId(), segmentosReporte.version(cuenta.getId()));
+            for (Tramo tramo : tramosFaltantes(cuenta.getId(), fechaInicio, fechaFin, primerDia, ultimoDia, enCache)) {
+                tramos.computeIfAbsent(tramo, clave -> new ArrayList<>()).add(cuenta.getId());
+            }
+        }
+        enCache.forEach((segmento, movimientos) -> porDia.get(segmento.cuentaId()).put(segmento.fecha(), movimientos));
         
-        reporte.setCuentas(cuentasReporte);
-        reporte.setTotalCreditos(totalCreditos);
-        reporte.setTotalDebitos(totalDebitos);
+        // Cuentas con el mismo tramo pendiente se leen en una sola consulta
+        for (Map.Entry<Tramo, List<Long>> entrada : tramos.entrySet()) {
+            Tramo tramo = entrada.getKey();
+            for (Movimiento mov : movimientoRepository.findByCuentaIdInAndFechaBetween(
+                    entrada.getValue(), tramo.desde(), tramo.hasta())) {
+                ReporteEstadoCuenta.MovimientoReporte movReporte = new ReporteEstadoCuenta.MovimientoReporte();
+                movReporte.setFecha(mov.getFecha().format(DATE_FORMATTER));
+                movReporte.setTipoMovimiento(mov.getTipoMovimiento());
+                movReporte.setValor(mov.getValor());
+                movReporte.setSaldo(mov.getSaldo());
+                porDia.get(mov.getCuentaId())
+                        .computeIfAbsent(mov.getFecha().toLocalDate(), dia -> new ArrayList<>())
+                        .add(movReporte);
+            }
+            
+            // Los días completos y cerrados del tramo quedan en cache, también los que no tuvieron movimientos
+            LocalDate desde = tramo.desde().toLocalDate().isBefore(primerDia) ? primerDia : tramo.desde().toLocalDate();
+            LocalDate hasta = tramo.hasta().toLocalDate().isAfter(ultimoDia) ? ultimoDia : tramo.hasta().toLocalDate();
+            for (Long cuentaId : entrada.getValue()) {
+                for (LocalDate dia = desde; !dia.isAfter(hasta); dia = dia.plusDays(1)) {
+                    segmentosReporte.guardar(new Segmento(cuentaId, dia),
+                            porDia.get(cuentaId).getOrDefault(dia, List.of()), versiones.get(cuentaId));
+                }
+            }
+        }
         
-        return reporte;
+        Map<Long, ReporteEstadoCuenta.CuentaReporte> cuentasReporte = cuentasReporte(cuentas);
+        porDia.forEach((cuentaId, dias) -> {
+            ReporteEstadoCuenta.CuentaReporte cuentaReporte = cuentasReporte.get(cuentaId);
+            for (List<ReporteEstadoCuenta.MovimientoReporte> movimientos : dias.values()) {
+                for (ReporteEstadoCuenta.MovimientoReporte movReporte : movimientos) {
+                    cuentaReporte.getMovimientos().add(movReporte);
+                    if (TipoMovimiento.clasificar(movReporte.getTipoMovimiento()) == TipoMovimiento.CREDITO) {
+                        acumular(cuentaReporte, movReporte.getValor(), BigDecimal.ZERO, 1);
+                    } else {
+                        acumular(cuentaReporte, BigDecimal.ZERO, movReporte.getValor(), 1);
+                    }
+                }
+            }
+        });
+        
+        return reporte(clienteId, cliente, fechaInicio.format(DATE_FORMATTER), fechaFin.format(DATE_FORMATTER),
+                cuentasReporte);
+    }
+    
+    @Override
+    public ReporteEstadoCuenta generarResumenEstadoCuenta(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin) {
+        Cliente cliente = clienteRepository.findById(clienteId)
+                .orElseThrow(() -> new IllegalArgumentException("Cliente no encontrado"));
+        
+        // Los totales salen de los acumulados diarios: una fila por cuenta y día con movimientos
+        List<Cuenta> cuentas = cuentaRepository.findByClienteId(clienteId);
+        List<SaldoDiario> dias = saldoDiarioRepository.listarEntre(
+                cuentas.stream().map(Cuenta::getId).collect(Collectors.toList()), fechaInicio, fechaFin);
+        
+        Map<Long, ReporteEstadoCuenta.CuentaReporte> cuentasReporte = cuentasReporte(cuentas);
+        cuentasReporte.values().forEach(cuentaReporte -> cuentaReporte.setMovimientos(null));
+        for (SaldoDiario dia : dias) {
+            acumular(cuentasReporte.get(dia.getCuentaId()), dia.getCreditos(), dia.getDebitos(),
+                    dia.getCantidadMovimientos());
+        }
+        
+        return reporte(clienteId, cliente, fechaInicio.format(DATE_FORMATTER), fechaFin.format(DATE_FORMATTER),
+                cuentasReporte);
     }
     
     @Override
     public String generarReportePdfBase64(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
         ReporteEstadoCuenta reporte = generarReporteEstadoCuenta(clienteId, fechaInicio, fechaFin);
         
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-            PdfWriter writer = new PdfWriter(baos);
-            PdfDocument pdf = new PdfDocument(writer);
-            Document document = new Document(pdf);
-            
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        escribirReportePdf(reporte, baos);
+        return Base64.getEncoder().encodeToString(baos.toByteArray());
+    }
+    
+    @Override
+    public void escribirReportePdf(ReporteEstadoCuenta reporte, OutputStream salida) {
+        PdfWriter writer = new PdfWriter(salida);
+        // Quien entrega la salida es quien la cierra (por ejemplo, la respuesta HTTP)
+        writer.setCloseStream(false);
+        
+        try (Document document = new Document(new PdfDocument(writer))) {
             // Título
             document.add(new Paragraph("REPORTE DE ESTADO DE CUENTA")
                     .setBold()
@@ -128,6 +208,9 @@ public class ReporteServiceAdapter implements ReporteServicePort {
                         .setBold());
                 document.add(new Paragraph("Saldo Inicial: $" + cuenta.getSaldoInicial()));
                 document.add(new Paragraph("Saldo Actual: $" + cuenta.getSaldoActual()));
+                document.add(new Paragraph("Créditos: $" + cuenta.getTotalCreditos()
+                        + "   Débitos: $" + cuenta.getTotalDebitos()
+                        + "   Movimientos: " + cuenta.getCantidadMovimientos()));
                 document.add(new Paragraph(" "));
                 
                 if (cuenta.getMovimientos() != null && !cuenta.getMovimientos().isEmpty()) {
@@ -154,25 +237,115 @@ public class ReporteServiceAdapter implements ReporteServicePort {
             // Totales
             document.add(new Paragraph("Total Créditos: $" + reporte.getTotalCreditos()).setBold());
             document.add(new Paragraph("Total Débitos: $" + reporte.getTotalDebitos()).setBold());
-            
-            document.close();
-            
-            return Base64.getEncoder().encodeToString(baos.toByteArray());
         } catch (Exception e) {
             throw new RuntimeException("Error al generar PDF: " + e.getMessage(), e);
         }
     }
     
-    private BigDecimal obtenerSaldoActual(Long cuentaId) {
-        List<Movimiento> movimientos = movimientoRepository.findByCuentaId(cuentaId);
-        if (movimientos.isEmpty()) {
-            return cuentaRepository.findById(cuentaId)
-                    .map(Cuenta::getSaldoInicial)
-                    .orElse(BigDecimal.ZERO);
+    @Override
+    public void escribirReporteCsv(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin, OutputStream salida) {
+        Cliente cliente = clienteRepository.findById(clienteId)
+                .orElseThrow(() -> new IllegalArgumentException("Cliente no encontrado"));
+        Map<Long, Cuenta> cuentas = cuentaRepository.findByClienteId(clienteId).stream()
+                .collect(Collectors.toMap(Cuenta::getId, cuenta -> cuenta));
+        
+        // Cada fila se escribe apenas se lee su movimiento, sin armar el reporte en memoria
+        try (EscritorCsv csv = new EscritorCsv(salida)) {
+            csv.encabezado("fecha", "cliente", "numeroCuenta", "tipoCuenta", "estado", "tipoMovimiento",
+                    "saldoAnterior", "movimiento", "saldoDisponible");
+            movimientoRepository.recorrerPorCuentasYFecha(new ArrayList<>(cuentas.keySet()), fechaInicio, fechaFin,
+                    mov -> {
+                        Cuenta cuenta = cuentas.get(mov.getCuentaId());
+                        csv.fecha(mov.getFecha())
+                                .texto(cliente.getNombre())
+                                .texto(cuenta.getNumeroCuenta())
+                                .texto(cuenta.getTipoCuenta())
+                                .texto(String.valueOf(cuenta.getEstado()))
+                                .texto(mov.getTipoMovimiento())
+                                .numero(mov.getSaldo().subtract(mov.getValor()))
+                                .numero(mov.getValor())
+                                .numero(mov.getSaldo())
+                                .finFila();
+                    });
+        }
+    }
+    
+    /**
+     * Calcula los tramos del rango de una cuenta que no están en la cache de segmentos: los
+     * días sin segmento y las partes de días en los extremos del rango.
+     */
+    private List<Tramo> tramosFaltantes(Long cuentaId, LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                        LocalDate primerDia, LocalDate ultimoDia,
+                                        Map<Segmento, List<ReporteEstadoCuenta.MovimientoReporte>> enCache) {
+        List<Tramo> tramos = new ArrayList<>();
+        LocalDateTime desde = fechaInicio;
+        for (LocalDate dia = primerDia; !dia.isAfter(ultimoDia); dia = dia.plusDays(1)) {
+            if (!enCache.containsKey(new Segmento(cuentaId, dia))) {
+                if (desde == null) {
+                    desde = dia.atStartOfDay();
+                }
+            } else {
+                if (desde != null && desde.isBefore(dia.atStartOfDay())) {
+                    tramos.add(new Tramo(desde, dia.atStartOfDay().minusNanos(PRECISION_FECHA_NANOS)));
+                }
+                desde = null;
+            }
+        }
+        
+        if (desde == null) {
+            desde = ultimoDia.plusDays(1).atStartOfDay();
+        }
+        if (!desde.isAfter(fechaFin)) {
+            tramos.add(new Tramo(desde, fechaFin));
+        }
+        return tramos;
+    }
+    
+    /**
+     * Rango de fechas, con ambos extremos incluidos.
+     */
+    private record Tramo(LocalDateTime desde, LocalDateTime hasta) {
+    }
+    
+    private Map<Long, ReporteEstadoCuenta.CuentaReporte> cuentasReporte(List<Cuenta> cuentas) {
+        Map<Long, ReporteEstadoCuenta.CuentaReporte> cuentasReporte = new LinkedHashMap<>();
+        for (Cuenta cuenta : cuentas) {
+            ReporteEstadoCuenta.CuentaReporte cuentaReporte = new ReporteEstadoCuenta.CuentaReporte();
+            cuentaReporte.setNumeroCuenta(cuenta.getNumeroCuenta());
+            cuentaReporte.setTipoCuenta(cuenta.getTipoCuenta());
+            cuentaReporte.setSaldoInicial(cuenta.getSaldoInicial());
+            cuentaReporte.setSaldoActual(cuenta.getSaldoActual());
+            cuentaReporte.setEstado(cuenta.getEstado());
+            cuentaReporte.setTotalCreditos(BigDecimal.ZERO);
+            cuentaReporte.setTotalDebitos(BigDecimal.ZERO);
+            cuentaReporte.setCantidadMovimientos(0);
+            cuentaReporte.setMovimientos(new ArrayList<>());
+            cuentasReporte.put(cuenta.getId(), cuentaReporte);
         }
-        return movimientos.stream()
-                .max((m1, m2) -> m1.getFecha().compareTo(m2.getFecha()))
-                .map(Movimiento::getSaldo)
-                .orElse(BigDecimal.ZERO);
+        return cuentasReporte;
+    }
+    
+    private void acumular(ReporteEstadoCuenta.CuentaReporte cuentaReporte, BigDecimal creditos, BigDecimal debitos,
+                          int cantidad) {
+        cuentaReporte.setTotalCreditos(cuentaReporte.getTotalCreditos().add(creditos));
+        cuentaReporte.setTotalDebitos(cuentaReporte.getTotalDebitos().add(debitos));
+        cuentaReporte.setCantidadMovimientos(cuentaReporte.getCantidadMovimientos() + cantidad);
+    }
+    
+    private ReporteEstadoCuenta reporte(Long clienteId, Cliente cliente, String fechaInicio, String fechaFin,
+                                        Map<Long, ReporteEstadoCuenta.CuentaReporte> cuentasReporte) {
+        ReporteEstadoCuenta reporte = new ReporteEstadoCuenta();
+        reporte.setClienteId(clienteId);
+        reporte.setClienteNombre(cliente.getNombre());
+        reporte.setFechaInicio(fechaInicio);
+        reporte.setFechaFin(fechaFin);
+        reporte.setCuentas(new ArrayList<>(cuentasReporte.values()));
+        reporte.setTotalCreditos(cuentasReporte.values().stream()
+                .map(ReporteEstadoCuenta.CuentaReporte::getTotalCreditos)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        reporte.setTotalDebitos(cuentasReporte.values().stream()
+                .map(ReporteEstadoCuenta.CuentaReporte::getTotalDebitos)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        return reporte;
     }
 }
@@ -0,0 +1,202 @@
+package ec.com.dinersclub.proyectobancario.adapter.input.async;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import ec.com.banco.proyectobancario.adapter.input.async.CicloEstadosCuenta;
+import ec.com.banco.proyectobancario.adapter.input.async.EjecucionCiclo;
+import ec.com.banco.proyectobancario.adapter.input.async.EstadoTrabajoReporte;
+import ec.com.banco.proyectobancario.application.usecase.ReporteUseCase;
+import ec.com.banco.proyectobancario.domain.model.ReporteEstadoCuenta;
+import ec.com.banco.proyectobancario.infrastructure.concurrency.FabricaHilos;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Pruebas unitarias para CicloEstadosCuenta.
+ * 
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Pruebas del ciclo de estados de cuenta")
+class CicloEstadosCuentaTest {
+    
+    private static final YearMonth PERIODO = YearMonth.now().minusMonths(1);
+    
+    @Mock
+    private ReporteUseCase reporteUseCase;
+    
+    @TempDir
+    private Path directorio;
+    
+    private CicloEstadosCuenta ciclo;
+    
+    @AfterEach
+    void tearDown() {
+        if (ciclo != null) {
+            ciclo.stop();
+        }
+    }
+    
+    @Test
+    @DisplayName("Debería rechazar el mes en curso y los meses futuros")
+    void deberiaRechazarPeriodoNoCerrado() {
+        // Arrange
+        ciclo = nuevoCiclo(1);
+        
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> ciclo.iniciar(YearMonth.now()));
+        assertThrows(IllegalArgumentException.class, () -> ciclo.iniciar(YearMonth.now().plusMonths(1)));
+        assertFalse(Files.exists(directorio.resolve(YearMonth.now().toString())));
+        verify(reporteUseCase, never()).listarClientesParaEstadoCuenta(any(), anyInt());
+    }
+    
+    @Test
+    @DisplayName("Debería generar todos los clientes y guardar el avance con los fallidos")
+    void deberiaGenerarTodosLosClientesYGuardarAvance() throws Exception {
+        // Arrange
+        when(reporteUseCase.listarClientesParaEstadoCuenta(null, 2)).thenReturn(List.of(1L, 2L));
+        when(reporteUseCase.listarClientesParaEstadoCuenta(2L, 2)).thenReturn(List.of(3L));
+        when(reporteUseCase.listarClientesParaEstadoCuenta(3L, 2)).thenReturn(List.of());
+        doAnswer(invocacion -> {
+            if (invocacion.<Long>getArgument(0) == 2L) {
+                throw new IllegalStateException("Base de datos no disponible");
+            }
+            return new ReporteEstadoCuenta();
+        }).when(reporteUseCase).generarReporteEstadoCuenta(anyLong(), any(), any());
+        ciclo = nuevoCiclo(2);
+        
+        // Act
+        ciclo.iniciar(PERIODO);
+        EjecucionCiclo ejecucion = esperarFin(ciclo);
+        
+        // Assert
+        assertEquals(EstadoTrabajoReporte.LISTO, ejecucion.getEstado());
+        assertEquals(2, ejecucion.getGenerados());
+        assertEquals(1, ejecucion.getFallidos());
+        assertTrue(Files.exists(documento(1L)));
+        assertFalse(Files.exists(documento(2L)));
+        assertTrue(Files.exists(documento(3L)));
+        
+        Properties progreso = leerProgreso();
+        assertEquals("2", progreso.getProperty("generados"));
+        assertEquals("1", progreso.getProperty("fallidos"));
+        assertEquals("3", progreso.getProperty("ultimoClienteId"));
+        assertEquals("2", progreso.getProperty("clientesFallidos"));
+        assertEquals("true", progreso.getProperty("terminado"));
+    }
+    
+    @Test
+    @DisplayName("Debería reanudar un ciclo interrumpido generando solo los clientes faltantes y fallidos")
+    void deberiaReanudarCicloInterrumpido() throws Exception {
+        // Arrange
+        CountDownLatch enBloqueInterrumpido = new CountDownLatch(1);
+        AtomicBoolean interrumpir = new AtomicBoolean(true);
+        AtomicBoolean fallarCliente2 = new AtomicBoolean(true);
+        when(reporteUseCase.listarClientesParaEstadoCuenta(null, 2)).thenReturn(List.of(1L, 2L));
+        when(reporteUseCase.listarClientesParaEstadoCuenta(2L, 2)).thenReturn(List.of(3L, 4L));
+        when(reporteUseCase.listarClientesParaEstadoCuenta(4L, 2)).thenReturn(List.of());
+        doAnswer(invocacion -> {
+            long clienteId = invocacion.getArgument(0);
+            if (clienteId == 2L && fallarCliente2.getAndSet(false)) {
+                throw new IllegalStateException("Base de datos no disponible");
+            }
+            if (clienteId == 3L && interrumpir.getAndSet(false)) {
+                // Se queda en el segundo bloque hasta que el ciclo se detiene
+                enBloqueInterrumpido.countDown();
+                while (ciclo.isRunning()) {
+                    Thread.sleep(10);
+                }
+            }
+            return new ReporteEstadoCuenta();
+        }).when(reporteUseCase).generarReporteEstadoCuenta(anyLong(), any(), any());
+        ciclo = nuevoCiclo(1);
+        ciclo.iniciar(PERIODO);
+        assertTrue(enBloqueInterrumpido.await(10, TimeUnit.SECONDS));
+        
+        // Act
+        ciclo.stop();
+        Properties interrumpido = leerProgreso();
+        ciclo = nuevoCiclo(1);
+        EjecucionCiclo previa = ciclo.obtener(PERIODO);
+        ciclo.iniciar(PERIODO);
+        EjecucionCiclo ejecucion = esperarFin(ciclo);
+        
+        // Assert
+        assertEquals("2", interrumpido.getProperty("ultimoClienteId"));
+        assertEquals("2", interrumpido.getProperty("clientesFallidos"));
+        assertEquals("false", interrumpido.getProperty("terminado"));
+        assertEquals(EstadoTrabajoReporte.FALLIDO, previa.getEstado());
+        assertEquals(1, previa.getGenerados());
+        assertEquals(2L, previa.getUltimoClienteId());
+        
+        assertEquals(EstadoTrabajoReporte.LISTO, ejecucion.getEstado());
+        assertEquals(4, ejecucion.getGenerados());
+        assertEquals(0, ejecucion.getFallidos());
+        assertEquals("", leerProgreso().getProperty("clientesFallidos"));
+        for (long clienteId = 1; clienteId <= 4; clienteId++) {
+            assertTrue(Files.exists(documento(clienteId)));
+        }
+        // El cliente 1 no se repite; el 2 se reintenta y el bloque sin terminar se vuelve a generar
+        verify(reporteUseCase, times(1)).generarReporteEstadoCuenta(eq(1L), any(), any());
+        verify(reporteUseCase, times(2)).generarReporteEstadoCuenta(eq(2L), any(), any());
+        verify(reporteUseCase, times(2)).generarReporteEstadoCuenta(eq(3L), any(), any());
+        verify(reporteUseCase, times(1)).generarReporteEstadoCuenta(eq(4L), any(), any());
+    }
+    
+    private CicloEstadosCuenta nuevoCiclo(int hilos) {
+        CicloEstadosCuenta nuevo = new CicloEstadosCuenta(reporteUseCase, new FabricaHilos(false),
+                new SimpleMeterRegistry(), hilos, 1, 2, directorio);
+        nuevo.start();
+        return nuevo;
+    }
+    
+    private static EjecucionCiclo esperarFin(CicloEstadosCuenta ciclo) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        EjecucionCiclo ejecucion = ciclo.obtener(PERIODO);
+        while (ejecucion.getEstado() == EstadoTrabajoReporte.EN_PROCESO && System.nanoTime() < limite) {
+            Thread.sleep(20);
+            ejecucion = ciclo.obtener(PERIODO);
+        }
+        return ejecucion;
+    }
+    
+    private Properties leerProgreso() throws Exception {
+        Properties progreso = new Properties();
+        try (Reader lector = Files.newBufferedReader(directorio.resolve(PERIODO.toString()).resolve("progreso.properties"))) {
+            progreso.load(lector);
+        }
+        return progreso;
+    }
+    
+    private Path documento(Long clienteId) {
+        return directorio.resolve(PERIODO.toString()).resolve("estado-cuenta-" + clienteId + ".pdf");
+    }
+}
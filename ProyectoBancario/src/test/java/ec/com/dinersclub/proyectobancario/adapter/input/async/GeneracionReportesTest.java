@@ -0,0 +1,157 @@
+package ec.com.dinersclub.proyectobancario.adapter.input.async;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import ec.com.banco.proyectobancario.adapter.input.async.EstadoTrabajoReporte;
+import ec.com.banco.proyectobancario.adapter.input.async.GeneracionReportes;
+import ec.com.banco.proyectobancario.adapter.input.async.TrabajoReporte;
+import ec.com.banco.proyectobancario.application.usecase.ReporteUseCase;
+import ec.com.banco.proyectobancario.domain.model.ReporteEstadoCuenta;
+import ec.com.banco.proyectobancario.infrastructure.concurrency.FabricaHilos;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Pruebas unitarias para GeneracionReportes.
+ * 
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Pruebas de la generación de reportes en segundo plano")
+class GeneracionReportesTest {
+    
+    private static final LocalDateTime INICIO = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime FIN = LocalDateTime.of(2024, 1, 31, 23, 59);
+    
+    @Mock
+    private ReporteUseCase reporteUseCase;
+    
+    @TempDir
+    private Path directorio;
+    
+    private GeneracionReportes generacion;
+    
+    @AfterEach
+    void tearDown() {
+        if (generacion != null) {
+            generacion.stop();
+        }
+    }
+    
+    @Test
+    @DisplayName("Debería generar el PDF y dejar el trabajo listo")
+    void deberiaGenerarDocumento() throws Exception {
+        // Arrange
+        ReporteEstadoCuenta reporte = new ReporteEstadoCuenta();
+        when(reporteUseCase.generarReporteEstadoCuenta(1L, INICIO, FIN)).thenReturn(reporte);
+        doAnswer(invocacion -> {
+            invocacion.<OutputStream>getArgument(1).write("%PDF".getBytes(StandardCharsets.US_ASCII));
+            return null;
+        }).when(reporteUseCase).escribirReportePdf(eq(reporte), any(OutputStream.class));
+        generacion = nuevaGeneracion(10);
+        
+        // Act
+        TrabajoReporte trabajo = generacion.encolar(1L, INICIO, FIN);
+        TrabajoReporte terminado = esperarFin(trabajo.getId());
+        
+        // Assert
+        assertEquals(EstadoTrabajoReporte.LISTO, terminado.getEstado());
+        Path documento = generacion.obtenerDocumento(trabajo.getId());
+        assertEquals("%PDF", Files.readString(documento, StandardCharsets.US_ASCII));
+        assertFalse(Files.exists(directorio.resolve(trabajo.getId() + ".tmp")));
+    }
+    
+    @Test
+    @DisplayName("Debería marcar el trabajo como fallido con el motivo del rechazo")
+    void deberiaMarcarFallidoConMotivo() throws Exception {
+        // Arrange
+        when(reporteUseCase.generarReporteEstadoCuenta(99L, INICIO, FIN))
+                .thenThrow(new IllegalArgumentException("Cliente no encontrado con id: 99"));
+        generacion = nuevaGeneracion(10);
+        
+        // Act
+        TrabajoReporte trabajo = generacion.encolar(99L, INICIO, FIN);
+        TrabajoReporte terminado = esperarFin(trabajo.getId());
+        
+        // Assert
+        assertEquals(EstadoTrabajoReporte.FALLIDO, terminado.getEstado());
+        assertEquals("Cliente no encontrado con id: 99", terminado.getError());
+        assertThrows(IllegalArgumentException.class, () -> generacion.obtenerDocumento(trabajo.getId()));
+    }
+    
+    @Test
+    @DisplayName("Debería rechazar trabajos cuando la cola está llena")
+    void deberiaRechazarConColaLlena() throws Exception {
+        // Arrange
+        CountDownLatch enProceso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(reporteUseCase.generarReporteEstadoCuenta(any(), any(), any())).thenAnswer(invocacion -> {
+            enProceso.countDown();
+            liberar.await(10, TimeUnit.SECONDS);
+            return new ReporteEstadoCuenta();
+        });
+        generacion = nuevaGeneracion(1);
+        generacion.encolar(1L, INICIO, FIN);
+        assertTrue(enProceso.await(10, TimeUnit.SECONDS));
+        generacion.encolar(2L, INICIO, FIN);
+        
+        // Act & Assert
+        assertThrows(RejectedExecutionException.class, () -> generacion.encolar(3L, INICIO, FIN));
+        liberar.countDown();
+    }
+    
+    @Test
+    @DisplayName("Debería validar los datos y eliminar documentos de una ejecución anterior")
+    void deberiaValidarDatosYLimpiarDirectorio() throws Exception {
+        // Arrange
+        Path anterior = Files.writeString(directorio.resolve("anterior.pdf"), "%PDF");
+        generacion = nuevaGeneracion(10);
+        
+        // Act & Assert
+        assertFalse(Files.exists(anterior));
+        assertThrows(IllegalArgumentException.class, () -> generacion.encolar(null, INICIO, FIN));
+        assertThrows(IllegalArgumentException.class, () -> generacion.encolar(1L, FIN, INICIO));
+        assertThrows(IllegalArgumentException.class, () -> generacion.obtenerTrabajo("inexistente"));
+    }
+    
+    private GeneracionReportes nuevaGeneracion(int capacidad) {
+        GeneracionReportes nueva = new GeneracionReportes(reporteUseCase, new FabricaHilos(false),
+                new SimpleMeterRegistry(), 1, capacidad, Duration.ofHours(1), 100, directorio);
+        nueva.start();
+        return nueva;
+    }
+    
+    private TrabajoReporte esperarFin(String id) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        TrabajoReporte trabajo = generacion.obtenerTrabajo(id);
+        while ((trabajo.getEstado() == EstadoTrabajoReporte.PENDIENTE
+                || trabajo.getEstado() == EstadoTrabajoReporte.EN_PROCESO) && System.nanoTime() < limite) {
+            Thread.sleep(20);
+            trabajo = generacion.obtenerTrabajo(id);
+        }
+        return trabajo;
+    }
+}
@@ -1,25 +1,33 @@
 package ec.com.dinersclub.proyectobancario.adapter.input.web.controller;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
@@ -28,9 +36,13 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import ec.com.banco.proyectobancario.adapter.input.web.controller.ClienteController;
 import ec.com.banco.proyectobancario.adapter.input.web.dto.ClienteRequest;
 import ec.com.banco.proyectobancario.adapter.input.web.dto.ClienteResponse;
+import ec.com.banco.proyectobancario.adapter.input.web.exception.GlobalExceptionHandler;
 import ec.com.banco.proyectobancario.adapter.input.web.mapper.ClienteMapper;
+import ec.com.banco.proyectobancario.adapter.input.web.mapper.PaginaMapper;
 import ec.com.banco.proyectobancario.application.usecase.ClienteUseCase;
 import ec.com.banco.proyectobancario.domain.model.Cliente;
+import ec.com.banco.proyectobancario.domain.model.ConsultaPagina;
+import ec.com.banco.proyectobancario.domain.model.Pagina;
 import tools.jackson.databind.ObjectMapper;
 
 /**
@@ -47,6 +59,9 @@ class ClienteControllerTest {
     @Mock
     private ClienteMapper clienteMapper;
     
+    @Spy
+    private PaginaMapper paginaMapper;
+    
     @InjectMocks
     private ClienteController clienteController;
     
@@ -58,7 +73,9 @@ class ClienteControllerTest {
     
     @BeforeEach
     void setUp() {
-        mockMvc = MockMvcBuilders.standaloneSetup(clienteController).build();
+        mockMvc = MockMvcBuilders.standaloneSetup(clienteController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
         objectMapper = new ObjectMapper();
         
         clienteRequest = new ClienteRequest();
@@ -138,6 +155,81 @@ class ClienteControllerTest {
         verify(clienteUseCase).obtenerTodosLosClientes();
     }
     
+    @Test
+    @DisplayName("Debería responder 304 sin consultar los clientes si la versión no cambió")
+    void deberiaResponderNoModificadoSiLaVersionNoCambio() throws Exception {
+        // Arrange
+        when(clienteUseCase.obtenerVersionClientes()).thenReturn("3");
+        
+        // Act & Assert
+        mockMvc.perform(get("/clientes")
+                .header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""));
+        
+        verify(clienteUseCase, never()).obtenerTodosLosClientes();
+    }
+    
+    @Test
+    @DisplayName("Debería devolver los clientes con la nueva versión si la versión cambió")
+    void deberiaDevolverClientesSiLaVersionCambio() throws Exception {
+        // Arrange
+        when(clienteUseCase.obtenerVersionClientes()).thenReturn("4");
+        when(clienteUseCase.obtenerTodosLosClientes()).thenReturn(List.of(cliente));
+        when(clienteMapper.toResponse(any(Cliente.class))).thenReturn(clienteResponse);
+        
+        // Act & Assert
+        mockMvc.perform(get("/clientes")
+                .header("If-None-Match", "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.length()").value(1));
+        
+        verify(clienteUseCase).obtenerTodosLosClientes();
+    }
+    
+    @Test
+    @DisplayName("Debería obtener una página de clientes filtrada y ordenada")
+    void deberiaObtenerPaginaDeClientes() throws Exception {
+        // Arrange
+        when(clienteUseCase.obtenerPaginaClientes(eq(true), any(ConsultaPagina.class)))
+                .thenReturn(new Pagina<>(List.of(cliente), true));
+        when(clienteMapper.toResponse(any(Cliente.class))).thenReturn(clienteResponse);
+        when(clienteMapper.valorOrden(any(Cliente.class), eq("nombre"))).thenReturn("Jose Lema");
+        when(clienteMapper.valorOrden(any(Cliente.class), eq("id"))).thenReturn(1L);
+        
+        // Act & Assert
+        mockMvc.perform(get("/clientes/pagina")
+                .param("estado", "true")
+                .param("orden", "nombre,desc")
+                .param("cursor", cursor("nombre|Maria Montalvo|7"))
+                .param("tamano", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.elementos.length()").value(1))
+                .andExpect(jsonPath("$.elementos[0].nombre").value("Jose Lema"))
+                .andExpect(jsonPath("$.siguienteCursor").value(cursor("nombre|Jose Lema|1")));
+        
+        ArgumentCaptor<ConsultaPagina> consulta = ArgumentCaptor.forClass(ConsultaPagina.class);
+        verify(clienteUseCase).obtenerPaginaClientes(eq(true), consulta.capture());
+        assertEquals("Maria Montalvo", consulta.getValue().getDespuesDe().getValor());
+        assertEquals(7L, consulta.getValue().getDespuesDe().getId());
+        assertEquals(10, consulta.getValue().getTamano());
+        assertEquals("nombre", consulta.getValue().getOrdenarPor());
+        assertTrue(consulta.getValue().isDescendente());
+    }
+    
+    @Test
+    @DisplayName("Debería rechazar un cursor obtenido con otro orden")
+    void deberiaRechazarCursorDeOtroOrden() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/clientes/pagina")
+                .param("orden", "clienteId")
+                .param("cursor", cursor("nombre|Jose Lema|1")))
+                .andExpect(status().isBadRequest());
+        
+        verify(clienteUseCase, never()).obtenerPaginaClientes(any(), any());
+    }
+    
     @Test
     @DisplayName("Debería actualizar un cliente exitosamente")
     void deberiaActualizarClienteExitosamente() throws Exception {
@@ -166,4 +258,8 @@ class ClienteControllerTest {
                 
         verify(clienteUseCase).eliminarCliente(1L);
     }
+    
+    private static String cursor(String texto) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
 }
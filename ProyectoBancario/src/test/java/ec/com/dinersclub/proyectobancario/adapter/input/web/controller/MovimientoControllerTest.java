@@ -2,18 +2,27 @@ package ec.com.dinersclub.proyectobancario.adapter.input.web.controller;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -21,19 +30,33 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
+import tools.jackson.databind.json.JsonMapper;
+
+import ec.com.banco.proyectobancario.adapter.input.async.ContabilizacionAsincrona;
+import ec.com.banco.proyectobancario.adapter.input.async.EstadoSolicitud;
+import ec.com.banco.proyectobancario.adapter.input.async.SolicitudMovimiento;
 import ec.com.banco.proyectobancario.adapter.input.web.controller.MovimientoController;
+import ec.com.banco.proyectobancario.adapter.input.web.dto.MovimientoLoteRequest;
+import ec.com.banco.proyectobancario.adapter.input.web.dto.MovimientoLoteResponse;
 import ec.com.banco.proyectobancario.adapter.input.web.dto.MovimientoRequest;
 import ec.com.banco.proyectobancario.adapter.input.web.dto.MovimientoResponse;
+import ec.com.banco.proyectobancario.adapter.input.web.dto.PaginaResponse;
+import ec.com.banco.proyectobancario.adapter.input.web.dto.SolicitudMovimientoResponse;
 import ec.com.banco.proyectobancario.adapter.input.web.mapper.MovimientoMapper;
 import ec.com.banco.proyectobancario.application.usecase.MovimientoUseCase;
+import ec.com.banco.proyectobancario.domain.model.CursorMovimiento;
 import ec.com.banco.proyectobancario.domain.model.Movimiento;
+import ec.com.banco.proyectobancario.domain.model.Pagina;
+import ec.com.banco.proyectobancario.domain.model.ResultadoMovimientoLote;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -51,6 +74,12 @@ class MovimientoControllerTest {
     @Mock
     private MovimientoMapper movimientoMapper;
     
+    @Mock
+    private ContabilizacionAsincrona contabilizacionAsincrona;
+    
+    @Spy
+    private JsonMapper jsonMapper = JsonMapper.builder().build();
+    
     @InjectMocks
     private MovimientoController movimientoController;
     
@@ -108,6 +137,104 @@ class MovimientoControllerTest {
         verify(movimientoUseCase).crearMovimiento(any(Movimiento.class));
     }
     
+    @Test
+    @DisplayName("Debería propagar la clave de idempotencia al crear un movimiento")
+    void deberiaCrearMovimientoConClaveDeIdempotencia() throws Exception {
+        // Arrange
+        when(movimientoMapper.toDomain(any(MovimientoRequest.class))).thenReturn(movimiento);
+        when(movimientoUseCase.crearMovimiento(any(Movimiento.class), eq("canal-atm-000123"))).thenReturn(movimiento);
+        when(movimientoMapper.toResponse(any(Movimiento.class))).thenReturn(movimientoResponse);
+        
+        // Act & Assert
+        mockMvc.perform(post("/movimientos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Idempotency-Key", "canal-atm-000123")
+                .content(objectMapper.writeValueAsString(movimientoRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(1L));
+        
+        verify(movimientoUseCase).crearMovimiento(any(Movimiento.class), eq("canal-atm-000123"));
+        verify(movimientoUseCase, never()).crearMovimiento(any(Movimiento.class));
+    }
+    
+    @Test
+    @DisplayName("Debería encolar un movimiento en modo asíncrono y responder 202")
+    void deberiaEncolarMovimientoAsincrono() throws Exception {
+        // Arrange
+        SolicitudMovimiento solicitud = new SolicitudMovimiento("abc-123", EstadoSolicitud.PENDIENTE, movimiento, null, null);
+        SolicitudMovimientoResponse solicitudResponse = new SolicitudMovimientoResponse("abc-123", "PENDIENTE", null, null);
+        
+        when(movimientoMapper.toDomain(any(MovimientoRequest.class))).thenReturn(movimiento);
+        when(contabilizacionAsincrona.encolar(any(Movimiento.class), isNull())).thenReturn(solicitud);
+        when(movimientoMapper.toSolicitudResponse(solicitud)).thenReturn(solicitudResponse);
+        
+        // Act & Assert
+        mockMvc.perform(post("/movimientos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Prefer", "respond-async")
+                .content(objectMapper.writeValueAsString(movimientoRequest)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/movimientos/solicitudes/abc-123"))
+                .andExpect(header().string("Preference-Applied", "respond-async"))
+                .andExpect(jsonPath("$.id").value("abc-123"))
+                .andExpect(jsonPath("$.estado").value("PENDIENTE"));
+                
+        verify(movimientoUseCase, never()).crearMovimiento(any(Movimiento.class));
+    }
+    
+    @Test
+    @DisplayName("Debería encolar con varias preferencias y propagar la clave de idempotencia")
+    void deberiaEncolarConVariasPreferenciasYClave() throws Exception {
+        // Arrange
+        SolicitudMovimiento solicitud = new SolicitudMovimiento("abc-123", EstadoSolicitud.PENDIENTE, movimiento, null,
+                "canal-atm-000123");
+        SolicitudMovimientoResponse solicitudResponse = new SolicitudMovimientoResponse("abc-123", "PENDIENTE", null, null);
+        
+        when(movimientoMapper.toDomain(any(MovimientoRequest.class))).thenReturn(movimiento);
+        when(contabilizacionAsincrona.encolar(any(Movimiento.class), eq("canal-atm-000123"))).thenReturn(solicitud);
+        when(movimientoMapper.toSolicitudResponse(solicitud)).thenReturn(solicitudResponse);
+        
+        // Act & Assert
+        mockMvc.perform(post("/movimientos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Prefer", "Respond-Async, wait=5")
+                .header("Idempotency-Key", "canal-atm-000123")
+                .content(objectMapper.writeValueAsString(movimientoRequest)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value("abc-123"));
+        
+        verify(contabilizacionAsincrona).encolar(any(Movimiento.class), eq("canal-atm-000123"));
+        verify(movimientoUseCase, never()).crearMovimiento(any(Movimiento.class), any());
+    }
+    
+    @Test
+    @DisplayName("Debería crear un lote de movimientos con resultado por movimiento")
+    void deberiaCrearLoteDeMovimientos() throws Exception {
+        // Arrange
+        MovimientoLoteRequest loteRequest = new MovimientoLoteRequest(List.of(movimientoRequest, movimientoRequest));
+        List<ResultadoMovimientoLote> resultados = List.of(
+                ResultadoMovimientoLote.exitoso(0, movimiento),
+                ResultadoMovimientoLote.fallido(1, "Saldo no disponible"));
+        MovimientoLoteResponse loteResponse = new MovimientoLoteResponse(2, 1, 1, List.of(
+                new MovimientoLoteResponse.ResultadoLoteResponse(0, true, movimientoResponse, null),
+                new MovimientoLoteResponse.ResultadoLoteResponse(1, false, null, "Saldo no disponible")));
+        
+        when(movimientoMapper.toDomainList(any(MovimientoLoteRequest.class))).thenReturn(List.of(movimiento, movimiento));
+        when(movimientoUseCase.crearMovimientosEnLote(any())).thenReturn(resultados);
+        when(movimientoMapper.toLoteResponse(resultados)).thenReturn(loteResponse);
+        
+        // Act & Assert
+        mockMvc.perform(post("/movimientos/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loteRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.exitosos").value(1))
+                .andExpect(jsonPath("$.resultados[1].error").value("Saldo no disponible"));
+                
+        verify(movimientoUseCase).crearMovimientosEnLote(any());
+    }
+    
     @Test
     @DisplayName("Debería obtener un movimiento por ID")
     void deberiaObtenerMovimientoPorId() throws Exception {
@@ -128,17 +255,51 @@ class MovimientoControllerTest {
     @DisplayName("Debería obtener todos los movimientos")
     void deberiaObtenerTodosLosMovimientos() throws Exception {
         // Arrange
-        List<Movimiento> movimientos = Arrays.asList(movimiento);
-        when(movimientoUseCase.obtenerTodosLosMovimientos()).thenReturn(movimientos);
+        doAnswer(invocation -> {
+            invocation.<Consumer<Movimiento>>getArgument(0).accept(movimiento);
+            return null;
+        }).when(movimientoUseCase).exportarMovimientos(any());
         when(movimientoMapper.toResponse(any(Movimiento.class))).thenReturn(movimientoResponse);
         
         // Act & Assert
-        mockMvc.perform(get("/movimientos"))
+        MvcResult resultado = mockMvc.perform(get("/movimientos"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        mockMvc.perform(asyncDispatch(resultado))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(1))
                 .andExpect(jsonPath("$[0].tipoMovimiento").value("Crédito"));
                 
-        verify(movimientoUseCase).obtenerTodosLosMovimientos();
+        verify(movimientoUseCase).exportarMovimientos(any());
+    }
+    
+    @Test
+    @DisplayName("Debería exportar los movimientos en NDJSON, uno por línea")
+    void deberiaExportarMovimientosEnNdjson() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            Consumer<Movimiento> consumidor = invocation.getArgument(0);
+            consumidor.accept(movimiento);
+            consumidor.accept(movimiento);
+            return null;
+        }).when(movimientoUseCase).exportarMovimientos(any());
+        when(movimientoMapper.toResponse(any(Movimiento.class))).thenReturn(movimientoResponse);
+        
+        // Act & Assert
+        MvcResult resultado = mockMvc.perform(get("/movimientos")
+                .accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        String cuerpo = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        
+        String[] lineas = cuerpo.split("\n");
+        assertEquals(2, lineas.length);
+        assertEquals(1L, objectMapper.readTree(lineas[1]).get("id").asLong());
     }
     
     @Test
@@ -180,6 +341,65 @@ class MovimientoControllerTest {
         verify(movimientoUseCase).obtenerMovimientosPorCuentaYRango(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class));
     }
     
+    @Test
+    @DisplayName("Debería exportar los movimientos de un rango en CSV, una fila por movimiento")
+    void deberiaExportarMovimientosPorRangoEnCsv() throws Exception {
+        // Arrange
+        Movimiento debito = new Movimiento();
+        debito.setId(2L);
+        debito.setTipoMovimiento("Débito");
+        debito.setValor(new BigDecimal("-1E+2"));
+        debito.setFecha(LocalDateTime.of(2024, 1, 15, 10, 30));
+        debito.setSaldo(new BigDecimal("500.00"));
+        debito.setCuentaId(1L);
+        doAnswer(invocation -> {
+            invocation.<Consumer<Movimiento>>getArgument(3).accept(debito);
+            return null;
+        }).when(movimientoUseCase).exportarMovimientosPorCuentaYRango(eq(1L), any(LocalDateTime.class),
+                any(LocalDateTime.class), any());
+        
+        // Act & Assert
+        MvcResult resultado = mockMvc.perform(get("/movimientos/cuenta/1/rango")
+                .param("fechaInicio", "2024-01-01T00:00:00")
+                .param("fechaFin", "2024-01-31T23:59:59")
+                .accept("text/csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"movimientos-cuenta-1.csv\""))
+                .andExpect(content().string("id,fecha,tipoMovimiento,valor,saldo,cuentaId\r\n"
+                        + "2,2024-01-15T10:30:00,Débito,-100,500.00,1\r\n"));
+        
+        verify(movimientoUseCase, never()).obtenerMovimientosPorCuentaYRango(any(), any(), any());
+    }
+    
+    @Test
+    @DisplayName("Debería obtener una página del historial con el cursor de la siguiente")
+    void deberiaObtenerPaginaDeMovimientosPorCuenta() throws Exception {
+        // Arrange
+        CursorMovimiento cursor = new CursorMovimiento(LocalDateTime.now(), 99L);
+        Pagina<Movimiento> pagina = new Pagina<>(List.of(movimiento), true);
+        
+        when(movimientoMapper.toCursor("cursor-anterior")).thenReturn(cursor);
+        when(movimientoUseCase.obtenerPaginaMovimientos(eq(1L), isNull(), isNull(), eq(cursor), eq(20)))
+                .thenReturn(pagina);
+        when(movimientoMapper.toPaginaResponse(pagina))
+                .thenReturn(new PaginaResponse<>(List.of(movimientoResponse), "cursor-siguiente"));
+        
+        // Act & Assert
+        mockMvc.perform(get("/movimientos/cuenta/1/pagina")
+                .param("cursor", "cursor-anterior")
+                .param("tamano", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.elementos.length()").value(1))
+                .andExpect(jsonPath("$.siguienteCursor").value("cursor-siguiente"));
+                
+        verify(movimientoUseCase).obtenerPaginaMovimientos(eq(1L), isNull(), isNull(), eq(cursor), eq(20));
+    }
+    
     @Test
     @DisplayName("Debería eliminar un movimiento exitosamente")
     void deberiaEliminarMovimientoExitosamente() throws Exception {
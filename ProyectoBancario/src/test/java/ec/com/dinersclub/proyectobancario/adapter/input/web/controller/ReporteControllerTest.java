@@ -0,0 +1,302 @@
+package ec.com.dinersclub.proyectobancario.adapter.input.web.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import ec.com.banco.proyectobancario.adapter.input.async.CicloEstadosCuenta;
+import ec.com.banco.proyectobancario.adapter.input.async.EstadoTrabajoReporte;
+import ec.com.banco.proyectobancario.adapter.input.async.GeneracionReportes;
+import ec.com.banco.proyectobancario.adapter.input.async.TrabajoReporte;
+import ec.com.banco.proyectobancario.adapter.input.web.controller.ReporteController;
+import ec.com.banco.proyectobancario.adapter.input.web.dto.TrabajoReporteResponse;
+import ec.com.banco.proyectobancario.adapter.input.web.exception.GlobalExceptionHandler;
+import ec.com.banco.proyectobancario.adapter.input.web.mapper.ReporteMapper;
+import ec.com.banco.proyectobancario.application.usecase.ReporteUseCase;
+import ec.com.banco.proyectobancario.domain.model.ReporteEstadoCuenta;
+
+/**
+ * Pruebas unitarias para ReporteController.
+ * 
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Pruebas del controlador de reportes")
+class ReporteControllerTest {
+    
+    private static final String TRABAJO_JSON =
+            "{\"clienteId\":1,\"fechaInicio\":\"2024-01-01T00:00:00\",\"fechaFin\":\"2024-01-31T23:59:59\"}";
+    
+    @Mock
+    private ReporteUseCase reporteUseCase;
+    
+    @Mock
+    private GeneracionReportes generacionReportes;
+    
+    @Mock
+    private CicloEstadosCuenta cicloEstadosCuenta;
+    
+    @Mock
+    private ReporteMapper reporteMapper;
+    
+    @InjectMocks
+    private ReporteController reporteController;
+    
+    @TempDir
+    private Path directorio;
+    
+    private MockMvc mockMvc;
+    private ReporteEstadoCuenta reporte;
+    
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(reporteController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+        
+        reporte = new ReporteEstadoCuenta();
+        reporte.setClienteId(1L);
+        reporte.setClienteNombre("Jose Lema");
+    }
+    
+    @Test
+    @DisplayName("Debería responder 304 sin generar el reporte si la versión no cambió")
+    void deberiaResponderNoModificadoSiLaVersionNoCambio() throws Exception {
+        // Arrange
+        when(reporteUseCase.obtenerVersionReporte(1L)).thenReturn(Optional.of("2.5"));
+        
+        // Act & Assert
+        mockMvc.perform(get("/reportes")
+                .param("clienteId", "1")
+                .param("fechaInicio", "2024-01-01T00:00:00")
+                .param("fechaFin", "2024-01-31T23:59:59")
+                .accept(MediaType.APPLICATION_JSON)
+                .header("If-None-Match", "\"2.5\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"2.5\""));
+        
+        verify(reporteUseCase, never()).generarReporteEstadoCuenta(any(), any(), any());
+    }
+    
+    @Test
+    @DisplayName("Debería generar el reporte con la nueva versión si la versión cambió")
+    void deberiaGenerarReporteSiLaVersionCambio() throws Exception {
+        // Arrange
+        when(reporteUseCase.obtenerVersionReporte(1L)).thenReturn(Optional.of("2.6"));
+        when(reporteUseCase.generarReporteEstadoCuenta(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(reporte);
+        
+        // Act & Assert
+        mockMvc.perform(get("/reportes")
+                .param("clienteId", "1")
+                .param("fechaInicio", "2024-01-01T00:00:00")
+                .param("fechaFin", "2024-01-31T23:59:59")
+                .accept(MediaType.APPLICATION_JSON)
+                .header("If-None-Match", "\"2.5\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2.6\""))
+                .andExpect(jsonPath("$.clienteNombre").value("Jose Lema"));
+        
+        verify(reporteUseCase).generarReporteEstadoCuenta(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+    
+    @Test
+    @DisplayName("Debería exportar el estado de cuenta en CSV si se pide text/csv")
+    void deberiaExportarReporteEnCsv() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(3).write("fecha,cliente\r\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(reporteUseCase).escribirReporteCsv(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class),
+                any(OutputStream.class));
+        
+        // Act & Assert
+        MvcResult resultado = mockMvc.perform(get("/reportes")
+                .param("clienteId", "1")
+                .param("fechaInicio", "2024-01-01T00:00:00")
+                .param("fechaFin", "2024-01-31T23:59:59")
+                .accept("text/csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"estado-cuenta-1.csv\""))
+                .andExpect(content().string("fecha,cliente\r\n"));
+        
+        verify(reporteUseCase).validarReporte(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(reporteUseCase, never()).generarReporteEstadoCuenta(any(), any(), any());
+    }
+    
+    @Test
+    @DisplayName("Debería responder 400 sin empezar el CSV si el rango no es válido")
+    void deberiaResponderBadRequestAntesDeEscribirCsv() throws Exception {
+        // Arrange
+        doThrow(new IllegalArgumentException("La fecha de fin no puede ser anterior a la fecha de inicio"))
+                .when(reporteUseCase).validarReporte(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class));
+        
+        // Act & Assert
+        mockMvc.perform(get("/reportes")
+                .param("clienteId", "1")
+                .param("fechaInicio", "2024-01-31T00:00:00")
+                .param("fechaFin", "2024-01-01T00:00:00")
+                .accept("text/csv"))
+                .andExpect(status().isBadRequest());
+        
+        verify(reporteUseCase, never()).escribirReporteCsv(any(), any(), any(), any());
+    }
+    
+    @Test
+    @DisplayName("Debería descargar el estado de cuenta como PDF binario")
+    void deberiaDescargarReportePdfBinario() throws Exception {
+        // Arrange
+        when(reporteUseCase.generarReporteEstadoCuenta(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(reporte);
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(1).write("%PDF".getBytes(StandardCharsets.US_ASCII));
+            return null;
+        }).when(reporteUseCase).escribirReportePdf(eq(reporte), any(OutputStream.class));
+        
+        // Act & Assert
+        MvcResult resultado = mockMvc.perform(get("/reportes/pdf/stream")
+                .param("clienteId", "1")
+                .param("fechaInicio", "2024-01-01T00:00:00")
+                .param("fechaFin", "2024-01-31T23:59:59"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_PDF))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"estado-cuenta-1.pdf\""))
+                .andExpect(header().string("Accept-Ranges", "none"))
+                .andExpect(content().bytes("%PDF".getBytes(StandardCharsets.US_ASCII)));
+    }
+    
+    @Test
+    @DisplayName("Debería responder 400 sin empezar el PDF si el cliente no existe")
+    void deberiaResponderBadRequestAntesDeEscribirPdf() throws Exception {
+        // Arrange
+        when(reporteUseCase.generarReporteEstadoCuenta(eq(99L), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenThrow(new IllegalArgumentException("Cliente no encontrado"));
+        
+        // Act & Assert
+        mockMvc.perform(get("/reportes/pdf/stream")
+                .param("clienteId", "99")
+                .param("fechaInicio", "2024-01-01T00:00:00")
+                .param("fechaFin", "2024-01-31T23:59:59"))
+                .andExpect(status().isBadRequest());
+        
+        verify(reporteUseCase, never()).escribirReportePdf(any(), any());
+    }
+    
+    @Test
+    @DisplayName("Debería aceptar un trabajo de reporte con 202 y la ubicación para consultarlo")
+    void deberiaAceptarTrabajoDeReporte() throws Exception {
+        // Arrange
+        LocalDateTime inicio = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime fin = LocalDateTime.of(2024, 1, 31, 23, 59, 59);
+        TrabajoReporte trabajo = new TrabajoReporte("abc", EstadoTrabajoReporte.PENDIENTE, 1L, inicio, fin, null);
+        when(generacionReportes.encolar(1L, inicio, fin)).thenReturn(trabajo);
+        when(reporteMapper.toTrabajoResponse(trabajo)).thenReturn(
+                new TrabajoReporteResponse("abc", "PENDIENTE", 1L, inicio, fin, null, null));
+        
+        // Act & Assert
+        mockMvc.perform(post("/reportes/jobs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TRABAJO_JSON))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/reportes/jobs/abc"))
+                .andExpect(jsonPath("$.id").value("abc"))
+                .andExpect(jsonPath("$.estado").value("PENDIENTE"));
+    }
+    
+    @Test
+    @DisplayName("Debería responder 503 si la cola de reportes está llena")
+    void deberiaResponderServicioNoDisponibleConColaLlena() throws Exception {
+        // Arrange
+        when(generacionReportes.encolar(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenThrow(new RejectedExecutionException("La cola de reportes está llena"));
+        
+        // Act & Assert
+        mockMvc.perform(post("/reportes/jobs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TRABAJO_JSON))
+                .andExpect(status().isServiceUnavailable());
+    }
+    
+    @Test
+    @DisplayName("Debería devolver el estado de un trabajo")
+    void deberiaDevolverEstadoDeTrabajo() throws Exception {
+        // Arrange
+        TrabajoReporte trabajo = new TrabajoReporte("abc", EstadoTrabajoReporte.LISTO, 1L, null, null, null);
+        when(generacionReportes.obtenerTrabajo("abc")).thenReturn(trabajo);
+        when(reporteMapper.toTrabajoResponse(trabajo)).thenReturn(new TrabajoReporteResponse("abc", "LISTO", 1L,
+                null, null, null, "http://localhost/reportes/jobs/abc/pdf"));
+        
+        // Act & Assert
+        mockMvc.perform(get("/reportes/jobs/abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estado").value("LISTO"))
+                .andExpect(jsonPath("$.descarga").value("http://localhost/reportes/jobs/abc/pdf"));
+    }
+    
+    @Test
+    @DisplayName("Debería descargar el PDF de un trabajo terminado")
+    void deberiaDescargarPdfDeTrabajo() throws Exception {
+        // Arrange
+        Path documento = Files.writeString(directorio.resolve("abc.pdf"), "%PDF", StandardCharsets.US_ASCII);
+        when(generacionReportes.obtenerDocumento("abc")).thenReturn(documento);
+        
+        // Act & Assert
+        mockMvc.perform(get("/reportes/jobs/abc/pdf"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_PDF))
+                .andExpect(content().bytes("%PDF".getBytes(StandardCharsets.US_ASCII)));
+    }
+    
+    @Test
+    @DisplayName("Debería responder 400 si el trabajo no está listo")
+    void deberiaResponderBadRequestSiTrabajoNoEstaListo() throws Exception {
+        // Arrange
+        when(generacionReportes.obtenerDocumento("abc"))
+                .thenThrow(new IllegalArgumentException("El reporte no está disponible, estado: EN_PROCESO"));
+        
+        // Act & Assert
+        mockMvc.perform(get("/reportes/jobs/abc/pdf"))
+                .andExpect(status().isBadRequest());
+    }
+}
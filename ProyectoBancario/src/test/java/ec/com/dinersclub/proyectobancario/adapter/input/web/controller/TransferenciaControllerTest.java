@@ -0,0 +1,108 @@
+package ec.com.dinersclub.proyectobancario.adapter.input.web.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ec.com.banco.proyectobancario.adapter.input.web.controller.TransferenciaController;
+import ec.com.banco.proyectobancario.adapter.input.web.dto.MovimientoResponse;
+import ec.com.banco.proyectobancario.adapter.input.web.dto.TransferenciaRequest;
+import ec.com.banco.proyectobancario.adapter.input.web.dto.TransferenciaResponse;
+import ec.com.banco.proyectobancario.adapter.input.web.mapper.TransferenciaMapper;
+import ec.com.banco.proyectobancario.application.usecase.TransferenciaUseCase;
+import ec.com.banco.proyectobancario.domain.model.Transferencia;
+
+/**
+ * Pruebas unitarias para TransferenciaController.
+ * 
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Pruebas del controlador de transferencias")
+class TransferenciaControllerTest {
+    
+    @Mock
+    private TransferenciaUseCase transferenciaUseCase;
+    
+    @Mock
+    private TransferenciaMapper transferenciaMapper;
+    
+    @InjectMocks
+    private TransferenciaController transferenciaController;
+    
+    private MockMvc mockMvc;
+    private ObjectMapper objectMapper;
+    private TransferenciaRequest transferenciaRequest;
+    private Transferencia transferencia;
+    private TransferenciaResponse transferenciaResponse;
+    
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(transferenciaController).build();
+        objectMapper = new ObjectMapper();
+        
+        transferenciaRequest = new TransferenciaRequest(1L, 2L, new BigDecimal("100.00"));
+        transferencia = new Transferencia(1L, 2L, new BigDecimal("100.00"), null, null);
+        
+        MovimientoResponse debito = new MovimientoResponse(10L, LocalDateTime.now(), "Débito",
+                new BigDecimal("-100.00"), new BigDecimal("900.00"), 1L);
+        MovimientoResponse credito = new MovimientoResponse(11L, LocalDateTime.now(), "Crédito",
+                new BigDecimal("100.00"), new BigDecimal("600.00"), 2L);
+        transferenciaResponse = new TransferenciaResponse(1L, 2L, new BigDecimal("100.00"), debito, credito);
+    }
+    
+    @Test
+    @DisplayName("Debería registrar una transferencia con sus dos movimientos")
+    void deberiaRegistrarTransferencia() throws Exception {
+        // Arrange
+        when(transferenciaMapper.toDomain(any(TransferenciaRequest.class))).thenReturn(transferencia);
+        when(transferenciaUseCase.transferir(any(Transferencia.class))).thenReturn(transferencia);
+        when(transferenciaMapper.toResponse(any(Transferencia.class))).thenReturn(transferenciaResponse);
+        
+        // Act & Assert
+        mockMvc.perform(post("/transferencias")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(transferenciaRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.debito.cuentaId").value(1L))
+                .andExpect(jsonPath("$.debito.valor").value(-100.0))
+                .andExpect(jsonPath("$.credito.cuentaId").value(2L))
+                .andExpect(jsonPath("$.credito.saldo").value(600.0));
+                
+        verify(transferenciaUseCase).transferir(any(Transferencia.class));
+    }
+    
+    @Test
+    @DisplayName("Debería rechazar una transferencia sin cuenta destino")
+    void deberiaRechazarTransferenciaSinCuentaDestino() throws Exception {
+        // Arrange
+        transferenciaRequest.setCuentaDestinoId(null);
+        
+        // Act & Assert
+        mockMvc.perform(post("/transferencias")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(transferenciaRequest)))
+                .andExpect(status().isBadRequest());
+                
+        verify(transferenciaUseCase, never()).transferir(any(Transferencia.class));
+    }
+}
@@ -0,0 +1,123 @@
+package ec.com.dinersclub.proyectobancario.application.usecase;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import ec.com.banco.proyectobancario.ProyectoBancarioApplication;
+import ec.com.banco.proyectobancario.application.usecase.MovimientoUseCase;
+import ec.com.banco.proyectobancario.domain.model.Cliente;
+import ec.com.banco.proyectobancario.domain.model.Cuenta;
+import ec.com.banco.proyectobancario.domain.model.Movimiento;
+import ec.com.banco.proyectobancario.domain.model.TipoMovimiento;
+import ec.com.banco.proyectobancario.domain.port.output.ClienteRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.CuentaRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.MovimientoRepositoryPort;
+import ec.com.banco.proyectobancario.infrastructure.persistence.repository.CuentaJpaRepository;
+
+/**
+ * Pruebas de débitos concurrentes sobre una misma cuenta: el bloqueo por cuenta debe
+ * serializarlos para que ninguno parta de un saldo desactualizado.
+ * Usa H2 en memoria con el perfil h2; el saldo se lee de la tabla, sin pasar por la cache.
+ * 
+ */
+@SpringBootTest(classes = ProyectoBancarioApplication.class, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+@DisplayName("Débitos concurrentes")
+class DebitosConcurrentesTest {
+    
+    private static final int DEBITOS = 20;
+    
+    @Autowired
+    private MovimientoUseCase movimientoUseCase;
+    
+    @Autowired
+    private ClienteRepositoryPort clienteRepository;
+    
+    @Autowired
+    private CuentaRepositoryPort cuentaRepository;
+    
+    @Autowired
+    private MovimientoRepositoryPort movimientoRepository;
+    
+    @Autowired
+    private CuentaJpaRepository cuentaJpaRepository;
+    
+    @Test
+    @DisplayName("Débitos concurrentes no deberían sobregirar la cuenta ni perder actualizaciones del saldo")
+    void debitosConcurrentesNoDeberianSobregirarCuenta() throws Exception {
+        // 500 alcanzan para 8 débitos de 60, sin superar el límite diario
+        Cuenta cuenta = cuenta("500.00");
+        ExecutorService ejecutor = Executors.newFixedThreadPool(8);
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Future<Boolean>> resultados = new ArrayList<>();
+        
+        try {
+            for (int i = 0; i < DEBITOS; i++) {
+                resultados.add(ejecutor.submit(() -> {
+                    inicio.await();
+                    try {
+                        movimientoUseCase.crearMovimiento(debito("60", cuenta));
+                        return true;
+                    } catch (IllegalArgumentException e) {
+                        assertEquals("Saldo no disponible", e.getMessage());
+                        return false;
+                    }
+                }));
+            }
+            inicio.countDown();
+            
+            int exitosos = 0;
+            for (Future<Boolean> resultado : resultados) {
+                if (resultado.get(30, TimeUnit.SECONDS)) {
+                    exitosos++;
+                }
+            }
+            
+            List<Movimiento> movimientos = movimientoRepository.findByCuentaId(cuenta.getId());
+            BigDecimal saldoActual = cuentaJpaRepository.findById(cuenta.getId()).orElseThrow().getSaldoActual();
+            BigDecimal sumaMovimientos = movimientos.stream()
+                    .map(Movimiento::getValor)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            
+            assertEquals(8, exitosos);
+            assertEquals(8, movimientos.size());
+            assertEquals(0, new BigDecimal("20.00").compareTo(saldoActual));
+            assertEquals(0, new BigDecimal("500.00").add(sumaMovimientos).compareTo(saldoActual));
+            assertTrue(movimientos.stream().allMatch(movimiento -> movimiento.getSaldo().signum() >= 0));
+            assertEquals(8, movimientos.stream().map(Movimiento::getSaldo).distinct().count());
+        } finally {
+            ejecutor.shutdownNow();
+        }
+    }
+    
+    private Cuenta cuenta(String saldoInicial) {
+        Cliente cliente = new Cliente("CONCURRENTE-" + System.nanoTime(), "1234", true);
+        cliente.setNombre("Cliente de prueba");
+        cliente = clienteRepository.save(cliente);
+        return cuentaRepository.save(new Cuenta(null, "C" + System.nanoTime(), "Ahorros",
+                new BigDecimal(saldoInicial), new BigDecimal(saldoInicial), true, cliente.getId()));
+    }
+    
+    private static Movimiento debito(String valor, Cuenta cuenta) {
+        Movimiento movimiento = new Movimiento();
+        movimiento.setTipoMovimiento(TipoMovimiento.DEBITO.getDescripcion());
+        movimiento.setValor(new BigDecimal(valor));
+        movimiento.setCuentaId(cuenta.getId());
+        return movimiento;
+    }
+}
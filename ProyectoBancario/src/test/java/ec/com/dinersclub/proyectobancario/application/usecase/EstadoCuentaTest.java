@@ -0,0 +1,214 @@
+package ec.com.dinersclub.proyectobancario.application.usecase;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import ec.com.banco.proyectobancario.ProyectoBancarioApplication;
+import ec.com.banco.proyectobancario.application.usecase.CuentaUseCase;
+import ec.com.banco.proyectobancario.application.usecase.MovimientoUseCase;
+import ec.com.banco.proyectobancario.application.usecase.ReporteUseCase;
+import ec.com.banco.proyectobancario.domain.model.Cliente;
+import ec.com.banco.proyectobancario.domain.model.Cuenta;
+import ec.com.banco.proyectobancario.domain.model.Movimiento;
+import ec.com.banco.proyectobancario.domain.model.ReporteEstadoCuenta;
+import ec.com.banco.proyectobancario.domain.model.TipoMovimiento;
+import ec.com.banco.proyectobancario.domain.port.output.ClienteRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.CuentaRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.MovimientoRepositoryPort;
+import ec.com.banco.proyectobancario.infrastructure.persistence.entity.SaldoDiarioEntity;
+import ec.com.banco.proyectobancario.infrastructure.persistence.entity.SaldoDiarioId;
+import ec.com.banco.proyectobancario.infrastructure.persistence.repository.CuentaJpaRepository;
+import ec.com.banco.proyectobancario.infrastructure.persistence.repository.SaldoDiarioJpaRepository;
+
+/**
+ * Pruebas de los totales y saldos del estado de cuenta contra los movimientos registrados.
+ * Usa H2 en memoria con el perfil h2.
+ * 
+ */
+@SpringBootTest(classes = ProyectoBancarioApplication.class, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+@DisplayName("Estado de cuenta")
+class EstadoCuentaTest {
+    
+    @Autowired
+    private MovimientoUseCase movimientoUseCase;
+    
+    @Autowired
+    private CuentaUseCase cuentaUseCase;
+    
+    @Autowired
+    private ReporteUseCase reporteUseCase;
+    
+    @Autowired
+    private ClienteRepositoryPort clienteRepository;
+    
+    @Autowired
+    private CuentaRepositoryPort cuentaRepository;
+    
+    @Autowired
+    private MovimientoRepositoryPort movimientoRepository;
+    
+    @Autowired
+    private CuentaJpaRepository cuentaJpaRepository;
+    
+    @Autowired
+    private SaldoDiarioJpaRepository saldoDiarioJpaRepository;
+    
+    @Test
+    @DisplayName("El reporte debería totalizar créditos y débitos de todas las cuentas y dar el saldo de cada una")
+    void reporteDeberiaTotalizarMovimientosDeVariasCuentas() {
+        Cliente cliente = cliente();
+        Cuenta ahorros = cuenta(cliente);
+        Cuenta corriente = cuenta(cliente);
+        movimientoUseCase.crearMovimiento(movimiento(TipoMovimiento.CREDITO, "100", ahorros));
+        movimientoUseCase.crearMovimiento(movimiento(TipoMovimiento.DEBITO, "30", corriente));
+        
+        ReporteEstadoCuenta reporte = reporteUseCase.generarReporteEstadoCuenta(cliente.getId(),
+                LocalDate.now().atStartOfDay(), LocalDate.now().atTime(LocalTime.MAX));
+        
+        assertEquals(0, new BigDecimal("100").compareTo(reporte.getTotalCreditos()));
+        assertEquals(0, new BigDecimal("-30").compareTo(reporte.getTotalDebitos()));
+        assertCuenta(reporte, ahorros, "1100.00", "100", "0");
+        assertCuenta(reporte, corriente, "970.00", "0", "-30");
+    }
+    
+    @Test
+    @DisplayName("El acumulado diario y el resumen deberían coincidir con los movimientos tras eliminar y cambiar el saldo inicial")
+    void acumuladoDiarioDeberiaCoincidirConMovimientos() {
+        Cliente cliente = cliente();
+        Cuenta cuenta = cuenta(cliente);
+        LocalDate hoy = LocalDate.now();
+        movimientoUseCase.crearMovimiento(movimiento(TipoMovimiento.CREDITO, "200", cuenta));
+        movimientoUseCase.crearMovimiento(movimiento(TipoMovimiento.DEBITO, "50", cuenta));
+        Movimiento eliminado = movimientoUseCase.crearMovimiento(movimiento(TipoMovimiento.CREDITO, "30", cuenta));
+        
+        movimientoUseCase.eliminarMovimiento(eliminado.getId());
+        cuentaUseCase.actualizarCuenta(cuenta.getId(), new Cuenta(null, cuenta.getNumeroCuenta(), "Ahorros",
+                new BigDecimal("1100.00"), null, true, cliente.getId()));
+        
+        List<Movimiento> movimientos = movimientoRepository.findByCuentaId(cuenta.getId());
+        BigDecimal creditos = sumar(movimientos, TipoMovimiento.CREDITO);
+        BigDecimal debitos = sumar(movimientos, TipoMovimiento.DEBITO);
+        BigDecimal saldoActual = cuentaJpaRepository.findById(cuenta.getId()).orElseThrow().getSaldoActual();
+        SaldoDiarioEntity dia = saldoDiarioJpaRepository.findById(new SaldoDiarioId(cuenta.getId(), hoy)).orElseThrow();
+        
+        assertEquals(0, new BigDecimal("200").compareTo(creditos));
+        assertEquals(0, new BigDecimal("-50").compareTo(debitos));
+        assertEquals(0, new BigDecimal("1250.00").compareTo(saldoActual));
+        assertEquals(0, new BigDecimal("1100.00").add(creditos).add(debitos).compareTo(saldoActual));
+        assertEquals(0, creditos.compareTo(dia.getCreditos()));
+        assertEquals(0, debitos.compareTo(dia.getDebitos()));
+        assertEquals(movimientos.size(), dia.getCantidadMovimientos());
+        assertEquals(0, saldoActual.compareTo(dia.getSaldoCierre()));
+        
+        ReporteEstadoCuenta resumen = reporteUseCase.generarResumenEstadoCuenta(cliente.getId(), hoy, hoy);
+        ReporteEstadoCuenta.CuentaReporte cuentaResumen = resumen.getCuentas().get(0);
+        assertEquals(0, creditos.compareTo(resumen.getTotalCreditos()));
+        assertEquals(0, debitos.compareTo(resumen.getTotalDebitos()));
+        assertEquals(movimientos.size(), cuentaResumen.getCantidadMovimientos());
+        assertEquals(0, saldoActual.compareTo(cuentaResumen.getSaldoActual()));
+    }
+    
+    @Test
+    @DisplayName("Eliminar un movimiento de un día cerrado debería sacarlo del siguiente reporte")
+    void eliminarMovimientoDeDiaCerradoDeberiaSacarloDelReporte() {
+        Cliente cliente = cliente();
+        Cuenta cuenta = cuenta(cliente);
+        LocalDate dia = LocalDate.now().minusDays(3);
+        Movimiento anterior = movimiento(TipoMovimiento.CREDITO, "100", cuenta);
+        anterior.setFecha(dia.atTime(10, 0));
+        anterior.setSaldo(new BigDecimal("1100.00"));
+        anterior = movimientoRepository.save(anterior);
+        LocalDateTime inicio = dia.minusDays(2).atStartOfDay();
+        LocalDateTime fin = dia.plusDays(1).atTime(LocalTime.MAX);
+        
+        ReporteEstadoCuenta conMovimiento = reporteUseCase.generarReporteEstadoCuenta(cliente.getId(), inicio, fin);
+        movimientoUseCase.eliminarMovimiento(anterior.getId());
+        ReporteEstadoCuenta sinMovimiento = reporteUseCase.generarReporteEstadoCuenta(cliente.getId(), inicio, fin);
+        
+        assertEquals(1, conMovimiento.getCuentas().get(0).getMovimientos().size());
+        assertEquals(0, new BigDecimal("100").compareTo(conMovimiento.getTotalCreditos()));
+        assertTrue(sinMovimiento.getCuentas().get(0).getMovimientos().isEmpty());
+        assertEquals(0, BigDecimal.ZERO.compareTo(sinMovimiento.getTotalCreditos()));
+    }
+    
+    @Test
+    @DisplayName("Un tipo de movimiento desconocido debería registrarse y totalizarse como crédito")
+    void tipoDesconocidoDeberiaRegistrarseComoCredito() {
+        Cliente cliente = cliente();
+        Cuenta cuenta = cuenta(cliente);
+        LocalDate hoy = LocalDate.now();
+        Movimiento desconocido = movimiento(TipoMovimiento.CREDITO, "-40", cuenta);
+        desconocido.setTipoMovimiento("Depósito");
+        
+        Movimiento registrado = movimientoUseCase.crearMovimiento(desconocido);
+        
+        assertEquals(0, new BigDecimal("40").compareTo(registrado.getValor()));
+        assertEquals(0, new BigDecimal("1040.00").compareTo(registrado.getSaldo()));
+        SaldoDiarioEntity dia = saldoDiarioJpaRepository.findById(new SaldoDiarioId(cuenta.getId(), hoy)).orElseThrow();
+        assertEquals(0, new BigDecimal("40").compareTo(dia.getCreditos()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(dia.getDebitos()));
+        ReporteEstadoCuenta reporte = reporteUseCase.generarReporteEstadoCuenta(cliente.getId(),
+                hoy.atStartOfDay(), hoy.atTime(LocalTime.MAX));
+        assertEquals(0, new BigDecimal("40").compareTo(reporte.getTotalCreditos()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(reporte.getTotalDebitos()));
+    }
+    
+    /**
+     * Verifica los totales de una cuenta del reporte y que su saldo actual coincida con el
+     * saldo que dejó su último movimiento.
+     */
+    private static void assertCuenta(ReporteEstadoCuenta reporte, Cuenta cuenta, String saldo,
+                                     String creditos, String debitos) {
+        ReporteEstadoCuenta.CuentaReporte cuentaReporte = reporte.getCuentas().stream()
+                .filter(c -> c.getNumeroCuenta().equals(cuenta.getNumeroCuenta()))
+                .findFirst()
+                .orElseThrow();
+        List<ReporteEstadoCuenta.MovimientoReporte> movimientos = cuentaReporte.getMovimientos();
+        
+        assertEquals(1, cuentaReporte.getCantidadMovimientos());
+        assertEquals(1, movimientos.size());
+        assertEquals(0, new BigDecimal(creditos).compareTo(cuentaReporte.getTotalCreditos()));
+        assertEquals(0, new BigDecimal(debitos).compareTo(cuentaReporte.getTotalDebitos()));
+        assertEquals(0, new BigDecimal(saldo).compareTo(cuentaReporte.getSaldoActual()));
+        assertEquals(0, new BigDecimal(saldo).compareTo(movimientos.get(movimientos.size() - 1).getSaldo()));
+    }
+    
+    private static BigDecimal sumar(List<Movimiento> movimientos, TipoMovimiento tipo) {
+        return movimientos.stream()
+                .filter(movimiento -> TipoMovimiento.clasificar(movimiento.getTipoMovimiento()) == tipo)
+                .map(Movimiento::getValor)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+    
+    private Cliente cliente() {
+        Cliente cliente = new Cliente("ESTADO-" + System.nanoTime(), "1234", true);
+        cliente.setNombre("Cliente de prueba");
+        return clienteRepository.save(cliente);
+    }
+    
+    private Cuenta cuenta(Cliente cliente) {
+        return cuentaRepository.save(new Cuenta(null, "E" + System.nanoTime(), "Ahorros",
+                new BigDecimal("1000.00"), new BigDecimal("1000.00"), true, cliente.getId()));
+    }
+    
+    private static Movimiento movimiento(TipoMovimiento tipo, String valor, Cuenta cuenta) {
+        Movimiento movimiento = new Movimiento();
+        movimiento.setTipoMovimiento(tipo.getDescripcion());
+        movimiento.setValor(new BigDecimal(valor));
+        movimiento.setCuentaId(cuenta.getId());
+        return movimiento;
+    }
+}
@@ -0,0 +1,100 @@
+package ec.com.dinersclub.proyectobancario.application.usecase;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import ec.com.banco.proyectobancario.ProyectoBancarioApplication;
+import ec.com.banco.proyectobancario.application.usecase.MovimientoUseCase;
+import ec.com.banco.proyectobancario.domain.exception.ClaveIdempotenciaReutilizadaException;
+import ec.com.banco.proyectobancario.domain.model.Cliente;
+import ec.com.banco.proyectobancario.domain.model.Cuenta;
+import ec.com.banco.proyectobancario.domain.model.Movimiento;
+import ec.com.banco.proyectobancario.domain.model.TipoMovimiento;
+import ec.com.banco.proyectobancario.domain.port.output.ClienteRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.CuentaRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.MovimientoRepositoryPort;
+import ec.com.banco.proyectobancario.infrastructure.persistence.repository.CuentaJpaRepository;
+
+/**
+ * Pruebas de las claves de idempotencia al registrar movimientos.
+ * Usa H2 en memoria con el perfil h2; el saldo se lee de la tabla, sin pasar por la cache.
+ * 
+ */
+@SpringBootTest(classes = ProyectoBancarioApplication.class, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+@DisplayName("Idempotencia de movimientos")
+class IdempotenciaMovimientosTest {
+    
+    @Autowired
+    private MovimientoUseCase movimientoUseCase;
+    
+    @Autowired
+    private ClienteRepositoryPort clienteRepository;
+    
+    @Autowired
+    private CuentaRepositoryPort cuentaRepository;
+    
+    @Autowired
+    private MovimientoRepositoryPort movimientoRepository;
+    
+    @Autowired
+    private CuentaJpaRepository cuentaJpaRepository;
+    
+    @Test
+    @DisplayName("Repetir una clave debería devolver el movimiento original sin registrar otro")
+    void deberiaDevolverMovimientoOriginalAlRepetirClave() {
+        Cuenta cuenta = cuenta();
+        String clave = "clave-" + System.nanoTime();
+        
+        Movimiento original = movimientoUseCase.crearMovimiento(movimiento("100", cuenta), clave);
+        Movimiento repetido = movimientoUseCase.crearMovimiento(movimiento("100.00", cuenta), clave);
+        
+        assertEquals(original.getId(), repetido.getId());
+        assertEquals(0, new BigDecimal("1100.00").compareTo(repetido.getSaldo()));
+        assertEquals(1, movimientoRepository.findByCuentaId(cuenta.getId()).size());
+        assertEquals(0, new BigDecimal("1100.00").compareTo(saldoActual(cuenta)));
+    }
+    
+    @Test
+    @DisplayName("Reusar una clave con otra solicitud debería rechazarse sin registrar el movimiento")
+    void deberiaRechazarClaveReutilizadaConOtraSolicitud() {
+        Cuenta cuenta = cuenta();
+        String clave = "clave-" + System.nanoTime();
+        movimientoUseCase.crearMovimiento(movimiento("100", cuenta), clave);
+        
+        assertThrows(ClaveIdempotenciaReutilizadaException.class,
+                () -> movimientoUseCase.crearMovimiento(movimiento("200", cuenta), clave));
+        
+        assertEquals(1, movimientoRepository.findByCuentaId(cuenta.getId()).size());
+        assertEquals(0, new BigDecimal("1100.00").compareTo(saldoActual(cuenta)));
+    }
+    
+    private BigDecimal saldoActual(Cuenta cuenta) {
+        return cuentaJpaRepository.findById(cuenta.getId()).orElseThrow().getSaldoActual();
+    }
+    
+    private Cuenta cuenta() {
+        Cliente cliente = new Cliente("IDEMPOTENCIA-" + System.nanoTime(), "1234", true);
+        cliente.setNombre("Cliente de prueba");
+        cliente = clienteRepository.save(cliente);
+        return cuentaRepository.save(new Cuenta(null, "I" + System.nanoTime(), "Ahorros",
+                new BigDecimal("1000.00"), new BigDecimal("1000.00"), true, cliente.getId()));
+    }
+    
+    private static Movimiento movimiento(String valor, Cuenta cuenta) {
+        Movimiento movimiento = new Movimiento();
+        movimiento.setTipoMovimiento(TipoMovimiento.CREDITO.getDescripcion());
+        movimiento.setValor(new BigDecimal(valor));
+        movimiento.setCuentaId(cuenta.getId());
+        return movimiento;
+    }
+}
+
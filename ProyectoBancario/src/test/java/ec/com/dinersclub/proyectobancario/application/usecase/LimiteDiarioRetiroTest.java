@@ -0,0 +1,150 @@
+package ec.com.dinersclub.proyectobancario.application.usecase;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import ec.com.banco.proyectobancario.ProyectoBancarioApplication;
+import ec.com.banco.proyectobancario.application.usecase.MovimientoUseCase;
+import ec.com.banco.proyectobancario.domain.model.Cliente;
+import ec.com.banco.proyectobancario.domain.model.Cuenta;
+import ec.com.banco.proyectobancario.domain.model.Movimiento;
+import ec.com.banco.proyectobancario.domain.model.ResultadoMovimientoLote;
+import ec.com.banco.proyectobancario.domain.model.TipoMovimiento;
+import ec.com.banco.proyectobancario.domain.port.output.ClienteRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.CuentaRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.RetiroDiarioRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.TransaccionPort;
+import ec.com.banco.proyectobancario.infrastructure.persistence.entity.RetiroDiarioEntity;
+import ec.com.banco.proyectobancario.infrastructure.persistence.entity.RetiroDiarioId;
+import ec.com.banco.proyectobancario.infrastructure.persistence.repository.CuentaJpaRepository;
+import ec.com.banco.proyectobancario.infrastructure.persistence.repository.RetiroDiarioJpaRepository;
+
+/**
+ * Pruebas del límite diario de retiro a través del acumulado de retiros del día.
+ * Usa H2 en memoria con el perfil h2 y el límite por defecto de 1000.00.
+ * 
+ */
+@SpringBootTest(classes = ProyectoBancarioApplication.class, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+@DisplayName("Límite diario de retiro")
+class LimiteDiarioRetiroTest {
+    
+    @Autowired
+    private MovimientoUseCase movimientoUseCase;
+    
+    @Autowired
+    private ClienteRepositoryPort clienteRepository;
+    
+    @Autowired
+    private CuentaRepositoryPort cuentaRepository;
+    
+    @Autowired
+    private RetiroDiarioRepositoryPort retiroDiarioRepository;
+    
+    @Autowired
+    private RetiroDiarioJpaRepository retiroDiarioJpaRepository;
+    
+    @Autowired
+    private CuentaJpaRepository cuentaJpaRepository;
+    
+    @Autowired
+    private TransaccionPort transaccion;
+    
+    @Test
+    @DisplayName("Acumular más allá del límite debería rechazarse sin cambiar el total")
+    void deberiaRechazarAcumularMasAllaDelLimite() {
+        Cuenta cuenta = cuenta("2000.00");
+        LocalDate hoy = LocalDate.now();
+        movimientoUseCase.crearMovimiento(debito("600", cuenta));
+        
+        boolean acumulado = transaccion.ejecutar(() -> retiroDiarioRepository.acumularHasta(
+                cuenta.getId(), hoy, new BigDecimal("500"), new BigDecimal("1000.00")));
+        
+        assertFalse(acumulado);
+        assertEquals(0, new BigDecimal("600").compareTo(totalEnBaseDeDatos(cuenta, hoy)));
+        assertEquals(0, new BigDecimal("600").compareTo(retiroDiarioRepository.obtenerTotal(cuenta.getId(), hoy)));
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> movimientoUseCase.crearMovimiento(debito("500", cuenta)));
+        assertEquals("Cupo diario Excedido", error.getMessage());
+    }
+    
+    @Test
+    @DisplayName("Eliminar un débito debería descontarlo del total retirado en el día")
+    void deberiaDescontarDebitoEliminadoDelTotal() {
+        Cuenta cuenta = cuenta("2000.00");
+        LocalDate hoy = LocalDate.now();
+        movimientoUseCase.crearMovimiento(debito("300", cuenta));
+        Movimiento eliminado = movimientoUseCase.crearMovimiento(debito("600", cuenta));
+        
+        movimientoUseCase.eliminarMovimiento(eliminado.getId());
+        
+        assertEquals(0, new BigDecimal("300").compareTo(totalEnBaseDeDatos(cuenta, hoy)));
+        assertEquals(0, new BigDecimal("300").compareTo(retiroDiarioRepository.obtenerTotal(cuenta.getId(), hoy)));
+        Movimiento posterior = movimientoUseCase.crearMovimiento(debito("700", cuenta));
+        assertEquals(0, new BigDecimal("1000.00").compareTo(posterior.getSaldo()));
+        assertEquals(0, new BigDecimal("1000").compareTo(totalEnBaseDeDatos(cuenta, hoy)));
+    }
+    
+    @Test
+    @DisplayName("Un lote sin cupo en la base de datos debería rechazar solo sus débitos")
+    void deberiaRechazarSoloDebitosDelLoteSinCupoEnBaseDeDatos() {
+        Cuenta cuenta = cuenta("2000.00");
+        LocalDate hoy = LocalDate.now();
+        movimientoUseCase.crearMovimiento(debito("100", cuenta));
+        // Otro nodo consume el cupo: el total en memoria de este nodo queda en 100
+        transaccion.ejecutar(() -> retiroDiarioJpaRepository.sumarTotal(cuenta.getId(), hoy, new BigDecimal("850")));
+        
+        List<ResultadoMovimientoLote> resultados = movimientoUseCase.crearMovimientosEnLote(
+                List.of(credito("50", cuenta), debito("100", cuenta)));
+        
+        assertTrue(resultados.get(0).isExitoso());
+        assertEquals(0, new BigDecimal("1950.00").compareTo(resultados.get(0).getMovimiento().getSaldo()));
+        assertFalse(resultados.get(1).isExitoso());
+        assertEquals("Cupo diario Excedido", resultados.get(1).getError());
+        assertEquals(0, new BigDecimal("950").compareTo(totalEnBaseDeDatos(cuenta, hoy)));
+        assertEquals(0, new BigDecimal("1950.00").compareTo(
+                cuentaJpaRepository.findById(cuenta.getId()).orElseThrow().getSaldoActual()));
+    }
+    
+    private BigDecimal totalEnBaseDeDatos(Cuenta cuenta, LocalDate fecha) {
+        return retiroDiarioJpaRepository.findById(new RetiroDiarioId(cuenta.getId(), fecha))
+                .map(RetiroDiarioEntity::getTotal)
+                .orElse(BigDecimal.ZERO);
+    }
+    
+    private Cuenta cuenta(String saldoInicial) {
+        Cliente cliente = new Cliente("LIMITE-" + System.nanoTime(), "1234", true);
+        cliente.setNombre("Cliente de prueba");
+        cliente = clienteRepository.save(cliente);
+        return cuentaRepository.save(new Cuenta(null, "L" + System.nanoTime(), "Ahorros",
+                new BigDecimal(saldoInicial), new BigDecimal(saldoInicial), true, cliente.getId()));
+    }
+    
+    private static Movimiento credito(String valor, Cuenta cuenta) {
+        return movimiento(TipoMovimiento.CREDITO, valor, cuenta);
+    }
+    
+    private static Movimiento debito(String valor, Cuenta cuenta) {
+        return movimiento(TipoMovimiento.DEBITO, valor, cuenta);
+    }
+    
+    private static Movimiento movimiento(TipoMovimiento tipo, String valor, Cuenta cuenta) {
+        Movimiento movimiento = new Movimiento();
+        movimiento.setTipoMovimiento(tipo.getDescripcion());
+        movimiento.setValor(new BigDecimal(valor));
+        movimiento.setCuentaId(cuenta.getId());
+        return movimiento;
+    }
+}
@@ -0,0 +1,188 @@
+package ec.com.dinersclub.proyectobancario.application.usecase;
+
+import static ec.com.dinersclub.proyectobancario.support.ContadorSentencias.assertSentenciasHasta;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import ec.com.banco.proyectobancario.ProyectoBancarioApplication;
+import ec.com.banco.proyectobancario.application.usecase.MovimientoUseCase;
+import ec.com.banco.proyectobancario.application.usecase.ReporteUseCase;
+import ec.com.banco.proyectobancario.application.usecase.TransferenciaUseCase;
+import ec.com.banco.proyectobancario.domain.model.Cliente;
+import ec.com.banco.proyectobancario.domain.model.Cuenta;
+import ec.com.banco.proyectobancario.domain.model.Movimiento;
+import ec.com.banco.proyectobancario.domain.model.TipoMovimiento;
+import ec.com.banco.proyectobancario.domain.model.Transferencia;
+import ec.com.banco.proyectobancario.domain.port.output.ClienteRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.CuentaRepositoryPort;
+import ec.com.dinersclub.proyectobancario.support.ContadorSentencias;
+
+/**
+ * Presupuesto de sentencias SQL de los flujos más usados, para detectar regresiones N+1.
+ * Usa H2 en memoria con el perfil h2 y cuenta las sentencias con ContadorSentencias.
+ * 
+ */
+@SpringBootTest(classes = ProyectoBancarioApplication.class, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+@Import(ContadorSentencias.Configuracion.class)
+@DisplayName("Presupuesto de sentencias SQL")
+class PresupuestoConsultasTest {
+    
+    /**
+     * Sentencias permitidas al registrar el primer crédito del día de una cuenta: la lectura
+     * con bloqueo de la cuenta, y además crea su saldo de cierre del día.
+     */
+    private static final int SENTENCIAS_CREDITO = 6;
+    
+    /**
+     * Sentencias permitidas al registrar el primer débito del día de una cuenta: la lectura
+     * con bloqueo de la cuenta, y además comprueba que no exista y crea su acumulado de
+     * retiros y su saldo de cierre del día.
+     */
+    private static final int SENTENCIAS_DEBITO = 11;
+    
+    /**
+     * Sentencias permitidas para una transferencia entre dos cuentas sin movimientos en el día:
+     * el bloqueo de ambas, el débito y el crédito.
+     */
+    private static final int SENTENCIAS_TRANSFERENCIA = 18;
+    
+    /**
+     * Sentencias permitidas para un reporte, sin importar cuántas cuentas tenga el cliente.
+     */
+    private static final int SENTENCIAS_REPORTE = 2;
+    
+    @Autowired
+    private MovimientoUseCase movimientoUseCase;
+    
+    @Autowired
+    private TransferenciaUseCase transferenciaUseCase;
+    
+    @Autowired
+    private ReporteUseCase reporteUseCase;
+    
+    @Autowired
+    private ClienteRepositoryPort clienteRepository;
+    
+    @Autowired
+    private CuentaRepositoryPort cuentaRepository;
+    
+    @Test
+    @DisplayName("Registrar un crédito no debería superar su presupuesto de sentencias")
+    void registrarCreditoDeberiaRespetarPresupuesto() {
+        Cuenta cuenta = cuentas(cliente(), 1).get(0);
+        
+        assertSentenciasHasta(SENTENCIAS_CREDITO, "Registrar un crédito",
+                () -> movimientoUseCase.crearMovimiento(movimiento(TipoMovimiento.CREDITO, "100", cuenta)));
+    }
+    
+    @Test
+    @DisplayName("Registrar un débito no debería superar su presupuesto de sentencias")
+    void registrarDebitoDeberiaRespetarPresupuesto() {
+        Cuenta cuenta = cuentas(cliente(), 1).get(0);
+        
+        assertSentenciasHasta(SENTENCIAS_DEBITO, "Registrar un débito",
+                () -> movimientoUseCase.crearMovimiento(movimiento(TipoMovimiento.DEBITO, "10", cuenta)));
+    }
+    
+    @Test
+    @DisplayName("Una transferencia no debería superar su presupuesto de sentencias")
+    void transferirDeberiaRespetarPresupuesto() {
+        List<Cuenta> cuentas = cuentas(cliente(), 2);
+        Transferencia transferencia = new Transferencia(cuentas.get(0).getId(), cuentas.get(1).getId(),
+                new BigDecimal("5.00"), null, null);
+        
+        assertSentenciasHasta(SENTENCIAS_TRANSFERENCIA, "Transferir entre cuentas",
+                () -> transferenciaUseCase.transferir(transferencia));
+    }
+    
+    @Test
+    @DisplayName("El reporte de estado de cuenta debería ejecutar las mismas sentencias con 1 o 10 cuentas")
+    void reporteDeberiaTenerSentenciasConstantes() {
+        assertSentenciasConstantes("Reporte de estado de cuenta",
+                (clienteId, inicio, fin) -> reporteUseCase.generarReporteEstadoCuenta(clienteId, inicio, fin));
+    }
+    
+    @Test
+    @DisplayName("El resumen de estado de cuenta debería ejecutar las mismas sentencias con 1 o 10 cuentas")
+    void resumenDeberiaTenerSentenciasConstantes() {
+        assertSentenciasConstantes("Resumen de estado de cuenta",
+                (clienteId, inicio, fin) -> reporteUseCase.generarResumenEstadoCuenta(
+                        clienteId, inicio.toLocalDate(), fin.toLocalDate()));
+    }
+    
+    @Test
+    @DisplayName("La exportación CSV debería ejecutar las mismas sentencias con 1 o 10 cuentas")
+    void exportacionCsvDeberiaTenerSentenciasConstantes() {
+        assertSentenciasConstantes("Exportación CSV del estado de cuenta",
+                (clienteId, inicio, fin) -> reporteUseCase.escribirReporteCsv(
+                        clienteId, inicio, fin, OutputStream.nullOutputStream()));
+    }
+    
+    /**
+     * Genera un reporte para un cliente con una cuenta y otro con diez, con movimientos en
+     * todas, y verifica que ambos ejecuten las mismas sentencias dentro del presupuesto.
+     */
+    private void assertSentenciasConstantes(String descripcion, Reporte reporte) {
+        LocalDateTime inicio = LocalDate.now().minusDays(3).atStartOfDay();
+        LocalDateTime fin = LocalDate.now().plusDays(1).atStartOfDay();
+        Cliente conUnaCuenta = clienteConMovimientos(1);
+        Cliente conDiezCuentas = clienteConMovimientos(10);
+        
+        int conUna = assertSentenciasHasta(SENTENCIAS_REPORTE, descripcion + " con 1 cuenta",
+                () -> reporte.generar(conUnaCuenta.getId(), inicio, fin));
+        int conDiez = assertSentenciasHasta(SENTENCIAS_REPORTE, descripcion + " con 10 cuentas",
+                () -> reporte.generar(conDiezCuentas.getId(), inicio, fin));
+        assertEquals(conUna, conDiez, descripcion + " ejecuta más sentencias cuantas más cuentas tiene el cliente");
+    }
+    
+    private Cliente clienteConMovimientos(int cantidadCuentas) {
+        Cliente cliente = cliente();
+        for (Cuenta cuenta : cuentas(cliente, cantidadCuentas)) {
+            movimientoUseCase.crearMovimiento(movimiento(TipoMovimiento.CREDITO, "100", cuenta));
+            movimientoUseCase.crearMovimiento(movimiento(TipoMovimiento.DEBITO, "10", cuenta));
+        }
+        return cliente;
+    }
+    
+    private Cliente cliente() {
+        Cliente cliente = new Cliente("PRESUPUESTO-" + System.nanoTime(), "1234", true);
+        cliente.setNombre("Cliente de prueba");
+        return clienteRepository.save(cliente);
+    }
+    
+    private List<Cuenta> cuentas(Cliente cliente, int cantidad) {
+        List<Cuenta> cuentas = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            cuentas.add(cuentaRepository.save(new Cuenta(null, "P" + System.nanoTime(), "Ahorros",
+                    new BigDecimal("1000.00"), new BigDecimal("1000.00"), true, cliente.getId())));
+        }
+        return cuentas;
+    }
+    
+    private static Movimiento movimiento(TipoMovimiento tipo, String valor, Cuenta cuenta) {
+        Movimiento movimiento = new Movimiento();
+        movimiento.setTipoMovimiento(tipo.getDescripcion());
+        movimiento.setValor(new BigDecimal(valor));
+        movimiento.setCuentaId(cuenta.getId());
+        return movimiento;
+    }
+    
+    @FunctionalInterface
+    private interface Reporte {
+        void generar(Long clienteId, LocalDateTime inicio, LocalDateTime fin);
+    }
+}
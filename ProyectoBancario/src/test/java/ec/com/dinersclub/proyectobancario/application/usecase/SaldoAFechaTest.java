@@ -0,0 +1,103 @@
+package ec.com.dinersclub.proyectobancario.application.usecase;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import ec.com.banco.proyectobancario.ProyectoBancarioApplication;
+import ec.com.banco.proyectobancario.application.usecase.CuentaUseCase;
+import ec.com.banco.proyectobancario.domain.model.Cliente;
+import ec.com.banco.proyectobancario.domain.model.Cuenta;
+import ec.com.banco.proyectobancario.domain.model.Movimiento;
+import ec.com.banco.proyectobancario.domain.model.TipoMovimiento;
+import ec.com.banco.proyectobancario.domain.port.output.ClienteRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.CuentaRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.MovimientoRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.SaldoDiarioRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.TransaccionPort;
+
+/**
+ * Pruebas del saldo de una cuenta a una fecha pasada, que atiende GET /cuentas/{id}/saldo.
+ * Usa H2 en memoria con el perfil h2; los movimientos de días anteriores y sus saldos de
+ * cierre se escriben directamente, dejando días sin cierre registrado.
+ * 
+ */
+@SpringBootTest(classes = ProyectoBancarioApplication.class, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+@DisplayName("Saldo a fecha")
+class SaldoAFechaTest {
+    
+    @Autowired
+    private CuentaUseCase cuentaUseCase;
+    
+    @Autowired
+    private ClienteRepositoryPort clienteRepository;
+    
+    @Autowired
+    private CuentaRepositoryPort cuentaRepository;
+    
+    @Autowired
+    private MovimientoRepositoryPort movimientoRepository;
+    
+    @Autowired
+    private SaldoDiarioRepositoryPort saldoDiarioRepository;
+    
+    @Autowired
+    private TransaccionPort transaccion;
+    
+    @Test
+    @DisplayName("El saldo a una fecha pasada debería partir del último cierre y sumar los movimientos posteriores")
+    void deberiaCalcularSaldoAFechaPasada() {
+        Cuenta cuenta = cuenta();
+        LocalDate hoy = LocalDate.now();
+        // Sin cierre: se parte del saldo inicial
+        movimiento(cuenta, hoy.minusDays(4), TipoMovimiento.CREDITO, "100", "1100.00");
+        // Con cierre
+        movimiento(cuenta, hoy.minusDays(3), TipoMovimiento.DEBITO, "-30", "1070.00");
+        cierre(cuenta, hoy.minusDays(3), "1070.00", "0", "-30");
+        // Sin cierre: se parte del cierre del día anterior
+        movimiento(cuenta, hoy.minusDays(2), TipoMovimiento.CREDITO, "50", "1120.00");
+        movimiento(cuenta, hoy.minusDays(1), TipoMovimiento.CREDITO, "10", "1130.00");
+        cierre(cuenta, hoy.minusDays(1), "1130.00", "10", "0");
+        
+        assertEquals(0, new BigDecimal("1000.00").compareTo(cuentaUseCase.obtenerSaldoAFecha(cuenta.getId(), hoy.minusDays(5))));
+        assertEquals(0, new BigDecimal("1100.00").compareTo(cuentaUseCase.obtenerSaldoAFecha(cuenta.getId(), hoy.minusDays(4))));
+        assertEquals(0, new BigDecimal("1070.00").compareTo(cuentaUseCase.obtenerSaldoAFecha(cuenta.getId(), hoy.minusDays(3))));
+        assertEquals(0, new BigDecimal("1120.00").compareTo(cuentaUseCase.obtenerSaldoAFecha(cuenta.getId(), hoy.minusDays(2))));
+        assertEquals(0, new BigDecimal("1130.00").compareTo(cuentaUseCase.obtenerSaldoAFecha(cuenta.getId(), hoy.minusDays(1))));
+        assertEquals(0, new BigDecimal("1130.00").compareTo(cuentaUseCase.obtenerSaldoAFecha(cuenta.getId(), hoy)));
+    }
+    
+    private Cuenta cuenta() {
+        Cliente cliente = new Cliente("SALDO-" + System.nanoTime(), "1234", true);
+        cliente.setNombre("Cliente de prueba");
+        cliente = clienteRepository.save(cliente);
+        return cuentaRepository.save(new Cuenta(null, "S" + System.nanoTime(), "Ahorros",
+                new BigDecimal("1000.00"), new BigDecimal("1000.00"), true, cliente.getId()));
+    }
+    
+    private void movimiento(Cuenta cuenta, LocalDate dia, TipoMovimiento tipo, String valor, String saldo) {
+        Movimiento movimiento = new Movimiento();
+        movimiento.setFecha(dia.atTime(10, 0));
+        movimiento.setTipoMovimiento(tipo.getDescripcion());
+        movimiento.setValor(new BigDecimal(valor));
+        movimiento.setSaldo(new BigDecimal(saldo));
+        movimiento.setCuentaId(cuenta.getId());
+        movimientoRepository.save(movimiento);
+    }
+    
+    private void cierre(Cuenta cuenta, LocalDate dia, String saldo, String creditos, String debitos) {
+        transaccion.ejecutar(() -> {
+            saldoDiarioRepository.registrarCierre(cuenta.getId(), dia, new BigDecimal(saldo),
+                    new BigDecimal(creditos), new BigDecimal(debitos), 1);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,139 @@
+package ec.com.dinersclub.proyectobancario.application.usecase;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import ec.com.banco.proyectobancario.ProyectoBancarioApplication;
+import ec.com.banco.proyectobancario.application.usecase.CuentaUseCase;
+import ec.com.banco.proyectobancario.application.usecase.MovimientoUseCase;
+import ec.com.banco.proyectobancario.domain.model.Cliente;
+import ec.com.banco.proyectobancario.domain.model.Cuenta;
+import ec.com.banco.proyectobancario.domain.model.Movimiento;
+import ec.com.banco.proyectobancario.domain.model.TipoMovimiento;
+import ec.com.banco.proyectobancario.domain.port.output.ClienteRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.CuentaRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.SaldoDiarioRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.TransaccionPort;
+import ec.com.banco.proyectobancario.infrastructure.persistence.entity.SaldoDiarioId;
+import ec.com.banco.proyectobancario.infrastructure.persistence.job.SaldoActualJob;
+import ec.com.banco.proyectobancario.infrastructure.persistence.repository.CuentaJpaRepository;
+import ec.com.banco.proyectobancario.infrastructure.persistence.repository.SaldoDiarioJpaRepository;
+
+/**
+ * Pruebas del saldo actual materializado en cuentas: el ajuste al editar el saldo inicial y
+ * la reparación con SaldoActualJob. Usa H2 en memoria con el perfil h2; el saldo se lee de
+ * la tabla, sin pasar por la cache.
+ * 
+ */
+@SpringBootTest(classes = ProyectoBancarioApplication.class, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+@DisplayName("Saldo actual materializado")
+class SaldoActualTest {
+    
+    @Autowired
+    private CuentaUseCase cuentaUseCase;
+    
+    @Autowired
+    private MovimientoUseCase movimientoUseCase;
+    
+    @Autowired
+    private SaldoActualJob saldoActualJob;
+    
+    @Autowired
+    private ClienteRepositoryPort clienteRepository;
+    
+    @Autowired
+    private CuentaRepositoryPort cuentaRepository;
+    
+    @Autowired
+    private SaldoDiarioRepositoryPort saldoDiarioRepository;
+    
+    @Autowired
+    private CuentaJpaRepository cuentaJpaRepository;
+    
+    @Autowired
+    private SaldoDiarioJpaRepository saldoDiarioJpaRepository;
+    
+    @Autowired
+    private TransaccionPort transaccion;
+    
+    @Test
+    @DisplayName("Cambiar el saldo inicial debería mover el saldo actual y los cierres en la misma diferencia")
+    void cambiarSaldoInicialDeberiaAjustarSaldoActualYCierres() {
+        Cliente cliente = cliente();
+        Cuenta cuenta = cuenta(cliente);
+        LocalDate hoy = LocalDate.now();
+        cierre(cuenta, hoy.minusDays(1), "1000.00");
+        movimientoUseCase.crearMovimiento(credito("200", cuenta));
+        
+        cuentaUseCase.actualizarCuenta(cuenta.getId(), new Cuenta(null, cuenta.getNumeroCuenta(), "Ahorros",
+                new BigDecimal("1300.00"), null, true, cliente.getId()));
+        
+        assertEquals(0, new BigDecimal("1500.00").compareTo(saldoActual(cuenta)));
+        assertEquals(0, new BigDecimal("1300.00").compareTo(saldoCierre(cuenta, hoy.minusDays(1))));
+        assertEquals(0, new BigDecimal("1500.00").compareTo(saldoCierre(cuenta, hoy)));
+        assertEquals(0, new BigDecimal("1300.00").compareTo(cuentaUseCase.obtenerSaldoAFecha(cuenta.getId(), hoy.minusDays(1))));
+        assertEquals(0, new BigDecimal("1500.00").compareTo(cuentaUseCase.obtenerSaldoAFecha(cuenta.getId(), hoy)));
+    }
+    
+    @Test
+    @DisplayName("SaldoActualJob debería detectar y reparar un saldo actual desviado")
+    void saldoActualJobDeberiaRepararSaldoDesviado() {
+        Cuenta cuenta = cuenta(cliente());
+        movimientoUseCase.crearMovimiento(credito("200", cuenta));
+        cuentaJpaRepository.ajustarSaldoActual(cuenta.getId(), new BigDecimal("500"));
+        
+        int inconsistentes = saldoActualJob.verificar();
+        int reparadas = saldoActualJob.recalcular();
+        
+        assertTrue(inconsistentes >= 1);
+        assertTrue(reparadas >= 1);
+        assertEquals(0, new BigDecimal("1200.00").compareTo(saldoActual(cuenta)));
+        assertTrue(cuentaJpaRepository.findCuentasConSaldoInconsistente().stream()
+                .noneMatch(fila -> cuenta.getId().equals(((Number) fila[0]).longValue())));
+    }
+    
+    private BigDecimal saldoActual(Cuenta cuenta) {
+        return cuentaJpaRepository.findById(cuenta.getId()).orElseThrow().getSaldoActual();
+    }
+    
+    private BigDecimal saldoCierre(Cuenta cuenta, LocalDate dia) {
+        return saldoDiarioJpaRepository.findById(new SaldoDiarioId(cuenta.getId(), dia)).orElseThrow().getSaldoCierre();
+    }
+    
+    private void cierre(Cuenta cuenta, LocalDate dia, String saldo) {
+        transaccion.ejecutar(() -> {
+            saldoDiarioRepository.registrarCierre(cuenta.getId(), dia, new BigDecimal(saldo),
+                    BigDecimal.ZERO, BigDecimal.ZERO, 0);
+            return null;
+        });
+    }
+    
+    private Cliente cliente() {
+        Cliente cliente = new Cliente("SALDO-ACTUAL-" + System.nanoTime(), "1234", true);
+        cliente.setNombre("Cliente de prueba");
+        return clienteRepository.save(cliente);
+    }
+    
+    private Cuenta cuenta(Cliente cliente) {
+        return cuentaRepository.save(new Cuenta(null, "A" + System.nanoTime(), "Ahorros",
+                new BigDecimal("1000.00"), new BigDecimal("1000.00"), true, cliente.getId()));
+    }
+    
+    private static Movimiento credito(String valor, Cuenta cuenta) {
+        Movimiento movimiento = new Movimiento();
+        movimiento.setTipoMovimiento(TipoMovimiento.CREDITO.getDescripcion());
+        movimiento.setValor(new BigDecimal(valor));
+        movimiento.setCuentaId(cuenta.getId());
+        return movimiento;
+    }
+}
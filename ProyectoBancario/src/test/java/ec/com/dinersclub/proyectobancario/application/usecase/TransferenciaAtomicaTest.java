@@ -0,0 +1,106 @@
+package ec.com.dinersclub.proyectobancario.application.usecase;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import ec.com.banco.proyectobancario.ProyectoBancarioApplication;
+import ec.com.banco.proyectobancario.application.usecase.MovimientoUseCase;
+import ec.com.banco.proyectobancario.application.usecase.TransferenciaUseCase;
+import ec.com.banco.proyectobancario.domain.model.Cliente;
+import ec.com.banco.proyectobancario.domain.model.Cuenta;
+import ec.com.banco.proyectobancario.domain.model.Movimiento;
+import ec.com.banco.proyectobancario.domain.model.TipoMovimiento;
+import ec.com.banco.proyectobancario.domain.model.Transferencia;
+import ec.com.banco.proyectobancario.domain.port.output.ClienteRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.CuentaRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.MovimientoRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.RetiroDiarioRepositoryPort;
+import ec.com.banco.proyectobancario.infrastructure.persistence.entity.RetiroDiarioEntity;
+import ec.com.banco.proyectobancario.infrastructure.persistence.entity.RetiroDiarioId;
+import ec.com.banco.proyectobancario.infrastructure.persistence.repository.CuentaJpaRepository;
+import ec.com.banco.proyectobancario.infrastructure.persistence.repository.RetiroDiarioJpaRepository;
+
+/**
+ * Pruebas de atomicidad de las transferencias: si el crédito falla, el débito no queda registrado.
+ * Usa H2 en memoria con el perfil h2; los saldos y acumulados se leen de las tablas.
+ * 
+ */
+@SpringBootTest(classes = ProyectoBancarioApplication.class, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+@DisplayName("Atomicidad de las transferencias")
+class TransferenciaAtomicaTest {
+    
+    @Autowired
+    private TransferenciaUseCase transferenciaUseCase;
+    
+    @Autowired
+    private MovimientoUseCase movimientoUseCase;
+    
+    @Autowired
+    private ClienteRepositoryPort clienteRepository;
+    
+    @Autowired
+    private CuentaRepositoryPort cuentaRepository;
+    
+    @Autowired
+    private MovimientoRepositoryPort movimientoRepository;
+    
+    @Autowired
+    private RetiroDiarioRepositoryPort retiroDiarioRepository;
+    
+    @Autowired
+    private CuentaJpaRepository cuentaJpaRepository;
+    
+    @Autowired
+    private RetiroDiarioJpaRepository retiroDiarioJpaRepository;
+    
+    @Test
+    @DisplayName("Si el crédito falla no debería quedar el débito en la cuenta origen")
+    void deberiaRevertirDebitoSiFallaCredito() {
+        Cliente cliente = cliente();
+        Cuenta origen = cuenta(cliente, true);
+        Cuenta destino = cuenta(cliente, false);
+        LocalDate hoy = LocalDate.now();
+        
+        // Un retiro previo deja un acumulado del día que la transferencia no debe alterar
+        Movimiento retiro = new Movimiento();
+        retiro.setTipoMovimiento(TipoMovimiento.DEBITO.getDescripcion());
+        retiro.setValor(new BigDecimal("10"));
+        retiro.setCuentaId(origen.getId());
+        movimientoUseCase.crearMovimiento(retiro);
+        
+        Transferencia transferencia = new Transferencia(origen.getId(), destino.getId(),
+                new BigDecimal("50.00"), null, null);
+        assertThrows(IllegalArgumentException.class, () -> transferenciaUseCase.transferir(transferencia));
+        
+        assertEquals(0, new BigDecimal("990.00").compareTo(
+                cuentaJpaRepository.findById(origen.getId()).orElseThrow().getSaldoActual()));
+        assertEquals(1, movimientoRepository.findByCuentaId(origen.getId()).size());
+        assertEquals(0, new BigDecimal("10.00").compareTo(
+                retiroDiarioJpaRepository.findById(new RetiroDiarioId(origen.getId(), hoy))
+                        .map(RetiroDiarioEntity::getTotal)
+                        .orElseThrow()));
+        assertEquals(0, new BigDecimal("10.00").compareTo(retiroDiarioRepository.obtenerTotal(origen.getId(), hoy)));
+        assertEquals(0, movimientoRepository.findByCuentaId(destino.getId()).size());
+    }
+    
+    private Cliente cliente() {
+        Cliente cliente = new Cliente("TRANSFERENCIA-" + System.nanoTime(), "1234", true);
+        cliente.setNombre("Cliente de prueba");
+        return clienteRepository.save(cliente);
+    }
+    
+    private Cuenta cuenta(Cliente cliente, boolean activa) {
+        return cuentaRepository.save(new Cuenta(null, "T" + System.nanoTime(), "Ahorros",
+                new BigDecimal("1000.00"), new BigDecimal("1000.00"), activa, cliente.getId()));
+    }
+}
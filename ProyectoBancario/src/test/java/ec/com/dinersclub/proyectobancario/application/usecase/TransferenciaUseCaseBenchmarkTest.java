@@ -0,0 +1,149 @@
+package ec.com.dinersclub.proyectobancario.application.usecase;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import ec.com.banco.proyectobancario.application.usecase.MovimientoUseCase;
+import ec.com.banco.proyectobancario.application.usecase.TransferenciaUseCase;
+import ec.com.banco.proyectobancario.domain.model.Cuenta;
+import ec.com.banco.proyectobancario.domain.model.Movimiento;
+import ec.com.banco.proyectobancario.domain.model.Transferencia;
+import ec.com.banco.proyectobancario.domain.port.output.CuentaRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.IdempotenciaRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.MovimientoRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.RetiroDiarioRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.SaldoDiarioRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.TransaccionPort;
+import ec.com.banco.proyectobancario.infrastructure.concurrency.BloqueoCuentaAdapter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Prueba de rendimiento de transferencias concurrentes entre muchos pares de cuentas.
+ * Los repositorios se simulan en memoria para medir solo la coordinación de bloqueos.
+ * Se ejecuta con el perfil de Maven benchmark: mvn test -Pbenchmark
+ * 
+ */
+@Tag("benchmark")
+@DisplayName("Rendimiento de transferencias concurrentes")
+class TransferenciaUseCaseBenchmarkTest {
+    
+    private static final int CUENTAS = 200;
+    private static final int HILOS = 16;
+    private static final int TRANSFERENCIAS_POR_HILO = 10_000;
+    private static final BigDecimal SALDO_INICIAL = new BigDecimal("1000000.00");
+    
+    private final Map<Long, BigDecimal> saldos = new ConcurrentHashMap<>();
+    private final AtomicLong secuencia = new AtomicLong();
+    private TransferenciaUseCase transferenciaUseCase;
+    
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        for (long id = 1; id <= CUENTAS; id++) {
+            saldos.put(id, SALDO_INICIAL);
+        }
+        
+        CuentaRepositoryPort cuentaRepository = mock(CuentaRepositoryPort.class, withSettings().stubOnly());
+        when(cuentaRepository.findByIdParaActualizar(anyLong())).thenAnswer(inv -> Optional.of(cuenta(inv.getArgument(0))));
+        when(cuentaRepository.bloquearPorIds(anyList())).thenAnswer(inv -> {
+            List<Cuenta> cuentas = new ArrayList<>();
+            for (Long id : (List<Long>) inv.getArgument(0)) {
+                cuentas.add(cuenta(id));
+            }
+            return cuentas;
+        });
+        doAnswer(inv -> saldos.put(inv.getArgument(0), inv.getArgument(1)))
+                .when(cuentaRepository).actualizarSaldoActual(anyLong(), any());
+        
+        MovimientoRepositoryPort movimientoRepository = mock(MovimientoRepositoryPort.class, withSettings().stubOnly());
+        when(movimientoRepository.save(any())).thenAnswer(inv -> {
+            Movimiento movimiento = inv.getArgument(0);
+            movimiento.setId(secuencia.incrementAndGet());
+            return movimiento;
+        });
+        
+        RetiroDiarioRepositoryPort retiroDiarioRepository = mock(RetiroDiarioRepositoryPort.class, withSettings().stubOnly());
+        when(retiroDiarioRepository.obtenerTotal(anyLong(), any())).thenReturn(BigDecimal.ZERO);
+        when(retiroDiarioRepository.acumularHasta(anyLong(), any(), any(), any())).thenReturn(true);
+        
+        TransaccionPort transaccion = new TransaccionPort() {
+            @Override
+            public <T> T ejecutar(Supplier<T> operacion) {
+                return operacion.get();
+            }
+        };
+        BloqueoCuentaAdapter bloqueoCuenta = new BloqueoCuentaAdapter(new SimpleMeterRegistry(), 64, Duration.ofSeconds(30));
+        
+        MovimientoUseCase movimientoUseCase = new MovimientoUseCase(movimientoRepository, cuentaRepository,
+                retiroDiarioRepository, mock(IdempotenciaRepositoryPort.class, withSettings().stubOnly()),
+                mock(SaldoDiarioRepositoryPort.class, withSettings().stubOnly()), transaccion, bloqueoCuenta, motivo -> { },
+                new BigDecimal("1000000000.00"));
+        transferenciaUseCase = new TransferenciaUseCase(movimientoUseCase, cuentaRepository, transaccion, bloqueoCuenta);
+    }
+    
+    @Test
+    @DisplayName("Debería completar transferencias cruzadas sin bloqueos mutuos y conservar el saldo total")
+    void deberiaTransferirEnParaleloEntreMuchosPares() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        List<Future<?>> tareas = new ArrayList<>();
+        long inicio = System.nanoTime();
+        
+        for (int h = 0; h < HILOS; h++) {
+            tareas.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < TRANSFERENCIAS_POR_HILO; i++) {
+                    long origen = random.nextLong(1, CUENTAS + 1);
+                    long destino = random.nextLong(1, CUENTAS);
+                    if (destino >= origen) {
+                        destino++;
+                    }
+                    transferenciaUseCase.transferir(new Transferencia(origen, destino, BigDecimal.ONE, null, null));
+                }
+            }));
+        }
+        for (Future<?> tarea : tareas) {
+            tarea.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        int total = HILOS * TRANSFERENCIAS_POR_HILO;
+        System.out.printf("Transferencias: %d en %.2f s (%.0f transferencias/s, %d hilos, %d cuentas)%n",
+                total, segundos, total / segundos, HILOS, CUENTAS);
+        
+        BigDecimal saldoTotal = saldos.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, SALDO_INICIAL.multiply(BigDecimal.valueOf(CUENTAS)).compareTo(saldoTotal));
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+    
+    private Cuenta cuenta(Long id) {
+        return new Cuenta(id, "CTA-" + id, "Ahorros", SALDO_INICIAL, saldos.get(id), true, 1L);
+    }
+}
@@ -0,0 +1,95 @@
+package ec.com.dinersclub.proyectobancario.infrastructure.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import ec.com.banco.proyectobancario.domain.model.Cuenta;
+import ec.com.banco.proyectobancario.domain.port.output.CuentaRepositoryPort;
+import ec.com.banco.proyectobancario.infrastructure.cache.BusInvalidacionPostgres;
+import ec.com.banco.proyectobancario.infrastructure.cache.CuentaRepositoryCache;
+import ec.com.banco.proyectobancario.infrastructure.concurrency.FabricaHilos;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Pruebas unitarias para BusInvalidacionPostgres: los avisos se entregan directamente a
+ * procesar, sin abrir la escucha del canal.
+ * 
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Pruebas del bus de invalidación sobre PostgreSQL")
+class BusInvalidacionPostgresTest {
+    
+    private static final Long CUENTA_ID = 1L;
+    
+    @Mock
+    private CuentaRepositoryPort delegado;
+    
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    
+    private SimpleMeterRegistry meterRegistry;
+    private BusInvalidacionPostgres bus;
+    private CuentaRepositoryCache cuentas;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bus = new BusInvalidacionPostgres(jdbcTemplate, new FabricaHilos(false), meterRegistry,
+                "jdbc:postgresql://localhost/banco", "banco", "banco", "banco_cache", Duration.ofSeconds(1));
+        cuentas = new CuentaRepositoryCache(delegado, bus, meterRegistry, 100, Duration.ofHours(1));
+    }
+    
+    @Test
+    @DisplayName("Debería descartar la cuenta al recibir el aviso de otro nodo")
+    void deberiaDescartarCuentaAlRecibirAviso() {
+        // Arrange
+        when(delegado.findById(CUENTA_ID)).thenReturn(Optional.of(cuenta("1000.00")), Optional.of(cuenta("800.00")));
+        cuentas.findById(CUENTA_ID);
+        
+        // Act
+        bus.procesar("otro-nodo:cuenta:" + CUENTA_ID);
+        Optional<Cuenta> leida = cuentas.findById(CUENTA_ID);
+        
+        // Assert
+        assertEquals(0, new BigDecimal("800.00").compareTo(leida.orElseThrow().getSaldoActual()));
+        verify(delegado, times(2)).findById(CUENTA_ID);
+        assertEquals(1.0, meterRegistry.get("banco.cache.invalidaciones").tag("sentido", "recibido").counter().count());
+    }
+    
+    @Test
+    @DisplayName("Debería ignorar los avisos de otro tipo o mal formados")
+    void deberiaIgnorarAvisosAjenos() {
+        // Arrange
+        when(delegado.findById(CUENTA_ID)).thenReturn(Optional.of(cuenta("1000.00")));
+        cuentas.findById(CUENTA_ID);
+        
+        // Act
+        bus.procesar("otro-nodo:retiro-diario:" + CUENTA_ID);
+        bus.procesar("otro-nodo:cuenta:no-es-un-id");
+        bus.procesar("mal-formado");
+        Optional<Cuenta> leida = cuentas.findById(CUENTA_ID);
+        
+        // Assert
+        assertEquals(0, new BigDecimal("1000.00").compareTo(leida.orElseThrow().getSaldoActual()));
+        verify(delegado, times(1)).findById(CUENTA_ID);
+    }
+    
+    private static Cuenta cuenta(String saldoActual) {
+        return new Cuenta(CUENTA_ID, "478758", "Ahorros", new BigDecimal("1000.00"), new BigDecimal(saldoActual),
+                true, 1L);
+    }
+}
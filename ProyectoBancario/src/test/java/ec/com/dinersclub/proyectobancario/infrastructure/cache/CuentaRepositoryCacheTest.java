@@ -0,0 +1,139 @@
+package ec.com.dinersclub.proyectobancario.infrastructure.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import ec.com.banco.proyectobancario.domain.model.Cuenta;
+import ec.com.banco.proyectobancario.domain.port.output.CuentaRepositoryPort;
+import ec.com.banco.proyectobancario.infrastructure.cache.BusInvalidacionLocal;
+import ec.com.banco.proyectobancario.infrastructure.cache.CuentaRepositoryCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Pruebas unitarias para CuentaRepositoryCache.
+ * Las transacciones se simulan con TransactionSynchronizationManager, invocando las
+ * sincronizaciones registradas en el mismo orden que Spring al confirmar o revertir.
+ * 
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Pruebas de la cache de cuentas")
+class CuentaRepositoryCacheTest {
+    
+    private static final Long CUENTA_ID = 1L;
+    
+    @Mock
+    private CuentaRepositoryPort delegado;
+    
+    private CuentaRepositoryCache cuentas;
+    
+    @BeforeEach
+    void setUp() {
+        cuentas = new CuentaRepositoryCache(delegado, new BusInvalidacionLocal(), new SimpleMeterRegistry(), 100,
+                Duration.ofHours(1));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+    
+    @Test
+    @DisplayName("Debería guardar la cuenta escrita en la cache al confirmar la transacción")
+    void deberiaGuardarCuentaAlConfirmar() {
+        // Arrange
+        when(delegado.save(any(Cuenta.class))).thenReturn(cuenta("1000.00"));
+        TransactionSynchronizationManager.initSynchronization();
+        
+        // Act
+        cuentas.save(cuenta("1000.00"));
+        confirmar();
+        Optional<Cuenta> leida = cuentas.findById(CUENTA_ID);
+        
+        // Assert
+        assertEquals(0, new BigDecimal("1000.00").compareTo(leida.orElseThrow().getSaldoActual()));
+        verify(delegado, times(0)).findById(CUENTA_ID);
+    }
+    
+    @Test
+    @DisplayName("Debería leer de la base de datos lo que modificó la transacción en curso")
+    void deberiaLeerPropiosCambiosDentroDeTransaccion() {
+        // Arrange
+        when(delegado.findById(CUENTA_ID)).thenReturn(Optional.of(cuenta("1000.00")), Optional.of(cuenta("500.00")));
+        cuentas.findById(CUENTA_ID);
+        TransactionSynchronizationManager.initSynchronization();
+        
+        // Act
+        cuentas.actualizarSaldoActual(CUENTA_ID, new BigDecimal("500.00"));
+        Optional<Cuenta> dentroDeTransaccion = cuentas.findById(CUENTA_ID);
+        confirmar();
+        Optional<Cuenta> despuesDeConfirmar = cuentas.findById(CUENTA_ID);
+        
+        // Assert
+        assertEquals(0, new BigDecimal("500.00").compareTo(dentroDeTransaccion.orElseThrow().getSaldoActual()));
+        assertEquals(0, new BigDecimal("500.00").compareTo(despuesDeConfirmar.orElseThrow().getSaldoActual()));
+        verify(delegado, times(2)).findById(CUENTA_ID);
+    }
+    
+    @Test
+    @DisplayName("Debería dejar la cache intacta si la transacción se revierte")
+    void deberiaDejarCacheIntactaAlRevertir() {
+        // Arrange
+        when(delegado.findById(CUENTA_ID)).thenReturn(Optional.of(cuenta("1000.00")));
+        cuentas.findById(CUENTA_ID);
+        TransactionSynchronizationManager.initSynchronization();
+        
+        // Act
+        cuentas.actualizarSaldoActual(CUENTA_ID, new BigDecimal("500.00"));
+        cuentas.ajustarSaldoActual(CUENTA_ID, new BigDecimal("-100.00"));
+        revertir();
+        Optional<Cuenta> leida = cuentas.findById(CUENTA_ID);
+        
+        // Assert
+        assertEquals(0, new BigDecimal("1000.00").compareTo(leida.orElseThrow().getSaldoActual()));
+        verify(delegado, times(1)).findById(CUENTA_ID);
+    }
+    
+    /**
+     * Ejecuta las sincronizaciones registradas como lo hace Spring al confirmar una transacción.
+     */
+    private static void confirmar() {
+        List<TransactionSynchronization> sincronizaciones = TransactionSynchronizationManager.getSynchronizations();
+        sincronizaciones.forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+        sincronizaciones.forEach(sincronizacion -> sincronizacion.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+    
+    /**
+     * Ejecuta las sincronizaciones registradas como lo hace Spring al revertir una transacción.
+     */
+    private static void revertir() {
+        List<TransactionSynchronization> sincronizaciones = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        sincronizaciones.forEach(sincronizacion -> sincronizacion.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+    }
+    
+    private static Cuenta cuenta(String saldoActual) {
+        return new Cuenta(CUENTA_ID, "478758", "Ahorros", new BigDecimal("1000.00"), new BigDecimal(saldoActual),
+                true, 1L);
+    }
+}
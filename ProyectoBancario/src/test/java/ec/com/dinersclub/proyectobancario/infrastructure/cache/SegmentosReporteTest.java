@@ -0,0 +1,130 @@
+package ec.com.dinersclub.proyectobancario.infrastructure.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import ec.com.banco.proyectobancario.domain.model.ReporteEstadoCuenta.MovimientoReporte;
+import ec.com.banco.proyectobancario.infrastructure.cache.BusInvalidacionLocal;
+import ec.com.banco.proyectobancario.infrastructure.cache.SegmentosReporte;
+import ec.com.banco.proyectobancario.infrastructure.cache.SegmentosReporte.Segmento;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Pruebas unitarias para SegmentosReporte.
+ * 
+ */
+@DisplayName("Pruebas de la cache de segmentos de reporte")
+class SegmentosReporteTest {
+    
+    private static final Segmento SEGMENTO = new Segmento(1L, LocalDate.of(2024, 1, 15));
+    
+    private SegmentosReporte segmentos;
+    
+    @BeforeEach
+    void setUp() {
+        segmentos = new SegmentosReporte(new BusInvalidacionLocal(), new SimpleMeterRegistry(), 1000, Duration.ofHours(1));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+    
+    @Test
+    @DisplayName("Debería guardar un segmento leído con la versión vigente")
+    void deberiaGuardarSegmentoConVersionVigente() {
+        // Arrange
+        long version = segmentos.version(SEGMENTO.cuentaId());
+        
+        // Act
+        segmentos.guardar(SEGMENTO, List.of(movimiento("100")), version);
+        
+        // Assert
+        List<MovimientoReporte> guardado = segmentos.obtener(List.of(SEGMENTO)).get(SEGMENTO);
+        assertEquals(1, guardado.size());
+        assertEquals(0, new BigDecimal("100").compareTo(guardado.get(0).getValor()));
+    }
+    
+    @Test
+    @DisplayName("No debería guardar un segmento cuya versión se tomó antes de una invalidación")
+    void noDeberiaGuardarSegmentoConVersionAnteriorAInvalidacion() {
+        // Arrange
+        long version = segmentos.version(SEGMENTO.cuentaId());
+        segmentos.invalidar(SEGMENTO.cuentaId(), SEGMENTO.fecha());
+        
+        // Act
+        segmentos.guardar(SEGMENTO, List.of(movimiento("100")), version);
+        
+        // Assert
+        assertTrue(segmentos.obtener(List.of(SEGMENTO)).isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Debería descartar el segmento de un día modificado solo al confirmar la transacción")
+    void deberiaDescartarSegmentoAlConfirmar() {
+        // Arrange
+        segmentos.guardar(SEGMENTO, List.of(movimiento("100")), segmentos.version(SEGMENTO.cuentaId()));
+        TransactionSynchronizationManager.initSynchronization();
+        
+        // Act
+        segmentos.invalidar(SEGMENTO.cuentaId(), SEGMENTO.fecha());
+        boolean presenteAntesDeConfirmar = segmentos.obtener(List.of(SEGMENTO)).containsKey(SEGMENTO);
+        confirmar();
+        
+        // Assert
+        assertTrue(presenteAntesDeConfirmar);
+        assertTrue(segmentos.obtener(List.of(SEGMENTO)).isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Debería conservar el segmento si la transacción que lo modificaba se revierte")
+    void deberiaConservarSegmentoAlRevertir() {
+        // Arrange
+        segmentos.guardar(SEGMENTO, List.of(movimiento("100")), segmentos.version(SEGMENTO.cuentaId()));
+        TransactionSynchronizationManager.initSynchronization();
+        
+        // Act
+        segmentos.invalidar(SEGMENTO.cuentaId(), SEGMENTO.fecha());
+        revertir();
+        
+        // Assert
+        assertTrue(segmentos.obtener(List.of(SEGMENTO)).containsKey(SEGMENTO));
+    }
+    
+    /**
+     * Ejecuta las sincronizaciones registradas como lo hace Spring al confirmar una transacción.
+     */
+    static void confirmar() {
+        List<TransactionSynchronization> sincronizaciones = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        sincronizaciones.forEach(TransactionSynchronization::afterCommit);
+        sincronizaciones.forEach(sincronizacion -> sincronizacion.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+    
+    /**
+     * Ejecuta las sincronizaciones registradas como lo hace Spring al revertir una transacción.
+     */
+    static void revertir() {
+        List<TransactionSynchronization> sincronizaciones = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        sincronizaciones.forEach(sincronizacion -> sincronizacion.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+    }
+    
+    private static MovimientoReporte movimiento(String valor) {
+        return new MovimientoReporte("15/01/2024", "Crédito", new BigDecimal(valor), new BigDecimal("1100"));
+    }
+}
@@ -0,0 +1,134 @@
+package ec.com.dinersclub.proyectobancario.infrastructure.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import ec.com.banco.proyectobancario.infrastructure.persistence.datasource.ConsultaPesada;
+import ec.com.banco.proyectobancario.infrastructure.persistence.datasource.LimiteConcurrenciaDataSource;
+
+/**
+ * Prueba de rendimiento que compara hilos de plataforma (pool fijo, como el de Tomcat)
+ * con hilos virtuales ante una ráfaga de reportes lentos mezclada con consultas rápidas.
+ * No levanta la aplicación: simula ambos ejecutores sobre un DataSource de prueba.
+ * El trabajo con la base de datos se limita con LimiteConcurrenciaDataSource en ambos modos,
+ * y los reportes se marcan con ConsultaPesada para que ocupen el presupuesto de consultas pesadas.
+ * Se ejecuta con el perfil de Maven benchmark: mvn test -Pbenchmark
+ * 
+ */
+@Tag("benchmark")
+@DisplayName("Rendimiento de hilos virtuales frente a hilos de plataforma")
+class HilosVirtualesBenchmarkTest {
+    
+    private static final int HILOS_PLATAFORMA = 200;
+    private static final int CONEXIONES = 10;
+    private static final int PERMISOS_PESADOS = 4;
+    private static final int REPORTES = 1000;
+    private static final int CONSULTAS = 2000;
+    private static final long CONSULTA_REPORTE_MS = 5;
+    private static final long RENDER_REPORTE_MS = 500;
+    private static final long CONSULTA_RAPIDA_MS = 2;
+    private static final long LLEGADA_CONSULTAS_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    
+    @Test
+    @DisplayName("Debería atender consultas rápidas con menor p99 y mayor throughput usando hilos virtuales")
+    void deberiaCompararModosDeEjecucion() throws Exception {
+        Resultado plataforma;
+        try (ExecutorService executor = Executors.newFixedThreadPool(HILOS_PLATAFORMA)) {
+            plataforma = ejecutar("plataforma", executor);
+        }
+        Resultado virtuales;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            virtuales = ejecutar("virtuales", executor);
+        }
+        
+        assertEquals(CONSULTAS, plataforma.latenciasConsultas.size());
+        assertEquals(CONSULTAS, virtuales.latenciasConsultas.size());
+        assertTrue(virtuales.p99() < plataforma.p99(),
+                "p99 con hilos virtuales " + virtuales.p99() + " ns, con hilos de plataforma " + plataforma.p99() + " ns");
+        assertTrue(virtuales.peticionesPorSegundo() > plataforma.peticionesPorSegundo(),
+                "Throughput con hilos virtuales " + virtuales.peticionesPorSegundo()
+                        + " peticiones/s, con hilos de plataforma " + plataforma.peticionesPorSegundo());
+    }
+    
+    private Resultado ejecutar(String modo, ExecutorService executor) throws Exception {
+        LimiteConcurrenciaDataSource dataSource = new LimiteConcurrenciaDataSource(dataSourceSimulado(), CONEXIONES,
+                PERMISOS_PESADOS, Duration.ofMinutes(1));
+        List<Long> latencias = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Void>> tareas = new ArrayList<>();
+        long inicio = System.nanoTime();
+        
+        // Ráfaga de reportes al inicio y consultas rápidas que llegan a ritmo constante
+        for (int i = 0; i < REPORTES; i++) {
+            tareas.add(CompletableFuture.runAsync(ConsultaPesada.envolver(() -> {
+                usarConexion(dataSource, CONSULTA_REPORTE_MS);
+                dormir(RENDER_REPORTE_MS);
+            }), executor));
+        }
+        for (int i = 0; i < CONSULTAS; i++) {
+            long encolada = System.nanoTime();
+            tareas.add(CompletableFuture.runAsync(() -> {
+                usarConexion(dataSource, CONSULTA_RAPIDA_MS);
+                latencias.add(System.nanoTime() - encolada);
+            }, executor));
+            LockSupport.parkNanos(LLEGADA_CONSULTAS_NANOS);
+        }
+        CompletableFuture.allOf(tareas.toArray(CompletableFuture[]::new)).get(5, TimeUnit.MINUTES);
+        assertEquals(PERMISOS_PESADOS, dataSource.getPermisosPesadosDisponibles());
+        assertEquals(CONEXIONES, dataSource.getPermisosDisponibles());
+        
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        List<Long> ordenadas = new ArrayList<>(latencias);
+        Collections.sort(ordenadas);
+        long p99 = ordenadas.get((int) Math.ceil(ordenadas.size() * 0.99) - 1);
+        double peticionesPorSegundo = tareas.size() / segundos;
+        System.out.printf("Hilos %s: %d peticiones en %.2f s (%.0f peticiones/s), p99 consultas rápidas %d ms%n",
+                modo, tareas.size(), segundos, peticionesPorSegundo, TimeUnit.NANOSECONDS.toMillis(p99));
+        return new Resultado(ordenadas, p99, peticionesPorSegundo);
+    }
+    
+    private void usarConexion(DataSource dataSource, long milisegundos) {
+        try (Connection conexion = dataSource.getConnection()) {
+            dormir(milisegundos);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static void dormir(long milisegundos) {
+        try {
+            Thread.sleep(milisegundos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static DataSource dataSourceSimulado() throws Exception {
+        DataSource dataSource = mock(DataSource.class, withSettings().stubOnly());
+        Connection conexion = mock(Connection.class, withSettings().stubOnly());
+        when(dataSource.getConnection()).thenReturn(conexion);
+        return dataSource;
+    }
+    
+    private record Resultado(List<Long> latenciasConsultas, long p99, double peticionesPorSegundo) {
+    }
+}
@@ -0,0 +1,126 @@
+package ec.com.dinersclub.proyectobancario.infrastructure.metricas;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import ec.com.banco.proyectobancario.application.usecase.ClienteUseCase;
+import ec.com.banco.proyectobancario.domain.model.Cliente;
+import ec.com.banco.proyectobancario.domain.port.output.ClienteRepositoryPort;
+import ec.com.banco.proyectobancario.infrastructure.metricas.Instrumentacion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Pruebas unitarias para Instrumentacion, sobre ClienteUseCase y su puerto de clientes.
+ * 
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Pruebas de la instrumentación de casos de uso y puertos")
+class InstrumentacionTest {
+    
+    @Mock
+    private ClienteRepositoryPort clienteRepository;
+    
+    private SimpleMeterRegistry meterRegistry;
+    private Instrumentacion instrumentacion;
+    private ClienteUseCase clienteUseCase;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        instrumentacion = new Instrumentacion(meterRegistry);
+        clienteUseCase = instrumentacion.medirCasoUso(new ClienteUseCase(
+                instrumentacion.medirPuerto(ClienteRepositoryPort.class, clienteRepository)));
+    }
+    
+    @Test
+    @DisplayName("Debería medir el caso de uso y el puerto con resultado exito")
+    void deberiaMedirLlamadaExitosa() {
+        // Arrange
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(new Cliente("CLI-1", "1234", true)));
+        
+        // Act
+        clienteUseCase.obtenerClientePorId(1L);
+        
+        // Assert
+        assertEquals(1, duracionCasoUso("obtenerClientePorId", "exito"));
+        assertEquals(1, duracionPuerto("findById", "exito"));
+        assertNull(meterRegistry.find("banco.caso-uso.rechazos").counter());
+    }
+    
+    @Test
+    @DisplayName("Debería contar los rechazos por motivo, sin los datos variables del mensaje")
+    void deberiaContarRechazosPorMotivo() {
+        // Arrange
+        when(clienteRepository.findById(7L)).thenReturn(Optional.empty());
+        when(clienteRepository.findById(8L)).thenReturn(Optional.empty());
+        
+        // Act
+        assertThrows(IllegalArgumentException.class, () -> clienteUseCase.obtenerClientePorId(7L));
+        assertThrows(IllegalArgumentException.class, () -> clienteUseCase.obtenerClientePorId(8L));
+        
+        // Assert
+        assertEquals(2, duracionCasoUso("obtenerClientePorId", "rechazo"));
+        assertEquals(2, duracionPuerto("findById", "exito"));
+        assertEquals(2.0, rechazos("Cliente no encontrado con id"));
+        assertEquals(1, meterRegistry.find("banco.caso-uso.rechazos").counters().size());
+    }
+    
+    @Test
+    @DisplayName("Debería medir con resultado error una falla que no es regla de negocio, sin contarla como rechazo")
+    void deberiaMedirErrorSinContarRechazo() {
+        // Arrange
+        when(clienteRepository.findById(1L)).thenThrow(new IllegalStateException("Sin conexión"));
+        
+        // Act
+        assertThrows(IllegalStateException.class, () -> clienteUseCase.obtenerClientePorId(1L));
+        
+        // Assert
+        assertEquals(1, duracionCasoUso("obtenerClientePorId", "error"));
+        assertEquals(1, duracionPuerto("findById", "error"));
+        assertNull(meterRegistry.find("banco.caso-uso.rechazos").counter());
+    }
+    
+    @Test
+    @DisplayName("Debería contar los rechazos informados sin excepción, como los de un lote")
+    void deberiaContarRechazosInformados() {
+        // Act
+        instrumentacion.registrar("Saldo no disponible");
+        instrumentacion.registrar("Cupo diario Excedido");
+        instrumentacion.registrar("Saldo no disponible");
+        instrumentacion.registrar(null);
+        
+        // Assert
+        assertEquals(2.0, rechazos("Saldo no disponible"));
+        assertEquals(1.0, rechazos("Cupo diario Excedido"));
+        assertEquals(1.0, rechazos("sin motivo"));
+    }
+    
+    private long duracionCasoUso(String metodo, String resultado) {
+        return meterRegistry.get("banco.caso-uso.duracion")
+                .tags("caso", "ClienteUseCase", "metodo", metodo, "resultado", resultado)
+                .timer()
+                .count();
+    }
+    
+    private long duracionPuerto(String metodo, String resultado) {
+        return meterRegistry.get("banco.puerto.duracion")
+                .tags("puerto", "ClienteRepositoryPort", "metodo", metodo, "resultado", resultado)
+                .timer()
+                .count();
+    }
+    
+    private double rechazos(String motivo) {
+        return meterRegistry.get("banco.caso-uso.rechazos").tag("motivo", motivo).counter().count();
+    }
+}
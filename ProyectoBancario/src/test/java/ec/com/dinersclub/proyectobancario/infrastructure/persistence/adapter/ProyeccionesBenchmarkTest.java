@@ -0,0 +1,120 @@
+package ec.com.dinersclub.proyectobancario.infrastructure.persistence.adapter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.sun.management.ThreadMXBean;
+
+import ec.com.banco.proyectobancario.ProyectoBancarioApplication;
+import ec.com.banco.proyectobancario.domain.model.Cliente;
+import ec.com.banco.proyectobancario.domain.model.Cuenta;
+import ec.com.banco.proyectobancario.domain.port.output.ClienteRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.CuentaRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.MovimientoRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.TransaccionPort;
+import ec.com.banco.proyectobancario.infrastructure.persistence.mapper.MovimientoMapper;
+import ec.com.banco.proyectobancario.infrastructure.persistence.repository.MovimientoJpaRepository;
+
+/**
+ * Prueba de rendimiento que mide los bytes asignados por fila al listar movimientos leyendo
+ * entidades JPA (y copiándolas al dominio) frente a leer proyecciones directamente.
+ * Usa H2 en memoria con el perfil h2. Se ejecuta con el perfil de Maven benchmark: mvn test -Pbenchmark
+ * 
+ */
+@Tag("benchmark")
+@SpringBootTest(classes = ProyectoBancarioApplication.class, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+@DisplayName("Asignación de memoria por fila con entidades frente a proyecciones")
+class ProyeccionesBenchmarkTest {
+    
+    private static final int MOVIMIENTOS = 20_000;
+    private static final int CALENTAMIENTO = 5;
+    private static final int ITERACIONES = 10;
+    
+    @Autowired
+    private MovimientoJpaRepository movimientoJpaRepository;
+    
+    @Autowired
+    private MovimientoMapper movimientoMapper;
+    
+    @Autowired
+    private MovimientoRepositoryPort movimientoRepository;
+    
+    @Autowired
+    private ClienteRepositoryPort clienteRepository;
+    
+    @Autowired
+    private CuentaRepositoryPort cuentaRepository;
+    
+    @Autowired
+    private TransaccionPort transaccion;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM movimientos");
+        
+        Cliente cliente = new Cliente("BENCH-" + System.nanoTime(), "1234", true);
+        cliente.setNombre("Cliente de prueba");
+        cliente = clienteRepository.save(cliente);
+        Cuenta cuenta = cuentaRepository.save(new Cuenta(null, "B" + System.nanoTime(), "Ahorros",
+                BigDecimal.ZERO, BigDecimal.ZERO, true, cliente.getId()));
+        
+        List<Object[]> filas = new ArrayList<>(MOVIMIENTOS);
+        LocalDateTime fecha = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 1; i <= MOVIMIENTOS; i++) {
+            filas.add(new Object[] { (long) i, Timestamp.valueOf(fecha.plusMinutes(i)), "Crédito",
+                    BigDecimal.ONE, BigDecimal.valueOf(i), cuenta.getId() });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO movimientos (id, fecha, tipo_movimiento, valor, saldo, cuenta_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", filas);
+    }
+    
+    @Test
+    @DisplayName("Debería asignar menos bytes por fila al leer proyecciones")
+    void deberiaAsignarMenosMemoriaConProyecciones() {
+        double entidades = medir("entidades (solo lectura)",
+                () -> movimientoMapper.toDomainList(movimientoJpaRepository.findAll()));
+        double entidadesEscritura = medir("entidades (transacción de escritura)",
+                () -> transaccion.ejecutar(() -> movimientoMapper.toDomainList(movimientoJpaRepository.findAll())));
+        double proyecciones = medir("proyecciones", () -> movimientoRepository.findAll());
+        
+        assertTrue(proyecciones < entidades);
+        assertTrue(proyecciones < entidadesEscritura);
+    }
+    
+    private double medir(String modo, Supplier<List<?>> lectura) {
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            assertEquals(MOVIMIENTOS, lectura.get().size());
+        }
+        
+        ThreadMXBean hilos = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long antes = hilos.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ITERACIONES; i++) {
+            lectura.get();
+        }
+        double bytesPorFila = (double) (hilos.getCurrentThreadAllocatedBytes() - antes) / ((long) ITERACIONES * MOVIMIENTOS);
+        
+        System.out.printf("Movimientos con %s: %.0f bytes asignados por fila%n", modo, bytesPorFila);
+        return bytesPorFila;
+    }
+}
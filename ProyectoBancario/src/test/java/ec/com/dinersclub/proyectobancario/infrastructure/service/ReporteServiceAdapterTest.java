@@ -0,0 +1,131 @@
+package ec.com.dinersclub.proyectobancario.infrastructure.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import ec.com.banco.proyectobancario.domain.model.Cliente;
+import ec.com.banco.proyectobancario.domain.model.Cuenta;
+import ec.com.banco.proyectobancario.domain.model.Movimiento;
+import ec.com.banco.proyectobancario.domain.model.ReporteEstadoCuenta;
+import ec.com.banco.proyectobancario.domain.model.TipoMovimiento;
+import ec.com.banco.proyectobancario.domain.port.output.ClienteRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.CuentaRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.MovimientoRepositoryPort;
+import ec.com.banco.proyectobancario.domain.port.output.SaldoDiarioRepositoryPort;
+import ec.com.banco.proyectobancario.infrastructure.cache.BusInvalidacionLocal;
+import ec.com.banco.proyectobancario.infrastructure.cache.SegmentosReporte;
+import ec.com.banco.proyectobancario.infrastructure.service.ReporteServiceAdapter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Pruebas unitarias para ReporteServiceAdapter con la cache de segmentos de reporte.
+ * 
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Pruebas del reporte de estado de cuenta con segmentos en cache")
+class ReporteServiceAdapterTest {
+    
+    private static final Long CLIENTE_ID = 1L;
+    private static final Long CUENTA_ID = 10L;
+    
+    @Mock
+    private ClienteRepositoryPort clienteRepository;
+    
+    @Mock
+    private CuentaRepositoryPort cuentaRepository;
+    
+    @Mock
+    private MovimientoRepositoryPort movimientoRepository;
+    
+    @Mock
+    private SaldoDiarioRepositoryPort saldoDiarioRepository;
+    
+    private ReporteServiceAdapter reporteService;
+    
+    @BeforeEach
+    void setUp() {
+        SegmentosReporte segmentos = new SegmentosReporte(new BusInvalidacionLocal(), new SimpleMeterRegistry(),
+                1000, Duration.ofHours(1));
+        reporteService = new ReporteServiceAdapter(clienteRepository, cuentaRepository, movimientoRepository,
+                saldoDiarioRepository, segmentos);
+        
+        Cliente cliente = new Cliente("0102030405", "1234", true);
+        cliente.setNombre("Cliente de prueba");
+        when(clienteRepository.findById(CLIENTE_ID)).thenReturn(Optional.of(cliente));
+        when(cuentaRepository.findByClienteId(CLIENTE_ID)).thenReturn(List.of(new Cuenta(CUENTA_ID, "478758",
+                "Ahorros", new BigDecimal("1000.00"), new BigDecimal("1100.00"), true, CLIENTE_ID)));
+    }
+    
+    @Test
+    @DisplayName("Un segundo rango que se solapa debería consultar solo los días que faltan")
+    void rangoSolapadoDeberiaConsultarSoloDiasFaltantes() {
+        // Arrange
+        LocalDate hoy = LocalDate.now();
+        LocalDateTime primerInicio = hoy.minusDays(10).atStartOfDay();
+        LocalDateTime primerFin = hoy.minusDays(6).atTime(LocalTime.MAX);
+        LocalDateTime segundoInicio = hoy.minusDays(8).atStartOfDay();
+        LocalDateTime segundoFin = hoy.minusDays(3).atTime(LocalTime.MAX);
+        LocalDateTime faltanteInicio = hoy.minusDays(5).atStartOfDay();
+        when(movimientoRepository.findByCuentaIdInAndFechaBetween(List.of(CUENTA_ID), primerInicio, primerFin))
+                .thenReturn(List.of(movimiento(hoy.minusDays(7).atTime(10, 0), "100", "1100.00")));
+        when(movimientoRepository.findByCuentaIdInAndFechaBetween(List.of(CUENTA_ID), faltanteInicio, segundoFin))
+                .thenReturn(List.of(movimiento(hoy.minusDays(4).atTime(10, 0), "50", "1150.00")));
+        
+        // Act
+        reporteService.generarReporteEstadoCuenta(CLIENTE_ID, primerInicio, primerFin);
+        ReporteEstadoCuenta reporte = reporteService.generarReporteEstadoCuenta(CLIENTE_ID, segundoInicio, segundoFin);
+        
+        // Assert
+        verify(movimientoRepository).findByCuentaIdInAndFechaBetween(List.of(CUENTA_ID), primerInicio, primerFin);
+        verify(movimientoRepository).findByCuentaIdInAndFechaBetween(List.of(CUENTA_ID), faltanteInicio, segundoFin);
+        verifyNoMoreInteractions(movimientoRepository);
+        ReporteEstadoCuenta.CuentaReporte cuenta = reporte.getCuentas().get(0);
+        assertEquals(2, cuenta.getCantidadMovimientos());
+        assertEquals(0, new BigDecimal("150").compareTo(reporte.getTotalCreditos()));
+    }
+    
+    @Test
+    @DisplayName("Repetir un rango de días cerrados no debería volver a consultar la base de datos")
+    void rangoRepetidoNoDeberiaConsultarBaseDeDatos() {
+        // Arrange
+        LocalDateTime inicio = LocalDate.now().minusDays(10).atStartOfDay();
+        LocalDateTime fin = LocalDate.now().minusDays(6).atTime(LocalTime.MAX);
+        when(movimientoRepository.findByCuentaIdInAndFechaBetween(any(), any(), any())).thenReturn(List.of());
+        
+        // Act
+        reporteService.generarReporteEstadoCuenta(CLIENTE_ID, inicio, fin);
+        reporteService.generarReporteEstadoCuenta(CLIENTE_ID, inicio, fin);
+        
+        // Assert
+        verify(movimientoRepository, times(1)).findByCuentaIdInAndFechaBetween(any(), any(), any());
+    }
+    
+    private static Movimiento movimiento(LocalDateTime fecha, String valor, String saldo) {
+        Movimiento movimiento = new Movimiento();
+        movimiento.setFecha(fecha);
+        movimiento.setTipoMovimiento(TipoMovimiento.CREDITO.getDescripcion());
+        movimiento.setValor(new BigDecimal(valor));
+        movimiento.setSaldo(new BigDecimal(saldo));
+        movimiento.setCuentaId(CUENTA_ID);
+        return movimiento;
+    }
+}
@@ -0,0 +1,153 @@
+package ec.com.dinersclub.proyectobancario.support;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Cuenta las sentencias SQL que ejecuta el hilo actual, para fijar en las pruebas cuántas
+ * consultas puede emitir un flujo y detectar regresiones N+1.
+ * Se activa importando ContadorSentencias.Configuracion en una prueba con contexto de Spring,
+ * que envuelve el DataSource y cuenta cada execute de Statement, PreparedStatement o
+ * CallableStatement; un executeBatch cuenta como una sola sentencia. Solo se cuentan las
+ * sentencias del hilo que mide, así el trabajo en segundo plano no altera el resultado.
+ * 
+ */
+public final class ContadorSentencias {
+    
+    private static final ThreadLocal<AtomicInteger> CONTADOR = new ThreadLocal<>();
+    
+    private ContadorSentencias() {
+    }
+    
+    /**
+     * Ejecuta una operación y cuenta las sentencias SQL que emite.
+     * 
+     * @param operacion Operación a medir
+     * @return Sentencias ejecutadas
+     */
+    public static int contar(Runnable operacion) {
+        return medir(() -> {
+            operacion.run();
+            return null;
+        }).sentencias();
+    }
+    
+    /**
+     * Ejecuta una operación y devuelve su resultado junto con las sentencias SQL que emitió.
+     * 
+     * @param operacion Operación a medir
+     * @return Resultado de la operación y sentencias ejecutadas
+     */
+    public static <T> Medicion<T> medir(Supplier<T> operacion) {
+        AtomicInteger anterior = CONTADOR.get();
+        AtomicInteger contador = new AtomicInteger();
+        CONTADOR.set(contador);
+        try {
+            T resultado = operacion.get();
+            return new Medicion<>(resultado, contador.get());
+        } finally {
+            if (anterior != null) {
+                anterior.addAndGet(contador.get());
+                CONTADOR.set(anterior);
+            } else {
+                CONTADOR.remove();
+            }
+        }
+    }
+    
+    /**
+     * Verifica que una operación no emita más sentencias SQL que las permitidas.
+     * 
+     * @param maximo Sentencias permitidas
+     * @param descripcion Descripción de la operación para el mensaje de error
+     * @param operacion Operación a medir
+     * @return Sentencias ejecutadas
+     */
+    public static int assertSentenciasHasta(int maximo, String descripcion, Runnable operacion) {
+        int sentencias = contar(operacion);
+        assertTrue(sentencias <= maximo,
+                () -> descripcion + " ejecutó " + sentencias + " sentencias SQL; el máximo es " + maximo);
+        return sentencias;
+    }
+    
+    private static void registrarEjecucion() {
+        AtomicInteger contador = CONTADOR.get();
+        if (contador != null) {
+            contador.incrementAndGet();
+        }
+    }
+    
+    /**
+     * Resultado de una operación medida.
+     * 
+     * @param resultado Valor devuelto por la operación
+     * @param sentencias Sentencias SQL ejecutadas
+     */
+    public record Medicion<T>(T resultado, int sentencias) {
+    }
+    
+    /**
+     * Configuración de prueba que envuelve el DataSource para contar sentencias.
+     */
+    @TestConfiguration(proxyBeanMethods = false)
+    public static class Configuracion {
+        
+        @Bean
+        public static BeanPostProcessor contadorSentenciasPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && !Proxy.isProxyClass(bean.getClass())) {
+                        return envolver(DataSource.class, dataSource);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+    
+    /**
+     * Envuelve un objeto JDBC en un proxy de su interfaz. Las conexiones y sentencias que
+     * entrega también se envuelven, y cada execute de una sentencia se cuenta.
+     */
+    private static <T> T envolver(Class<T> tipo, T delegado) {
+        return tipo.cast(Proxy.newProxyInstance(ContadorSentencias.class.getClassLoader(), new Class<?>[] {tipo},
+                (proxy, metodo, argumentos) -> {
+                    if (Statement.class.isAssignableFrom(tipo) && metodo.getName().startsWith("execute")) {
+                        registrarEjecucion();
+                    }
+                    Object resultado = invocar(delegado, metodo, argumentos);
+                    Class<?> retorno = metodo.getReturnType();
+                    if (resultado != null && (retorno == Connection.class || Statement.class.isAssignableFrom(retorno))) {
+                        return envolverComo(retorno, resultado);
+                    }
+                    return resultado;
+                }));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T> T envolverComo(Class<T> tipo, Object delegado) {
+        return envolver(tipo, (T) delegado);
+    }
+    
+    private static Object invocar(Object delegado, Method metodo, Object[] argumentos) throws Throwable {
+        try {
+            return metodo.invoke(delegado, argumentos);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}